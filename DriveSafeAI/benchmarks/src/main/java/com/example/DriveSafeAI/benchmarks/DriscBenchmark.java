@@ -0,0 +1,45 @@
+package com.example.DriveSafeAI.benchmarks;
+
+import com.example.DriveSafeAI.entity.TripSummary;
+import com.example.DriveSafeAI.util.TripAggregates;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Distance-weighted DRISC over a driver's N most recent trips, as calculateDriscScore computes it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DriscBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int trips;
+
+    private List<TripSummary> recentTrips;
+
+    @Setup
+    public void setup() {
+        recentTrips = new SyntheticTrips(3).summaries(trips);
+    }
+
+    @Benchmark
+    public float driscScore() {
+        return TripAggregates.driscScore(recentTrips);
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.DriveSafeAI.benchmarks;
+
+import com.example.DriveSafeAI.entity.Role;
+import com.example.DriveSafeAI.security.JwtFilter;
+import com.example.DriveSafeAI.service.security.JWTService;
+import com.example.DriveSafeAI.service.security.LoginService;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token handling per authenticated request: issuing a token at login, the username and expiry checks
+ * done by JwtFilter, and the whole filter with the user lookup stubbed out so only token work is timed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private static final String EMAIL = "driver@example.com";
+
+    private JWTService jwtService;
+    private JwtFilter filter;
+    private StaticApplicationContext context;
+    private String token;
+
+    /** LoginService without the repository, answering every lookup with the same principal. */
+    static class StubLoginService extends LoginService {
+        private final UserDetails user = User.withUsername(EMAIL).password("x").authorities(List.of()).build();
+
+        @Override
+        public UserDetails loadUserByUsername(String email) {
+            return user;
+        }
+    }
+
+    @Setup
+    public void setup() {
+        jwtService = new JWTService();
+        token = jwtService.generateToken(EMAIL, Role.USER, 1L);
+
+        context = new StaticApplicationContext();
+        context.getBeanFactory().registerSingleton("loginService", new StubLoginService());
+        context.refresh();
+        filter = new JwtFilter();
+        ReflectionTestUtils.setField(filter, "jwtService", jwtService);
+        ReflectionTestUtils.setField(filter, "context", context);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtService.generateToken(EMAIL, Role.USER, 1L);
+    }
+
+    @Benchmark
+    public boolean extractAndValidate() {
+        String username = jwtService.extractUsername(token);
+        return jwtService.validateToken(token, username);
+    }
+
+    @Benchmark
+    public Object filterRequest() throws ServletException, IOException {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/notifications/1");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
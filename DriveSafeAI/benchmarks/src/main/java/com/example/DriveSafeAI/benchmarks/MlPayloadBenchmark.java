@@ -0,0 +1,57 @@
+package com.example.DriveSafeAI.benchmarks;
+
+import com.example.DriveSafeAI.entity.TripData;
+import com.example.DriveSafeAI.service.impl.MLModelClient;
+import com.example.DriveSafeAI.util.TripFeatureEngine;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client-side cost of MLModelClient.getDriveScoreFromList: building the /predict_batch body, and building
+ * plus serializing it to JSON as the RestTemplate converter does. The HTTP round trip itself is not measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MlPayloadBenchmark {
+
+    @Param({"600", "3600"})
+    public int samples;
+
+    private List<TripData> trip;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Setup
+    public void setup() {
+        trip = new SyntheticTrips(11).tripData(samples);
+        TripFeatureEngine.apply(trip);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> build() {
+        return MLModelClient.toPayload(trip);
+    }
+
+    @Benchmark
+    public byte[] buildAndSerialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(MLModelClient.toPayload(trip));
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.DriveSafeAI.benchmarks;
+
+import com.example.DriveSafeAI.dto.LiveTripDTO;
+import com.example.DriveSafeAI.entity.TripData;
+import com.example.DriveSafeAI.entity.TripSummary;
+import com.example.DriveSafeAI.entity.Vehicle;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeded generator of 1 Hz trips that look like the OBD feed: speed follows a bounded random walk with
+ * stops, rpm and engine load track speed and throttle, the engine warms up over the first minutes and
+ * a few percent of readings are missing, as on real devices.
+ */
+public class SyntheticTrips {
+
+    private final Random random;
+
+    // Walk state, carried across samples of one trip
+    private double speed, lat, lon, engineTemp;
+    private int second;
+
+    public SyntheticTrips(long seed) {
+        this.random = new Random(seed);
+        reset();
+    }
+
+    private void reset() {
+        speed = 0;
+        lat = 12.9 + random.nextDouble() * 0.2;
+        lon = 77.5 + random.nextDouble() * 0.2;
+        engineTemp = 35;
+        second = 0;
+    }
+
+    /** Live samples as posted to /api/live, one per second. */
+    public List<LiveTripDTO> liveSamples(String sessionId, long vehicleId, int n) {
+        reset();
+        List<LiveTripDTO> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            out.add(nextLive(sessionId, vehicleId));
+        }
+        return out;
+    }
+
+    /** TripData rows as built by processLiveTripSession, before features are applied. */
+    public List<TripData> tripData(int n) {
+        reset();
+        Vehicle vehicle = vehicle();
+        List<TripData> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            LiveTripDTO s = nextLive("bench", 1L, i);
+            TripData t = new TripData();
+            t.setSpeed(s.getSpeed() != null ? s.getSpeed().floatValue() : null);
+            t.setRpm(s.getRpm() != null ? s.getRpm().floatValue() : null);
+            t.setAcceleration(s.getAcceleration() != null ? s.getAcceleration().floatValue() : null);
+            t.setThrottlePosition(s.getThrottlePosition().floatValue());
+            t.setEngineTemperature(s.getEngineTemperature().floatValue());
+            t.setSystemVoltage(s.getSystemVoltage().floatValue());
+            t.setDistanceTravelled(s.getDistanceTravelled().floatValue());
+            t.setEngineLoadValue(s.getEngineLoadValue().floatValue());
+            t.setLatitude(s.getLatitude());
+            t.setLongitude(s.getLongitude());
+            t.setHasPrecipitation(s.getHasPrecipitation());
+            t.setIsDayTime(s.getIsDayTime());
+            t.setVisibility(s.getVisibility());
+            t.setWindSpeed(s.getWindSpeed());
+            t.setPrecipitation(s.getPrecipitation());
+            t.setDesignSpeed(s.getDesignSpeed());
+            t.setVehicle(vehicle);
+            t.setTripNo(1);
+            out.add(t);
+        }
+        return out;
+    }
+
+    /** Upload CSV in the column layout uploadTripCsv expects. */
+    public String csv(int rows) {
+        reset();
+        StringBuilder sb = new StringBuilder(rows * 80);
+        sb.append("speed,rpm,acceleration,throttle_position,engine_temperature,system_voltage,"
+                + "engine_load_value,distance_travelled,brake\n");
+        for (int i = 0; i < rows; i++) {
+            LiveTripDTO s = nextLive("csv", 1L, 0);// CSV rows are never missing readings
+            double brake = s.getAcceleration() < -0.5 ? Math.min(100, -s.getAcceleration() * 20) : 0;
+            sb.append(s.getSpeed()).append(',')
+                    .append(s.getRpm()).append(',')
+                    .append(round(s.getAcceleration())).append(',')
+                    .append(round(s.getThrottlePosition())).append(',')
+                    .append(s.getEngineTemperature()).append(',')
+                    .append(round(s.getSystemVoltage())).append(',')
+                    .append(round(s.getEngineLoadValue())).append(',')
+                    .append(round(s.getDistanceTravelled() * 1000) / 1000).append(',')
+                    .append(round(brake)).append('\n');
+        }
+        return sb.toString();
+    }
+
+    /** Recent trip summaries of one driver, newest first, as DRISC reads them. */
+    public List<TripSummary> summaries(int n) {
+        List<TripSummary> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            float distance = random.nextInt(20) == 0 ? 0f : (float) (0.5 + random.nextDouble() * 40);
+            out.add(TripSummary.builder()
+                    .tripNo(n - i)
+                    .driveScore((float) Math.max(0, Math.min(100, 75 + random.nextGaussian() * 12)))
+                    .distanceTravelled(distance)
+                    .build());
+        }
+        return out;
+    }
+
+    public static Vehicle vehicle() {
+        Vehicle vehicle = new Vehicle();
+        vehicle.setId(1L);
+        vehicle.setFleet("bench");
+        return vehicle;
+    }
+
+    private LiveTripDTO nextLive(String sessionId, long vehicleId) {
+        return nextLive(sessionId, vehicleId, second);
+    }
+
+    private LiveTripDTO nextLive(String sessionId, long vehicleId, int index) {
+        second++;
+        double previous = speed;
+        // Stop-and-go: occasional stops, otherwise drift toward a cruising speed with noise
+        double target = random.nextInt(300) == 0 ? 0 : 60 + 30 * Math.sin(second / 400.0);
+        speed = Math.max(0, Math.min(140, speed + (target - speed) * 0.02 + random.nextGaussian() * 2.5));
+        double acceleration = (speed - previous) / 3.6;
+        double throttle = Math.max(0, Math.min(100, 15 + speed * 0.4 + acceleration * 15 + random.nextGaussian() * 5));
+        engineTemp = Math.min(95 + random.nextGaussian(), engineTemp + 0.15);
+        double heading = second / 900.0;
+        lat += Math.cos(heading) * speed / 3.6 / 111_000;
+        lon += Math.sin(heading) * speed / 3.6 / 111_000;
+        boolean rainy = second % 5000 > 4200;
+        // A few percent of readings drop out, never the first of a trip
+        boolean dropout = index > 0 && random.nextInt(50) == 0;
+
+        LiveTripDTO dto = new LiveTripDTO();
+        dto.setSessionId(sessionId);
+        dto.setIdVehicle(vehicleId);
+        dto.setObservationHour(8 + second / 3600 % 12);
+        dto.setSpeed(dropout ? null : Math.round(speed));
+        dto.setRpm(dropout ? null : Math.round(800 + speed * 32 + throttle * 10 + random.nextGaussian() * 50));
+        dto.setAcceleration(dropout ? null : acceleration);
+        dto.setThrottlePosition(throttle);
+        dto.setEngineTemperature(Math.round(engineTemp));
+        dto.setSystemVoltage(13.8 + random.nextGaussian() * 0.2);
+        dto.setDistanceTravelled(speed / 3600);
+        dto.setEngineLoadValue(Math.max(0, Math.min(100, 20 + throttle * 0.6 + random.nextGaussian() * 4)));
+        dto.setLatitude(lat);
+        dto.setLongitude(lon);
+        dto.setAltitude(900L);
+        dto.setIdDriver(vehicleId);
+        dto.setHasPrecipitation(rainy ? 1 : 0);
+        dto.setIsDayTime(1);
+        dto.setTemperature(24.0);
+        dto.setWindSpeed(rainy ? 9.0 : 3.0);
+        dto.setVisibility(rainy ? 2.5 : 10.0);
+        dto.setPrecipitation(rainy ? 1.2 : 0.0);
+        dto.setDesignSpeed(second % 2400 < 600 ? 50L : 80L);
+        return dto;
+    }
+
+    private static double round(double v) {
+        return Math.round(v * 100) / 100.0;
+    }
+}
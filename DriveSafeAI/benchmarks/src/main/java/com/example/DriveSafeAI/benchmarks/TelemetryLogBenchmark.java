@@ -0,0 +1,83 @@
+package com.example.DriveSafeAI.benchmarks;
+
+import com.example.DriveSafeAI.service.impl.TelemetryLogService;
+import com.example.DriveSafeAI.util.TelemetryLog;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Appends of one serialized live sample to the telemetry log under each fsync policy. INTERVAL gets a
+ * once-a-second flusher like TelemetryLogService. Each iteration starts from an empty log so segment
+ * files do not pile up; iterations are short because the NONE case writes to disk at memory speed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 200, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 200, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(1)
+public class TelemetryLogBenchmark {
+
+    @Param({"NONE", "INTERVAL", "ALWAYS"})
+    public TelemetryLog.FsyncPolicy fsyncPolicy;
+
+    private byte[] payload;
+    private Path dir;
+    private TelemetryLog log;
+    private ScheduledExecutorService flusher;
+
+    @Setup
+    public void setup() throws IOException {
+        payload = new ObjectMapper().writeValueAsBytes(new SyntheticTrips(5).liveSamples("bench", 1L, 1).get(0));
+    }
+
+    @Setup(Level.Iteration)
+    public void open() throws IOException {
+        dir = Files.createTempDirectory("telemetry-log-bench");
+        log = new TelemetryLog(dir, 64 * 1024 * 1024, fsyncPolicy);
+        if (fsyncPolicy == TelemetryLog.FsyncPolicy.INTERVAL) {
+            flusher = Executors.newSingleThreadScheduledExecutor();
+            flusher.scheduleWithFixedDelay(log::flush, 1000, 1000, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void close() throws IOException {
+        if (flusher != null) {
+            flusher.shutdownNow();
+            flusher = null;
+        }
+        log.close();
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path p : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(p);
+            }
+        }
+    }
+
+    @Benchmark
+    public long append() {
+        return log.append(TelemetryLogService.SAMPLE, payload);
+    }
+}
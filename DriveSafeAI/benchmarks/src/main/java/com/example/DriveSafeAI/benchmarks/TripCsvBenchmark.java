@@ -0,0 +1,58 @@
+package com.example.DriveSafeAI.benchmarks;
+
+import com.example.DriveSafeAI.entity.TripData;
+import com.example.DriveSafeAI.entity.Vehicle;
+import com.example.DriveSafeAI.util.TripCsvReader;
+import com.example.DriveSafeAI.util.TripFeatureEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The CPU part of uploadTripCsv: parsing the upload into TripData rows, then parsing plus feature computation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class TripCsvBenchmark {
+
+    @Param({"1000", "100000"})
+    public int rows;
+
+    private byte[] upload;
+    private Vehicle vehicle;
+
+    @Setup
+    public void setup() {
+        upload = new SyntheticTrips(7).csv(rows).getBytes(StandardCharsets.UTF_8);
+        vehicle = SyntheticTrips.vehicle();
+    }
+
+    @Benchmark
+    public List<TripData> parse() throws IOException {
+        return TripCsvReader.read(new InputStreamReader(new ByteArrayInputStream(upload)), vehicle);
+    }
+
+    @Benchmark
+    public TripFeatureEngine.Features parseAndFeatures() throws IOException {
+        return TripFeatureEngine.apply(parse());
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.DriveSafeAI.benchmarks;
+
+import com.example.DriveSafeAI.entity.TripData;
+import com.example.DriveSafeAI.util.TripFeatureEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TripFeatureEngine from 100 samples to a million: the vectorizable column kernels alone, and the full
+ * apply() including the copy out of and back into TripData rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class TripFeatureEngineBenchmark {
+
+    @Param({"100", "10000", "1000000"})
+    public int samples;
+
+    private List<TripData> trip;
+    private TripFeatureEngine.Columns columns;
+
+    @Setup
+    public void setup() {
+        trip = new SyntheticTrips(9).tripData(samples);
+        columns = TripFeatureEngine.Columns.of(trip);
+    }
+
+    @Benchmark
+    public TripFeatureEngine.Features compute() {
+        return TripFeatureEngine.compute(columns);
+    }
+
+    @Benchmark
+    public TripFeatureEngine.Features apply() {
+        return TripFeatureEngine.apply(trip);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.DriveSafeAI.benchmarks;
+
+import com.example.DriveSafeAI.dto.LiveTripDTO;
+import com.example.DriveSafeAI.util.TripSessionBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * /api/live ingestion into the in-memory session buffer: each thread is one vehicle streaming samples,
+ * and every 30 simulated minutes its session is ended and a new one begins, as processLiveTripSession does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TripSessionBufferBenchmark {
+
+    private static final int SESSION_LENGTH = 1800;
+
+    private List<LiveTripDTO> samples;
+    private String prefix;
+    private String sessionId;
+    private int trip;
+    private int next;
+
+    @Setup
+    public void setup(ThreadParams threads) {
+        prefix = "vehicle-" + threads.getThreadIndex() + "-trip-";
+        samples = new SyntheticTrips(threads.getThreadIndex()).liveSamples(prefix, threads.getThreadIndex(), SESSION_LENGTH);
+        sessionId = prefix + trip;
+    }
+
+    @TearDown(Level.Iteration)
+    public void endOpenSession() {
+        TripSessionBuffer.endSession(sessionId);
+        next = 0;
+        sessionId = prefix + ++trip;
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void append() {
+        TripSessionBuffer.addToSession(sessionId, samples.get(next));
+        if (++next == SESSION_LENGTH) {
+            endOpenSession();
+        }
+    }
+}
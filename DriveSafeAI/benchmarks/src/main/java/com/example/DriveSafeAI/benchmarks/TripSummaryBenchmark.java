@@ -0,0 +1,46 @@
+package com.example.DriveSafeAI.benchmarks;
+
+import com.example.DriveSafeAI.entity.TripData;
+import com.example.DriveSafeAI.entity.TripSummary;
+import com.example.DriveSafeAI.util.TripAggregates;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Trip summary aggregation at the end of processLiveTripSession, for a 10 minute, 1 hour and 10 hour trip at 1 Hz.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TripSummaryBenchmark {
+
+    @Param({"600", "3600", "36000"})
+    public int samples;
+
+    private List<TripData> trip;
+
+    @Setup
+    public void setup() {
+        trip = new SyntheticTrips(42).tripData(samples);
+    }
+
+    @Benchmark
+    public TripSummary summarize() {
+        return TripAggregates.summarize(trip).build();
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.DriveSafeAI.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint latency histograms (microseconds, 3 significant digits) and error counts.
+ * Latency is measured from the time a request was scheduled to be sent, not from when it was sent,
+ * so a saturated server or client shows up as latency instead of as silently reduced load.
+ */
+public class EndpointStats {
+
+    private static final long MAX_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private static class Endpoint {
+        final Recorder recorder = new Recorder(MAX_MICROS, 3);
+        final Histogram total = new Histogram(MAX_MICROS, 3);
+        final LongAdder errors = new LongAdder();
+        long totalErrors;
+        Histogram interval;
+        long intervalErrors;
+    }
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentSkipListMap<>();
+    private long windowStartNanos = System.nanoTime();
+    private long intervalStartNanos = windowStartNanos;
+
+    public void record(String endpoint, long scheduledNanos, boolean ok) {
+        Endpoint e = endpoints.computeIfAbsent(endpoint, k -> new Endpoint());
+        e.recorder.recordValue(Math.min(MAX_MICROS, Math.max(0, (System.nanoTime() - scheduledNanos) / 1000)));
+        if (!ok) {
+            e.errors.increment();
+        }
+    }
+
+    /** Drops everything recorded so far, e.g. at the end of warmup. */
+    public synchronized void reset() {
+        for (Endpoint e : endpoints.values()) {
+            e.recorder.getIntervalHistogram();
+            e.errors.reset();
+            e.total.reset();
+            e.totalErrors = 0;
+        }
+        windowStartNanos = intervalStartNanos = System.nanoTime();
+    }
+
+    /** Folds the last interval into the totals and prints it. */
+    public synchronized void interval(PrintStream out, String label) {
+        long now = System.nanoTime();
+        double seconds = Math.max(1e-9, (now - intervalStartNanos) / 1e9);
+        intervalStartNanos = now;
+        out.println(String.format(Locale.ROOT, "-- %s", label));
+        for (Map.Entry<String, Endpoint> entry : endpoints.entrySet()) {
+            Endpoint e = entry.getValue();
+            e.interval = e.recorder.getIntervalHistogram(e.interval);
+            e.intervalErrors = e.errors.sumThenReset();
+            e.total.add(e.interval);
+            e.totalErrors += e.intervalErrors;
+            if (e.interval.getTotalCount() > 0) {
+                out.println(row(entry.getKey(), e.interval, e.intervalErrors, seconds));
+            }
+        }
+    }
+
+    /** Prints the totals since the last reset and optionally writes them as CSV. */
+    public synchronized void summary(PrintStream out, String csvFile) throws IOException {
+        interval(new PrintStream(PrintStream.nullOutputStream()), "");
+        double seconds = (System.nanoTime() - windowStartNanos) / 1e9;
+        out.println(String.format(Locale.ROOT, "== totals over %.0f s", seconds));
+        out.println(String.format(Locale.ROOT, "%-22s %9s %7s %9s %9s %9s %9s %9s",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms"));
+        List<String> csv = new ArrayList<>();
+        csv.add("endpoint,requests,errors,rps,p50_ms,p99_ms,p999_ms,max_ms");
+        for (Map.Entry<String, Endpoint> entry : endpoints.entrySet()) {
+            Endpoint e = entry.getValue();
+            Histogram h = e.total;
+            if (h.getTotalCount() == 0) {
+                continue;
+            }
+            out.println(row(entry.getKey(), h, e.totalErrors, seconds));
+            csv.add(String.format(Locale.ROOT, "%s,%d,%d,%.2f,%.3f,%.3f,%.3f,%.3f", entry.getKey(), h.getTotalCount(),
+                    e.totalErrors, h.getTotalCount() / seconds, ms(h, 50), ms(h, 99), ms(h, 99.9), h.getMaxValue() / 1000.0));
+        }
+        if (csvFile != null && !csvFile.isEmpty()) {
+            Files.write(Path.of(csvFile), csv);
+        }
+    }
+
+    private static String row(String name, Histogram h, long errors, double seconds) {
+        return String.format(Locale.ROOT, "%-22s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f", name, h.getTotalCount(), errors,
+                h.getTotalCount() / seconds, ms(h, 50), ms(h, 99), ms(h, 99.9), h.getMaxValue() / 1000.0);
+    }
+
+    private static double ms(Histogram h, double percentile) {
+        return h.getTotalCount() == 0 ? 0 : h.getValueAtPercentile(percentile) / 1000.0;
+    }
+}
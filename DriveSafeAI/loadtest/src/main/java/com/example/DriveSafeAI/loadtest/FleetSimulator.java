@@ -0,0 +1,152 @@
+package com.example.DriveSafeAI.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntFunction;
+
+/**
+ * Drives the fleet against a running DriveSafeAI instance. Every tick (1/hz seconds) each driving vehicle
+ * posts one /api/live sample at its own fixed offset within the tick, finished trips call
+ * /api/end-session, every burst interval a share of the fleet ends its trips in the same tick, and CSV
+ * uploads arrive at the configured rate. Requests are asynchronous with at most max-in-flight outstanding;
+ * when the cap is reached the schedule waits and the wait is charged to latency.
+ */
+public class FleetSimulator {
+
+    private static final String BOUNDARY = "drivesafe-loadtest-boundary";
+
+    private final LoadTestConfig config;
+    private final String baseUrl;
+    private final List<SimulatedVehicle> fleet;
+    private final IntFunction<String> tokenFor;
+    private final EndpointStats stats;
+    private final HttpClient client;
+    private final Semaphore inFlight;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Random fleetRandom;
+    private int uploads;
+
+    public FleetSimulator(LoadTestConfig config, String baseUrl, List<SimulatedVehicle> fleet,
+                          IntFunction<String> tokenFor, EndpointStats stats, HttpClient client) {
+        this.config = config;
+        this.baseUrl = baseUrl;
+        this.fleet = fleet;
+        this.tokenFor = tokenFor;
+        this.stats = stats;
+        this.client = client;
+        this.inFlight = new Semaphore(config.maxInFlight);
+        this.fleetRandom = new Random(config.seed);
+    }
+
+    /** Runs warmup plus measurement, printing interval reports, and leaves the measured totals in stats. */
+    public void run(PrintStream out) throws InterruptedException {
+        long tickNanos = (long) (1e9 / config.hz);
+        long burstTicks = Math.max(1, Math.round(config.burstIntervalSeconds * config.hz));
+        long warmupTicks = Math.round(config.warmupSeconds * config.hz);
+        long totalTicks = warmupTicks + Math.round(config.durationSeconds * config.hz);
+        long reportTicks = Math.max(1, Math.round(config.reportIntervalSeconds * config.hz));
+        double uploadsPerTick = config.csvPerMinute / 60 / config.hz;
+        double uploadCredit = 0;
+        long start = System.nanoTime();
+
+        for (long tick = 0; tick < totalTicks; tick++) {
+            long tickStart = start + tick * tickNanos;
+            if (tick == warmupTicks) {
+                stats.reset();
+                out.println("-- warmup done, measuring for " + config.durationSeconds + " s");
+            } else if (tick > 0 && tick % reportTicks == 0) {
+                stats.interval(out, String.format("t=%.0f s%s", tick / config.hz, tick < warmupTicks ? " (warmup)" : ""));
+            }
+            boolean burst = tick > 0 && tick % burstTicks == 0;
+
+            for (SimulatedVehicle vehicle : fleet) {
+                long scheduled = tickStart + tickNanos * vehicle.index() / fleet.size();
+                waitUntil(scheduled);
+                if (burst && fleetRandom.nextDouble() < config.burstFraction && vehicle.forceEnd()) {
+                    endSession(vehicle, scheduled);
+                    continue;
+                }
+                switch (vehicle.step()) {
+                    case SAMPLE -> live(vehicle, scheduled);
+                    case END -> endSession(vehicle, scheduled);
+                    default -> { }
+                }
+            }
+
+            uploadCredit += uploadsPerTick;
+            while (uploadCredit >= 1) {
+                uploadCredit--;
+                upload(tickStart);
+            }
+        }
+        inFlight.acquire(config.maxInFlight);// drain outstanding requests
+        inFlight.release(config.maxInFlight);
+    }
+
+    private void live(SimulatedVehicle vehicle, long scheduled) throws InterruptedException {
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(vehicle.sample());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+        send("POST /api/live", scheduled, request("/api/live", vehicle.index())
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body)));
+    }
+
+    private void endSession(SimulatedVehicle vehicle, long scheduled) throws InterruptedException {
+        send("POST /api/end-session", scheduled, request("/api/end-session/" + vehicle.sessionId(), vehicle.index())
+                .timeout(Duration.ofSeconds(60))
+                .POST(HttpRequest.BodyPublishers.noBody()));
+    }
+
+    private void upload(long scheduled) throws InterruptedException {
+        int uploadNo = uploads++;
+        SimulatedVehicle owner = fleet.get(fleetRandom.nextInt(fleet.size()));
+        // A separate walk per upload, so uploads do not disturb the live vehicle's state
+        String csv = new SimulatedVehicle(fleet.size() + uploadNo, owner.vehicleId(), "csv", config).csv(config.csvRows);
+        String body = "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"trip-" + uploadNo + ".csv\"\r\n"
+                + "Content-Type: text/csv\r\n\r\n"
+                + csv + "\r\n--" + BOUNDARY + "--\r\n";
+        send("POST /api/upload-trips", scheduled, request("/api/upload-trips/" + owner.vehicleId(), owner.index())
+                .timeout(Duration.ofSeconds(120))
+                .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+                .POST(HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8)));
+    }
+
+    private HttpRequest.Builder request(String path, int vehicleIndex) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + tokenFor.apply(vehicleIndex));
+    }
+
+    private void send(String endpoint, long scheduled, HttpRequest.Builder request) throws InterruptedException {
+        inFlight.acquire();
+        client.sendAsync(request.build(), HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    inFlight.release();
+                    stats.record(endpoint, scheduled, error == null && response.statusCode() < 400);
+                });
+    }
+
+    private static void waitUntil(long nanos) {
+        long delay;
+        while ((delay = nanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(delay);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.DriveSafeAI.loadtest;
+
+import com.example.DriveSafeAI.DriveSafeAiApplication;
+import com.example.DriveSafeAI.dto.LoginRequestDTO;
+import com.example.DriveSafeAI.dto.UserRegisterDTO;
+import com.example.DriveSafeAI.dto.UserResponseDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * End-to-end load test: starts the ML stub, starts DriveSafeAI in-process on the embedded profile unless
+ * --base-url points at a running instance, registers the fleet, then runs {@link FleetSimulator} and prints
+ * throughput and p50/p99/p999 per endpoint. With "startup" as the first argument it runs
+ * {@link StartupBenchmark} instead.
+ */
+public class LoadTest {
+
+    // Tokens live ten minutes (JWTService); refresh well before that
+    private static final long TOKEN_REFRESH_MINUTES = 8;
+    private static final String PASSWORD = "loadtest-password";
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("startup")) {
+            StartupBenchmark.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        EndpointStats stats = new EndpointStats();
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+
+        try (MlStubServer mlStub = new MlStubServer(config.mlPort, config.mlLatencyMs, config.mlLatencySigma,
+                config.mlErrorRate, config.seed, stats)) {
+            System.out.println("ML stub listening on " + mlStub.baseUrl());
+            if (config.mlStubOnly) {
+                Thread.currentThread().join();
+            }
+
+            ConfigurableApplicationContext app = config.baseUrl.isEmpty()
+                    ? SpringApplication.run(DriveSafeAiApplication.class, "--spring.profiles.active=embedded",
+                            "--server.port=0", "--ml.api.base-url=" + mlStub.baseUrl())
+                    : null;
+            String baseUrl = app != null
+                    ? "http://localhost:" + ((WebServerApplicationContext) app).getWebServer().getPort()
+                    : config.baseUrl;
+            System.out.println("Target " + baseUrl);
+
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .executor(Executors.newFixedThreadPool(4))
+                    .build();
+            ObjectMapper objectMapper = new ObjectMapper();
+
+            long setupStarted = System.nanoTime();
+            List<SimulatedVehicle> fleet = register(config, baseUrl, runId, client, objectMapper, stats);
+            AtomicReferenceArray<String> tokens = new AtomicReferenceArray<>(config.logins);
+            login(config, baseUrl, runId, client, objectMapper, stats, tokens);
+            System.out.printf("Registered %d vehicles and %d logins in %.1f s%n", fleet.size(), config.logins,
+                    (System.nanoTime() - setupStarted) / 1e9);
+            stats.summary(System.out, null);
+            stats.reset();
+
+            ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor();
+            refresher.scheduleWithFixedDelay(() -> {
+                try {
+                    login(config, baseUrl, runId, client, objectMapper, stats, tokens);
+                } catch (Exception e) {
+                    System.err.println("Token refresh failed: " + e);
+                }
+            }, TOKEN_REFRESH_MINUTES, TOKEN_REFRESH_MINUTES, TimeUnit.MINUTES);
+
+            System.out.printf("Driving %d vehicles at %.2f Hz: %d s warmup, %d s measured%n",
+                    fleet.size(), config.hz, config.warmupSeconds, config.durationSeconds);
+            new FleetSimulator(config, baseUrl, fleet, i -> tokens.get(i % config.logins), stats, client).run(System.out);
+            refresher.shutdownNow();
+            stats.summary(System.out, config.out);
+
+            if (app != null) {
+                app.close();
+            }
+        }
+        System.exit(0);
+    }
+
+    private static List<SimulatedVehicle> register(LoadTestConfig config, String baseUrl, String runId, HttpClient client,
+                                                   ObjectMapper objectMapper, EndpointStats stats) throws Exception {
+        Semaphore inFlight = new Semaphore(config.maxInFlight);
+        List<CompletableFuture<UserResponseDTO>> pending = new ArrayList<>();
+        for (int i = 0; i < config.vehicles; i++) {
+            UserRegisterDTO dto = new UserRegisterDTO("Load Driver " + i, email(runId, i), "LT-" + runId + "-" + i,
+                    PASSWORD, "CH-" + runId + "-" + i, "LT-" + i, "Simulated", "DriveSafeAI", "fleet-" + (i % 20));
+            inFlight.acquire();
+            long scheduled = System.nanoTime();
+            pending.add(client.sendAsync(post(baseUrl + "/api/register", objectMapper.writeValueAsBytes(dto)),
+                            HttpResponse.BodyHandlers.ofByteArray())
+                    .thenApply(response -> {
+                        stats.record("POST /api/register", scheduled, response.statusCode() < 400);
+                        if (response.statusCode() >= 400) {
+                            throw new IllegalStateException("Registration failed with HTTP " + response.statusCode());
+                        }
+                        try {
+                            return objectMapper.readValue(response.body(), UserResponseDTO.class);
+                        } catch (IOException e) {
+                            throw new IllegalStateException(e);
+                        }
+                    })
+                    .whenComplete((r, e) -> inFlight.release()));
+        }
+        List<SimulatedVehicle> fleet = new ArrayList<>(config.vehicles);
+        for (int i = 0; i < config.vehicles; i++) {
+            fleet.add(new SimulatedVehicle(i, pending.get(i).join().getVehicleId(), runId, config));
+        }
+        return fleet;
+    }
+
+    private static void login(LoadTestConfig config, String baseUrl, String runId, HttpClient client,
+                              ObjectMapper objectMapper, EndpointStats stats, AtomicReferenceArray<String> tokens) throws Exception {
+        for (int i = 0; i < config.logins; i++) {
+            LoginRequestDTO dto = new LoginRequestDTO();
+            dto.setEmail(email(runId, i % config.vehicles));
+            dto.setPassword(PASSWORD);
+            long scheduled = System.nanoTime();
+            HttpResponse<String> response = client.send(post(baseUrl + "/api/login", objectMapper.writeValueAsBytes(dto)),
+                    HttpResponse.BodyHandlers.ofString());
+            stats.record("POST /api/login", scheduled, response.statusCode() < 400);
+            if (response.statusCode() >= 400) {
+                throw new IllegalStateException("Login failed with HTTP " + response.statusCode());
+            }
+            tokens.set(i, response.body());
+        }
+    }
+
+    private static HttpRequest post(String url, byte[] json) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(60))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(json))
+                .build();
+    }
+
+    private static String email(String runId, int i) {
+        return "driver-" + runId + "-" + i + "@loadtest.invalid";
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.DriveSafeAI.loadtest;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Load-test settings from --key=value arguments; every key has a laptop-sized default.
+ */
+public class LoadTestConfig {
+
+    private static final Set<String> KEYS = Set.of("base-url", "seed", "vehicles", "hz",
+            "duration-s", "warmup-s", "report-interval-s", "max-in-flight", "logins", "trip-median-s", "trip-sigma",
+            "park-median-s", "burst-interval-s", "burst-fraction", "csv-per-min", "csv-rows", "ml-port",
+            "ml-latency-ms", "ml-latency-sigma", "ml-error-rate", "ml-stub-only", "out");
+
+    // Target: empty starts the application in-process on the embedded profile
+    public String baseUrl = "";
+    public long seed = 42;
+    public int vehicles = 1000;
+    public double hz = 1.0;
+    public int durationSeconds = 300;
+    public int warmupSeconds = 30;
+    public int reportIntervalSeconds = 10;
+    public int maxInFlight = 512;
+    public int logins = 16;
+
+    // Trips: log-normal lengths and parking gaps, plus periodic end-of-trip bursts (arrivals at a depot)
+    public int tripMedianSeconds = 600;
+    public double tripSigma = 0.5;
+    public int parkMedianSeconds = 120;
+    public int burstIntervalSeconds = 60;
+    public double burstFraction = 0.05;
+
+    // Bulk CSV uploads from the fleet back office
+    public double csvPerMinute = 2;
+    public int csvRows = 1800;
+
+    // ML stub
+    public int mlPort = 0;
+    public double mlLatencyMs = 40;
+    public double mlLatencySigma = 0.4;
+    public double mlErrorRate = 0.0;
+    public boolean mlStubOnly = false;
+
+    public String out = "";
+
+    public static LoadTestConfig parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --key=value, got " + arg);
+            }
+            int eq = arg.indexOf('=');
+            values.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        LoadTestConfig c = new LoadTestConfig();
+        c.baseUrl = values.getOrDefault("base-url", c.baseUrl);
+        c.seed = Long.parseLong(values.getOrDefault("seed", String.valueOf(c.seed)));
+        c.vehicles = integer(values, "vehicles", c.vehicles);
+        c.hz = decimal(values, "hz", c.hz);
+        c.durationSeconds = integer(values, "duration-s", c.durationSeconds);
+        c.warmupSeconds = integer(values, "warmup-s", c.warmupSeconds);
+        c.reportIntervalSeconds = integer(values, "report-interval-s", c.reportIntervalSeconds);
+        c.maxInFlight = integer(values, "max-in-flight", c.maxInFlight);
+        c.logins = integer(values, "logins", c.logins);
+        c.tripMedianSeconds = integer(values, "trip-median-s", c.tripMedianSeconds);
+        c.tripSigma = decimal(values, "trip-sigma", c.tripSigma);
+        c.parkMedianSeconds = integer(values, "park-median-s", c.parkMedianSeconds);
+        c.burstIntervalSeconds = integer(values, "burst-interval-s", c.burstIntervalSeconds);
+        c.burstFraction = decimal(values, "burst-fraction", c.burstFraction);
+        c.csvPerMinute = decimal(values, "csv-per-min", c.csvPerMinute);
+        c.csvRows = integer(values, "csv-rows", c.csvRows);
+        c.mlPort = integer(values, "ml-port", c.mlPort);
+        c.mlLatencyMs = decimal(values, "ml-latency-ms", c.mlLatencyMs);
+        c.mlLatencySigma = decimal(values, "ml-latency-sigma", c.mlLatencySigma);
+        c.mlErrorRate = decimal(values, "ml-error-rate", c.mlErrorRate);
+        c.mlStubOnly = Boolean.parseBoolean(values.getOrDefault("ml-stub-only", String.valueOf(c.mlStubOnly)));
+        c.out = values.getOrDefault("out", c.out);
+        values.keySet().removeAll(KEYS);
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options " + values.keySet());
+        }
+        if (c.vehicles < 1 || c.hz <= 0 || c.logins < 1 || c.maxInFlight < 1) {
+            throw new IllegalArgumentException("vehicles, hz, logins and max-in-flight must be positive");
+        }
+        return c;
+    }
+
+    private static int integer(Map<String, String> values, String key, int fallback) {
+        return values.containsKey(key) ? Integer.parseInt(values.get(key)) : fallback;
+    }
+
+    private static double decimal(Map<String, String> values, String key, double fallback) {
+        return values.containsKey(key) ? Double.parseDouble(values.get(key)) : fallback;
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.DriveSafeAI.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Stand-in for the Python ML service: /predict_batch and /predict answer with a drive score after a
+ * log-normal delay around the configured median, and fail with HTTP 500 at the configured rate.
+ * Scores and faults come from a seeded generator; served requests are recorded as "ml /predict_batch".
+ */
+public class MlStubServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final EndpointStats stats;
+    private final double latencyMs;
+    private final double latencySigma;
+    private final double errorRate;
+    private final SplittableRandom random;
+
+    public MlStubServer(int port, double latencyMs, double latencySigma, double errorRate, long seed,
+                        EndpointStats stats) throws IOException {
+        this.latencyMs = latencyMs;
+        this.latencySigma = latencySigma;
+        this.errorRate = errorRate;
+        this.random = new SplittableRandom(seed);
+        this.stats = stats;
+        // Delays are slept on the handler thread, so the pool bounds how many predictions run at once
+        this.executor = Executors.newFixedThreadPool(64);
+        this.server = HttpServer.create(new InetSocketAddress("localhost", port), 256);
+        server.createContext("/predict_batch", exchange -> handle(exchange, "ml /predict_batch"));
+        server.createContext("/predict", exchange -> handle(exchange, "ml /predict"));
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange, String name) throws IOException {
+        long started = System.nanoTime();
+        boolean fail;
+        double delay, score;
+        synchronized (random) {
+            fail = random.nextDouble() < errorRate;
+            delay = latencyMs * Math.exp(latencySigma * gaussian());
+            score = Math.max(0, Math.min(100, 75 + 12 * gaussian()));
+        }
+        try (InputStream in = exchange.getRequestBody()) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        try {
+            Thread.sleep((long) delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        String body = fail
+                ? "{\"error\":\"injected failure\"}"
+                : String.format(Locale.ROOT, "{\"driveScore\":%.2f,\"riskScore\":%.2f,\"riskCategory\":\"%s\",\"inputMethod\":\"stub\"}",
+                score, 100 - score, score >= 80 ? "LOW" : score >= 60 ? "MEDIUM" : "HIGH");
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(fail ? 500 : 200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+        stats.record(name, started, !fail);
+    }
+
+    // Box-Muller; SplittableRandom has no nextGaussian on Java 17
+    private double gaussian() {
+        double u = 1 - random.nextDouble(), v = random.nextDouble();
+        return Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * v);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.DriveSafeAI.loadtest;
+
+import com.example.DriveSafeAI.dto.LiveTripDTO;
+
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * One vehicle of the simulated fleet: alternates between trips and parking with log-normal durations
+ * and, while driving, produces one OBD sample per tick from a bounded speed random walk.
+ * Everything is derived from the vehicle's own seeded generator, so a run is reproducible per vehicle.
+ */
+public class SimulatedVehicle {
+
+    public enum Action { NONE, SAMPLE, END }
+
+    private final int index;
+    private final long vehicleId;
+    private final String runId;
+    private final LoadTestConfig config;
+    private final Random random;
+
+    private boolean driving;
+    private long remainingTicks;
+    private int tripNo;
+    private int samplesInTrip;
+    private String sessionId;
+
+    private double speed, lat, lon, engineTemp;
+    private long tick;
+
+    public SimulatedVehicle(int index, long vehicleId, String runId, LoadTestConfig config) {
+        this.index = index;
+        this.vehicleId = vehicleId;
+        this.runId = runId;
+        this.config = config;
+        this.random = new Random(config.seed * 1_000_003L + index);
+        lat = 12.85 + random.nextDouble() * 0.3;
+        lon = 77.45 + random.nextDouble() * 0.3;
+        // Start in steady state: driving with the fleet-wide probability, part-way through a trip or a stop
+        double drivingShare = (double) config.tripMedianSeconds / (config.tripMedianSeconds + config.parkMedianSeconds);
+        if (random.nextDouble() < drivingShare) {
+            startTrip();
+            remainingTicks = 1 + (long) (random.nextDouble() * remainingTicks);
+        } else {
+            park();
+            remainingTicks = 1 + (long) (random.nextDouble() * remainingTicks);
+        }
+    }
+
+    /** Advances one tick and says what the vehicle sends. */
+    public Action step() {
+        tick++;
+        if (!driving) {
+            if (--remainingTicks > 0) {
+                return Action.NONE;
+            }
+            startTrip();
+        }
+        if (--remainingTicks <= 0 && samplesInTrip > 0) {
+            park();
+            return Action.END;
+        }
+        samplesInTrip++;
+        return Action.SAMPLE;
+    }
+
+    /** Ends the current trip now, as in an end-of-shift burst; only trips with a couple of samples sent qualify. */
+    public boolean forceEnd() {
+        if (!driving || samplesInTrip < 2) {
+            return false;
+        }
+        park();
+        return true;
+    }
+
+    public String sessionId() {
+        return sessionId;
+    }
+
+    public long vehicleId() {
+        return vehicleId;
+    }
+
+    public int index() {
+        return index;
+    }
+
+    public LiveTripDTO sample() {
+        double previous = speed;
+        double target = random.nextInt(240) == 0 ? 0 : 55 + 35 * Math.sin((tick + index * 97) / 500.0);
+        speed = Math.max(0, Math.min(140, speed + (target - speed) * 0.03 + random.nextGaussian() * 2.5));
+        double dt = 1 / config.hz;
+        double acceleration = (speed - previous) / 3.6 / dt;
+        double throttle = Math.max(0, Math.min(100, 15 + speed * 0.4 + acceleration * 12 + random.nextGaussian() * 5));
+        engineTemp = Math.min(95 + random.nextGaussian(), Math.max(engineTemp, 40) + 0.1 * dt);
+        double heading = (tick + index) / 600.0;
+        lat += Math.cos(heading) * speed / 3.6 * dt / 111_000;
+        lon += Math.sin(heading) * speed / 3.6 * dt / 111_000;
+        boolean rainy = (tick / 3000 + index) % 7 == 0;
+
+        LiveTripDTO dto = new LiveTripDTO();
+        dto.setSessionId(sessionId);
+        dto.setIdVehicle(vehicleId);
+        dto.setIdDriver(vehicleId);
+        dto.setObservationHour((int) (8 + tick / 3600 % 12));
+        dto.setSpeed(Math.round(speed));
+        dto.setRpm(Math.round(800 + speed * 32 + throttle * 10 + random.nextGaussian() * 50));
+        dto.setAcceleration(acceleration);
+        dto.setThrottlePosition(throttle);
+        dto.setEngineTemperature(Math.round(engineTemp));
+        dto.setSystemVoltage(13.8 + random.nextGaussian() * 0.2);
+        dto.setDistanceTravelled(speed * dt / 3600);
+        dto.setEngineLoadValue(Math.max(0, Math.min(100, 20 + throttle * 0.6 + random.nextGaussian() * 4)));
+        dto.setLatitude(lat);
+        dto.setLongitude(lon);
+        dto.setAltitude(900L);
+        dto.setHasPrecipitation(rainy ? 1 : 0);
+        dto.setIsDayTime(1);
+        dto.setTemperature(24.0);
+        dto.setWindSpeed(rainy ? 9.0 : 3.0);
+        dto.setVisibility(rainy ? 2.5 : 10.0);
+        dto.setPrecipitation(rainy ? 1.2 : 0.0);
+        return dto;
+    }
+
+    /** A trip log in the upload CSV layout, driven by this vehicle's walk. */
+    public String csv(int rows) {
+        StringBuilder sb = new StringBuilder(rows * 72);
+        sb.append("speed,rpm,acceleration,throttle_position,engine_temperature,system_voltage,"
+                + "engine_load_value,distance_travelled,brake\n");
+        for (int i = 0; i < rows; i++) {
+            tick++;
+            LiveTripDTO s = sample();
+            double brake = s.getAcceleration() < -0.5 ? Math.min(100, -s.getAcceleration() * 20) : 0;
+            sb.append(String.format(Locale.ROOT, "%d,%d,%.2f,%.2f,%d,%.2f,%.2f,%.5f,%.2f\n", s.getSpeed(), s.getRpm(),
+                    s.getAcceleration(), s.getThrottlePosition(), s.getEngineTemperature(), s.getSystemVoltage(),
+                    s.getEngineLoadValue(), s.getDistanceTravelled(), brake));
+        }
+        return sb.toString();
+    }
+
+    private void startTrip() {
+        driving = true;
+        tripNo++;
+        samplesInTrip = 0;
+        sessionId = runId + "-v" + index + "-t" + tripNo;
+        remainingTicks = ticks(config.tripMedianSeconds, config.tripSigma);
+    }
+
+    private void park() {
+        driving = false;
+        remainingTicks = ticks(config.parkMedianSeconds, 0.8);
+    }
+
+    private long ticks(double medianSeconds, double sigma) {
+        return Math.max(2, Math.round(medianSeconds * Math.exp(sigma * random.nextGaussian()) * config.hz));
+    }
+}
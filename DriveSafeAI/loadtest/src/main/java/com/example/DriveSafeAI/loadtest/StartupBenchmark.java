@@ -0,0 +1,199 @@
+package com.example.DriveSafeAI.loadtest;
+
+import com.example.DriveSafeAI.dto.LoginRequestDTO;
+import com.example.DriveSafeAI.dto.UserRegisterDTO;
+import com.example.DriveSafeAI.dto.UserResponseDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold-start benchmark: starts the application command given after "--" several times, each on a free port,
+ * and records the time from process launch to the first HTTP response and to the first /api/live sample
+ * accepted with HTTP 200. Each run registers a fresh driver first, so the live time includes one BCrypt
+ * register and login, as a device's first contact after a deploy would.
+ */
+public class StartupBenchmark {
+
+    private static final String PASSWORD = "startup-password";
+    private static final long POLL_MILLIS = 10;
+
+    public static void main(String[] args) throws Exception {
+        int separator = Arrays.asList(args).indexOf("--");
+        if (separator < 0 || separator == args.length - 1) {
+            throw new IllegalArgumentException("Usage: startup [--runs=5] [--timeout-s=120] [--out=file.csv] "
+                    + "-- <command starting the application>");
+        }
+        int runs = 5;
+        long timeoutSeconds = 120;
+        String out = "";
+        for (String arg : Arrays.copyOfRange(args, 0, separator)) {
+            int eq = arg.indexOf('=');
+            String key = eq > 2 && arg.startsWith("--") ? arg.substring(2, eq) : arg;
+            String value = eq > 2 ? arg.substring(eq + 1) : "";
+            switch (key) {
+                case "runs" -> runs = Integer.parseInt(value);
+                case "timeout-s" -> timeoutSeconds = Long.parseLong(value);
+                case "out" -> out = value;
+                default -> throw new IllegalArgumentException("Unknown option " + arg);
+            }
+        }
+        List<String> command = List.of(Arrays.copyOfRange(args, separator + 1, args.length));
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(2))
+                .build();
+        long[] firstResponse = new long[runs];
+        long[] firstLive = new long[runs];
+        for (int run = 0; run < runs; run++) {
+            long[] times = run(command, client, run, timeoutSeconds);
+            firstResponse[run] = times[0];
+            firstLive[run] = times[1];
+            System.out.printf("run %d: first response %d ms, first accepted /api/live %d ms%n", run + 1, times[0], times[1]);
+        }
+        report(System.out, firstResponse, firstLive);
+        if (!out.isEmpty()) {
+            try (PrintStream csv = new PrintStream(out)) {
+                csv.println("run,first_response_ms,first_live_ms");
+                for (int run = 0; run < runs; run++) {
+                    csv.println((run + 1) + "," + firstResponse[run] + "," + firstLive[run]);
+                }
+            }
+        }
+        System.exit(0);
+    }
+
+    // Returns {ms to first response, ms to first accepted /api/live}, both from process launch
+    private static long[] run(List<String> command, HttpClient client, int run, long timeoutSeconds) throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        List<String> argv = new ArrayList<>(command);
+        argv.add("--server.port=" + port);
+        Path log = Files.createTempFile("drivesafe-startup-", ".log");
+        String baseUrl = "http://localhost:" + port;
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        long launched = System.nanoTime();
+        Process app = new ProcessBuilder(argv).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+        long deadline = launched + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        try {
+            String email = "startup-" + Long.toString(System.currentTimeMillis(), 36) + "-" + run + "@loadtest.invalid";
+            String plate = "ST-" + Long.toString(System.currentTimeMillis(), 36) + "-" + run;
+
+            // Health is public, so the first answer of any kind means the server is listening
+            poll(client, app, log, deadline, HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/health")).GET().build());
+            long firstResponse = System.nanoTime();
+
+            UserRegisterDTO user = new UserRegisterDTO("Startup Driver", email, plate, PASSWORD,
+                    "CH-" + plate, plate, "Simulated", "DriveSafeAI", "startup");
+            HttpResponse<String> registered = expectOk(poll(client, app, log, deadline,
+                    post(baseUrl + "/api/register", objectMapper.writeValueAsBytes(user), null)), "register");
+            long vehicleId = objectMapper.readValue(registered.body(), UserResponseDTO.class).getVehicleId();
+            LoginRequestDTO login = new LoginRequestDTO();
+            login.setEmail(email);
+            login.setPassword(PASSWORD);
+            String token = expectOk(poll(client, app, log, deadline,
+                    post(baseUrl + "/api/login", objectMapper.writeValueAsBytes(login), null)), "login").body();
+
+            SimulatedVehicle vehicle = new SimulatedVehicle(run, vehicleId, "startup", new LoadTestConfig());
+            while (vehicle.step() != SimulatedVehicle.Action.SAMPLE) {
+                // parked at the start; drive off
+            }
+            byte[] sample = objectMapper.writeValueAsBytes(vehicle.sample());
+            while (true) {
+                HttpResponse<String> live = poll(client, app, log, deadline, post(baseUrl + "/api/live", sample, token));
+                if (live.statusCode() == 200) {
+                    long firstLive = System.nanoTime();
+                    return new long[]{
+                            TimeUnit.NANOSECONDS.toMillis(firstResponse - launched),
+                            TimeUnit.NANOSECONDS.toMillis(firstLive - launched)};
+                }
+                Thread.sleep(POLL_MILLIS);
+            }
+        } finally {
+            app.destroy();
+            if (!app.waitFor(30, TimeUnit.SECONDS)) {
+                app.destroyForcibly().waitFor();
+            }
+            Files.deleteIfExists(log);
+        }
+    }
+
+    // Retries while the port is closed; fails if the application exits or the deadline passes first
+    private static HttpResponse<String> poll(HttpClient client, Process app, Path log, long deadline,
+                                             HttpRequest request) throws Exception {
+        while (true) {
+            if (!app.isAlive()) {
+                throw new IllegalStateException("Application exited with " + app.exitValue() + ":\n" + tail(log));
+            }
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("No answer from " + request.uri() + " before the timeout:\n" + tail(log));
+            }
+            try {
+                return client.send(request, HttpResponse.BodyHandlers.ofString());
+            } catch (ConnectException e) {
+                Thread.sleep(POLL_MILLIS);
+            }
+        }
+    }
+
+    private static HttpResponse<String> expectOk(HttpResponse<String> response, String step) {
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException(step + " failed with HTTP " + response.statusCode() + ": " + response.body());
+        }
+        return response;
+    }
+
+    private static HttpRequest post(String url, byte[] json, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(60))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(json));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    private static void report(PrintStream out, long[] firstResponse, long[] firstLive) {
+        out.printf("%-26s %8s %8s %8s%n", "over " + firstResponse.length + " runs (ms)", "min", "median", "max");
+        out.printf("%-26s %8d %8d %8d%n", "first response", min(firstResponse), median(firstResponse), max(firstResponse));
+        out.printf("%-26s %8d %8d %8d%n", "first accepted /api/live", min(firstLive), median(firstLive), max(firstLive));
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private static long min(long[] values) {
+        return Arrays.stream(values).min().orElse(0);
+    }
+
+    private static long max(long[] values) {
+        return Arrays.stream(values).max().orElse(0);
+    }
+
+    private static String tail(Path log) throws IOException {
+        List<String> lines = Files.readAllLines(log);
+        return String.join("\n", lines.subList(Math.max(0, lines.size() - 30), lines.size()));
+    }
+}
@@ -1,13 +1,38 @@
 package com.example.DriveSafeAI;
 
+import com.example.DriveSafeAI.controller.LiveTelemetryController;
+import com.example.DriveSafeAI.service.impl.TelemetryLogConsumer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.LazyInitializationExcludeFilter;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
 
 @SpringBootApplication
+@EnableScheduling
 public class DriveSafeAiApplication {
 
 	public static void main(String[] args) {
 		SpringApplication.run(DriveSafeAiApplication.class, args);
 	}
 
+	/**
+	 * With spring.main.lazy-initialization (the fast-startup profile) these beans are still created at startup:
+	 * the /api/live ingest path, the log consumers, metric binders and anything with @Scheduled methods,
+	 * whose schedules are only registered when the bean is created. Their dependencies are created with them, so
+	 * they must not inject services that are meant to stay lazy (DriveSafeMetrics reads those only once created).
+	 */
+	@Bean
+	static LazyInitializationExcludeFilter eagerIngestAndBackgroundBeans() {
+		return (beanName, beanDefinition, beanType) -> LiveTelemetryController.class.isAssignableFrom(beanType)
+				|| TelemetryLogConsumer.class.isAssignableFrom(beanType)
+				|| MeterBinder.class.isAssignableFrom(beanType)
+				|| !MethodIntrospector.selectMethods(beanType, (MethodIntrospector.MetadataLookup<Boolean>) method ->
+						AnnotatedElementUtils.hasAnnotation(method, Scheduled.class) ? Boolean.TRUE : null).isEmpty();
+	}
+
 }
@@ -0,0 +1,75 @@
+package com.example.DriveSafeAI.controller;
+
+import com.example.DriveSafeAI.dto.DriscRecomputeJobDTO;
+import com.example.DriveSafeAI.dto.ReratingJobDTO;
+import com.example.DriveSafeAI.service.impl.FleetDriscRecomputeJob;
+import com.example.DriveSafeAI.service.impl.PortfolioReratingJob;
+import com.example.DriveSafeAI.service.impl.TripExportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Admin-only (see SecurityConfig): portfolio-wide batch jobs and bulk extracts
+@RestController
+@RequestMapping("/v1/admin")
+public class AdminJobsController {
+
+    @Autowired
+    private PortfolioReratingJob reratingJob;
+
+    @Autowired
+    private FleetDriscRecomputeJob driscRecomputeJob;
+
+    @Autowired
+    private TripExportService exportService;
+
+    // Portfolio re-rating batch: starts in the background and is polled by job id
+    @PostMapping("/rerating")
+    public ResponseEntity<ReratingJobDTO> startRerating(@RequestParam(defaultValue = "false") boolean dryRun,
+                                                        @RequestParam(required = false) Long partitionSize) {
+        return ResponseEntity.ok(reratingJob.start(dryRun, partitionSize));
+    }
+
+    @GetMapping("/rerating/{jobId}")
+    public ResponseEntity<ReratingJobDTO> getRerating(@PathVariable Long jobId) {
+        return ResponseEntity.ok(reratingJob.status(jobId));
+    }
+
+    @PostMapping("/rerating/{jobId}/resume")
+    public ResponseEntity<ReratingJobDTO> resumeRerating(@PathVariable Long jobId) {
+        return ResponseEntity.ok(reratingJob.resume(jobId));
+    }
+
+    // Recompute DRISC for every driver with a new trip window N, polled by job id
+    @PostMapping("/drisc-score/recompute")
+    public ResponseEntity<DriscRecomputeJobDTO> recomputeDriscScores(@RequestParam Long N) {
+        return ResponseEntity.ok(driscRecomputeJob.start(N.intValue()));
+    }
+
+    @GetMapping("/drisc-score/recompute/{jobId}")
+    public ResponseEntity<DriscRecomputeJobDTO> getDriscRecompute(@PathVariable Long jobId) {
+        return ResponseEntity.ok(driscRecomputeJob.status(jobId));
+    }
+
+    // Bulk trip-summary / trip-data extract as an Arrow IPC stream; resume an interrupted one with afterId = last id read
+    @GetMapping("/export/{dataset}")
+    public ResponseEntity<StreamingResponseBody> exportTrips(
+            @PathVariable String dataset,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) List<Long> vehicleIds,
+            @RequestParam(defaultValue = "0") long afterId) {
+        TripExportService.Dataset d = TripExportService.Dataset.fromPath(dataset);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/vnd.apache.arrow.stream"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + d.path + "-after-" + afterId + ".arrows\"")
+                .body(exportService.export(d, from, to, vehicleIds, afterId));
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.DriveSafeAI.controller;
+
+import com.example.DriveSafeAI.dto.ProfilingStatusDTO;
+import com.example.DriveSafeAI.service.impl.ProfilingService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Callable;
+
+// Admin-only (see SecurityConfig): bounded JFR recordings of the running service
+@RestController
+@RequestMapping("/v1/admin/profiling")
+public class AdminProfilingController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdminProfilingController.class);
+
+    @Autowired
+    private ProfilingService profilingService;
+
+    @PostMapping("/start")
+    public ResponseEntity<ProfilingStatusDTO> start(@RequestParam(defaultValue = "default") String settings,
+                                                    @RequestParam(defaultValue = "60") long maxSeconds,
+                                                    @RequestParam(defaultValue = "100") long maxSizeMb) {
+        return ResponseEntity.ok(profilingService.start(settings, maxSeconds, maxSizeMb));
+    }
+
+    @GetMapping("/status")
+    public ResponseEntity<ProfilingStatusDTO> status() {
+        return ResponseEntity.ok(profilingService.status());
+    }
+
+    // Stops the recording and downloads the .jfr file, which is deleted once sent
+    @PostMapping("/stop")
+    public ResponseEntity<StreamingResponseBody> stop(HttpServletRequest request) throws IOException {
+        Path file = profilingService.stop();
+        // The body may never run (client gone, async timeout), so also delete the file when the request completes
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(file, new CallableProcessingInterceptor() {
+            @Override
+            public <T> void afterCompletion(NativeWebRequest webRequest, Callable<T> task) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    logger.warn("Could not delete JFR recording {}", file, e);
+                }
+            }
+        });
+        StreamingResponseBody body = out -> {
+            WritableByteChannel target = Channels.newChannel(out);
+            try (FileChannel source = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.DELETE_ON_CLOSE)) {
+                long position = 0, size = source.size();
+                while (position < size) {
+                    position += source.transferTo(position, size - position, target);
+                }
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .contentLength(Files.size(file))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + file.getFileName() + "\"")
+                .body(body);
+    }
+}
@@ -5,14 +5,34 @@ import com.example.DriveSafeAI.dao.VehicleRepository;
 import com.example.DriveSafeAI.dto.*;
 import com.example.DriveSafeAI.entity.Vehicle;
 import com.example.DriveSafeAI.service.DriveSafeService;
+import com.example.DriveSafeAI.service.impl.ClaimVerificationService;
+import com.example.DriveSafeAI.service.impl.DriverDashboardService;
+import com.example.DriveSafeAI.service.impl.DriverFingerprintService;
+import com.example.DriveSafeAI.service.impl.LeaderboardService;
 import com.example.DriveSafeAI.service.impl.MLModelClient;
-import com.example.DriveSafeAI.util.TripSessionBuffer;
+import com.example.DriveSafeAI.service.impl.PopulationAnalyticsService;
+import com.example.DriveSafeAI.service.impl.ReportService;
+import com.example.DriveSafeAI.service.impl.ResourceVersionService;
+import com.example.DriveSafeAI.service.impl.RiskHeatmapService;
+import com.example.DriveSafeAI.service.impl.TripSeriesService;
+import com.example.DriveSafeAI.service.impl.VehicleHealthMonitor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.security.Principal;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 
@@ -20,6 +40,13 @@ import java.util.stream.Collectors;
 @RequestMapping("/api")
 public class DriveSafeController {
 
+    // Trips and claims change whenever a trip ends or a claim is verified, so clients revalidate every time;
+    // the premium moves with the daily DRISC score and the user profile practically never
+    private static final CacheControl TRIPS_CACHE = CacheControl.noCache().cachePrivate();
+    private static final CacheControl CLAIMS_CACHE = CacheControl.noCache().cachePrivate();
+    private static final CacheControl PREMIUM_CACHE = CacheControl.maxAge(Duration.ofMinutes(5)).cachePrivate();
+    private static final CacheControl USER_CACHE = CacheControl.maxAge(Duration.ofHours(1)).cachePrivate();
+
     @Autowired
     private DriveSafeService driveSafeService;
 
@@ -31,6 +58,36 @@ public class DriveSafeController {
     @Autowired
     private MLModelClient mlClient;
 
+    @Autowired
+    private RiskHeatmapService riskHeatmapService;
+
+    @Autowired
+    private ResourceVersionService resourceVersions;
+
+    @Autowired
+    private ClaimVerificationService claimVerificationService;
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private PopulationAnalyticsService analyticsService;
+
+    @Autowired
+    private DriverDashboardService dashboardService;
+
+    @Autowired
+    private TripSeriesService tripSeriesService;
+
+    @Autowired
+    private VehicleHealthMonitor vehicleHealthMonitor;
+
+    @Autowired
+    private DriverFingerprintService fingerprintService;
+
     // 1️⃣ Register new user + vehicle
     @PostMapping("/register")
     public ResponseEntity<UserResponseDTO> registerUser(@RequestBody UserRegisterDTO dto) {
@@ -72,8 +129,12 @@ public class DriveSafeController {
 
     // 6️⃣ Calculate premium based on DriscScore and risk category
     @GetMapping("/insurance/premium/{userId}")
-    public ResponseEntity<PremiumCalculationDTO> calculatePremium(@PathVariable Long userId) {
-        return ResponseEntity.ok(driveSafeService.calculatePremium(userId));
+    public ResponseEntity<PremiumCalculationDTO> calculatePremium(@PathVariable Long userId, WebRequest request) {
+        String etag = resourceVersions.premiumETag(userId);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(PREMIUM_CACHE).body(driveSafeService.calculatePremium(userId));
     }
 
     // 7️⃣ File an insurance claim
@@ -84,8 +145,18 @@ public class DriveSafeController {
 
     // 8️⃣ Get all claims for a policy
    @GetMapping("/insurance/claim/{policyId}")
-    public ResponseEntity<List<InsuranceClaimDTO>> getClaimsByPolicy(@PathVariable Long policyId) {
-        return ResponseEntity.ok(driveSafeService.getClaimsByPolicy(policyId));
+    public ResponseEntity<List<InsuranceClaimDTO>> getClaimsByPolicy(@PathVariable Long policyId, WebRequest request) {
+        String etag = resourceVersions.claimsETag(policyId);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CLAIMS_CACHE).body(driveSafeService.getClaimsByPolicy(policyId));
+    }
+
+    // Re-run the telemetry check for a claim, e.g. after late-arriving trip data
+    @PostMapping("/insurance/claim/{claimId}/verify")
+    public ResponseEntity<ClaimVerificationDTO> verifyClaim(@PathVariable Long claimId) {
+        return ResponseEntity.ok(claimVerificationService.verify(claimId));
     }
 //Adding CSV Upload Endpoint
 @PostMapping("/upload-trips/{vehicleId}")
@@ -94,12 +165,6 @@ public ResponseEntity<String> uploadTrips(@RequestParam("file") MultipartFile fi
     return ResponseEntity.ok(driveSafeService.uploadTripCsv(file, vehicleId));
 }
 
-    @PostMapping("/live")
-    public ResponseEntity<String> receiveLiveTrip(@RequestBody LiveTripDTO dto) {
-        TripSessionBuffer.addToSession(dto.getSessionId(), dto);
-        return ResponseEntity.ok("Received one data point for session: " + dto.getSessionId());
-    }
-
     @PostMapping("/end-session/{sessionId}")
     public ResponseEntity<TripResponseDTO> endSession(@PathVariable String sessionId) {
         return ResponseEntity.ok(driveSafeService.processLiveTripSession(sessionId));
@@ -107,8 +172,12 @@ public ResponseEntity<String> uploadTrips(@RequestParam("file") MultipartFile fi
 
 //get user
 @GetMapping("/user/{userId}")
-public ResponseEntity<UserResponseDTO> getUserById(@PathVariable Long userId) {
-    return ResponseEntity.ok(driveSafeService.getUserById(userId));
+public ResponseEntity<UserResponseDTO> getUserById(@PathVariable Long userId, WebRequest request) {
+    String etag = resourceVersions.userETag(userId);
+    if (request.checkNotModified(etag)) {
+        return null;
+    }
+    return ResponseEntity.ok().eTag(etag).cacheControl(USER_CACHE).body(driveSafeService.getUserById(userId));
 }
 
     @GetMapping("/rewards/{userId}")
@@ -116,18 +185,141 @@ public ResponseEntity<UserResponseDTO> getUserById(@PathVariable Long userId) {
         return ResponseEntity.ok(driveSafeService.getTotalRewardPoints(userId));
     }
 
+    // Harsh events detected while trips were in progress
+    @GetMapping("/driving-events/{userId}")
+    public ResponseEntity<List<DrivingEventDTO>> getDrivingEvents(@PathVariable Long userId) {
+        return ResponseEntity.ok(driveSafeService.getDrivingEvents(userId));
+    }
+
+    // Portfolio risk heatmap tile; clients revalidate with If-None-Match and get 304 for unchanged tiles
+    @GetMapping("/heatmap/{precision}/{prefix}")
+    public ResponseEntity<HeatmapTileDTO> getHeatmapTile(@PathVariable int precision, @PathVariable String prefix,
+                                                         WebRequest request) {
+        String etag = riskHeatmapService.tileETag(precision, prefix);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.maxAge(Duration.ofSeconds(60)).cachePrivate())
+                .body(riskHeatmapService.getTile(precision, prefix));
+    }
+
+    // PDF reports, rendered in the background and streamed from the report cache
+    @GetMapping("/reports/trips/{userId}")
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> getTripReport(
+            @PathVariable Long userId, @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return reportService.tripReport(userId).thenApply(r -> pdfResponse(r, "trip-report-" + userId + ".pdf", ifNoneMatch));
+    }
+
+    @GetMapping("/reports/policy/{policyId}")
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> getPolicyStatement(
+            @PathVariable Long policyId, @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return reportService.policyStatement(policyId).thenApply(r -> pdfResponse(r, "policy-statement-" + policyId + ".pdf", ifNoneMatch));
+    }
+
+    private static ResponseEntity<StreamingResponseBody> pdfResponse(ReportService.Report report, String filename, String ifNoneMatch) {
+        String etag = "\"" + report.version + "\"";
+        if (etag.equals(ifNoneMatch)) {
+            report.close();
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_PDF)
+                .contentLength(report.size())
+                .eTag(etag)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(report::transferTo);
+    }
+
+    // Leaderboards by "drisc" or "points", globally or within a fleet
+    @GetMapping("/leaderboard/{metric}")
+    public ResponseEntity<LeaderboardDTO> getLeaderboard(@PathVariable String metric,
+                                                         @RequestParam(required = false) String fleet,
+                                                         @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(leaderboardService.top(metric, fleet, Math.min(limit, 100)));
+    }
+
+    @GetMapping("/leaderboard/{metric}/user/{userId}")
+    public ResponseEntity<LeaderboardDTO> getLeaderboardAround(@PathVariable String metric, @PathVariable Long userId,
+                                                               @RequestParam(required = false) String fleet,
+                                                               @RequestParam(defaultValue = "2") int radius) {
+        return ResponseEntity.ok(leaderboardService.around(metric, fleet, userId, Math.min(radius, 50)));
+    }
+
+    // Population analytics from the quantile sketches: "better than X% of drivers" and distributions
+    @GetMapping("/analytics/{metric}/percentile")
+    public ResponseEntity<PercentileRankDTO> getPercentileRank(
+            @PathVariable String metric, @RequestParam double value, @RequestParam(required = false) String fleet,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate day) {
+        return ResponseEntity.ok(analyticsService.percentileRank(metric, value, fleet, day));
+    }
+
+    @GetMapping("/analytics/{metric}/distribution")
+    public ResponseEntity<DistributionDTO> getDistribution(
+            @PathVariable String metric, @RequestParam(required = false) String fleet,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(analyticsService.distribution(metric, fleet, from, to));
+    }
+
+    // Everything the driver dashboard shows in one call: profile, DRISC, rewards, unread count, recent trips
+    @GetMapping("/dashboard/{userId}")
+    public ResponseEntity<DriverDashboardDTO> getDashboard(@PathVariable Long userId) {
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate()).body(dashboardService.dashboard(userId));
+    }
+
+    // One trip's telemetry for charts, downsampled to at most `points`: min/max/avg buckets or an LTTB line.
+    // A finished trip's samples never change, so the series can be cached
+    @GetMapping("/trips/{vehicleId}/{tripNo}/series")
+    public ResponseEntity<TripSeriesDTO> getTripSeries(@PathVariable Long vehicleId, @PathVariable Integer tripNo,
+                                                       @RequestParam(defaultValue = "speed") String metric,
+                                                       @RequestParam(defaultValue = "500") int points,
+                                                       @RequestParam(defaultValue = TripSeriesService.MINMAX) String mode) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofHours(1)).cachePrivate())
+                .body(tripSeriesService.series(vehicleId, tripNo, metric, points, mode));
+    }
+
+    // Learned engine temperature / voltage baselines, alerts active right now and the latest health alerts
+    @GetMapping("/vehicle-health/{vehicleId}")
+    public ResponseEntity<VehicleHealthDTO> getVehicleHealth(@PathVariable Long vehicleId) {
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate()).body(vehicleHealthMonitor.health(vehicleId));
+    }
+
+    // Which enrolled driver each recent trip of the policy was attributed to; flagged trips matched none
+    @GetMapping("/driver-match/{policyId}")
+    public ResponseEntity<List<DriverMatchDTO>> getDriverMatches(@PathVariable Long policyId,
+                                                                 @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(fingerprintService.matches(policyId, Math.min(limit, 500)));
+    }
+
+    // Enrolls a driver on the policy from one of their trips, or confirms who drove a flagged trip
+    @PostMapping("/driver-match/{policyId}/enroll")
+    public ResponseEntity<DriverMatchDTO> enrollDriver(@PathVariable Long policyId, @RequestParam Long vehicleId,
+                                                       @RequestParam Integer tripNo, @RequestParam String driver,
+                                                       Principal principal) {
+        return ResponseEntity.ok(fingerprintService.enroll(policyId, vehicleId, tripNo, driver, principal.getName()));
+    }
+
     //trip summary endpoint
     @GetMapping("/trip-summary/{userId}")
-    public List<TripSummaryDTO> getTripSummaries(@PathVariable Long userId) {
+    public ResponseEntity<List<TripSummaryDTO>> getTripSummaries(@PathVariable Long userId, WebRequest request) {
+        String etag = resourceVersions.tripSummariesETag(userId);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         Long vehicleId = vehicleRepository.findById(userId)
                 .map(Vehicle::getId)
                 .orElseThrow(() -> new RuntimeException("Vehicle not found"));
-        return TripSummaryRepository.findByVehicleId(vehicleId).stream()
+        List<TripSummaryDTO> summaries = TripSummaryRepository.findByVehicleId(vehicleId).stream()
                 .map(s -> new TripSummaryDTO(
                         s.getTripNo(), s.getDriveScore(), s.getMaxSpeed(), s.getAvgSpeed(),
-                        s.getMaxAcceleration(), s.getDistanceTravelled(), s.getIsRainy(), s.getIsDay()
+                        s.getMaxAcceleration(), s.getDistanceTravelled(), s.getIsRainy(), s.getIsDay(),
+                        s.getHotspotRisk()
                 ))
                 .collect(Collectors.toList());
+        return ResponseEntity.ok().eTag(etag).cacheControl(TRIPS_CACHE).body(summaries);
     }
 
 
@@ -0,0 +1,23 @@
+package com.example.DriveSafeAI.controller;
+
+import com.example.DriveSafeAI.dto.LiveTripDTO;
+import com.example.DriveSafeAI.service.impl.TelemetryLogService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+// The ingest path on its own, so it is ready as soon as the log is, without the scoring and reporting services
+@RestController
+@RequestMapping("/api")
+public class LiveTelemetryController {
+
+    @Autowired
+    private TelemetryLogService telemetryLogService;
+
+    @PostMapping("/live")
+    public ResponseEntity<String> receiveLiveTrip(@RequestBody LiveTripDTO dto) {
+        // Durably appended; session assembly picks it up from the log
+        telemetryLogService.appendSample(dto);
+        return ResponseEntity.ok("Received one data point for session: " + dto.getSessionId());
+    }
+}
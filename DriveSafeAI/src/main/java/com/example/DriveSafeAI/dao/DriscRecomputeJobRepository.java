@@ -0,0 +1,7 @@
+package com.example.DriveSafeAI.dao;
+
+import com.example.DriveSafeAI.entity.DriscRecomputeJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface DriscRecomputeJobRepository extends JpaRepository<DriscRecomputeJob, Long> {
+}
@@ -4,6 +4,8 @@ import com.example.DriveSafeAI.entity.DriscScore;
 
 import com.example.DriveSafeAI.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -11,4 +13,7 @@ import java.util.Optional;
 public interface DriscScoreRepository extends JpaRepository<DriscScore, Long> {
    // List<DriscScore> findByVehicle_Id(Long vehicleId);
     Optional<DriscScore> findTopByUseridOrderByCalculatedAtDesc(User userid);
+
+    @Query("SELECT MAX(d.id) FROM DriscScore d WHERE d.userid.id = :userId")
+    Long findLatestIdByUserId(@Param("userId") Long userId);
 }
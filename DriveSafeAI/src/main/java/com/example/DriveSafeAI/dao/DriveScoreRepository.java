@@ -1,11 +1,18 @@
 package com.example.DriveSafeAI.dao;
 
 import com.example.DriveSafeAI.entity.DriveScore;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
 public interface DriveScoreRepository extends JpaRepository<DriveScore, Long> {
     List<DriveScore> findTop10ByVehicleIdOrderByCreatedAtDesc(Long vehicleId);
+
+    // id and reward points only, newest first, without loading the trip rows
+    @Query("SELECT d.id, d.rewardPoints FROM DriveScore d WHERE d.vehicle.id = :vehicleId ORDER BY d.createdAt DESC, d.id DESC")
+    List<Object[]> findRecentRewardsByVehicleId(@Param("vehicleId") Long vehicleId, Pageable pageable);
 }
 
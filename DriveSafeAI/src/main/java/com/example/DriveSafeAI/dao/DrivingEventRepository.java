@@ -0,0 +1,16 @@
+package com.example.DriveSafeAI.dao;
+
+import com.example.DriveSafeAI.entity.DrivingEvent;
+import com.example.DriveSafeAI.entity.DrivingEventType;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface DrivingEventRepository extends JpaRepository<DrivingEvent, Long> {
+    List<DrivingEvent> findByVehicleIdOrderByDetectedAtDesc(Long vehicleId);
+    List<DrivingEvent> findBySessionId(String sessionId);
+    long countBySessionId(String sessionId);
+    long countByVehicleIdAndEventTypeAndDetectedAtBetween(Long vehicleId, DrivingEventType eventType,
+                                                          LocalDateTime from, LocalDateTime to);
+}
@@ -2,10 +2,15 @@ package com.example.DriveSafeAI.dao;
 
 import com.example.DriveSafeAI.entity.InsuranceClaim;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
 public interface InsuranceClaimRepository extends JpaRepository<InsuranceClaim, Long> {
     List<InsuranceClaim> findByPolicyId(Long policyId);
+
+    @Query("SELECT COUNT(c) AS total, MAX(c.id) AS lastId, MAX(c.updatedAt) AS lastModified FROM InsuranceClaim c WHERE c.policy.id = :policyId")
+    VersionStamp findVersionByPolicyId(@Param("policyId") Long policyId);
 }
 
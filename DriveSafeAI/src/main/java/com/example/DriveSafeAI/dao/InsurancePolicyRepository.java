@@ -4,12 +4,24 @@ import com.example.DriveSafeAI.entity.DriscScore;
 import com.example.DriveSafeAI.entity.InsurancePolicy;
 import com.example.DriveSafeAI.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface InsurancePolicyRepository extends JpaRepository<InsurancePolicy, Long> {
     Optional<InsurancePolicy> findByPolicyNumber(String policyNumber);
     Optional<InsurancePolicy> findByVehicleId(Long vehicleId);
+
+    @Query("SELECT p.id FROM InsurancePolicy p WHERE p.vehicle.user.id = :userId")
+    Optional<Long> findIdByVehicleUserId(@Param("userId") Long userId);
+
+    // What a cached premium quote was rated from: policy id, its terms and the user's latest DRISC snapshot id
+    @Query("SELECT p.id, p.policyNumber, p.coverageType, p.basePremium, p.coverageAmount, p.policyStartDate, p.policyEndDate, "
+            + "(SELECT MAX(d.id) FROM DriscScore d WHERE d.userid.id = :userId) "
+            + "FROM InsurancePolicy p WHERE p.vehicle.user.id = :userId")
+    List<Object[]> findQuoteStampByUserId(@Param("userId") Long userId);
 }
 
 
@@ -2,10 +2,15 @@ package com.example.DriveSafeAI.dao;
 
 import com.example.DriveSafeAI.entity.Notification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
     List<Notification> findByUserId(Long userId);
+
+    @Query("SELECT COUNT(n) AS total, MAX(n.id) AS lastId FROM Notification n WHERE n.user.id = :userId AND n.isRead = false")
+    VersionStamp findUnreadByUserId(@Param("userId") Long userId);
 }
 
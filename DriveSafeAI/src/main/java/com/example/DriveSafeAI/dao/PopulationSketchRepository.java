@@ -0,0 +1,13 @@
+package com.example.DriveSafeAI.dao;
+
+import com.example.DriveSafeAI.entity.PopulationSketch;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface PopulationSketchRepository extends JpaRepository<PopulationSketch, Long> {
+    Optional<PopulationSketch> findByMetricAndFleetAndPeriod(String metric, String fleet, String period);
+    List<PopulationSketch> findByPeriodIn(Collection<String> periods);
+}
@@ -0,0 +1,10 @@
+package com.example.DriveSafeAI.dao;
+
+import com.example.DriveSafeAI.entity.ReratingCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface ReratingCheckpointRepository extends JpaRepository<ReratingCheckpoint, Long> {
+    List<ReratingCheckpoint> findByJobId(Long jobId);
+}
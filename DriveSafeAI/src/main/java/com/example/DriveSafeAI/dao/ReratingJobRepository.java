@@ -0,0 +1,7 @@
+package com.example.DriveSafeAI.dao;
+
+import com.example.DriveSafeAI.entity.ReratingJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ReratingJobRepository extends JpaRepository<ReratingJob, Long> {
+}
@@ -0,0 +1,11 @@
+package com.example.DriveSafeAI.dao;
+
+import com.example.DriveSafeAI.entity.RiskHeatmapCell;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface RiskHeatmapCellRepository extends JpaRepository<RiskHeatmapCell, Long> {
+    List<RiskHeatmapCell> findByPrecisionLevelAndGeohashIn(Integer precisionLevel, Collection<String> geohashes);
+}
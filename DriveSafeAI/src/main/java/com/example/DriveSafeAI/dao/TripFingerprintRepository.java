@@ -0,0 +1,15 @@
+package com.example.DriveSafeAI.dao;
+
+import com.example.DriveSafeAI.entity.TripFingerprint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface TripFingerprintRepository extends JpaRepository<TripFingerprint, Long> {
+    // What the policy's index is built from: only trips attributed to a driver
+    List<TripFingerprint> findByPolicyIdAndDriverIsNotNullOrderByIdAsc(Long policyId);
+    List<TripFingerprint> findByPolicyIdOrderByIdDesc(Long policyId, Pageable pageable);
+    Optional<TripFingerprint> findByVehicleIdAndTripNo(Long vehicleId, Integer tripNo);
+}
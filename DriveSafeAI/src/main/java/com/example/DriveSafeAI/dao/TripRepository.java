@@ -13,5 +13,7 @@ public interface TripRepository extends JpaRepository<TripData, Long> {
     @Query("SELECT MAX(t.tripNo) FROM TripData t WHERE t.vehicle.id = :vehicleId")
     Integer findMaxTripNoByVehicleId(@Param("vehicleId") Long vehicleId);
 
+    List<TripData> findByVehicleIdAndTripNoOrderByIdAsc(Long vehicleId, Integer tripNo);
+
 }
 
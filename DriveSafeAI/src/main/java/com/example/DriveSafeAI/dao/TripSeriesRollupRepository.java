@@ -0,0 +1,19 @@
+package com.example.DriveSafeAI.dao;
+
+import com.example.DriveSafeAI.entity.TripSeriesRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface TripSeriesRollupRepository extends JpaRepository<TripSeriesRollup, Long> {
+
+    // Levels of a trip without their payloads: {bucketSize, bucketCount}, finest first
+    @Query("SELECT r.bucketSize, r.bucketCount FROM TripSeriesRollup r " +
+            "WHERE r.vehicleId = :vehicleId AND r.tripNo = :tripNo ORDER BY r.bucketSize")
+    List<Object[]> findLevels(@Param("vehicleId") Long vehicleId, @Param("tripNo") Integer tripNo);
+
+    Optional<TripSeriesRollup> findByVehicleIdAndTripNoAndBucketSize(Long vehicleId, Integer tripNo, Integer bucketSize);
+}
@@ -4,11 +4,20 @@ package com.example.DriveSafeAI.dao;
 import com.example.DriveSafeAI.entity.TripSummary;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface TripSummaryRepository extends JpaRepository<TripSummary, Long> {
     List<TripSummary> findByVehicleId(Long vehicleId);
     TripSummary findByVehicleIdAndTripNo(Long vehicleId, Integer tripNo);
     List<TripSummary> findTopNByVehicleIdOrderByIdDesc(Long vehicleId, Pageable pageable);
+    long countByVehicleId(Long vehicleId);
+    Optional<TripSummary> findTopByVehicleIdOrderByIdDesc(Long vehicleId);
+
+    // Summaries are only ever added, so count and newest id identify the list
+    @Query("SELECT COUNT(s) AS total, MAX(s.id) AS lastId FROM TripSummary s WHERE s.vehicle.id = :vehicleId")
+    VersionStamp findVersionByVehicleId(@Param("vehicleId") Long vehicleId);
 }
\ No newline at end of file
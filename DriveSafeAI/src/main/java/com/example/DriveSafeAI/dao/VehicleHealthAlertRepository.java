@@ -0,0 +1,11 @@
+package com.example.DriveSafeAI.dao;
+
+import com.example.DriveSafeAI.entity.VehicleHealthAlert;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface VehicleHealthAlertRepository extends JpaRepository<VehicleHealthAlert, Long> {
+    List<VehicleHealthAlert> findByVehicleIdOrderByIdDesc(Long vehicleId, Pageable pageable);
+}
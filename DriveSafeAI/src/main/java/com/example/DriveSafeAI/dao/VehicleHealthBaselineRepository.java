@@ -0,0 +1,14 @@
+package com.example.DriveSafeAI.dao;
+
+import com.example.DriveSafeAI.entity.VehicleHealthBaseline;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface VehicleHealthBaselineRepository extends JpaRepository<VehicleHealthBaseline, Long> {
+    List<VehicleHealthBaseline> findByVehicleIdIn(Collection<Long> vehicleIds);
+    Slice<VehicleHealthBaseline> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+}
@@ -1,11 +1,20 @@
 package com.example.DriveSafeAI.dao;
 
 import com.example.DriveSafeAI.entity.Vehicle;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
 public interface VehicleRepository extends JpaRepository<Vehicle, Long> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Vehicle>findByUserId(Long userId);
+
+    @Query("SELECT v.id FROM Vehicle v WHERE v.user.id = :userId")
+    Optional<Long> findIdByUserId(@Param("userId") Long userId);
 }
 
@@ -0,0 +1,13 @@
+package com.example.DriveSafeAI.dao;
+
+import java.time.LocalDateTime;
+
+/**
+ * Aggregate over the rows behind a response (count, newest id, latest update), used to build its ETag
+ * without loading the rows. Queries leave out the columns they have no use for; those read as null.
+ */
+public interface VersionStamp {
+    long getTotal();
+    Long getLastId();
+    LocalDateTime getLastModified();
+}
@@ -0,0 +1,22 @@
+package com.example.DriveSafeAI.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ClaimVerificationDTO {
+    public String claimNumber;
+    public String status;
+    public Float peakDeceleration;
+    public Float speedAtIncident;
+    public Integer telemetrySamples;
+    public Integer harshBrakingEvents;
+    public LocalDateTime windowStart;
+    public LocalDateTime windowEnd;
+    public Long lookupMillis;
+}
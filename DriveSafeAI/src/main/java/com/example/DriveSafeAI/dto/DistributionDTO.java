@@ -0,0 +1,23 @@
+package com.example.DriveSafeAI.dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@Data
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class DistributionDTO {
+    public String metric;
+    public String fleet;
+    public LocalDate from;// null for all time
+    public LocalDate to;
+    public Long sampleCount;
+    public Double mean;
+    public Double min;
+    public Double max;
+    public Map<String, Double> quantiles;// "p50" -> value
+}
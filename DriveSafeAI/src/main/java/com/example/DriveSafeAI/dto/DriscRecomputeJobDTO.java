@@ -0,0 +1,21 @@
+package com.example.DriveSafeAI.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class DriscRecomputeJobDTO {
+    public Long jobId;
+    public String status;
+    public Integer tripWindow;
+    public Long usersScored;
+    public Double usersPerSecond;
+    public String error;
+    public LocalDateTime startedAt;
+    public LocalDateTime finishedAt;
+}
@@ -0,0 +1,23 @@
+package com.example.DriveSafeAI.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class DriverDashboardDTO {
+    public Long userId;
+    public String fullName;
+    public Long vehicleId;
+    public String vehicleNo;
+    public Float driscScore;// null until the first DRISC calculation
+    public LocalDateTime driscCalculatedAt;
+    public Integer rewardPoints;// same window as /api/rewards: the last 10 scored trips
+    public Long unreadNotifications;
+    public List<TripSummaryDTO> recentTrips;// newest first
+}
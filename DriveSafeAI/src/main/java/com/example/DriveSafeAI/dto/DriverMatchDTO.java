@@ -0,0 +1,22 @@
+package com.example.DriveSafeAI.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class DriverMatchDTO {
+    public Long policyId;
+    public Long vehicleId;
+    public Integer tripNo;
+    public String driver;// null when the trip matched none of the enrolled drivers
+    public Boolean enrolled;
+    public Boolean flagged;
+    public Float distance;
+    public Float threshold;
+    public LocalDateTime createdAt;
+}
@@ -0,0 +1,19 @@
+package com.example.DriveSafeAI.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class DrivingEventDTO {
+    public String sessionId;
+    public String eventType;
+    public Float severity;
+    public Double latitude;
+    public Double longitude;
+    public LocalDateTime detectedAt;
+}
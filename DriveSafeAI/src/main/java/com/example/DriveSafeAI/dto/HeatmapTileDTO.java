@@ -0,0 +1,21 @@
+package com.example.DriveSafeAI.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+// Columnar tile body: entry i of every array describes cells.get(i)
+@Data
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class HeatmapTileDTO {
+    public Integer precision;
+    public String prefix;
+    public List<String> cells;
+    public long[] harshEvents;
+    public long[] speedingSamples;
+    public long[] samples;
+    public float[] avgSpeedRisk;
+}
@@ -2,6 +2,7 @@ package com.example.DriveSafeAI.dto;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import lombok.*;
 @Data
 @Getter
@@ -17,4 +18,6 @@ public class InsuranceClaimDTO {
     public LocalDate incidentDate;
     public BigDecimal claimAmount;
     public String description;
+    public LocalDateTime incidentAt;
+    public String verificationStatus;
 }
@@ -0,0 +1,18 @@
+package com.example.DriveSafeAI.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class LeaderboardDTO {
+    public String metric;
+    public String fleet;
+    public Integer totalDrivers;
+    public Integer userRank;// only for neighbour queries
+    public List<LeaderboardEntryDTO> entries;
+}
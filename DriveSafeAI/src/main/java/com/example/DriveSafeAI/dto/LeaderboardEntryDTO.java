@@ -0,0 +1,15 @@
+package com.example.DriveSafeAI.dto;
+
+import lombok.*;
+
+@Data
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class LeaderboardEntryDTO {
+    public Integer rank;
+    public Long userId;
+    public String fullName;
+    public Double score;
+}
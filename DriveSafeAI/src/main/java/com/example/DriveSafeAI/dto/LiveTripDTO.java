@@ -40,4 +40,6 @@ public class LiveTripDTO {
     public Long accidentsOnsite;
     public Long designSpeed;
     public Long accidentsTime;
+    // Set by the server when the sample is appended to the telemetry log (epoch millis)
+    public Long receivedAt;
 }
@@ -0,0 +1,17 @@
+package com.example.DriveSafeAI.dto;
+
+import lombok.*;
+
+@Data
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class PercentileRankDTO {
+    public String metric;
+    public String fleet;
+    public String period;
+    public Double value;
+    public Double percentileRank;// share of the population at or below value, 0-100
+    public Long sampleCount;
+}
@@ -21,4 +21,5 @@ public class PremiumCalculationDTO {
     public String policyNumber;
     public Float driscScore;
     public Float finalPremium;
+    public String riskCategory;
 }
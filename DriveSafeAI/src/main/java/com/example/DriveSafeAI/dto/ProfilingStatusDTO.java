@@ -0,0 +1,19 @@
+package com.example.DriveSafeAI.dto;
+
+import lombok.*;
+
+import java.time.Instant;
+
+@Data
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProfilingStatusDTO {
+    public String state;// NONE, RUNNING or STOPPED
+    public String settings;
+    public Instant startedAt;
+    public Long maxSeconds;
+    public Long maxSizeMb;
+    public Long recordedBytes;
+}
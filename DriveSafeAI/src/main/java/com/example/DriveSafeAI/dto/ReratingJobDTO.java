@@ -0,0 +1,26 @@
+package com.example.DriveSafeAI.dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReratingJobDTO {
+    public Long jobId;
+    public String status;
+    public Boolean dryRun;
+    public Integer totalPartitions;
+    public Integer completedPartitions;
+    public Long policiesRated;
+    public Long policiesSkipped;
+    public BigDecimal premiumDelta;
+    public Double policiesPerSecond;
+    public String error;
+    public LocalDateTime startedAt;
+    public LocalDateTime finishedAt;
+}
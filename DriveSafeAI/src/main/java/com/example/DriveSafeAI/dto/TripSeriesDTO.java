@@ -0,0 +1,22 @@
+package com.example.DriveSafeAI.dto;
+
+import lombok.*;
+
+@Data
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class TripSeriesDTO {
+    public Long vehicleId;
+    public Integer tripNo;
+    public String metric;
+    public String mode;// "minmax" or "lttb"
+    public Integer sampleCount;// rows in the trip
+    public Integer samplesPerPoint;// bucket width the points were taken from
+    public int[] x;// sample index within the trip: first sample of the bucket (minmax) or its middle (lttb)
+    public Float[] min;// minmax only; null where the bucket has no value
+    public Float[] max;
+    public Float[] avg;
+    public Float[] y;// lttb only
+}
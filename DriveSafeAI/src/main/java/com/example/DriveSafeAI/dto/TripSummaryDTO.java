@@ -16,4 +16,5 @@ public class TripSummaryDTO {
     private Float distanceTravelled;
     private Boolean isRainy;
     private Boolean isDay;
+    private Float hotspotRisk;
 }
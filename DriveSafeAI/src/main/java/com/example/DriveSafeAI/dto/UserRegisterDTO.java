@@ -16,4 +16,5 @@ public class UserRegisterDTO {
     public String vehicleNo;
     public String model;
     public String manufacturer;
+    public String fleet;
 }
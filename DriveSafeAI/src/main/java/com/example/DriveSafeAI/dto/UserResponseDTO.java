@@ -11,5 +11,6 @@ public class UserResponseDTO {
     public String email;
     public String vehicleNo;
     public String fullName;
+    public Long vehicleId;
 }
 
@@ -0,0 +1,20 @@
+package com.example.DriveSafeAI.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class VehicleHealthAlertDTO {
+    public String sessionId;
+    public String alertType;
+    public Float reading;
+    public Float baseline;
+    public Double latitude;
+    public Double longitude;
+    public LocalDateTime detectedAt;
+}
@@ -0,0 +1,19 @@
+package com.example.DriveSafeAI.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class VehicleHealthDTO {
+    public Long vehicleId;
+    public Float engineTemperatureBaseline;// null until the vehicle has reported the signal
+    public Float systemVoltageBaseline;
+    public Integer baselineSamples;// engine temperature samples learned, up to the warm-up count; alerts on drift start there
+    public List<String> activeAlerts;
+    public List<VehicleHealthAlertDTO> recentAlerts;// newest first
+}
@@ -0,0 +1,5 @@
+package com.example.DriveSafeAI.entity;
+
+public enum ClaimVerificationStatus {
+    CORROBORATED, NO_IMPACT_FOUND, NO_TELEMETRY
+}
@@ -0,0 +1,33 @@
+package com.example.DriveSafeAI.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "drisc_recompute_job")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class DriscRecomputeJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    private JobStatus status = JobStatus.RUNNING;
+
+    private Integer tripWindow;// the insurer's N
+    private Long usersScored = 0L;
+    private Double usersPerSecond;
+    private String error;
+
+    private LocalDateTime startedAt = LocalDateTime.now();
+    private LocalDateTime finishedAt;
+}
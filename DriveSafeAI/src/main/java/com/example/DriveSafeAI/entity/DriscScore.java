@@ -1,5 +1,7 @@
 package com.example.DriveSafeAI.entity;
 
+import com.example.DriveSafeAI.service.impl.DriverDashboardChangeListener;
+import com.example.DriveSafeAI.service.impl.PremiumQuoteChangeListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -10,6 +12,7 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "drisc_score")
+@EntityListeners({PremiumQuoteChangeListener.class, DriverDashboardChangeListener.class})
 @Getter
 @Setter
 @AllArgsConstructor
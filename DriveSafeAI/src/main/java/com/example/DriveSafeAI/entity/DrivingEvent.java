@@ -0,0 +1,36 @@
+package com.example.DriveSafeAI.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "driving_event", indexes = @Index(name = "idx_driving_event_vehicle", columnList = "vehicle_id, detectedAt"))
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class DrivingEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "vehicle_id")
+    private Vehicle vehicle;
+
+    private String sessionId;
+
+    @Enumerated(EnumType.STRING)
+    private DrivingEventType eventType;
+
+    private Float severity;// value that crossed the rule threshold, e.g. m/s² or km/h over the limit
+    private Double latitude, longitude;
+
+    private LocalDateTime detectedAt = LocalDateTime.now();
+}
@@ -0,0 +1,5 @@
+package com.example.DriveSafeAI.entity;
+
+public enum DrivingEventType {
+    HARSH_BRAKING, RAPID_ACCELERATION, OVER_REVVING, SPEEDING
+}
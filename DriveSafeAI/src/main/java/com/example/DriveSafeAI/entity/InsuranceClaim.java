@@ -31,6 +31,7 @@ public class InsuranceClaim {
 
     private LocalDate claimDate;
     private LocalDate incidentDate;
+    private LocalDateTime incidentAt;// optional exact time, narrows the telemetry window
     private BigDecimal claimAmount;
     private BigDecimal approvedAmount;
     private String description;
@@ -38,6 +39,15 @@ public class InsuranceClaim {
     @Enumerated(EnumType.STRING)
     private ClaimStatus claimStatus = ClaimStatus.SUBMITTED;
 
+    // Telemetry check of the incident, see ClaimVerificationService
+    @Enumerated(EnumType.STRING)
+    private ClaimVerificationStatus verificationStatus;
+    private Float peakDeceleration;// m/s^2
+    private Float speedAtIncident;// km/h
+    private Integer telemetrySamples;
+    private Integer harshBrakingEvents;
+    private LocalDateTime verifiedAt;
+
     private LocalDateTime createdAt = LocalDateTime.now();
     private LocalDateTime updatedAt = LocalDateTime.now();
 }
@@ -1,5 +1,6 @@
 package com.example.DriveSafeAI.entity;
 
+import com.example.DriveSafeAI.service.impl.PremiumQuoteChangeListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -12,6 +13,7 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "insurance_policy")
+@EntityListeners(PremiumQuoteChangeListener.class)
 @Getter
 @Setter
 @AllArgsConstructor
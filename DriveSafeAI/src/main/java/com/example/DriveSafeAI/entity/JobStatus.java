@@ -0,0 +1,5 @@
+package com.example.DriveSafeAI.entity;
+
+public enum JobStatus {
+    RUNNING, COMPLETED, FAILED
+}
@@ -1,5 +1,6 @@
 package com.example.DriveSafeAI.entity;
 
+import com.example.DriveSafeAI.service.impl.DriverDashboardChangeListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -10,6 +11,7 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "notification")
+@EntityListeners(DriverDashboardChangeListener.class)
 @Getter
 @Setter
 @AllArgsConstructor
@@ -0,0 +1,34 @@
+package com.example.DriveSafeAI.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// Compressed HdrHistogram of one metric for one fleet ("" = everyone) and period ("all" or an ISO day)
+@Entity
+@Table(name = "population_sketch",
+        uniqueConstraints = @UniqueConstraint(name = "uk_population_sketch", columnNames = {"metric", "fleet", "period"}))
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class PopulationSketch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String metric;
+    private String fleet;
+    private String period;
+
+    @Lob
+    private byte[] payload;
+
+    private Long sampleCount;
+    private LocalDateTime updatedAt = LocalDateTime.now();
+}
@@ -0,0 +1,31 @@
+package com.example.DriveSafeAI.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// One row per finished partition, written in the same transaction as the partition's premiums
+@Entity
+@Table(name = "rerating_checkpoint",
+        uniqueConstraints = @UniqueConstraint(name = "uk_rerating_checkpoint", columnNames = {"job_id", "partitionStart"}))
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReratingCheckpoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_id")
+    private Long jobId;
+
+    private Long partitionStart;
+    private Long policiesRated;
+    private LocalDateTime completedAt = LocalDateTime.now();
+}
@@ -0,0 +1,42 @@
+package com.example.DriveSafeAI.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "rerating_job")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReratingJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    private JobStatus status = JobStatus.RUNNING;
+
+    private Boolean dryRun;
+    private Long partitionSize;
+    private Long minPolicyId;
+    private Long maxPolicyId;
+    private Integer totalPartitions;
+    private Integer completedPartitions = 0;
+
+    private Long policiesRated = 0L;
+    private Long policiesSkipped = 0L;// no DRISC snapshot and no trip summaries
+    private BigDecimal premiumDelta = BigDecimal.ZERO;// sum of new minus current premium
+    private Double policiesPerSecond;
+    private String error;
+
+    private LocalDateTime startedAt = LocalDateTime.now();
+    private LocalDateTime finishedAt;
+}
@@ -1,15 +1,21 @@
 package com.example.DriveSafeAI.entity;
 
+import com.example.DriveSafeAI.service.impl.RiskCategoryChangeListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "risk_category")
+@EntityListeners(RiskCategoryChangeListener.class)
 @Getter
 @Setter
 @AllArgsConstructor
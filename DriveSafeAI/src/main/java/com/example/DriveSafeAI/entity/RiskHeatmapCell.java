@@ -0,0 +1,35 @@
+package com.example.DriveSafeAI.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "risk_heatmap_cell",
+        uniqueConstraints = @UniqueConstraint(name = "uk_heatmap_cell", columnNames = {"precisionLevel", "geohash"}))
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class RiskHeatmapCell {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Integer precisionLevel;// geohash length, one per map zoom level
+
+    @Column(length = 12)
+    private String geohash;
+
+    private Long harshEventCount = 0L;
+    private Long speedingSampleCount = 0L;
+    private Long sampleCount = 0L;
+    private Double speedRiskSum = 0.0;
+
+    private LocalDateTime updatedAt = LocalDateTime.now();
+}
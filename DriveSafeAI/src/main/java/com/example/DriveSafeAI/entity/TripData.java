@@ -9,7 +9,7 @@ import lombok.Setter;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "trip_data")
+@Table(name = "trip_data", indexes = @Index(name = "idx_trip_data_vehicle_time", columnList = "vehicle_id, recordedAt"))
 @Getter
 @Setter
 @AllArgsConstructor
@@ -59,6 +59,7 @@ public class TripData {
     private Float speedRisk, harshAcceleration, rpmEfficiency, highRpmRisk, throttleAggression;
     private Float engineTempRisk, voltageRisk, engineLoadRisk, weatherRisk;
     private Float speedVariance, accelerationVariance, excessiveThrottleTime, engineStrain;
+    private Float hotspotRisk;// from the nearest indexed accident hotspot, see GeoRiskService
 
     private LocalDateTime recordedAt = LocalDateTime.now();
 
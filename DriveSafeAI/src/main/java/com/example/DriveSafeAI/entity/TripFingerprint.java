@@ -0,0 +1,39 @@
+package com.example.DriveSafeAI.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// Driving-style vector of one trip (DrivingStyleFingerprint) and which of the policy's drivers it was attributed to
+@Entity
+@Table(name = "trip_fingerprint",
+        uniqueConstraints = @UniqueConstraint(name = "uk_trip_fingerprint", columnNames = {"vehicleId", "tripNo"}),
+        indexes = @Index(name = "idx_trip_fingerprint_policy", columnList = "policyId, id"))
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class TripFingerprint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long policyId;
+    private Long vehicleId;
+    private Integer tripNo;
+
+    @Lob
+    private byte[] vector;
+
+    private String driver;// enrolled driver the trip is attributed to; null for a trip that matched nobody
+    private Boolean enrolled;// enrolled explicitly or as one of the policy's first trips, rather than matched
+    private Float distance;// to the nearest attributed trip when it was matched
+    private Float threshold;// match threshold of the policy at that time
+
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
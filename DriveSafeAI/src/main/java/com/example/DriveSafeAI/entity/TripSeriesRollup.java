@@ -0,0 +1,36 @@
+package com.example.DriveSafeAI.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// Min/max/avg/count buckets of one trip's telemetry at one resolution; payload is SeriesRollup per metric, in metrics order
+@Entity
+@Table(name = "trip_series_rollup",
+        uniqueConstraints = @UniqueConstraint(name = "uk_trip_series_rollup", columnNames = {"vehicleId", "tripNo", "bucketSize"}))
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class TripSeriesRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long vehicleId;
+    private Integer tripNo;
+    private Integer bucketSize;// samples per bucket
+    private Integer bucketCount;
+    private Integer sampleCount;
+    private String metrics;// comma separated
+
+    @Lob
+    private byte[] payload;
+
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
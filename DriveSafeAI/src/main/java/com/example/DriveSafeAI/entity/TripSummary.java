@@ -2,6 +2,7 @@ package com.example.DriveSafeAI.entity;
 
 
 
+import com.example.DriveSafeAI.service.impl.DriverDashboardChangeListener;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -11,6 +12,7 @@ import lombok.*;
 @AllArgsConstructor
 @Builder
 @Table(name = "trip_summary")
+@EntityListeners(DriverDashboardChangeListener.class)
 public class TripSummary {
 
     @Id
@@ -29,6 +31,7 @@ public class TripSummary {
     private Float avgSpeed;
     private Float maxAcceleration;
     private Float distanceTravelled;
+    private Float hotspotRisk;// mean accident-hotspot exposure over the trip
 
     private Boolean isRainy;
     private Boolean isDay;
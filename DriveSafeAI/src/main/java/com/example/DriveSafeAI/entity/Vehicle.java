@@ -5,8 +5,12 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "vehicle")
 @Getter
 @Setter
@@ -26,6 +30,7 @@ public class Vehicle {
 
     private String model;
     private String manufacturer;
+    private String fleet;// optional fleet/account the vehicle belongs to, used for fleet leaderboards
 
     @OneToOne
     @JoinColumn(name = "user_id", unique = true)
@@ -0,0 +1,37 @@
+package com.example.DriveSafeAI.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "vehicle_health_alert", indexes = @Index(name = "idx_vehicle_health_alert_vehicle", columnList = "vehicle_id, detectedAt"))
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class VehicleHealthAlert {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "vehicle_id")
+    private Vehicle vehicle;
+
+    private String sessionId;
+
+    @Enumerated(EnumType.STRING)
+    private VehicleHealthAlertType alertType;
+
+    private Float reading;// sample that raised the alert, in the signal's unit (°C, V, %)
+    private Float baseline;// the vehicle's learned normal for that signal, null while still warming up
+    private Double latitude, longitude;
+
+    private LocalDateTime detectedAt = LocalDateTime.now();
+}
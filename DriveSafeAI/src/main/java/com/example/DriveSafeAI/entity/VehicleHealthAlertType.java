@@ -0,0 +1,5 @@
+package com.example.DriveSafeAI.entity;
+
+public enum VehicleHealthAlertType {
+    OVERHEATING, ALTERNATOR_FAILING, ABNORMAL_LOAD
+}
@@ -0,0 +1,32 @@
+package com.example.DriveSafeAI.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// Learned health baselines of one vehicle: the VehicleHealthDetector slab as packed floats, plus active alert bits
+@Entity
+@Table(name = "vehicle_health_baseline",
+        uniqueConstraints = @UniqueConstraint(name = "uk_vehicle_health_baseline", columnNames = "vehicleId"))
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class VehicleHealthBaseline {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long vehicleId;
+
+    @Lob
+    private byte[] payload;
+
+    private Integer activeAlerts;
+    private LocalDateTime updatedAt = LocalDateTime.now();
+}
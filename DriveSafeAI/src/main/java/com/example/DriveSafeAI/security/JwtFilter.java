@@ -4,6 +4,7 @@ import java.io.IOException;
 
 import com.example.DriveSafeAI.service.security.JWTService;
 import com.example.DriveSafeAI.service.security.LoginService;
+import com.example.DriveSafeAI.util.JwtAuthEvent;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContext;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -33,18 +34,30 @@ public class JwtFilter extends OncePerRequestFilter {
         String token = null;
         String username = null;
 
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            token = authHeader.substring(7);
-            username = jwtService.extractUsername(token);
-        }
+        JwtAuthEvent event = new JwtAuthEvent();
+        event.begin();
+        try {
+            if (authHeader != null && authHeader.startsWith("Bearer ")) {
+                token = authHeader.substring(7);
+                username = jwtService.extractUsername(token);
+            }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = context.getBean(LoginService.class).loadUserByUsername(username);
+            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                UserDetails userDetails = context.getBean(LoginService.class).loadUserByUsername(username);
 
-            if (jwtService.validateToken(token, username)) {
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
+                if (jwtService.validateToken(token, username)) {
+                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(authToken);
+                }
+            }
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.path = request.getRequestURI();
+                event.tokenPresent = token != null;
+                event.authenticated = SecurityContextHolder.getContext().getAuthentication() != null;
+                event.commit();
             }
         }
         filterChain.doFilter(request, response);
@@ -1,5 +1,6 @@
 package com.example.DriveSafeAI.security;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -31,8 +32,13 @@ public class SecurityConfig {
         http.csrf(customizer -> customizer.disable());
         http.cors(Customizer.withDefaults());
         http.authorizeHttpRequests(customizer -> {
+                    // Streamed and CompletableFuture responses (PDF reports, exports, JFR downloads) finish on an async
+                    // dispatch of a request already authorized on its first dispatch; the stateless JWT context is
+                    // not carried over to it, so without this the report endpoints fail with 403 once rendered
+                    customizer.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll();
                     customizer.requestMatchers("/api/login", "/api/register", "/v1/admin/login", "/swagger-ui/**", "/v3/api-docs").permitAll();
-                    customizer.requestMatchers("/v1/admin/**").hasRole("ADMIN");
+                    customizer.requestMatchers("/actuator/health").permitAll();
+                    customizer.requestMatchers("/v1/admin/**", "/actuator/**").hasRole("ADMIN");
                     customizer.anyRequest().authenticated();
                 }
         );
@@ -39,5 +39,8 @@ public interface DriveSafeService {
     //get total reward points for a user
     public int getTotalRewardPoints(Long userId);
 
+    //harsh driving events detected on the live stream
+    List<DrivingEventDTO> getDrivingEvents(Long userId);
+
 
 }
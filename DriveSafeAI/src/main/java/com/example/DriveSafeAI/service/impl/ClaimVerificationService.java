@@ -0,0 +1,140 @@
+package com.example.DriveSafeAI.service.impl;
+
+import com.example.DriveSafeAI.dao.DrivingEventRepository;
+import com.example.DriveSafeAI.dao.InsuranceClaimRepository;
+import com.example.DriveSafeAI.dto.ClaimVerificationDTO;
+import com.example.DriveSafeAI.entity.ClaimVerificationStatus;
+import com.example.DriveSafeAI.entity.DrivingEventType;
+import com.example.DriveSafeAI.entity.InsuranceClaim;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Checks a claim's incident against the vehicle's telemetry.
+ * The window around the incident (the exact time when given, otherwise the whole incident day) is read
+ * through the (vehicle_id, recordedAt) index on trip_data, projecting only the columns the indicators need,
+ * so the cost depends on the window and not on how much history the vehicle has. Live rows are stamped when
+ * the sample reached the telemetry log; rows are scanned in insertion order, since samples can share a timestamp.
+ */
+@Component
+public class ClaimVerificationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClaimVerificationService.class);
+
+    private static final String WINDOW_SQL =
+            "SELECT speed, acceleration, recorded_at FROM trip_data "
+                    + "WHERE vehicle_id = ? AND recorded_at >= ? AND recorded_at < ? ORDER BY id";
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private InsuranceClaimRepository claimRepo;
+    @Autowired private DrivingEventRepository drivingEventRepo;
+
+    @Value("${claims.verification.window-minutes:5}")
+    private long windowMinutes;
+
+    // Deceleration at or above this (about 0.6 g) is treated as an impact
+    @Value("${claims.verification.impact-deceleration:6.0}")
+    private float impactDeceleration;
+
+    // Speed differences over a shorter gap are ingest jitter, not a deceleration
+    @Value("${claims.verification.min-sample-interval-ms:500}")
+    private long minSampleIntervalMillis;
+
+    @Value("${claims.verification.budget-ms:50}")
+    private long budgetMillis;
+
+    /** Running indicators over the window, filled row by row. */
+    private static class Scan {
+        int samples;
+        float peakDeceleration;
+        float preImpactSpeed = Float.NaN;
+        float speedAtTime = Float.NaN;
+        float lastSpeed = Float.NaN;
+        long lastMillis;
+    }
+
+    public ClaimVerificationDTO verify(Long claimId) {
+        InsuranceClaim claim = claimRepo.findById(claimId).orElseThrow(() -> new RuntimeException("Claim not found"));
+        return verify(claim);
+    }
+
+    /** Computes the impact indicators, stores the result on the claim and returns it. */
+    public ClaimVerificationDTO verify(InsuranceClaim claim) {
+        long started = System.nanoTime();
+        LocalDateTime from, to;
+        if (claim.getIncidentAt() != null) {
+            from = claim.getIncidentAt().minusMinutes(windowMinutes);
+            to = claim.getIncidentAt().plusMinutes(windowMinutes);
+        } else if (claim.getIncidentDate() != null) {
+            from = claim.getIncidentDate().atStartOfDay();
+            to = from.plusDays(1);
+        } else {
+            throw new RuntimeException("Claim has no incident date");
+        }
+        Long vehicleId = claim.getPolicy().getVehicle().getId();
+        long incidentMillis = claim.getIncidentAt() != null ? Timestamp.valueOf(claim.getIncidentAt()).getTime() : Long.MIN_VALUE;
+
+        Scan scan = new Scan();
+        jdbcTemplate.query(WINDOW_SQL, rs -> {
+            Float speed = rs.getObject(1) != null ? rs.getFloat(1) : null;
+            Float acceleration = rs.getObject(2) != null ? rs.getFloat(2) : null;
+            long millis = rs.getTimestamp(3).getTime();
+            scan.samples++;
+
+            float decel = acceleration != null ? -acceleration : 0f;
+            if (speed != null && !Float.isNaN(scan.lastSpeed)) {
+                long dt = millis - scan.lastMillis;
+                if (dt >= minSampleIntervalMillis && dt <= 5000) {
+                    decel = Math.max(decel, (scan.lastSpeed - speed) / 3.6f / (dt / 1000f));
+                }
+            }
+            if (decel > scan.peakDeceleration) {
+                scan.peakDeceleration = decel;
+                scan.preImpactSpeed = !Float.isNaN(scan.lastSpeed) ? scan.lastSpeed : speed != null ? speed : Float.NaN;
+            }
+            if (speed != null) {
+                if (millis <= incidentMillis) {
+                    scan.speedAtTime = speed;
+                }
+                // Samples closer than the minimum interval keep comparing against the older reference
+                long dt = millis - scan.lastMillis;
+                if (Float.isNaN(scan.lastSpeed) || dt < 0 || dt >= minSampleIntervalMillis) {
+                    scan.lastSpeed = speed;
+                    scan.lastMillis = millis;
+                }
+            }
+        }, vehicleId, Timestamp.valueOf(from), Timestamp.valueOf(to));
+
+        long harshBraking = drivingEventRepo.countByVehicleIdAndEventTypeAndDetectedAtBetween(
+                vehicleId, DrivingEventType.HARSH_BRAKING, from, to);
+
+        ClaimVerificationStatus status = scan.samples == 0 ? ClaimVerificationStatus.NO_TELEMETRY
+                : scan.peakDeceleration >= impactDeceleration ? ClaimVerificationStatus.CORROBORATED
+                : ClaimVerificationStatus.NO_IMPACT_FOUND;
+        float speedAtIncident = claim.getIncidentAt() != null ? scan.speedAtTime : scan.preImpactSpeed;
+
+        claim.setVerificationStatus(status);
+        claim.setPeakDeceleration(scan.samples == 0 ? null : scan.peakDeceleration);
+        claim.setSpeedAtIncident(Float.isNaN(speedAtIncident) ? null : speedAtIncident);
+        claim.setTelemetrySamples(scan.samples);
+        claim.setHarshBrakingEvents((int) harshBraking);
+        claim.setVerifiedAt(LocalDateTime.now());
+        claim.setUpdatedAt(claim.getVerifiedAt());
+        claimRepo.save(claim);
+
+        long elapsed = Duration.ofNanos(System.nanoTime() - started).toMillis();
+        if (elapsed > budgetMillis) {
+            logger.warn("Verifying claim {} took {} ms over {} samples", claim.getClaimNumber(), elapsed, scan.samples);
+        }
+        return new ClaimVerificationDTO(claim.getClaimNumber(), status.name(), claim.getPeakDeceleration(),
+                claim.getSpeedAtIncident(), scan.samples, (int) harshBraking, from, to, elapsed);
+    }
+}
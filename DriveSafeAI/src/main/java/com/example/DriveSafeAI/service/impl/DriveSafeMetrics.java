@@ -0,0 +1,87 @@
+package com.example.DriveSafeAI.service.impl;
+
+import com.example.DriveSafeAI.util.TripSessionBuffer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Gauges over in-memory state: live sessions and buffered samples, telemetry log consumer lag, the
+ * driving-event detector, the vehicle-health baselines, the premium quote cache, the dashboard read model and the
+ * driver fingerprint indexes. Endpoint, ML client, Hibernate and pool metrics come
+ * from Boot's auto-configuration; counters are incremented where the work happens.
+ * Under lazy initialization the quote cache, dashboard and fingerprint service are created on first use, not by
+ * binding or scraping these gauges; their gauges read 0 until then.
+ */
+@Component
+public class DriveSafeMetrics implements MeterBinder {
+
+    @Autowired private List<TelemetryLogConsumer> consumers;
+    @Autowired private TelemetryLogService telemetryLogService;
+    @Autowired private LiveSessionAssembler sessionAssembler;
+    @Autowired private DrivingEventMonitor drivingEventMonitor;
+    @Autowired private VehicleHealthMonitor vehicleHealthMonitor;
+    @Autowired private ConfigurableListableBeanFactory beanFactory;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("drivesafe.live.sessions", TripSessionBuffer::sessionCount)
+                .description("Live trip sessions being assembled")
+                .register(registry);
+        Gauge.builder("drivesafe.live.buffered.samples", TripSessionBuffer::bufferedSampleCount)
+                .description("Samples held in open live sessions")
+                .register(registry);
+        Gauge.builder("drivesafe.live.late.samples", sessionAssembler, LiveSessionAssembler::getLateSamples)
+                .description("Samples dropped because their session had already ended")
+                .register(registry);
+        Gauge.builder("drivesafe.telemetry.log.end.offset", telemetryLogService, TelemetryLogService::getEndOffset)
+                .baseUnit("bytes")
+                .register(registry);
+        for (TelemetryLogConsumer consumer : consumers) {
+            Gauge.builder("drivesafe.telemetry.consumer.lag", consumer, TelemetryLogConsumer::getLag)
+                    .tag("consumer", consumer.consumerName())
+                    .baseUnit("bytes")
+                    .register(registry);
+        }
+        Gauge.builder("drivesafe.driving.events.sessions", drivingEventMonitor, DrivingEventMonitor::getActiveSessions)
+                .description("Sessions tracked by the harsh-event detector")
+                .register(registry);
+        Gauge.builder("drivesafe.vehicle.health.tracked", vehicleHealthMonitor, VehicleHealthMonitor::getTrackedVehicles)
+                .description("Vehicles with health baselines in memory")
+                .register(registry);
+        Gauge.builder("drivesafe.vehicle.health.estimated.bytes", vehicleHealthMonitor, VehicleHealthMonitor::getEstimatedBytes)
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("drivesafe.premium.quote.cache.size", ifCreated(PremiumQuoteCache.class, PremiumQuoteCache::size))
+                .register(registry);
+        Gauge.builder("drivesafe.premium.quote.cache.estimated.bytes",
+                        ifCreated(PremiumQuoteCache.class, PremiumQuoteCache::estimatedBytes))
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("drivesafe.dashboard.read.model.size", ifCreated(DriverDashboardService.class, DriverDashboardService::size))
+                .description("Drivers held in the dashboard read model")
+                .register(registry);
+        Gauge.builder("drivesafe.fingerprint.indexes", ifCreated(DriverFingerprintService.class, DriverFingerprintService::size))
+                .description("Policies with a driver fingerprint index in memory")
+                .register(registry);
+    }
+
+    // Reads the bean once something else has created it
+    private <T> Supplier<Number> ifCreated(Class<T> type, ToDoubleFunction<T> value) {
+        return () -> {
+            for (String name : beanFactory.getBeanNamesForType(type, false, false)) {
+                if (beanFactory.containsSingleton(name)) {
+                    return value.applyAsDouble(beanFactory.getBean(name, type));
+                }
+            }
+            return 0;
+        };
+    }
+}
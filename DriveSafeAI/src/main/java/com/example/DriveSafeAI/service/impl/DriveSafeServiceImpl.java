@@ -10,13 +10,18 @@ import com.example.DriveSafeAI.service.security.JWTService;
 //import org.apache.commons.csv.CSVFormat;
 //import org.apache.commons.csv.CSVParser;
 //import org.apache.commons.csv.CSVRecord;
-import com.example.DriveSafeAI.util.TripSessionBuffer;
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVParser;
-import org.apache.commons.csv.CSVRecord;
+import com.example.DriveSafeAI.util.CsvChunkEvent;
+import com.example.DriveSafeAI.util.TripAggregates;
+import com.example.DriveSafeAI.util.TripCsvReader;
+import com.example.DriveSafeAI.util.TripFeatureEngine;
+import com.example.DriveSafeAI.util.TripStageEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -25,8 +30,10 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -35,8 +42,11 @@ import org.springframework.web.multipart.MultipartFile;
 @Service
 public class DriveSafeServiceImpl implements DriveSafeService {
 
+    private static final Logger logger = LoggerFactory.getLogger(DriveSafeServiceImpl.class);
+
     @Autowired private UserRepository userRepo;
     @Autowired private VehicleRepository vehicleRepo;
+    @Autowired private VehicleLookup vehicleLookup;
     @Autowired private TripRepository tripRepo;
     @Autowired private DriveScoreRepository driveScoreRepo;
     @Autowired private DriscScoreRepository driscScoreRepository;
@@ -48,8 +58,28 @@ public class DriveSafeServiceImpl implements DriveSafeService {
     @Autowired private AuthenticationManager authenticationManager;
     @Autowired private JWTService jwtService;
    @Autowired private MLModelClient mlClient;
+    @Autowired private LiveSessionAssembler sessionAssembler;
+    @Autowired private GeoRiskService geoRiskService;
+    @Autowired private RiskHeatmapService riskHeatmapService;
+    @Autowired private PremiumRatingEngine ratingEngine;
+    @Autowired private PremiumQuoteCache quoteCache;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private ClaimVerificationService claimVerificationService;
+    @Autowired private PopulationAnalyticsService analyticsService;
+    @Autowired private TripSeriesService tripSeriesService;
+    @Autowired private DriverFingerprintService fingerprintService;
+    @Autowired private MeterRegistry meterRegistry;
     @Autowired
     private TripSummaryRepository TripSummaryRepository;
+    @Autowired private DrivingEventRepository drivingEventRepo;
+
+    // DRISC updates lock by user, striped so the lock objects stay fixed
+    private final Object[] driscLocks = new Object[64];
+    {
+        for (int i = 0; i < driscLocks.length; i++) {
+            driscLocks[i] = new Object();
+        }
+    }
 
     //User Registration
     @Override
@@ -67,11 +97,12 @@ public class DriveSafeServiceImpl implements DriveSafeService {
         vehicle.setVehicleNo(dto.vehicleNo);
         vehicle.setModel(dto.model);
         vehicle.setManufacturer(dto.manufacturer);
+        vehicle.setFleet(dto.fleet);
         vehicle.setUser(user);
 
         vehicleRepo.save(vehicle);
 
-        return new UserResponseDTO(user.getId(), user.getEmail(), vehicle.getVehicleNo(), user.getFullName());
+        return new UserResponseDTO(user.getId(), user.getEmail(), vehicle.getVehicleNo(), user.getFullName(), vehicle.getId());
     }
 
   //User Login
@@ -104,10 +135,10 @@ public class DriveSafeServiceImpl implements DriveSafeService {
         User user = userRepo.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        Vehicle vehicle = vehicleRepo.findByUserId(userId)
+        Vehicle vehicle = vehicleLookup.findByUserId(userId)
                 .orElseThrow(() -> new RuntimeException("Vehicle not found for user"));
 
-        return new UserResponseDTO(user.getId(), user.getEmail(), vehicle.getVehicleNo(),user.getFullName());
+        return new UserResponseDTO(user.getId(), user.getEmail(), vehicle.getVehicleNo(),user.getFullName(), vehicle.getId());
     }
 
 
@@ -170,7 +201,7 @@ public class DriveSafeServiceImpl implements DriveSafeService {
         User user = userRepo.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        Vehicle vehicle = vehicleRepo.findByUserId(userId)
+        Vehicle vehicle = vehicleLookup.findByUserId(userId)
                 .orElseThrow(() -> new RuntimeException("Vehicle not found for user"));
 
          // Variable: insurer defines recent trip count
@@ -183,24 +214,18 @@ public class DriveSafeServiceImpl implements DriveSafeService {
             throw new RuntimeException("Not enough trip summaries to calculate DriscScore.");
         }
 
-        double weightedSum = 0.0;
-        double totalDistance = 0.0;
-
-        for (TripSummary trip : recentTrips) {
-            if (trip.getDistanceTravelled() > 0) {
-                weightedSum += trip.getDriveScore() * trip.getDistanceTravelled();
-                totalDistance += trip.getDistanceTravelled();
-            }
-        }
-
-        float driscScore = (totalDistance == 0) ? 0f : (float) (weightedSum / totalDistance);
+        float driscScore = TripAggregates.driscScore(recentTrips);
 
         DriscScore drisc = new DriscScore();
         drisc.setScore(driscScore);
         drisc.setUserid(user);
         drisc.setTripsConsidered(recentTrips.size());
 
-        driscScoreRepository.save(drisc);
+        // One driver's snapshots reach the population sketches in the order they are saved
+        synchronized (driscLocks[Math.floorMod(userId, driscLocks.length)]) {
+            driscScoreRepository.save(drisc);
+            analyticsService.replaceDrisc(vehicle.getFleet(), drisc);
+        }
 
         Notification n = new Notification();
         n.setUser(user);
@@ -238,18 +263,31 @@ public class DriveSafeServiceImpl implements DriveSafeService {
     }
 
     // 6️⃣ Calculate Premium based on DriscScore + Risk Category
+    // Served from the quote cache until a new DRISC snapshot or policy change; only a miss opens a transaction
     @Override
     public PremiumCalculationDTO calculatePremium(Long userId) {
-        User user = userRepo.findById(userId).orElseThrow();
-        Vehicle vehicle = vehicleRepo.findByUserId(userId).orElseThrow();
-        InsurancePolicy policy = policyRepo.findByVehicleId(vehicle.getId()).orElseThrow();
-
-        DriscScore latest = driscScoreRepository.findTopByUseridOrderByCalculatedAtDesc(user)
-                .orElseThrow(() -> new RuntimeException("No DriscScore found"));
-
-        float finalPremium = 4000 + ((100 - latest.getScore())/100)*4000;
-        return new PremiumCalculationDTO(policy.getId(), policy.getBasePremium().longValue(), policy.getCoverageAmount().longValue(),
-                policy.getCoverageType(), policy.getPolicyEndDate(), policy.getPolicyStartDate(), policy.getPolicyNumber(), latest.getScore(),finalPremium );
+        PremiumCalculationDTO cached = quoteCache.get(userId);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = quoteCache.generation(userId);
+        return transactionTemplate.execute(status -> {
+            User user = userRepo.findById(userId).orElseThrow();
+            Vehicle vehicle = vehicleLookup.findByUserId(userId).orElseThrow();
+            InsurancePolicy policy = policyRepo.findByVehicleId(vehicle.getId()).orElseThrow();
+
+            DriscScore latest = driscScoreRepository.findTopByUseridOrderByCalculatedAtDesc(user)
+                    .orElseThrow(() -> new RuntimeException("No DriscScore found"));
+
+            PremiumCalculation calc = ratingEngine.rate(policy, latest);
+            PremiumCalculationDTO quote = new PremiumCalculationDTO(policy.getId(), policy.getBasePremium().longValue(), policy.getCoverageAmount().longValue(),
+                    policy.getCoverageType(), policy.getPolicyEndDate(), policy.getPolicyStartDate(), policy.getPolicyNumber(), latest.getScore(),
+                    calc.getCalculatedPremium().floatValue(),
+                    calc.getRiskCategory() != null ? calc.getRiskCategory().getCategoryName() : null);
+            // Before commit, so the policy update flushed at commit finds the entry already rated from these terms
+            quoteCache.put(userId, policy, latest.getId(), quote, generation);
+            return quote;
+        });
     }
 
     // 7️⃣ File Insurance Claim
@@ -261,12 +299,17 @@ public class DriveSafeServiceImpl implements DriveSafeService {
         claim.setPolicy(policy);
         claim.setClaimNumber(dto.claimNumber);
         claim.setClaimDate(dto.claimDate);
-        claim.setIncidentDate(dto.incidentDate);
+        claim.setIncidentDate(dto.incidentDate != null ? dto.incidentDate
+                : dto.incidentAt != null ? dto.incidentAt.toLocalDate() : null);
+        claim.setIncidentAt(dto.incidentAt);
         claim.setClaimAmount(dto.claimAmount);
         claim.setDescription(dto.description);
        claim.setClaimStatus(ClaimStatus.SUBMITTED);
         claim.setCreatedAt(LocalDateTime.now());
         claimRepo.save(claim);
+        if (claim.getIncidentDate() != null) {
+            claimVerificationService.verify(claim);
+        }
        return "Claim filed successfully with number: " + claim.getClaimNumber();
     }
 
@@ -280,7 +323,9 @@ public class DriveSafeServiceImpl implements DriveSafeService {
                         claim.getClaimDate(),
                         claim.getIncidentDate(),
                         claim.getClaimAmount(),
-                        claim.getDescription()))
+                        claim.getDescription(),
+                        claim.getIncidentAt(),
+                        claim.getVerificationStatus() != null ? claim.getVerificationStatus().name() : null))
                 .collect(Collectors.toList());
     }
 
@@ -288,35 +333,26 @@ public class DriveSafeServiceImpl implements DriveSafeService {
     // Upload Trip CSV File
 
 
+    private static final int CSV_SAVE_CHUNK = 1000;
+
   @Override
    public String uploadTripCsv(MultipartFile file, Long vehicleId) {
         Vehicle vehicle = vehicleRepo.findById(vehicleId)
                 .orElseThrow(() -> new RuntimeException("Vehicle not found"));
 
-        List<TripData> trips = new ArrayList<>();
-
-        try (Reader reader = new InputStreamReader(file.getInputStream());
-             CSVParser parser = new CSVParser(reader, CSVFormat.DEFAULT
-                     .withFirstRecordAsHeader()
-                     .withIgnoreHeaderCase()
-                     .withTrim())) {
-
-            for (CSVRecord record : parser) {
-                TripData trip = new TripData();
-                trip.setSpeed(Float.parseFloat(record.get("speed")));
-                trip.setRpm(Float.parseFloat(record.get("rpm")));
-                trip.setAcceleration(Float.parseFloat(record.get("acceleration")));
-                trip.setThrottlePosition(Float.parseFloat(record.get("throttle_position")));
-                trip.setEngineTemperature(Float.parseFloat(record.get("engine_temperature")));
-                trip.setSystemVoltage(Float.parseFloat(record.get("system_voltage")));
-                trip.setEngineLoadValue(Float.parseFloat(record.get("engine_load_value")));
-                trip.setDistanceTravelled(Float.parseFloat(record.get("distance_travelled")));
-                trip.setBrake(Float.parseFloat(record.get("brake")));
-                trip.setVehicle(vehicle);
-                trips.add(trip);
+        CsvChunkEvent parseEvent = CsvChunkEvent.start("parse", vehicleId);
+        try (Reader reader = new InputStreamReader(file.getInputStream())) {
+            List<TripData> trips = TripCsvReader.read(reader, vehicle);
+
+           TripFeatureEngine.apply(trips);
+            parseEvent.finish(trips.size());
+            for (int from = 0; from < trips.size(); from += CSV_SAVE_CHUNK) {
+                List<TripData> chunk = trips.subList(from, Math.min(from + CSV_SAVE_CHUNK, trips.size()));
+                CsvChunkEvent saveEvent = CsvChunkEvent.start("save", vehicleId);
+                tripRepo.saveAll(chunk); // ✅ Batch save
+                saveEvent.finish(chunk.size());
             }
-
-           tripRepo.saveAll(trips); // ✅ Batch save
+            meterRegistry.counter("drivesafe.csv.rows.ingested").increment(trips.size());
             return "Uploaded " + trips.size() + " trips successfully.";
 
         } catch (Exception e) {
@@ -329,11 +365,21 @@ public class DriveSafeServiceImpl implements DriveSafeService {
 
     @Override
     public TripResponseDTO processLiveTripSession(String sessionId) {
-        List<LiveTripDTO> dataList = TripSessionBuffer.endSession(sessionId);
+        TripStageEvent stage = TripStageEvent.start("assemble", sessionId);
+        List<LiveTripDTO> dataList = sessionAssembler.endSession(sessionId);
+        stage.finish(dataList != null ? dataList.size() : 0);
         if (dataList == null || dataList.isEmpty()) {
             throw new RuntimeException("No trip data found for session: " + sessionId);
         }
+        try {
+            return scoreLiveSession(sessionId, dataList);
+        } finally {
+            // No-op once completed; otherwise the session stays open so ending it can be retried
+            sessionAssembler.abortSession(sessionId);
+        }
+    }
 
+    private TripResponseDTO scoreLiveSession(String sessionId, List<LiveTripDTO> dataList) {
         Long vehicleId = dataList.get(0).getIdVehicle(); // Updated field name
         Vehicle vehicle = vehicleRepo.findById(vehicleId)
                 .orElseThrow(() -> new RuntimeException("Vehicle not found"));
@@ -341,6 +387,7 @@ public class DriveSafeServiceImpl implements DriveSafeService {
         Integer lastTripNo = tripRepo.findMaxTripNoByVehicleId(vehicleId);
         int currentTripNo = (lastTripNo != null ? lastTripNo + 1 : 1);
 
+        TripStageEvent stage = TripStageEvent.start("build-rows", sessionId);
         List<TripData> tripList = new ArrayList<>();
         for (LiveTripDTO dto : dataList) {
             TripData t = new TripData();
@@ -389,13 +436,25 @@ public class DriveSafeServiceImpl implements DriveSafeService {
             // Entity relationships and metadata
             t.setVehicle(vehicle);
             t.setTripNo(currentTripNo);
+            if (dto.getReceivedAt() != null) {
+                t.setRecordedAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(dto.getReceivedAt()), ZoneId.systemDefault()));
+            }
 
             tripList.add(t);
         }
 
-        tripRepo.saveAll(tripList);
+        stage.finish(tripList.size());
 
+        // Location lookups first: they can fill designSpeed, which speedRisk depends on
+        stage = TripStageEvent.start("geo-annotate", sessionId);
+        float hotspotRisk = geoRiskService.annotate(tripList);
+        stage.finish(tripList.size());
+        stage = TripStageEvent.start("features", sessionId);
+        TripFeatureEngine.apply(tripList);
+        stage.finish(tripList.size());
+        stage = TripStageEvent.start("ml-score", sessionId);
         Float driveScore = mlClient.getDriveScoreFromList(tripList);
+        stage.finish(tripList.size());
         int rewardPoints = 0;
         {
             if (driveScore >= 90) rewardPoints = 50;
@@ -411,55 +470,65 @@ public class DriveSafeServiceImpl implements DriveSafeService {
         score.setVehicle(vehicle);
         score.setRewardPoints(rewardPoints);
         score.setTripData(tripList.get(tripList.size() - 1)); // Use last row
-        driveScoreRepo.save(score);
 
-        // Create and save trip summary with enhanced data
+        // Create trip summary with enhanced data
         // Extract weather and time information from trip data
-        boolean isRainy = tripList.stream()
-                .anyMatch(t -> t.getHasPrecipitation() != null && t.getHasPrecipitation() == 1);
-        boolean isDay = tripList.stream()
-                .anyMatch(t -> t.getIsDayTime() != null && t.getIsDayTime() == 1);
-
-        TripSummary summary = TripSummary.builder()
+        TripSummary summary = TripAggregates.summarize(tripList)
                 .tripNo(currentTripNo)
                 .vehicle(vehicle)
                 .driveScore(driveScore)
-                .maxSpeed((float) tripList.stream()
-                        .filter(t -> t.getSpeed() != null)
-                        .mapToDouble(TripData::getSpeed)
-                        .max().orElse(0))
-                .avgSpeed((float) tripList.stream()
-                        .filter(t -> t.getSpeed() != null)
-                        .mapToDouble(TripData::getSpeed)
-                        .average().orElse(0))
-                .maxAcceleration((float) tripList.stream()
-                        .filter(t -> t.getAcceleration() != null)
-                        .mapToDouble(TripData::getAcceleration)
-                        .max().orElse(0))
-                .distanceTravelled((float) tripList.stream()
-                        .filter(t -> t.getDistanceTravelled() != null)
-                        .mapToDouble(TripData::getDistanceTravelled)
-                        .sum())
-                .isRainy(isRainy) // Now using actual weather data
-                .isDay(isDay)     // Now using actual daylight data
+                .hotspotRisk(hotspotRisk)
                 .build();
 
-        TripSummaryRepository.save(summary); // Fixed repository name
-
         Notification note = new Notification();
         note.setUser(vehicle.getUser());
         // Fixed: removed duplicate setMessage calls
         note.setMessage("Live trip session completed. Drive Score: " + driveScore +
                 ". You earned " + rewardPoints + " reward points for this trip!");
-        notificationRepo.save(note);
+
+        // Rows, score and summary land together, so a failed end-session leaves nothing behind to retry over
+        transactionTemplate.executeWithoutResult(status -> {
+            TripStageEvent persist = TripStageEvent.start("persist-trip-data", sessionId);
+            tripRepo.saveAll(tripList);
+            persist.finish(tripList.size());
+            persist = TripStageEvent.start("persist-score", sessionId);
+            driveScoreRepo.save(score);
+            persist.finish(1);
+            persist = TripStageEvent.start("summary", sessionId);
+            TripSummaryRepository.save(summary); // Fixed repository name
+            persist.finish(tripList.size());
+            notificationRepo.save(note);
+        });
+        meterRegistry.counter("drivesafe.trips.scored", "source", "live").increment();
+        // The trip is scored and stored, so the log copy of the session can go
+        sessionAssembler.completeSession(sessionId);
+
+        bestEffort("series-rollup", sessionId, tripList.size(),
+                () -> tripSeriesService.recordTrip(vehicleId, currentTripNo, tripList));
+        bestEffort("heatmap", sessionId, tripList.size(), () -> riskHeatmapService.recordTrip(sessionId, tripList));
+        bestEffort("analytics", sessionId, 1, () -> analyticsService.recordTrip(summary, vehicle.getFleet(),
+                (int) drivingEventRepo.countBySessionId(sessionId)));
+        bestEffort("fingerprint", sessionId, tripList.size(),
+                () -> fingerprintService.recordTrip(vehicle, currentTripNo, tripList));
 
         return new TripResponseDTO(score.getTripData().getId(), driveScore,
                 driveScore > 80 ? "Excellent driving!" : "Needs improvement", rewardPoints);
     }
 
+    // Views derived from a stored trip; a failure there is logged instead of failing the trip itself
+    private void bestEffort(String stageName, String sessionId, int rows, Runnable hook) {
+        TripStageEvent stage = TripStageEvent.start(stageName, sessionId);
+        try {
+            hook.run();
+        } catch (RuntimeException e) {
+            logger.warn("Trip session {} stage {} failed: {}", sessionId, stageName, e.getMessage());
+        }
+        stage.finish(rows);
+    }
+
     @Override
     public int getTotalRewardPoints(Long userId) {
-        Vehicle vehicle = vehicleRepo.findByUserId(userId)
+        Vehicle vehicle = vehicleLookup.findByUserId(userId)
                 .orElseThrow(() -> new RuntimeException("Vehicle not found"));
 
         return driveScoreRepo.findTop10ByVehicleIdOrderByCreatedAtDesc(Long .valueOf(vehicle.getId()))
@@ -468,5 +537,16 @@ public class DriveSafeServiceImpl implements DriveSafeService {
                 .sum();
     }
 
+    @Override
+    public List<DrivingEventDTO> getDrivingEvents(Long userId) {
+        Vehicle vehicle = vehicleLookup.findByUserId(userId)
+                .orElseThrow(() -> new RuntimeException("Vehicle not found"));
+
+        return drivingEventRepo.findByVehicleIdOrderByDetectedAtDesc(vehicle.getId()).stream()
+                .map(e -> new DrivingEventDTO(e.getSessionId(), e.getEventType().name(), e.getSeverity(),
+                        e.getLatitude(), e.getLongitude(), e.getDetectedAt()))
+                .collect(Collectors.toList());
+    }
+
 
 }
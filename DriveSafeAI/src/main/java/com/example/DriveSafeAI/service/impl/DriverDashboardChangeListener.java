@@ -0,0 +1,79 @@
+package com.example.DriveSafeAI.service.impl;
+
+import com.example.DriveSafeAI.dto.TripSummaryDTO;
+import com.example.DriveSafeAI.entity.DriscScore;
+import com.example.DriveSafeAI.entity.DriveScore;
+import com.example.DriveSafeAI.entity.Notification;
+import com.example.DriveSafeAI.entity.TripSummary;
+import com.example.DriveSafeAI.entity.User;
+import com.example.DriveSafeAI.entity.Vehicle;
+import jakarta.persistence.PostPersist;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Consumer;
+
+/**
+ * JPA listener on {@link TripSummary}, {@link DriveScore}, {@link DriscScore} and {@link Notification} that
+ * folds new rows into the driver dashboard read model once they are committed.
+ */
+@Component
+public class DriverDashboardChangeListener {
+
+    @Autowired
+    @Lazy
+    private DriverDashboardService dashboard;
+
+    @PostPersist
+    public void onPersist(Object entity) {
+        Long userId;
+        Consumer<Long> apply;
+        if (entity instanceof TripSummary summary) {
+            userId = userOf(summary.getVehicle());
+            long summaryId = summary.getId();
+            TripSummaryDTO trip = DriverDashboardService.toTripDTO(summary);
+            apply = user -> dashboard.onTripSummary(user, summaryId, trip);
+        } else if (entity instanceof DriveScore score) {
+            userId = userOf(score.getVehicle());
+            long scoreId = score.getId();
+            Integer points = score.getRewardPoints();
+            apply = user -> dashboard.onDriveScore(user, scoreId, points);
+        } else if (entity instanceof DriscScore drisc) {
+            userId = idOf(drisc.getUserid());
+            long driscId = drisc.getId();
+            apply = user -> dashboard.onDrisc(user, driscId, drisc.getScore(), drisc.getCalculatedAt());
+        } else if (entity instanceof Notification notification) {
+            userId = idOf(notification.getUser());
+            long notificationId = notification.getId();
+            apply = user -> dashboard.onNotification(user, notificationId);
+        } else {
+            return;
+        }
+        if (userId == null) {
+            return;
+        }
+        // Right away as well, so a load running until the commit is not kept without this row
+        dashboard.touch(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.accept(userId);
+                }
+            });
+        } else {
+            apply.accept(userId);
+        }
+    }
+
+    private static Long userOf(Vehicle vehicle) {
+        return vehicle != null ? idOf(vehicle.getUser()) : null;
+    }
+
+    private static Long idOf(User user) {
+        return user != null ? user.getId() : null;
+    }
+}
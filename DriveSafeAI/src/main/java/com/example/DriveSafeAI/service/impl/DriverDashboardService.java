@@ -0,0 +1,320 @@
+package com.example.DriveSafeAI.service.impl;
+
+import com.example.DriveSafeAI.dao.DriscScoreRepository;
+import com.example.DriveSafeAI.dao.DriveScoreRepository;
+import com.example.DriveSafeAI.dao.NotificationRepository;
+import com.example.DriveSafeAI.dao.TripSummaryRepository;
+import com.example.DriveSafeAI.dao.UserRepository;
+import com.example.DriveSafeAI.dao.VersionStamp;
+import com.example.DriveSafeAI.dto.DriverDashboardDTO;
+import com.example.DriveSafeAI.dto.TripSummaryDTO;
+import com.example.DriveSafeAI.entity.DriscScore;
+import com.example.DriveSafeAI.entity.TripSummary;
+import com.example.DriveSafeAI.entity.User;
+import com.example.DriveSafeAI.entity.Vehicle;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The driver dashboard in one response: profile, latest DRISC, reward points, unread notifications and the
+ * last few trip summaries. Served from a per-driver read model in memory, which committed trip summary, drive
+ * score, DRISC and notification rows update in place (DriverDashboardChangeListener). A driver not in the model
+ * is loaded with the four queries run in parallel and then kept. Updates are folded by row id, so a row seen by
+ * both a load and its event counts once. The TTL bounds staleness from writes this instance does not see;
+ * entries are evicted least recently used first past max-entries.
+ */
+@Component
+public class DriverDashboardService {
+
+    // Same window as DriveSafeServiceImpl.getTotalRewardPoints
+    private static final int REWARD_WINDOW = 10;
+
+    @Autowired private UserRepository userRepo;
+    @Autowired private VehicleLookup vehicleLookup;
+    @Autowired private DriscScoreRepository driscScoreRepo;
+    @Autowired private DriveScoreRepository driveScoreRepo;
+    @Autowired private NotificationRepository notificationRepo;
+    @Autowired private TripSummaryRepository tripSummaryRepo;
+    @Autowired private MeterRegistry meterRegistry;
+
+    @Value("${dashboard.recent-trips:5}")
+    private int recentTrips;
+
+    @Value("${dashboard.read-model.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${dashboard.read-model.ttl-minutes:10}")
+    private long ttlMinutes;
+
+    @Value("${dashboard.fan-out.threads:4}")
+    private int threads;
+
+    @Value("${dashboard.fan-out.timeout-ms:5000}")
+    private long timeoutMs;
+
+    private static final class Entry {
+        final String fullName;
+        final Long vehicleId;
+        final String vehicleNo;
+        final long loadedAtNanos = System.nanoTime();
+        long driscId;
+        Float driscScore;
+        LocalDateTime driscCalculatedAt;
+        long lastDriveScoreId;
+        final ArrayDeque<Integer> rewards = new ArrayDeque<>();// newest first
+        long lastNotificationId;
+        long unread;
+        long lastTripId;
+        final ArrayDeque<TripSummaryDTO> trips = new ArrayDeque<>();// newest first
+
+        Entry(User user, Vehicle vehicle) {
+            this.fullName = user.getFullName();
+            this.vehicleId = vehicle.getId();
+            this.vehicleNo = vehicle.getVehicleNo();
+        }
+    }
+
+    // Access order, so iteration starts at the least recently used entry
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    // Bumped by every change, striped by user; a load that overlaps one for its stripe is not kept
+    private final long[] generations = new long[64];
+    private ThreadPoolExecutor fanOut;
+
+    @PostConstruct
+    public void init() {
+        // A full queue runs the query on the request thread rather than failing the dashboard
+        fanOut = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * 16), r -> {
+                    Thread t = new Thread(r, "dashboard-fan-out");
+                    t.setDaemon(true);
+                    return t;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fanOut.shutdownNow();
+    }
+
+    public DriverDashboardDTO dashboard(Long userId) {
+        synchronized (this) {
+            Entry entry = entries.get(userId);
+            if (entry != null && System.nanoTime() - entry.loadedAtNanos < Duration.ofMinutes(ttlMinutes).toNanos()) {
+                meterRegistry.counter("drivesafe.dashboard.reads", "source", "read-model").increment();
+                return toDTO(userId, entry);
+            }
+            entries.remove(userId);
+        }
+        meterRegistry.counter("drivesafe.dashboard.reads", "source", "fan-out").increment();
+        long generation = generation(userId);
+        Entry loaded = load(userId);
+        synchronized (this) {
+            if (generations[stripe(userId)] == generation) {
+                entries.put(userId, loaded);
+                Iterator<Entry> eldest = entries.values().iterator();
+                while (entries.size() > maxEntries && eldest.hasNext()) {
+                    eldest.next();
+                    eldest.remove();
+                }
+            }
+            return toDTO(userId, loaded);
+        }
+    }
+
+    /** A row for the user is being written; called right away, before the matching on* call after commit. */
+    public synchronized void touch(Long userId) {
+        generations[stripe(userId)]++;
+    }
+
+    public synchronized void onTripSummary(Long userId, long summaryId, TripSummaryDTO trip) {
+        Entry entry = changed(userId);
+        if (entry != null && summaryId > entry.lastTripId) {
+            entry.lastTripId = summaryId;
+            entry.trips.addFirst(trip);
+            while (entry.trips.size() > recentTrips) {
+                entry.trips.removeLast();
+            }
+        }
+    }
+
+    public synchronized void onDriveScore(Long userId, long driveScoreId, Integer rewardPoints) {
+        Entry entry = changed(userId);
+        if (entry != null && driveScoreId > entry.lastDriveScoreId) {
+            entry.lastDriveScoreId = driveScoreId;
+            entry.rewards.addFirst(rewardPoints != null ? rewardPoints : 0);
+            while (entry.rewards.size() > REWARD_WINDOW) {
+                entry.rewards.removeLast();
+            }
+        }
+    }
+
+    public synchronized void onDrisc(Long userId, long driscId, Float score, LocalDateTime calculatedAt) {
+        Entry entry = changed(userId);
+        if (entry != null && driscId > entry.driscId) {
+            entry.driscId = driscId;
+            entry.driscScore = score;
+            entry.driscCalculatedAt = calculatedAt;
+        }
+    }
+
+    public synchronized void onNotification(Long userId, long notificationId) {
+        Entry entry = changed(userId);
+        if (entry != null && notificationId > entry.lastNotificationId) {
+            entry.lastNotificationId = notificationId;
+            entry.unread++;
+        }
+    }
+
+    /** Rows were written that the listener does not see, as by plain JDBC batches; the next read reloads. */
+    public synchronized void invalidate(Long userId) {
+        changed(userId);
+        entries.remove(userId);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    static TripSummaryDTO toTripDTO(TripSummary s) {
+        return new TripSummaryDTO(s.getTripNo(), s.getDriveScore(), s.getMaxSpeed(), s.getAvgSpeed(),
+                s.getMaxAcceleration(), s.getDistanceTravelled(), s.getIsRainy(), s.getIsDay(), s.getHotspotRisk());
+    }
+
+    private synchronized long generation(Long userId) {
+        return generations[stripe(userId)];
+    }
+
+    private Entry changed(Long userId) {
+        generations[stripe(userId)]++;
+        return entries.get(userId);
+    }
+
+    // User and vehicle come from the second-level cache; the four reads behind them run in parallel
+    private Entry load(Long userId) {
+        User user = userRepo.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        Vehicle vehicle = vehicleLookup.findByUserId(userId)
+                .orElseThrow(() -> new RuntimeException("Vehicle not found for user"));
+        Long vehicleId = vehicle.getId();
+
+        BlockingQueue<Future<?>> completed = new LinkedBlockingQueue<>();
+        Future<Optional<DriscScore>> drisc = fork(completed, () -> driscScoreRepo.findTopByUseridOrderByCalculatedAtDesc(user));
+        Future<List<Object[]>> rewards = fork(completed, () ->
+                driveScoreRepo.findRecentRewardsByVehicleId(vehicleId, PageRequest.of(0, REWARD_WINDOW)));
+        Future<VersionStamp> unread = fork(completed, () -> notificationRepo.findUnreadByUserId(userId));
+        Future<List<TripSummary>> trips = fork(completed, () ->
+                tripSummaryRepo.findTopNByVehicleIdOrderByIdDesc(vehicleId, PageRequest.of(0, recentTrips)));
+        joinAll(completed, drisc, rewards, unread, trips);
+
+        Entry entry = new Entry(user, vehicle);
+        result(drisc).ifPresent(d -> {
+            entry.driscId = d.getId();
+            entry.driscScore = d.getScore();
+            entry.driscCalculatedAt = d.getCalculatedAt();
+        });
+        for (Object[] row : result(rewards)) {
+            entry.lastDriveScoreId = Math.max(entry.lastDriveScoreId, (Long) row[0]);
+            entry.rewards.addLast(row[1] != null ? (Integer) row[1] : 0);
+        }
+        VersionStamp stamp = result(unread);
+        entry.unread = stamp.getTotal();
+        entry.lastNotificationId = stamp.getLastId() != null ? stamp.getLastId() : 0L;
+        for (TripSummary s : result(trips)) {
+            entry.lastTripId = Math.max(entry.lastTripId, s.getId());
+            entry.trips.addLast(toTripDTO(s));
+        }
+        return entry;
+    }
+
+    // A FutureTask run by the pool itself, so cancel(true) interrupts the query; reports completion to its load
+    private static final class Subtask<T> extends FutureTask<T> {
+        private final BlockingQueue<Future<?>> completed;
+
+        Subtask(Callable<T> query, BlockingQueue<Future<?>> completed) {
+            super(query);
+            this.completed = completed;
+        }
+
+        @Override
+        protected void done() {
+            completed.add(this);
+        }
+    }
+
+    private <T> Future<T> fork(BlockingQueue<Future<?>> completed, Callable<T> query) {
+        Subtask<T> task = new Subtask<>(query, completed);
+        fanOut.execute(task);
+        return task;
+    }
+
+    // All or nothing: on the first failure or at the deadline the other queries are cancelled (running ones are
+    // interrupted, queued ones never start) and the request fails, so no subtask outlives the load that forked it
+    private void joinAll(BlockingQueue<Future<?>> completed, Future<?>... tasks) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        try {
+            for (int i = 0; i < tasks.length; i++) {
+                Future<?> done = completed.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (done == null) {
+                    cancelAll(tasks);
+                    throw new RuntimeException("Dashboard load timed out after " + timeoutMs + " ms");
+                }
+                done.get();
+            }
+        } catch (ExecutionException e) {
+            cancelAll(tasks);
+            throw e.getCause() instanceof RuntimeException r ? r : new RuntimeException("Dashboard load failed", e.getCause());
+        } catch (InterruptedException e) {
+            cancelAll(tasks);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Dashboard load interrupted");
+        }
+    }
+
+    private static void cancelAll(Future<?>... tasks) {
+        for (Future<?> task : tasks) {
+            task.cancel(true);
+        }
+    }
+
+    // Only called once joinAll has seen every task succeed
+    private static <T> T result(Future<T> task) {
+        try {
+            return task.get();
+        } catch (InterruptedException | ExecutionException e) {
+            throw new RuntimeException("Dashboard load failed", e);
+        }
+    }
+
+    private DriverDashboardDTO toDTO(Long userId, Entry entry) {
+        int points = entry.rewards.stream().mapToInt(Integer::intValue).sum();
+        return new DriverDashboardDTO(userId, entry.fullName, entry.vehicleId, entry.vehicleNo, entry.driscScore,
+                entry.driscCalculatedAt, points, entry.unread, new ArrayList<>(entry.trips));
+    }
+
+    private int stripe(Long userId) {
+        return (int) (userId & (generations.length - 1));
+    }
+}
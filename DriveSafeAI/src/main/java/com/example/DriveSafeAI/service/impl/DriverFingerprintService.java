@@ -0,0 +1,229 @@
+package com.example.DriveSafeAI.service.impl;
+
+import com.example.DriveSafeAI.dao.InsurancePolicyRepository;
+import com.example.DriveSafeAI.dao.NotificationRepository;
+import com.example.DriveSafeAI.dao.TripFingerprintRepository;
+import com.example.DriveSafeAI.dto.DriverMatchDTO;
+import com.example.DriveSafeAI.entity.InsurancePolicy;
+import com.example.DriveSafeAI.entity.Notification;
+import com.example.DriveSafeAI.entity.TripData;
+import com.example.DriveSafeAI.entity.TripFingerprint;
+import com.example.DriveSafeAI.entity.User;
+import com.example.DriveSafeAI.entity.Vehicle;
+import com.example.DriveSafeAI.util.DrivingStyleFingerprint;
+import com.example.DriveSafeAI.util.HnswIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Checks who drove a trip. Every live trip is reduced to a {@link DrivingStyleFingerprint} and compared with the
+ * trips already attributed to the policy's enrolled drivers through a per-policy {@link HnswIndex}; the trip is
+ * attributed to the driver of its nearest neighbour if that is within the policy's match threshold, and flagged
+ * otherwise. The threshold follows how far each attributed trip was from its own nearest neighbour when it joined.
+ * A policy's first trips enroll the policyholder; other drivers, or a flagged trip that was a known driver, are
+ * enrolled through {@link #enroll}. Indexes are built from trip_fingerprint rows, never from trip data, and kept
+ * in memory least recently used first up to max-policies.
+ */
+@Component
+public class DriverFingerprintService {
+
+    public static final String POLICYHOLDER = "policyholder";
+
+    @Autowired private TripFingerprintRepository fingerprintRepo;
+    @Autowired private InsurancePolicyRepository policyRepo;
+    @Autowired private NotificationRepository notificationRepo;
+    @Autowired private MeterRegistry meterRegistry;
+
+    // Shorter trips say too little about the driver to be matched
+    @Value("${fingerprint.min-samples:30}")
+    private int minSamples;
+
+    @Value("${fingerprint.enrollment-trips:5}")
+    private int enrollmentTrips;
+
+    @Value("${fingerprint.match.sigma:3}")
+    private double sigma;
+
+    @Value("${fingerprint.match.min-distance:0.1}")
+    private float minDistance;
+
+    @Value("${fingerprint.match.max-distance:0.6}")
+    private float maxDistance;
+
+    @Value("${fingerprint.index.max-policies:10000}")
+    private int maxPolicies;
+
+    @Value("${fingerprint.index.m:16}")
+    private int m;
+
+    @Value("${fingerprint.index.ef-construction:100}")
+    private int efConstruction;
+
+    @Value("${fingerprint.index.ef-search:64}")
+    private int efSearch;
+
+    private final class PolicyIndex {
+        final HnswIndex index;
+        final List<String> drivers = new ArrayList<>();// by node
+        final Map<Long, Integer> nodes = new HashMap<>();// fingerprint id -> node
+        // Nearest-neighbour distance of each trip as it joined (Welford)
+        long joined;
+        double mean, m2;
+
+        PolicyIndex(long policyId) {
+            index = new HnswIndex(DrivingStyleFingerprint.DIMENSIONS, m, efConstruction, policyId);
+        }
+
+        void add(TripFingerprint fp, float[] vector) {
+            if (index.size() > 0) {
+                double d = index.search(vector, 1, efSearch).get(0).distance;
+                joined++;
+                double delta = d - mean;
+                mean += delta / joined;
+                m2 += delta * (d - mean);
+            }
+            nodes.put(fp.getId(), index.add(vector));
+            drivers.add(fp.getDriver());
+        }
+
+        float threshold() {
+            if (joined < 2) {
+                return maxDistance;
+            }
+            double t = mean + sigma * Math.sqrt(m2 / (joined - 1));
+            return (float) Math.max(minDistance, Math.min(maxDistance, t));
+        }
+    }
+
+    // Access order, so iteration starts at the least recently used policy
+    private final LinkedHashMap<Long, PolicyIndex> indexes = new LinkedHashMap<>(256, 0.75f, true);
+
+    /** Fingerprints a finished live trip and attributes or flags it; null if the trip is too short or uninsured. */
+    public DriverMatchDTO recordTrip(Vehicle vehicle, Integer tripNo, List<TripData> rows) {
+        if (rows.size() < minSamples) {
+            return null;
+        }
+        Optional<InsurancePolicy> policy = policyRepo.findByVehicleId(vehicle.getId());
+        if (policy.isEmpty()) {
+            return null;
+        }
+        Long policyId = policy.get().getId();
+        float[] vector = DrivingStyleFingerprint.of(rows);
+
+        TripFingerprint fp = new TripFingerprint();
+        fp.setPolicyId(policyId);
+        fp.setVehicleId(vehicle.getId());
+        fp.setTripNo(tripNo);
+        fp.setVector(DrivingStyleFingerprint.encode(vector));
+        PolicyIndex index = index(policyId);
+        synchronized (index) {
+            if (index.index.size() < enrollmentTrips) {
+                fp.setDriver(POLICYHOLDER);
+                fp.setEnrolled(true);
+            } else {
+                HnswIndex.Result nearest = index.index.search(vector, 1, efSearch).get(0);
+                float threshold = index.threshold();
+                fp.setDistance(nearest.distance);
+                fp.setThreshold(threshold);
+                fp.setEnrolled(false);
+                if (nearest.distance <= threshold) {
+                    fp.setDriver(index.drivers.get(nearest.node));
+                }
+            }
+            fingerprintRepo.save(fp);
+            if (fp.getDriver() != null) {
+                index.add(fp, vector);
+            }
+        }
+
+        String result = fp.getDriver() == null ? "flagged" : fp.getEnrolled() ? "enrolled" : "matched";
+        meterRegistry.counter("drivesafe.fingerprint.trips", "result", result).increment();
+        if (fp.getDriver() == null && vehicle.getUser() != null) {
+            Notification note = new Notification();
+            note.setUser(vehicle.getUser());
+            note.setMessage("🔍 Trip " + tripNo + " on " + vehicle.getVehicleNo() + " does not match the driving style of"
+                    + " the drivers on your policy. If someone else was driving, add them as a driver.");
+            notificationRepo.save(note);
+        }
+        return toDTO(fp);
+    }
+
+    /** Attributes a fingerprinted trip to a driver of the policy, enrolling the driver if new; only the policyholder may. */
+    public DriverMatchDTO enroll(Long policyId, Long vehicleId, Integer tripNo, String driver, String callerEmail) {
+        if (driver == null || driver.isBlank()) {
+            throw new RuntimeException("Driver name is required");
+        }
+        InsurancePolicy policy = policyRepo.findById(policyId)
+                .orElseThrow(() -> new RuntimeException("Policy not found"));
+        User holder = policy.getUser() != null ? policy.getUser()
+                : policy.getVehicle() != null ? policy.getVehicle().getUser() : null;
+        if (holder == null || callerEmail == null || !callerEmail.equalsIgnoreCase(holder.getEmail())) {
+            throw new AccessDeniedException("Only the policyholder can enroll drivers on policy " + policyId);
+        }
+        TripFingerprint fp = fingerprintRepo.findByVehicleIdAndTripNo(vehicleId, tripNo)
+                .orElseThrow(() -> new RuntimeException("Trip fingerprint not found"));
+        if (!policyId.equals(fp.getPolicyId())) {
+            throw new RuntimeException("Trip does not belong to policy " + policyId);
+        }
+        PolicyIndex index = index(policyId);
+        synchronized (index) {
+            fp.setDriver(driver.trim());
+            fp.setEnrolled(true);
+            fingerprintRepo.save(fp);
+            Integer node = index.nodes.get(fp.getId());
+            if (node != null) {
+                index.drivers.set(node, fp.getDriver());
+            } else {
+                index.add(fp, DrivingStyleFingerprint.decode(fp.getVector()));
+            }
+        }
+        return toDTO(fp);
+    }
+
+    public List<DriverMatchDTO> matches(Long policyId, int limit) {
+        return fingerprintRepo.findByPolicyIdOrderByIdDesc(policyId, PageRequest.of(0, limit)).stream()
+                .map(DriverFingerprintService::toDTO)
+                .collect(Collectors.toList());
+    }
+
+    public synchronized int size() {
+        return indexes.size();
+    }
+
+    // Built under the lock, so a trip saved meanwhile cannot be both loaded and added
+    private synchronized PolicyIndex index(Long policyId) {
+        PolicyIndex index = indexes.get(policyId);
+        if (index != null) {
+            return index;
+        }
+        index = new PolicyIndex(policyId);
+        for (TripFingerprint fp : fingerprintRepo.findByPolicyIdAndDriverIsNotNullOrderByIdAsc(policyId)) {
+            index.add(fp, DrivingStyleFingerprint.decode(fp.getVector()));
+        }
+        indexes.put(policyId, index);
+        Iterator<PolicyIndex> eldest = indexes.values().iterator();
+        while (indexes.size() > maxPolicies && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+        }
+        return index;
+    }
+
+    private static DriverMatchDTO toDTO(TripFingerprint fp) {
+        return new DriverMatchDTO(fp.getPolicyId(), fp.getVehicleId(), fp.getTripNo(), fp.getDriver(),
+                fp.getEnrolled(), fp.getDriver() == null, fp.getDistance(), fp.getThreshold(), fp.getCreatedAt());
+    }
+}
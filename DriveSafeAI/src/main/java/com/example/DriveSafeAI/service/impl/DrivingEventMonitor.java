@@ -0,0 +1,202 @@
+package com.example.DriveSafeAI.service.impl;
+
+import com.example.DriveSafeAI.dao.DrivingEventRepository;
+import com.example.DriveSafeAI.dao.NotificationRepository;
+import com.example.DriveSafeAI.dao.VehicleRepository;
+import com.example.DriveSafeAI.dto.LiveTripDTO;
+import com.example.DriveSafeAI.entity.DrivingEvent;
+import com.example.DriveSafeAI.entity.DrivingEventType;
+import com.example.DriveSafeAI.entity.Notification;
+import com.example.DriveSafeAI.entity.Vehicle;
+import com.example.DriveSafeAI.util.HarshEventDetector;
+import com.example.DriveSafeAI.util.TelemetryLog;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Telemetry log consumer that runs the harsh-event rules on every live sample while the trip is in progress.
+ * Detected events are stored as {@link DrivingEvent} rows and pushed to the driver as notifications; events
+ * for vehicle ids that are not registered are dropped, and events that fail to save are retried on the next drain.
+ * Session state is dropped at the session's end marker, or after idle-timeout-minutes without samples.
+ */
+@Component
+public class DrivingEventMonitor extends TelemetryLogConsumer {
+
+    private static final Logger logger = LoggerFactory.getLogger(DrivingEventMonitor.class);
+
+    // Events held while the database is unavailable; past this the oldest are dropped
+    private static final int MAX_PENDING = 10_000;
+
+    @Autowired private DrivingEventRepository eventRepo;
+    @Autowired private NotificationRepository notificationRepo;
+    @Autowired private VehicleRepository vehicleRepo;
+    @Autowired private VehicleLookup vehicleLookup;
+
+    @Value("${driving-events.ewma-alpha:0.6}") private float ewmaAlpha;
+    @Value("${driving-events.min-samples:1}") private int minSamples;
+    @Value("${driving-events.window:5}") private int window;
+    @Value("${driving-events.harsh-braking.enter:3.5}") private float brakingEnter;
+    @Value("${driving-events.harsh-braking.exit:2.0}") private float brakingExit;
+    @Value("${driving-events.rapid-acceleration.enter:3.0}") private float accelerationEnter;
+    @Value("${driving-events.rapid-acceleration.exit:2.0}") private float accelerationExit;
+    @Value("${driving-events.over-revving.enter:4500}") private float rpmEnter;
+    @Value("${driving-events.over-revving.exit:4000}") private float rpmExit;
+    @Value("${driving-events.speeding.enter:10}") private float speedingEnter;
+    @Value("${driving-events.speeding.exit:5}") private float speedingExit;
+    @Value("${driving-events.idle-timeout-minutes:30}") private long idleTimeoutMinutes;
+
+    private HarshEventDetector detector;
+    // Access order, so iteration starts at the session that reported least recently
+    private final LinkedHashMap<String, HarshEventDetector.State> sessions = new LinkedHashMap<>(256, 0.75f, true);
+    private final List<DrivingEvent> pending = new ArrayList<>();
+
+    @Override
+    protected String consumerName() {
+        return "driving-events";
+    }
+
+    @PostConstruct
+    public void init() {
+        HarshEventDetector.Rules rules = new HarshEventDetector.Rules();
+        rules.ewmaAlpha = ewmaAlpha;
+        rules.minSamples = minSamples;
+        rules.window = window;
+        rules.brakingEnter = brakingEnter;
+        rules.brakingExit = brakingExit;
+        rules.accelerationEnter = accelerationEnter;
+        rules.accelerationExit = accelerationExit;
+        rules.rpmEnter = rpmEnter;
+        rules.rpmExit = rpmExit;
+        rules.speedingEnter = speedingEnter;
+        rules.speedingExit = speedingExit;
+        detector = new HarshEventDetector(rules);
+        seekToCommitted();
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${driving-events.poll-ms:100}")
+    public synchronized void drain() {
+        super.drain();
+        // Retries events a failed save kept back, even when no new samples arrived
+        afterBatch();
+    }
+
+    @Override
+    protected void apply(TelemetryLog.Entry entry) {
+        if (entry.getType() == TelemetryLogService.SESSION_END) {
+            sessions.remove(telemetryLog.decodeSessionEnd(entry));
+            return;
+        }
+        if (entry.getType() != TelemetryLogService.SAMPLE) {
+            return;
+        }
+        LiveTripDTO dto = telemetryLog.decodeSample(entry);
+        if (dto == null) {
+            return;
+        }
+        HarshEventDetector.State state = sessions.computeIfAbsent(dto.getSessionId(), k -> detector.newState());
+        state.lastSampleAt = System.currentTimeMillis();
+        long at = dto.getReceivedAt() != null ? dto.getReceivedAt() : state.lastSampleAt;
+        int fired = detector.update(state, at,
+                dto.getSpeed() != null ? dto.getSpeed() : Float.NaN,
+                dto.getRpm() != null ? dto.getRpm() : Float.NaN,
+                dto.getAcceleration() != null ? dto.getAcceleration().floatValue() : Float.NaN,
+                dto.getDesignSpeed() != null ? dto.getDesignSpeed() : 0f);
+        // A made-up vehicle id would fail the foreign key and take the rest of the batch with it
+        if (fired == 0 || dto.getIdVehicle() == null || !vehicleLookup.isRegistered(dto.getIdVehicle())) {
+            return;
+        }
+        while (fired != 0) {
+            int ordinal = Integer.numberOfTrailingZeros(fired);
+            fired &= fired - 1;
+            DrivingEvent event = new DrivingEvent();
+            event.setVehicle(vehicleRepo.getReferenceById(dto.getIdVehicle()));
+            event.setSessionId(dto.getSessionId());
+            event.setEventType(HarshEventDetector.type(ordinal));
+            event.setSeverity(state.lastSignal[ordinal]);
+            event.setLatitude(dto.getLatitude());
+            event.setLongitude(dto.getLongitude());
+            pending.add(event);
+        }
+    }
+
+    /** Forgets sessions that stopped reporting without an end marker. */
+    @Scheduled(fixedDelayString = "${driving-events.expiry-check-ms:60000}")
+    public synchronized void expireIdleSessions() {
+        long idleBefore = System.currentTimeMillis() - idleTimeoutMinutes * 60_000L;
+        Iterator<HarshEventDetector.State> it = sessions.values().iterator();
+        while (it.hasNext() && it.next().lastSampleAt < idleBefore) {
+            it.remove();
+        }
+    }
+
+    @Override
+    protected void afterBatch() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<DrivingEvent> events = new ArrayList<>(pending);
+        try {
+            eventRepo.saveAll(events);
+        } catch (RuntimeException e) {
+            // The log has moved past these samples, so keep the events for the next drain. The rolled-back
+            // insert left ids on them, which would make the retry a merge of rows that do not exist
+            for (DrivingEvent event : events) {
+                event.setId(null);
+            }
+            int dropped = Math.max(0, pending.size() - MAX_PENDING);
+            pending.subList(0, dropped).clear();
+            logger.warn("Saving {} driving events failed, will retry{}: {}", events.size(),
+                    dropped > 0 ? " (dropped the " + dropped + " oldest)" : "", e.getMessage());
+            return;
+        }
+        pending.clear();
+        try {
+            notifyDrivers(events);
+        } catch (RuntimeException e) {
+            logger.warn("Notifying drivers of {} driving events failed: {}", events.size(), e.getMessage());
+        }
+    }
+
+    private void notifyDrivers(List<DrivingEvent> events) {
+        Map<Long, Vehicle> vehicles = new HashMap<>();
+        List<Notification> notes = new ArrayList<>();
+        for (DrivingEvent event : events) {
+            Vehicle vehicle = vehicles.computeIfAbsent(event.getVehicle().getId(),
+                    id -> vehicleRepo.findById(id).orElse(null));
+            if (vehicle == null || vehicle.getUser() == null) {
+                continue;
+            }
+            Notification n = new Notification();
+            n.setUser(vehicle.getUser());
+            n.setMessage(message(event.getEventType(), event.getSeverity()));
+            notes.add(n);
+        }
+        notificationRepo.saveAll(notes);
+    }
+
+    private static String message(DrivingEventType type, float severity) {
+        return switch (type) {
+            case HARSH_BRAKING -> String.format("⚠️ Harsh braking detected (%.1f m/s²)", severity);
+            case RAPID_ACCELERATION -> String.format("⚠️ Rapid acceleration detected (%.1f m/s²)", severity);
+            case OVER_REVVING -> String.format("⚠️ Engine over-revving detected (%.0f rpm)", severity);
+            case SPEEDING -> String.format("⚠️ Speeding: %.0f km/h over the road's design speed", severity);
+        };
+    }
+
+    public synchronized int getActiveSessions() {
+        return sessions.size();
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.DriveSafeAI.service.impl;
+
+import com.example.DriveSafeAI.dao.DriscRecomputeJobRepository;
+import com.example.DriveSafeAI.dto.DriscRecomputeJobDTO;
+import com.example.DriveSafeAI.entity.DriscRecomputeJob;
+import com.example.DriveSafeAI.entity.JobStatus;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Recomputes DRISC for every driver after the insurer changes the trip window N.
+ * One windowed query ranks each vehicle's trip summaries newest first and aggregates the distance-weighted
+ * score over the top N in the database, so the whole fleet is a single streamed pass over trip_summary.
+ * Snapshots are inserted in JDBC batches; unlike the per-user endpoint no notification is sent.
+ */
+@Component
+public class FleetDriscRecomputeJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(FleetDriscRecomputeJob.class);
+
+    // Same weighting as DriveSafeServiceImpl.calculateDriscScore: trips without distance count but carry no weight
+    private static final String SCORES_SQL =
+            "SELECT r.user_id, r.fleet, "
+                    + "SUM(CASE WHEN r.distance_travelled > 0 AND r.drive_score IS NOT NULL "
+                    + "THEN r.drive_score * r.distance_travelled ELSE 0 END), "
+                    + "SUM(CASE WHEN r.distance_travelled > 0 AND r.drive_score IS NOT NULL "
+                    + "THEN r.distance_travelled ELSE 0 END), "
+                    + "COUNT(*) "
+                    + "FROM (SELECT v.user_id, v.fleet, ts.drive_score, ts.distance_travelled, "
+                    + "ROW_NUMBER() OVER (PARTITION BY ts.vehicle_id ORDER BY ts.id DESC) AS rn "
+                    + "FROM trip_summary ts JOIN vehicle v ON v.id = ts.vehicle_id "
+                    + "WHERE v.user_id IS NOT NULL) r "
+                    + "WHERE r.rn <= ? GROUP BY r.user_id, r.fleet";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO drisc_score (score, trips_considered, calculated_at, user_id) VALUES (?, ?, ?, ?)";
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private DriscRecomputeJobRepository jobRepo;
+    @Autowired private PopulationAnalyticsService analyticsService;
+    @Autowired private PremiumQuoteCache quoteCache;
+    @Autowired private DriverDashboardService dashboard;
+
+    @Value("${drisc.recompute.fetch-size:1000}")
+    private int fetchSize;
+
+    @Value("${drisc.recompute.batch-size:1000}")
+    private int batchSize;
+
+    private final ExecutorService launcher = Executors.newSingleThreadExecutor();
+
+    @PreDestroy
+    public void shutdown() {
+        launcher.shutdownNow();
+    }
+
+    public DriscRecomputeJobDTO start(int tripWindow) {
+        if (tripWindow <= 0) {
+            throw new RuntimeException("Trip window N must be positive");
+        }
+        DriscRecomputeJob job = new DriscRecomputeJob();
+        job.setTripWindow(tripWindow);
+        jobRepo.save(job);
+        launcher.submit(() -> run(job));
+        return toDTO(job);
+    }
+
+    public DriscRecomputeJobDTO status(Long jobId) {
+        return toDTO(jobRepo.findById(jobId).orElseThrow(() -> new RuntimeException("DRISC recompute job not found")));
+    }
+
+    private void run(DriscRecomputeJob job) {
+        long started = System.nanoTime();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> pending = new ArrayList<>(batchSize);
+        try {
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(SCORES_SQL);
+                ps.setFetchSize(fetchSize);
+                ps.setInt(1, job.getTripWindow());
+                return ps;
+            }, rs -> {
+                double totalDistance = rs.getDouble(4);
+                float score = totalDistance == 0 ? 0f : (float) (rs.getDouble(3) / totalDistance);
+                pending.add(new Object[]{score, rs.getInt(5), now, rs.getLong(1)});
+                if (pending.size() >= batchSize) {
+                    flush(job, pending, started);
+                }
+            });
+            flush(job, pending, started);
+            // Every driver now has a new latest snapshot; counting them on top of the old ones would double the population
+            analyticsService.rebuildDrisc();
+            job.setStatus(JobStatus.COMPLETED);
+        } catch (RuntimeException e) {
+            logger.error("DRISC recompute job {} failed", job.getId(), e);
+            job.setStatus(JobStatus.FAILED);
+            job.setError(e.getMessage());
+        }
+        job.setFinishedAt(LocalDateTime.now());
+        jobRepo.save(job);
+        logger.info("DRISC recompute job {} {}: {} users with N={} at {} users/s",
+                job.getId(), job.getStatus(), job.getUsersScored(), job.getTripWindow(), job.getUsersPerSecond());
+    }
+
+    private void flush(DriscRecomputeJob job, List<Object[]> pending, long started) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, pending);
+        // Plain JDBC, so the JPA listener does not see these snapshots
+        for (Object[] row : pending) {
+            quoteCache.invalidateUser((Long) row[3], null);
+            dashboard.invalidate((Long) row[3]);
+        }
+        job.setUsersScored(job.getUsersScored() + pending.size());
+        job.setUsersPerSecond(job.getUsersScored() / Math.max((System.nanoTime() - started) / 1e9, 1e-3));
+        jobRepo.save(job);
+        pending.clear();
+    }
+
+    private static DriscRecomputeJobDTO toDTO(DriscRecomputeJob job) {
+        return new DriscRecomputeJobDTO(job.getId(), job.getStatus().name(), job.getTripWindow(), job.getUsersScored(),
+                job.getUsersPerSecond(), job.getError(), job.getStartedAt(), job.getFinishedAt());
+    }
+}
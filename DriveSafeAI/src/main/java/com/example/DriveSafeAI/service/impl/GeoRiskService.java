@@ -0,0 +1,113 @@
+package com.example.DriveSafeAI.service.impl;
+
+import com.example.DriveSafeAI.entity.TripData;
+import com.example.DriveSafeAI.util.GeoRiskIndex;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Serves design-speed and accident-hotspot lookups from an in-memory {@link GeoRiskIndex}.
+ * The dataset file is watched; a changed file is loaded into a fresh index off the request path
+ * and swapped in atomically, so lookups never pause.
+ */
+@Component
+public class GeoRiskService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeoRiskService.class);
+
+    @Value("${geo.index.file:data/road-segments.csv}")
+    private String indexFile;
+
+    @Value("${geo.index.max-distance-meters:500}")
+    private double maxDistanceMeters;
+
+    private volatile GeoRiskIndex index = GeoRiskIndex.empty();
+    private long loadedModified = -1;
+
+    @PostConstruct
+    public void init() {
+        // Fail startup here rather than log a load error on every reload check
+        if (!(maxDistanceMeters >= 0)) {
+            throw new RuntimeException("geo.index.max-distance-meters must not be negative: " + maxDistanceMeters);
+        }
+        reloadIfChanged();
+    }
+
+    @Scheduled(fixedDelayString = "${geo.index.reload-check-ms:30000}")
+    public void reloadIfChanged() {
+        Path path = Paths.get(indexFile);
+        try {
+            if (!Files.exists(path)) {
+                if (loadedModified == -1) {
+                    logger.warn("Geo risk dataset {} not found, location lookups disabled", path);
+                    loadedModified = 0;
+                }
+                return;
+            }
+            long modified = Files.getLastModifiedTime(path).toMillis();
+            if (modified == loadedModified) {
+                return;
+            }
+            GeoRiskIndex fresh;
+            try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                fresh = GeoRiskIndex.load(reader, maxDistanceMeters);
+            }
+            index = fresh;
+            loadedModified = modified;
+            logger.info("Geo risk index loaded {} points from {}", fresh.size(), path);
+        } catch (IOException | RuntimeException e) {
+            // Keep serving the previous index; a half-written file is retried on the next check
+            logger.error("Failed to load geo risk dataset {}", path, e);
+        }
+    }
+
+    public boolean lookup(double latitude, double longitude, GeoRiskIndex.Match out) {
+        return index.lookup(latitude, longitude, out);
+    }
+
+    /**
+     * Fills missing designSpeed/accidentsOnsite from the nearest segment and sets hotspotRisk on every sample.
+     * Returns the trip's mean hotspot risk over located samples.
+     */
+    public float annotate(List<TripData> trip) {
+        GeoRiskIndex current = index;
+        GeoRiskIndex.Match match = new GeoRiskIndex.Match();
+        double riskSum = 0;
+        int located = 0;
+        for (TripData t : trip) {
+            if (t.getLatitude() == null || t.getLongitude() == null) {
+                continue;
+            }
+            located++;
+            if (!current.lookup(t.getLatitude(), t.getLongitude(), match)) {
+                t.setHotspotRisk(0f);
+                continue;
+            }
+            t.setHotspotRisk(match.hotspotRisk);
+            riskSum += match.hotspotRisk;
+            if ((t.getDesignSpeed() == null || t.getDesignSpeed() <= 0) && match.designSpeed > 0) {
+                t.setDesignSpeed((long) match.designSpeed);
+            }
+            if (t.getAccidentsOnsite() == null) {
+                t.setAccidentsOnsite((long) match.accidentCount);
+            }
+        }
+        return located == 0 ? 0f : (float) (riskSum / located);
+    }
+
+    public int getIndexSize() {
+        return index.size();
+    }
+}
@@ -0,0 +1,301 @@
+package com.example.DriveSafeAI.service.impl;
+
+import com.example.DriveSafeAI.dao.UserRepository;
+import com.example.DriveSafeAI.dto.LeaderboardDTO;
+import com.example.DriveSafeAI.dto.LeaderboardEntryDTO;
+import com.example.DriveSafeAI.entity.User;
+import com.example.DriveSafeAI.util.RankedScoreBoard;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Global and per-fleet leaderboards by latest DRISC and by lifetime reward points.
+ * Each board is a {@link RankedScoreBoard}; new drisc_score and drive_score rows are folded in by id
+ * on a short schedule, so a score change costs O(log n) and reads never sort in the database.
+ * IDENTITY ids are handed out before commit, so a row can become visible after a higher id was read: each pass
+ * re-reads catch-up-margin ids below the highest seen and skips the drive_score rows it already added.
+ * Boards are snapshotted to disk with that position, so a restart loads the snapshot and only
+ * catches up on rows written since. Drivers' fleets are re-read every fleet-refresh-ms.
+ */
+@Component
+public class LeaderboardService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaderboardService.class);
+
+    public static final String DRISC = "drisc";
+    public static final String POINTS = "points";
+
+    private static final int SNAPSHOT_MAGIC = 0x4C424432;// "LBD2"
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private UserRepository userRepo;
+
+    @Value("${leaderboards.snapshot-file:data/leaderboards/leaderboards.snap}")
+    private String snapshotFile;
+
+    // How far below the highest id read a late-committing row can still appear
+    @Value("${leaderboards.catch-up-margin:1000}")
+    private long catchUpMargin;
+
+    private final Map<String, RankedScoreBoard> boards = new ConcurrentHashMap<>();
+    private final Map<Long, String> userFleet = new ConcurrentHashMap<>();// "" when the vehicle has no fleet
+    // Rows up to these ids are folded; above them, only the drive_score ids in foldedDriveScoreIds
+    private long driscFloor;
+    private long driveScoreFloor;
+    private final Set<Long> foldedDriveScoreIds = new HashSet<>();
+
+    @PostConstruct
+    public void init() {
+        long started = System.currentTimeMillis();
+        boolean restored = false;
+        try {
+            restored = loadSnapshot();
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Ignoring unreadable leaderboard snapshot {}", snapshotFile, e);
+            boards.clear();
+            userFleet.clear();
+            foldedDriveScoreIds.clear();
+        }
+        if (!restored) {
+            rebuild();
+        }
+        catchUp();
+        logger.info("Leaderboards ready with {} drivers in {} ms ({})", board(DRISC, null).size(),
+                System.currentTimeMillis() - started, restored ? "snapshot" : "rebuilt");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        snapshot();
+    }
+
+    /**
+     * Folds drisc_score and drive_score rows written since the last pass into the boards. A DRISC score is a
+     * plain put and the rows come in id order, so re-reading them is harmless; points are added once per row.
+     */
+    @Scheduled(fixedDelayString = "${leaderboards.refresh-ms:5000}")
+    public synchronized void catchUp() {
+        long[] max = {driscFloor, driveScoreFloor};
+        jdbcTemplate.query("SELECT id, user_id, score FROM drisc_score WHERE id > ? AND user_id IS NOT NULL ORDER BY id", rs -> {
+            setDrisc(rs.getLong(2), rs.getFloat(3));
+            max[0] = rs.getLong(1);
+        }, driscFloor);
+        jdbcTemplate.query("SELECT ds.id, v.user_id, ds.reward_points FROM drive_score ds "
+                + "JOIN vehicle v ON v.id = ds.vehicle_id WHERE ds.id > ? AND v.user_id IS NOT NULL ORDER BY ds.id", rs -> {
+            long id = rs.getLong(1);
+            if (foldedDriveScoreIds.add(id)) {
+                addPoints(rs.getLong(2), rs.getInt(3));
+            }
+            max[1] = id;
+        }, driveScoreFloor);
+        driscFloor = Math.max(driscFloor, max[0] - catchUpMargin);
+        driveScoreFloor = Math.max(driveScoreFloor, max[1] - catchUpMargin);
+        foldedDriveScoreIds.removeIf(id -> id <= driveScoreFloor);
+    }
+
+    /** Moves drivers whose vehicle changed fleet to the new fleet's boards, and forgets drivers without one. */
+    @Scheduled(fixedDelayString = "${leaderboards.fleet-refresh-ms:300000}", initialDelayString = "${leaderboards.fleet-refresh-ms:300000}")
+    public synchronized void refreshFleets() {
+        Map<Long, String> current = new HashMap<>();
+        jdbcTemplate.query("SELECT user_id, fleet FROM vehicle WHERE user_id IS NOT NULL",
+                rs -> { current.putIfAbsent(rs.getLong(1), rs.getString(2) != null ? rs.getString(2) : ""); });
+        int moved = 0;
+        for (Map.Entry<Long, String> e : userFleet.entrySet()) {
+            long userId = e.getKey();
+            String fleet = current.get(userId);
+            if (Objects.equals(fleet, e.getValue())) {
+                continue;
+            }
+            for (String metric : new String[]{DRISC, POINTS}) {
+                if (!e.getValue().isEmpty()) {
+                    RankedScoreBoard old = boards.get(key(metric, e.getValue()));
+                    if (old != null) {
+                        old.remove(userId);
+                    }
+                }
+                Double score = board(metric, null).scoreOf(userId);
+                if (fleet != null && !fleet.isEmpty() && score != null) {
+                    board(metric, fleet).put(userId, score);
+                }
+            }
+            if (fleet != null) {
+                e.setValue(fleet);
+            } else {
+                userFleet.remove(userId);
+            }
+            moved++;
+        }
+        if (moved > 0) {
+            logger.info("Moved {} drivers to their current fleet boards", moved);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${leaderboards.snapshot-ms:60000}", initialDelayString = "${leaderboards.snapshot-ms:60000}")
+    public synchronized void snapshot() {
+        Path path = Paths.get(snapshotFile);
+        try {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+            Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+            RankedScoreBoard drisc = board(DRISC, null), points = board(POINTS, null);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeLong(driscFloor);
+                out.writeLong(driveScoreFloor);
+                out.writeInt(foldedDriveScoreIds.size());
+                for (long id : foldedDriveScoreIds) {
+                    out.writeLong(id);
+                }
+                out.writeInt(userFleet.size());
+                for (Map.Entry<Long, String> e : userFleet.entrySet()) {
+                    Double d = drisc.scoreOf(e.getKey()), p = points.scoreOf(e.getKey());
+                    out.writeLong(e.getKey());
+                    out.writeUTF(e.getValue());
+                    out.writeDouble(d != null ? d : Double.NaN);
+                    out.writeDouble(p != null ? p : Double.NaN);
+                }
+            }
+            Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            logger.error("Failed to write leaderboard snapshot {}", path, e);
+        }
+    }
+
+    public LeaderboardDTO top(String metric, String fleet, int limit) {
+        RankedScoreBoard board = lookup(metric, fleet);
+        return toDTO(metric, fleet, board.size(), null, board.top(limit));
+    }
+
+    public LeaderboardDTO around(String metric, String fleet, Long userId, int radius) {
+        RankedScoreBoard board = lookup(metric, fleet);
+        int rank = board.rankOf(userId);
+        if (rank == 0) {
+            throw new RuntimeException("Driver is not ranked on this leaderboard");
+        }
+        return toDTO(metric, fleet, board.size(), rank, board.range(rank - radius, rank + radius));
+    }
+
+    private LeaderboardDTO toDTO(String metric, String fleet, int size, Integer rank, List<RankedScoreBoard.Entry> entries) {
+        Map<Long, String> names = userRepo.findAllById(entries.stream().map(e -> e.id).collect(Collectors.toList())).stream()
+                .collect(Collectors.toMap(User::getId, User::getFullName, (a, b) -> a));
+        List<LeaderboardEntryDTO> rows = entries.stream()
+                .map(e -> new LeaderboardEntryDTO(e.rank, e.id, names.get(e.id), e.score))
+                .collect(Collectors.toList());
+        return new LeaderboardDTO(metric, fleet, size, rank, rows);
+    }
+
+    // Reads never create boards, so arbitrary fleet names from requests do not accumulate
+    private RankedScoreBoard lookup(String metric, String fleet) {
+        if (!DRISC.equals(metric) && !POINTS.equals(metric)) {
+            throw new RuntimeException("Unknown leaderboard metric: " + metric);
+        }
+        RankedScoreBoard board = boards.get(key(metric, fleet));
+        return board != null ? board : new RankedScoreBoard();
+    }
+
+    private RankedScoreBoard board(String metric, String fleet) {
+        return boards.computeIfAbsent(key(metric, fleet), k -> new RankedScoreBoard());
+    }
+
+    private static String key(String metric, String fleet) {
+        return fleet == null || fleet.isEmpty() ? metric : metric + ":" + fleet;
+    }
+
+    private String fleetOf(long userId) {
+        return userFleet.computeIfAbsent(userId, id -> {
+            List<String> fleets = jdbcTemplate.queryForList("SELECT fleet FROM vehicle WHERE user_id = ?", String.class, id);
+            return fleets.isEmpty() || fleets.get(0) == null ? "" : fleets.get(0);
+        });
+    }
+
+    private void setDrisc(long userId, double score) {
+        String fleet = fleetOf(userId);
+        board(DRISC, null).put(userId, score);
+        if (!fleet.isEmpty()) {
+            board(DRISC, fleet).put(userId, score);
+        }
+    }
+
+    private void addPoints(long userId, double points) {
+        String fleet = fleetOf(userId);
+        board(POINTS, null).add(userId, points);
+        if (!fleet.isEmpty()) {
+            board(POINTS, fleet).add(userId, points);
+        }
+    }
+
+    private boolean loadSnapshot() throws IOException {
+        Path path = Paths.get(snapshotFile);
+        if (!Files.exists(path)) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("Bad snapshot header");
+            }
+            driscFloor = in.readLong();
+            driveScoreFloor = in.readLong();
+            int folded = in.readInt();
+            for (int i = 0; i < folded; i++) {
+                foldedDriveScoreIds.add(in.readLong());
+            }
+            int users = in.readInt();
+            for (int i = 0; i < users; i++) {
+                long userId = in.readLong();
+                userFleet.put(userId, in.readUTF());
+                double drisc = in.readDouble(), points = in.readDouble();
+                if (!Double.isNaN(drisc)) {
+                    setDrisc(userId, drisc);
+                }
+                if (!Double.isNaN(points)) {
+                    addPoints(userId, points);
+                }
+            }
+        }
+        return true;
+    }
+
+    private void rebuild() {
+        jdbcTemplate.query("SELECT user_id, fleet FROM vehicle WHERE user_id IS NOT NULL",
+                rs -> { userFleet.put(rs.getLong(1), rs.getString(2) != null ? rs.getString(2) : ""); });
+        // Aggregate up to a margin below the current maximum; catchUp folds the rest row by row, including rows
+        // committed during the rebuild
+        Map<String, Object> max = jdbcTemplate.queryForMap("SELECT (SELECT COALESCE(MAX(id), 0) FROM drisc_score) AS d, "
+                + "(SELECT COALESCE(MAX(id), 0) FROM drive_score) AS s");
+        driscFloor = Math.max(0, ((Number) max.get("d")).longValue() - catchUpMargin);
+        driveScoreFloor = Math.max(0, ((Number) max.get("s")).longValue() - catchUpMargin);
+        jdbcTemplate.query("SELECT d.user_id, d.score FROM drisc_score d "
+                + "JOIN (SELECT user_id, MAX(id) AS id FROM drisc_score WHERE id <= ? GROUP BY user_id) m ON m.id = d.id "
+                + "WHERE d.user_id IS NOT NULL", rs -> {
+            setDrisc(rs.getLong(1), rs.getFloat(2));
+        }, driscFloor);
+        jdbcTemplate.query("SELECT v.user_id, SUM(ds.reward_points) FROM drive_score ds JOIN vehicle v ON v.id = ds.vehicle_id "
+                + "WHERE ds.id <= ? AND v.user_id IS NOT NULL GROUP BY v.user_id", rs -> {
+            addPoints(rs.getLong(1), rs.getLong(2));
+        }, driveScoreFloor);
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.DriveSafeAI.service.impl;
+
+import com.example.DriveSafeAI.dto.LiveTripDTO;
+import com.example.DriveSafeAI.util.TelemetryLog;
+import com.example.DriveSafeAI.util.TripSessionBuffer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Telemetry log consumer that assembles live samples into {@link TripSessionBuffer} sessions.
+ * Its committed offset is the first sample of the oldest open session, so a restart replays
+ * exactly the sessions that were still in flight. A session stays open until its trip is persisted;
+ * samples arriving shortly after it ended are dropped, and sessions that stop reporting expire.
+ */
+@Component
+public class LiveSessionAssembler extends TelemetryLogConsumer {
+
+    private static final Logger logger = LoggerFactory.getLogger(LiveSessionAssembler.class);
+
+    @Value("${telemetry.assembly.idle-timeout-minutes:30}")
+    private long idleTimeoutMinutes;
+
+    @Value("${telemetry.assembly.ended-retention-minutes:60}")
+    private long endedRetentionMinutes;
+
+    private final Map<String, Long> sessionStartOffsets = new HashMap<>();
+    private final Map<String, Long> lastSampleAt = new HashMap<>();
+    private final Set<String> closing = new HashSet<>();
+    // Insertion order is end order, so expired entries sit at the front
+    private final LinkedHashMap<String, Long> recentlyEnded = new LinkedHashMap<>();
+    private long lateSamples;
+
+    @Override
+    protected String consumerName() {
+        return "session-assembly";
+    }
+
+    @PostConstruct
+    public synchronized void replay() {
+        seekToCommitted();
+        long from = position;
+        drain();
+        logger.info("Replayed telemetry log from offset {} to {}, {} open sessions restored",
+                from, position, sessionStartOffsets.size());
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${telemetry.assembly.poll-ms:200}")
+    public synchronized void drain() {
+        super.drain();
+    }
+
+    /**
+     * Catches up with the log and returns the session's samples, or null if there are none. The session stays
+     * open, and in the log, until {@link #completeSession} once the trip is persisted or {@link #abortSession}.
+     */
+    public synchronized List<LiveTripDTO> endSession(String sessionId) {
+        drain();
+        List<LiveTripDTO> samples = TripSessionBuffer.getSession(sessionId);
+        if (samples == null) {
+            return null;
+        }
+        if (!closing.add(sessionId)) {
+            throw new RuntimeException("Session " + sessionId + " is already being ended");
+        }
+        return samples;
+    }
+
+    /** The trip is persisted: closes the session and records the end marker so replay skips it. */
+    public synchronized void completeSession(String sessionId) {
+        closing.remove(sessionId);
+        close(sessionId);
+        telemetryLog.appendSessionEnd(sessionId);
+        commit();
+    }
+
+    /** Ending failed before the trip was persisted; the session stays open for another try. */
+    public synchronized void abortSession(String sessionId) {
+        closing.remove(sessionId);
+    }
+
+    /** Closes sessions that stopped reporting without being ended, and forgets long-ended ones. */
+    @Scheduled(fixedDelayString = "${telemetry.assembly.expiry-check-ms:60000}")
+    public synchronized void expireSessions() {
+        long now = System.currentTimeMillis();
+        long idleBefore = now - idleTimeoutMinutes * 60_000L;
+        List<String> idle = new ArrayList<>();
+        for (Map.Entry<String, Long> e : lastSampleAt.entrySet()) {
+            if (e.getValue() < idleBefore && !closing.contains(e.getKey())) {
+                idle.add(e.getKey());
+            }
+        }
+        for (String sessionId : idle) {
+            logger.warn("Live session {} sent nothing for {} minutes and was never ended, discarding it",
+                    sessionId, idleTimeoutMinutes);
+            close(sessionId);
+            telemetryLog.appendSessionEnd(sessionId);
+        }
+        if (!idle.isEmpty()) {
+            commit();
+        }
+
+        long endedBefore = now - endedRetentionMinutes * 60_000L;
+        Iterator<Long> ended = recentlyEnded.values().iterator();
+        while (ended.hasNext() && ended.next() < endedBefore) {
+            ended.remove();
+        }
+    }
+
+    public synchronized long getLateSamples() {
+        return lateSamples;
+    }
+
+    @Override
+    protected void apply(TelemetryLog.Entry entry) {
+        if (entry.getType() == TelemetryLogService.SAMPLE) {
+            LiveTripDTO dto = telemetryLog.decodeSample(entry);
+            if (dto == null) {
+                return;
+            }
+            // A straggler must not re-open an ended session: it would never be ended again and pin the log
+            if (recentlyEnded.containsKey(dto.getSessionId())) {
+                lateSamples++;
+                return;
+            }
+            sessionStartOffsets.putIfAbsent(dto.getSessionId(), entry.getOffset());
+            lastSampleAt.put(dto.getSessionId(), System.currentTimeMillis());
+            TripSessionBuffer.addToSession(dto.getSessionId(), dto);
+        } else if (entry.getType() == TelemetryLogService.SESSION_END) {
+            String sessionId = telemetryLog.decodeSessionEnd(entry);
+            if (!closing.contains(sessionId)) {
+                close(sessionId);
+            }
+        }
+    }
+
+    private void close(String sessionId) {
+        sessionStartOffsets.remove(sessionId);
+        lastSampleAt.remove(sessionId);
+        TripSessionBuffer.endSession(sessionId);
+        recentlyEnded.remove(sessionId);
+        recentlyEnded.put(sessionId, System.currentTimeMillis());
+    }
+
+    @Override
+    protected long commitOffset() {
+        long oldestOpen = sessionStartOffsets.values().stream().mapToLong(Long::longValue).min().orElse(position);
+        return Math.min(oldestOpen, position);
+    }
+}
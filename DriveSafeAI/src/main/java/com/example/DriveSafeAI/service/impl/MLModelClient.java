@@ -11,6 +11,7 @@ import lombok.NoArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.http.*;
 import org.springframework.stereotype.Component;
@@ -20,6 +21,7 @@ import org.springframework.web.client.RestTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -39,8 +41,9 @@ public class MLModelClient {
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
 
-    public MLModelClient() {
-        this.restTemplate = new RestTemplate();
+    // Built from Boot's builder so every call is timed as http.client.requests
+    public MLModelClient(RestTemplateBuilder restTemplateBuilder) {
+        this.restTemplate = restTemplateBuilder.build();
         this.objectMapper = new ObjectMapper();
     }
 
@@ -216,6 +219,40 @@ public class MLModelClient {
         }
     }
 
+    /** Request body for /predict_batch: one map per sample with raw readings and engineered features. */
+    public static List<Map<String, Object>> toPayload(List<TripData> tripDataList) {
+        // LinkedHashMap rather than Map.of: live samples carry null brake readings
+        return tripDataList.stream().map(trip -> {
+            Map<String, Object> data = new LinkedHashMap<>();
+            data.put("speed", trip.getSpeed());
+            data.put("rpm", trip.getRpm());
+            data.put("acceleration", trip.getAcceleration());
+            data.put("throttle_position", trip.getThrottlePosition());
+            data.put("engine_temperature", trip.getEngineTemperature());
+            data.put("system_voltage", trip.getSystemVoltage());
+            data.put("engine_load_value", trip.getEngineLoadValue());
+            data.put("distance_travelled", trip.getDistanceTravelled());
+            data.put("brake", trip.getBrake());
+
+            // Engineered risk features computed by TripFeatureEngine
+            data.put("speed_risk", trip.getSpeedRisk());
+            data.put("harsh_acceleration", trip.getHarshAcceleration());
+            data.put("rpm_efficiency", trip.getRpmEfficiency());
+            data.put("high_rpm_risk", trip.getHighRpmRisk());
+            data.put("throttle_aggression", trip.getThrottleAggression());
+            data.put("engine_temp_risk", trip.getEngineTempRisk());
+            data.put("voltage_risk", trip.getVoltageRisk());
+            data.put("engine_load_risk", trip.getEngineLoadRisk());
+            data.put("weather_risk", trip.getWeatherRisk());
+            data.put("speed_variance", trip.getSpeedVariance());
+            data.put("acceleration_variance", trip.getAccelerationVariance());
+            data.put("excessive_throttle_time", trip.getExcessiveThrottleTime());
+            data.put("engine_strain", trip.getEngineStrain());
+            data.put("hotspot_risk", trip.getHotspotRisk());
+            return data;
+        }).collect(Collectors.toList());
+    }
+
     /**
      * Get model information
      */
@@ -224,21 +261,7 @@ public class MLModelClient {
         try {
             String url = mlApiBaseUrl + "/predict_batch";
 
-            // Convert TripData list to a list of maps
-            List<Map<String, Object>> driverDataList = tripDataList.stream().map(trip -> {
-                Map<String, Object> data = Map.of(
-                        "speed", trip.getSpeed(),
-                        "rpm", trip.getRpm(),
-                        "acceleration", trip.getAcceleration(),
-                        "throttle_position", trip.getThrottlePosition(),
-                        "engine_temperature", trip.getEngineTemperature(),
-                        "system_voltage", trip.getSystemVoltage(),
-                        "engine_load_value", trip.getEngineLoadValue(),
-                        "distance_travelled", trip.getDistanceTravelled(),
-                        "brake", trip.getBrake()
-                );
-                return data;
-            }).collect(Collectors.toList());
+            List<Map<String, Object>> driverDataList = toPayload(tripDataList);
 
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_JSON);
@@ -0,0 +1,361 @@
+package com.example.DriveSafeAI.service.impl;
+
+import com.example.DriveSafeAI.dao.PopulationSketchRepository;
+import com.example.DriveSafeAI.dto.DistributionDTO;
+import com.example.DriveSafeAI.dto.PercentileRankDTO;
+import com.example.DriveSafeAI.entity.DriscScore;
+import com.example.DriveSafeAI.entity.PopulationSketch;
+import com.example.DriveSafeAI.entity.TripSummary;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.HdrHistogram.AbstractHistogram;
+import org.HdrHistogram.IntCountsHistogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.DataFormatException;
+
+/**
+ * Population distributions of drive score, DRISC, average speed and harsh-event rate.
+ * Each (metric, fleet, period) is an HdrHistogram with two significant digits over values scaled by 100,
+ * updated as trips and DRISC snapshots are written and flushed compressed to population_sketch.
+ * Trip metrics count every trip. DRISC counts every driver once, at their latest snapshot: a new snapshot
+ * replaces the driver's previous value, and a fleet-wide recompute rebuilds the DRISC sketches from the
+ * latest snapshot per driver.
+ * Histograms are mergeable, so a date range is answered by adding its daily sketches; no query reads
+ * trip or score tables.
+ */
+@Component
+public class PopulationAnalyticsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PopulationAnalyticsService.class);
+
+    public static final String DRIVE_SCORE = "drive_score";
+    public static final String DRISC = "drisc";
+    public static final String AVG_SPEED = "avg_speed";
+    public static final String HARSH_EVENT_RATE = "harsh_event_rate";// harsh events per 100 km
+    private static final Set<String> METRICS = Set.of(DRIVE_SCORE, DRISC, AVG_SPEED, HARSH_EVENT_RATE);
+
+    static final String ALL_TIME = "all";
+    private static final double SCALE = 100;
+    private static final int MAX_RANGE_DAYS = 366;
+    private static final double[] QUANTILES = {5, 10, 25, 50, 75, 90, 95, 99};
+
+    private static final String LATEST_DRISC_SQL =
+            "SELECT v.fleet, d.score, d.calculated_at FROM drisc_score d "
+                    + "JOIN (SELECT user_id, MAX(id) AS id FROM drisc_score WHERE user_id IS NOT NULL GROUP BY user_id) m "
+                    + "ON m.id = d.id LEFT JOIN vehicle v ON v.user_id = d.user_id";
+
+    // A driver's two newest snapshots: the one being applied and the one it replaces
+    private static final String LAST_TWO_DRISC_SQL =
+            "SELECT id, score, calculated_at FROM drisc_score WHERE user_id = ? ORDER BY id DESC LIMIT 2";
+
+    @Autowired private PopulationSketchRepository sketchRepo;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    // Day sketches older than this stay in the database and are loaded on demand
+    @Value("${analytics.resident-days:35}")
+    private int residentDays;
+
+    private record Snapshot(long id, Double score, Timestamp calculatedAt) {
+    }
+
+    private final Map<String, AbstractHistogram> sketches = new ConcurrentHashMap<>();
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void load() {
+        List<String> periods = new ArrayList<>();
+        periods.add(ALL_TIME);
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < residentDays; i++) {
+            periods.add(today.minusDays(i).toString());
+        }
+        List<PopulationSketch> rows = sketchRepo.findByPeriodIn(periods);
+        for (PopulationSketch row : rows) {
+            sketches.put(key(row.getMetric(), row.getFleet(), row.getPeriod()), decode(row.getPayload()));
+        }
+        logger.info("Loaded {} population sketches", rows.size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /** Adds a finished trip to the global, fleet, all-time and daily sketches. */
+    public void recordTrip(TripSummary summary, String fleet, int harshEvents) {
+        if (summary.getDriveScore() != null) {
+            record(DRIVE_SCORE, fleet, summary.getDriveScore());
+        }
+        if (summary.getAvgSpeed() != null) {
+            record(AVG_SPEED, fleet, summary.getAvgSpeed());
+        }
+        if (summary.getDistanceTravelled() != null && summary.getDistanceTravelled() > 0) {
+            record(HARSH_EVENT_RATE, fleet, harshEvents * 100.0 / summary.getDistanceTravelled());
+        }
+    }
+
+    /**
+     * Moves a driver's DRISC from the snapshot saved before the given one to the given one. Snapshots are ordered
+     * by id, as in the rebuild. If a newer snapshot already exists, the given one is skipped: whoever saved the
+     * newer one accounts for it, or a fleet-wide rebuild does.
+     * Callers apply one driver's snapshots in the order they were saved.
+     */
+    public synchronized void replaceDrisc(String fleet, DriscScore current) {
+        List<Snapshot> lastTwo = jdbcTemplate.query(LAST_TWO_DRISC_SQL, (rs, i) -> new Snapshot(rs.getLong(1),
+                rs.getObject(2) != null ? rs.getDouble(2) : null, rs.getTimestamp(3)), current.getUserid().getId());
+        if (lastTwo.isEmpty() || lastTwo.get(0).id() != current.getId()) {
+            return;
+        }
+        Snapshot previous = lastTwo.size() > 1 ? lastTwo.get(1) : null;
+        if (previous != null && previous.score() != null && previous.score() >= 0) {
+            long scaled = Math.round(previous.score() * SCALE);
+            String day = previous.calculatedAt() != null
+                    ? previous.calculatedAt().toLocalDateTime().toLocalDate().toString() : null;
+            for (String f : fleet != null && !fleet.isEmpty() ? new String[]{"", fleet} : new String[]{""}) {
+                remove(key(DRISC, f, ALL_TIME), scaled);
+                // A day sketch holds each driver's last snapshot of that day, so only today's can change
+                if (LocalDate.now().toString().equals(day)) {
+                    remove(key(DRISC, f, day), scaled);
+                }
+            }
+        }
+        record(DRISC, fleet, current.getScore());
+    }
+
+    /**
+     * Rebuilds the all-time and today's DRISC sketches from the latest snapshot of every driver, replacing
+     * whatever they held; called after a fleet-wide recompute.
+     */
+    public synchronized void rebuildDrisc() {
+        String today = LocalDate.now().toString();
+        Timestamp todayStart = Timestamp.valueOf(LocalDate.now().atStartOfDay());
+        Map<String, AbstractHistogram> rebuilt = new HashMap<>();
+        // Every DRISC sketch in memory for these periods is replaced, emptied if no driver is left in it
+        for (String key : sketches.keySet()) {
+            String[] parts = parse(key);
+            if (DRISC.equals(parts[0]) && (ALL_TIME.equals(parts[2]) || today.equals(parts[2]))) {
+                rebuilt.put(key, new IntCountsHistogram(2));
+            }
+        }
+        int[] drivers = {0};
+        jdbcTemplate.query(LATEST_DRISC_SQL, rs -> {
+            double score = rs.getDouble(2);
+            if (rs.wasNull() || score < 0) {
+                return;
+            }
+            String fleet = rs.getString(1);
+            boolean fromToday = rs.getTimestamp(3) != null && !rs.getTimestamp(3).before(todayStart);
+            long scaled = Math.round(score * SCALE);
+            for (String f : fleet != null && !fleet.isEmpty() ? new String[]{"", fleet} : new String[]{""}) {
+                rebuilt.computeIfAbsent(key(DRISC, f, ALL_TIME), k -> new IntCountsHistogram(2)).recordValue(scaled);
+                if (fromToday) {
+                    rebuilt.computeIfAbsent(key(DRISC, f, today), k -> new IntCountsHistogram(2)).recordValue(scaled);
+                }
+            }
+            drivers[0]++;
+        });
+        sketches.putAll(rebuilt);
+        dirty.addAll(rebuilt.keySet());
+        logger.info("Rebuilt {} DRISC sketches from the latest snapshot of {} drivers", rebuilt.size(), drivers[0]);
+    }
+
+    private void record(String metric, String fleet, double value) {
+        if (Double.isNaN(value) || value < 0) {
+            return;
+        }
+        long scaled = Math.round(value * SCALE);
+        String day = LocalDate.now().toString();
+        update(key(metric, "", ALL_TIME), scaled);
+        update(key(metric, "", day), scaled);
+        if (fleet != null && !fleet.isEmpty()) {
+            update(key(metric, fleet, ALL_TIME), scaled);
+            update(key(metric, fleet, day), scaled);
+        }
+    }
+
+    private void update(String key, long scaled) {
+        AbstractHistogram h = sketch(key, true);
+        synchronized (h) {
+            h.recordValue(scaled);
+        }
+        dirty.add(key);
+    }
+
+    private void remove(String key, long scaled) {
+        AbstractHistogram h = sketch(key, false);
+        if (h == null) {
+            return;
+        }
+        synchronized (h) {
+            if (h.getCountAtValue(scaled) == 0) {
+                return;
+            }
+            AbstractHistogram one = new IntCountsHistogram(2);
+            one.recordValue(scaled);
+            h.subtract(one);
+        }
+        dirty.add(key);
+    }
+
+    public PercentileRankDTO percentileRank(String metric, double value, String fleet, LocalDate day) {
+        checkMetric(metric);
+        String period = day != null ? day.toString() : ALL_TIME;
+        AbstractHistogram h = sketch(key(metric, normalize(fleet), period), false);
+        if (h == null) {
+            return new PercentileRankDTO(metric, fleet, period, value, null, 0L);
+        }
+        synchronized (h) {
+            long count = h.getTotalCount();
+            Double rank = count == 0 ? null : h.getPercentileAtOrBelowValue(Math.round(value * SCALE));
+            return new PercentileRankDTO(metric, fleet, period, value, rank, count);
+        }
+    }
+
+    /** Quantiles over all time, or over the days from..to merged. */
+    public DistributionDTO distribution(String metric, String fleet, LocalDate from, LocalDate to) {
+        checkMetric(metric);
+        String f = normalize(fleet);
+        AbstractHistogram merged = new IntCountsHistogram(2);
+        if (from == null && to == null) {
+            addInto(merged, sketch(key(metric, f, ALL_TIME), false));
+        } else {
+            LocalDate start = from != null ? from : to;
+            LocalDate end = to != null ? to : from;
+            if (end.isBefore(start) || ChronoUnit.DAYS.between(start, end) >= MAX_RANGE_DAYS) {
+                throw new RuntimeException("Date range must be ordered and at most " + MAX_RANGE_DAYS + " days");
+            }
+            for (LocalDate d = start; !d.isAfter(end); d = d.plusDays(1)) {
+                addInto(merged, sketch(key(metric, f, d.toString()), false));
+            }
+            from = start;
+            to = end;
+        }
+        long count = merged.getTotalCount();
+        Map<String, Double> quantiles = new LinkedHashMap<>();
+        if (count > 0) {
+            for (double q : QUANTILES) {
+                quantiles.put("p" + (int) q, merged.getValueAtPercentile(q) / SCALE);
+            }
+        }
+        return new DistributionDTO(metric, fleet, from, to, count,
+                count > 0 ? merged.getMean() / SCALE : null,
+                count > 0 ? merged.getMinValue() / SCALE : null,
+                count > 0 ? merged.getMaxValue() / SCALE : null,
+                quantiles);
+    }
+
+    /** Writes changed sketches and drops old day sketches from memory. */
+    @Scheduled(fixedDelayString = "${analytics.flush-ms:30000}")
+    public synchronized void flush() {
+        List<PopulationSketch> changed = new ArrayList<>();
+        for (String key : new ArrayList<>(dirty)) {
+            dirty.remove(key);
+            AbstractHistogram h = sketches.get(key);
+            byte[] payload;
+            long count;
+            synchronized (h) {
+                payload = encode(h);
+                count = h.getTotalCount();
+            }
+            String[] parts = parse(key);
+            PopulationSketch row = sketchRepo.findByMetricAndFleetAndPeriod(parts[0], parts[1], parts[2])
+                    .orElseGet(PopulationSketch::new);
+            row.setMetric(parts[0]);
+            row.setFleet(parts[1]);
+            row.setPeriod(parts[2]);
+            row.setPayload(payload);
+            row.setSampleCount(count);
+            row.setUpdatedAt(LocalDateTime.now());
+            changed.add(row);
+        }
+        if (!changed.isEmpty()) {
+            sketchRepo.saveAll(changed);
+        }
+
+        String oldest = LocalDate.now().minusDays(residentDays).toString();
+        sketches.keySet().removeIf(k -> {
+            String period = k.substring(k.lastIndexOf('|') + 1);
+            return !ALL_TIME.equals(period) && period.compareTo(oldest) < 0 && !dirty.contains(k);
+        });
+    }
+
+    private AbstractHistogram sketch(String key, boolean create) {
+        AbstractHistogram h = sketches.get(key);
+        if (h != null) {
+            return h;
+        }
+        String[] parts = parse(key);
+        AbstractHistogram stored = sketchRepo.findByMetricAndFleetAndPeriod(parts[0], parts[1], parts[2])
+                .map(row -> decode(row.getPayload())).orElse(null);
+        if (stored == null && !create) {
+            return null;
+        }
+        return sketches.computeIfAbsent(key, k -> stored != null ? stored : new IntCountsHistogram(2));
+    }
+
+    private static void addInto(AbstractHistogram target, AbstractHistogram source) {
+        if (source != null) {
+            synchronized (source) {
+                target.add(source);
+            }
+        }
+    }
+
+    private static byte[] encode(AbstractHistogram h) {
+        ByteBuffer buffer = ByteBuffer.allocate(h.getNeededByteBufferCapacity());
+        int length = h.encodeIntoCompressedByteBuffer(buffer);
+        byte[] out = new byte[length];
+        buffer.flip();
+        buffer.get(out);
+        return out;
+    }
+
+    private static AbstractHistogram decode(byte[] payload) {
+        try {
+            IntCountsHistogram h = IntCountsHistogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(payload), 0);
+            h.setAutoResize(true);
+            return h;
+        } catch (DataFormatException e) {
+            throw new RuntimeException("Corrupt population sketch", e);
+        }
+    }
+
+    private static void checkMetric(String metric) {
+        if (!METRICS.contains(metric)) {
+            throw new RuntimeException("Unknown metric: " + metric);
+        }
+    }
+
+    private static String normalize(String fleet) {
+        return fleet == null ? "" : fleet;
+    }
+
+    private static String key(String metric, String fleet, String period) {
+        return metric + "|" + fleet + "|" + period;
+    }
+
+    // Metric and period never contain '|', so the fleet is everything between the first and last one
+    private static String[] parse(String key) {
+        int first = key.indexOf('|'), last = key.lastIndexOf('|');
+        return new String[]{key.substring(0, first), key.substring(first + 1, last), key.substring(last + 1)};
+    }
+}
@@ -0,0 +1,279 @@
+package com.example.DriveSafeAI.service.impl;
+
+import com.example.DriveSafeAI.dao.ReratingCheckpointRepository;
+import com.example.DriveSafeAI.dao.ReratingJobRepository;
+import com.example.DriveSafeAI.dto.ReratingJobDTO;
+import com.example.DriveSafeAI.entity.JobStatus;
+import com.example.DriveSafeAI.entity.ReratingCheckpoint;
+import com.example.DriveSafeAI.entity.ReratingJob;
+import com.example.DriveSafeAI.entity.RiskCategory;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * Re-rates the whole InsurancePolicy book.
+ * Policies are split into id-range partitions that run in parallel on a ForkJoinPool. Each partition streams its
+ * policies with their latest DRISC through a forward-only cursor, rates them with {@link PremiumRatingEngine}
+ * and writes premium rows, policy updates and its checkpoint in JDBC batches inside one transaction,
+ * so a resumed job skips exactly the partitions that committed.
+ */
+@Component
+public class PortfolioReratingJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(PortfolioReratingJob.class);
+
+    private static final String POLICIES_SQL =
+            "SELECT p.id, p.base_premium, p.current_premium, p.policy_end_date, d.id, d.score "
+                    + "FROM insurance_policy p "
+                    + "LEFT JOIN drisc_score d ON d.id = (SELECT MAX(d2.id) FROM drisc_score d2 WHERE d2.user_id = p.user_id) "
+                    + "WHERE p.id >= ? AND p.id < ? ORDER BY p.id";
+
+    // Distance-weighted trip score for policies whose driver has no DRISC snapshot yet
+    private static final String TRIP_FALLBACK_SQL =
+            "SELECT p.id, SUM(ts.drive_score * ts.distance_travelled) / SUM(ts.distance_travelled) "
+                    + "FROM insurance_policy p JOIN trip_summary ts ON ts.vehicle_id = p.vehicle_id "
+                    + "WHERE p.id >= ? AND p.id < ? AND ts.distance_travelled > 0 "
+                    + "AND NOT EXISTS (SELECT 1 FROM drisc_score d WHERE d.user_id = p.user_id) "
+                    + "GROUP BY p.id";
+
+    private static final String RETIRE_SQL =
+            "UPDATE premium_calculation SET is_active = false WHERE policy_id = ? AND is_active = true";
+    private static final String INSERT_SQL =
+            "INSERT INTO premium_calculation (policy_id, drisc_score_id, risk_category_id, base_premium, risk_multiplier, "
+                    + "calculated_premium, calculation_date, period_start, period_end, is_active) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, true)";
+    private static final String POLICY_SQL =
+            "UPDATE insurance_policy SET current_premium = ?, updated_at = ? WHERE id = ?";
+    private static final String CHECKPOINT_SQL =
+            "INSERT INTO rerating_checkpoint (job_id, partition_start, policies_rated, completed_at) VALUES (?, ?, ?, ?)";
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private PremiumRatingEngine ratingEngine;
+    @Autowired private ReratingJobRepository jobRepo;
+    @Autowired private ReratingCheckpointRepository checkpointRepo;
+
+    @Value("${rating.batch.parallelism:8}")
+    private int parallelism;
+
+    @Value("${rating.batch.partition-size:10000}")
+    private long defaultPartitionSize;
+
+    @Value("${rating.batch.fetch-size:1000}")
+    private int fetchSize;
+
+    @Value("${rating.batch.jdbc-batch-size:500}")
+    private int jdbcBatchSize;
+
+    /** One rated policy held until its partition is written. */
+    private static class RatingInput {
+        long policyId;
+        Long driscScoreId;
+        Long riskCategoryId;
+        BigDecimal basePremium;
+        float multiplier;
+        BigDecimal premium;
+        LocalDate periodEnd;
+    }
+
+    private final ExecutorService launcher = Executors.newSingleThreadExecutor();
+
+    @PreDestroy
+    public void shutdown() {
+        launcher.shutdownNow();
+    }
+
+    public ReratingJobDTO start(boolean dryRun, Long requestedPartitionSize) {
+        long partitionSize = requestedPartitionSize != null && requestedPartitionSize > 0
+                ? requestedPartitionSize : defaultPartitionSize;
+        Map<String, Object> range = jdbcTemplate.queryForMap("SELECT MIN(id) AS lo, MAX(id) AS hi FROM insurance_policy");
+        ReratingJob job = new ReratingJob();
+        job.setDryRun(dryRun);
+        job.setPartitionSize(partitionSize);
+        job.setMinPolicyId(range.get("lo") != null ? ((Number) range.get("lo")).longValue() : 0L);
+        job.setMaxPolicyId(range.get("hi") != null ? ((Number) range.get("hi")).longValue() : -1L);
+        long span = job.getMaxPolicyId() - job.getMinPolicyId() + 1;
+        job.setTotalPartitions((int) Math.max(0, (span + partitionSize - 1) / partitionSize));
+        jobRepo.save(job);
+        launcher.submit(() -> run(job.getId()));
+        return toDTO(job);
+    }
+
+    /** Continues a failed or interrupted job from its checkpoints. */
+    public ReratingJobDTO resume(Long jobId) {
+        ReratingJob job = jobRepo.findById(jobId).orElseThrow(() -> new RuntimeException("Re-rating job not found"));
+        if (job.getStatus() == JobStatus.COMPLETED) {
+            return toDTO(job);
+        }
+        job.setStatus(JobStatus.RUNNING);
+        job.setError(null);
+        jobRepo.save(job);
+        launcher.submit(() -> run(jobId));
+        return toDTO(job);
+    }
+
+    public ReratingJobDTO status(Long jobId) {
+        return toDTO(jobRepo.findById(jobId).orElseThrow(() -> new RuntimeException("Re-rating job not found")));
+    }
+
+    private void run(Long jobId) {
+        ReratingJob job = jobRepo.findById(jobId).orElseThrow();
+        Set<Long> done = checkpointRepo.findByJobId(jobId).stream()
+                .map(ReratingCheckpoint::getPartitionStart).collect(Collectors.toSet());
+        long started = System.nanoTime();
+        long ratedBefore = job.getPoliciesRated();
+
+        List<Long> pending = new ArrayList<>();
+        for (long lo = job.getMinPolicyId(); lo <= job.getMaxPolicyId(); lo += job.getPartitionSize()) {
+            if (!done.contains(lo)) {
+                pending.add(lo);
+            }
+        }
+        logger.info("Re-rating job {} running {} of {} partitions (dryRun={})",
+                jobId, pending.size(), job.getTotalPartitions(), job.getDryRun());
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Long lo : pending) {
+                futures.add(pool.submit(() -> ratePartition(job, lo, lo + job.getPartitionSize(), started, ratedBefore)));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+            finish(job, JobStatus.COMPLETED, null, started, ratedBefore);
+        } catch (Exception e) {
+            logger.error("Re-rating job {} failed", jobId, e);
+            finish(job, JobStatus.FAILED, e.getMessage(), started, ratedBefore);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private void ratePartition(ReratingJob job, long lo, long hi, long started, long ratedBefore) {
+        Map<Long, Double> tripFallback = new HashMap<>();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(TRIP_FALLBACK_SQL);
+            ps.setLong(1, lo);
+            ps.setLong(2, hi);
+            return ps;
+        }, rs -> {
+            tripFallback.put(rs.getLong(1), rs.getDouble(2));
+        });
+
+        List<RatingInput> rated = new ArrayList<>();
+        long[] skipped = {0};
+        BigDecimal[] delta = {BigDecimal.ZERO};
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(POLICIES_SQL);
+            ps.setFetchSize(fetchSize);
+            ps.setLong(1, lo);
+            ps.setLong(2, hi);
+            return ps;
+        }, rs -> {
+            long policyId = rs.getLong(1);
+            Long driscId = rs.getObject(5) != null ? rs.getLong(5) : null;
+            Float score = driscId != null ? rs.getFloat(6)
+                    : tripFallback.containsKey(policyId) ? tripFallback.get(policyId).floatValue() : null;
+            if (score == null) {
+                skipped[0]++;
+                return;
+            }
+            RatingInput r = new RatingInput();
+            r.policyId = policyId;
+            r.driscScoreId = driscId;
+            r.basePremium = rs.getBigDecimal(2) != null ? rs.getBigDecimal(2) : BigDecimal.ZERO;
+            r.periodEnd = rs.getDate(4) != null ? rs.getDate(4).toLocalDate() : null;
+            RiskCategory category = ratingEngine.categoryFor(score);
+            r.riskCategoryId = category != null ? category.getId() : null;
+            BigDecimal multiplier = ratingEngine.multiplierFor(score, category);
+            r.multiplier = multiplier.floatValue();
+            r.premium = r.basePremium.multiply(multiplier).setScale(2, RoundingMode.HALF_UP);
+            BigDecimal current = rs.getBigDecimal(3);
+            delta[0] = delta[0].add(r.premium.subtract(current != null ? current : r.basePremium));
+            rated.add(r);
+        });
+
+        if (!job.getDryRun()) {
+            transactionTemplate.executeWithoutResult(tx -> write(job.getId(), lo, rated));
+        }
+        record(job, rated.size(), skipped[0], delta[0], started, ratedBefore);
+    }
+
+    private void write(Long jobId, long partitionStart, List<RatingInput> rated) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Date today = Date.valueOf(LocalDate.now());
+        jdbcTemplate.batchUpdate(RETIRE_SQL, rated, jdbcBatchSize, (ps, r) -> ps.setLong(1, r.policyId));
+        jdbcTemplate.batchUpdate(INSERT_SQL, rated, jdbcBatchSize, (ps, r) -> {
+            ps.setLong(1, r.policyId);
+            ps.setObject(2, r.driscScoreId);
+            ps.setObject(3, r.riskCategoryId);
+            ps.setBigDecimal(4, r.basePremium);
+            ps.setFloat(5, r.multiplier);
+            ps.setBigDecimal(6, r.premium);
+            ps.setTimestamp(7, now);
+            ps.setDate(8, today);
+            ps.setDate(9, r.periodEnd != null ? Date.valueOf(r.periodEnd) : null);
+        });
+        jdbcTemplate.batchUpdate(POLICY_SQL, rated, jdbcBatchSize, (ps, r) -> {
+            ps.setBigDecimal(1, r.premium);
+            ps.setTimestamp(2, now);
+            ps.setLong(3, r.policyId);
+        });
+        jdbcTemplate.update(CHECKPOINT_SQL, jobId, partitionStart, rated.size(), now);
+    }
+
+    private synchronized void record(ReratingJob job, int rated, long skipped, BigDecimal delta, long started, long ratedBefore) {
+        job.setCompletedPartitions(job.getCompletedPartitions() + 1);
+        job.setPoliciesRated(job.getPoliciesRated() + rated);
+        job.setPoliciesSkipped(job.getPoliciesSkipped() + skipped);
+        job.setPremiumDelta(job.getPremiumDelta().add(delta));
+        job.setPoliciesPerSecond(throughput(job, started, ratedBefore));
+        jobRepo.save(job);
+    }
+
+    private synchronized void finish(ReratingJob job, JobStatus status, String error, long started, long ratedBefore) {
+        job.setStatus(status);
+        job.setError(error);
+        job.setPoliciesPerSecond(throughput(job, started, ratedBefore));
+        job.setFinishedAt(LocalDateTime.now());
+        jobRepo.save(job);
+        logger.info("Re-rating job {} {}: {} rated, {} skipped, {} policies/s",
+                job.getId(), status, job.getPoliciesRated(), job.getPoliciesSkipped(), job.getPoliciesPerSecond());
+    }
+
+    private static double throughput(ReratingJob job, long started, long ratedBefore) {
+        double seconds = Math.max((System.nanoTime() - started) / 1e9, 1e-3);
+        return (job.getPoliciesRated() - ratedBefore) / seconds;
+    }
+
+    private static ReratingJobDTO toDTO(ReratingJob job) {
+        return new ReratingJobDTO(job.getId(), job.getStatus().name(), job.getDryRun(), job.getTotalPartitions(),
+                job.getCompletedPartitions(), job.getPoliciesRated(), job.getPoliciesSkipped(), job.getPremiumDelta(),
+                job.getPoliciesPerSecond(), job.getError(), job.getStartedAt(), job.getFinishedAt());
+    }
+}
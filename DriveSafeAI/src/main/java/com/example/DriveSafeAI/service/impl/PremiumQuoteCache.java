@@ -0,0 +1,214 @@
+package com.example.DriveSafeAI.service.impl;
+
+import com.example.DriveSafeAI.dao.InsurancePolicyRepository;
+import com.example.DriveSafeAI.dto.PremiumCalculationDTO;
+import com.example.DriveSafeAI.entity.InsurancePolicy;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Premium quotes by user, so repeated quote requests skip the user, vehicle, policy and DRISC lookups and the
+ * re-rating. Each entry records what it was rated from: policy id, policy terms version, DRISC snapshot id and
+ * the risk band fingerprint. It is dropped when a new DRISC snapshot for the user or a change to the policy
+ * terms is committed (PremiumQuoteChangeListener, FleetDriscRecomputeJob), and every hit is checked against the
+ * current policy terms and latest DRISC id with one read, so writes this instance does not see (other instances,
+ * direct SQL) are caught too. The TTL bounds how long a quote is kept at all.
+ * Entries are evicted least recently used first once their estimated size passes max-bytes.
+ */
+@Component
+public class PremiumQuoteCache {
+
+    // Map entry, key, DTO with its boxed fields and four strings, roughly
+    private static final int ENTRY_OVERHEAD_BYTES = 320;
+
+    @Autowired private MeterRegistry meterRegistry;
+    @Autowired private InsurancePolicyRepository policyRepo;
+    @Autowired private PremiumRatingEngine ratingEngine;
+
+    @Value("${premium.quote-cache.max-bytes:8388608}")
+    private long maxBytes;
+
+    @Value("${premium.quote-cache.ttl-minutes:10}")
+    private long ttlMinutes;
+
+    private static final class Entry {
+        final long policyId;
+        final int policyVersion;
+        final Long driscId;
+        final int bandsFingerprint;
+        final long ratedAtNanos;
+        final int bytes;
+        final PremiumCalculationDTO quote;
+
+        Entry(long policyId, int policyVersion, Long driscId, int bandsFingerprint, PremiumCalculationDTO quote) {
+            this.policyId = policyId;
+            this.policyVersion = policyVersion;
+            this.driscId = driscId;
+            this.bandsFingerprint = bandsFingerprint;
+            this.ratedAtNanos = System.nanoTime();
+            this.bytes = ENTRY_OVERHEAD_BYTES + 2 * (length(quote.coverageType) + length(quote.policyNumber)
+                    + length(quote.riskCategory));
+            this.quote = quote;
+        }
+
+        // stamp is a row of InsurancePolicyRepository.findQuoteStampByUserId
+        boolean ratedFrom(Object[] stamp) {
+            return policyId == (Long) stamp[0]
+                    && policyVersion == policyVersion((String) stamp[1], (String) stamp[2], (BigDecimal) stamp[3],
+                            (BigDecimal) stamp[4], (LocalDate) stamp[5], (LocalDate) stamp[6])
+                    && Objects.equals(driscId, stamp[7]);
+        }
+    }
+
+    // Access order, so iteration starts at the least recently used entry
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long bytes;
+    // Invalidation sequence; a user's last invalidation is kept for a TTL, in invalidation order, as {sequence, nanoTime}
+    private long sequence;
+    private long allInvalidatedAt;
+    private final LinkedHashMap<Long, long[]> invalidatedAt = new LinkedHashMap<>();
+
+    /** Terms the quote depends on; updatedAt and currentPremium change on every rating and are left out. */
+    public static int policyVersion(InsurancePolicy policy) {
+        return policyVersion(policy.getPolicyNumber(), policy.getCoverageType(), policy.getBasePremium(),
+                policy.getCoverageAmount(), policy.getPolicyStartDate(), policy.getPolicyEndDate());
+    }
+
+    private static int policyVersion(String policyNumber, String coverageType, BigDecimal basePremium,
+                                     BigDecimal coverageAmount, LocalDate startDate, LocalDate endDate) {
+        return Objects.hash(policyNumber, coverageType, strip(basePremium), strip(coverageAmount), startDate, endDate);
+    }
+
+    /** The cached quote for the user, or null when there is none or it may be out of date. */
+    public PremiumCalculationDTO get(Long userId) {
+        int bands = ratingEngine.bands().fingerprint();
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(userId);
+        }
+        if (entry != null && entry.bandsFingerprint == bands
+                && System.nanoTime() - entry.ratedAtNanos < Duration.ofMinutes(ttlMinutes).toNanos()) {
+            List<Object[]> stamp = policyRepo.findQuoteStampByUserId(userId);
+            if (stamp.size() == 1 && entry.ratedFrom(stamp.get(0))) {
+                meterRegistry.counter("drivesafe.premium.quote.cache", "result", "hit").increment();
+                return entry.quote;
+            }
+        }
+        if (entry != null) {
+            synchronized (this) {
+                // Unless a fresh quote replaced it meanwhile
+                if (entries.get(userId) == entry) {
+                    remove(userId, "stale");
+                }
+            }
+        }
+        meterRegistry.counter("drivesafe.premium.quote.cache", "result", "miss").increment();
+        return null;
+    }
+
+    /** Read before rating and passed to {@link #put}, which then ignores the quote if the user was invalidated meanwhile. */
+    public synchronized long generation(Long userId) {
+        return sequence;
+    }
+
+    public void put(Long userId, InsurancePolicy policy, Long driscId, PremiumCalculationDTO quote, long ratedAtGeneration) {
+        Entry entry = new Entry(policy.getId(), policyVersion(policy), driscId, ratingEngine.bands().fingerprint(), quote);
+        synchronized (this) {
+            long[] invalidated = invalidatedAt.get(userId);
+            if (allInvalidatedAt > ratedAtGeneration || invalidated != null && invalidated[0] > ratedAtGeneration) {
+                return;
+            }
+            Entry previous = entries.put(userId, entry);
+            bytes += entry.bytes - (previous != null ? previous.bytes : 0);
+            Iterator<Map.Entry<Long, Entry>> eldest = entries.entrySet().iterator();
+            while (bytes > maxBytes && eldest.hasNext()) {
+                bytes -= eldest.next().getValue().bytes;
+                eldest.remove();
+                meterRegistry.counter("drivesafe.premium.quote.cache.evictions", "cause", "size").increment();
+            }
+        }
+    }
+
+    /** A new DRISC snapshot was committed for the user; null when its id is not known, as after a batch insert. */
+    public synchronized void invalidateUser(Long userId, Long driscId) {
+        invalidated(userId);
+        Entry entry = entries.get(userId);
+        if (entry != null && (driscId == null || !driscId.equals(entry.driscId))) {
+            remove(userId, "drisc");
+        }
+    }
+
+    /**
+     * The policy was saved. Every rating saves it too, so an entry rated from the same terms is kept; one rated
+     * from other terms is dropped.
+     */
+    public synchronized void invalidatePolicy(InsurancePolicy policy) {
+        int version = policyVersion(policy);
+        if (policy.getUser() != null) {
+            Long userId = policy.getUser().getId();
+            invalidated(userId);
+            Entry entry = entries.get(userId);
+            if (entry != null && entry.policyId == policy.getId() && entry.policyVersion != version) {
+                remove(userId, "policy");
+            }
+            return;
+        }
+        allInvalidatedAt = ++sequence;
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next();
+            if (entry.policyId == policy.getId() && entry.policyVersion != version) {
+                bytes -= entry.bytes;
+                it.remove();
+                meterRegistry.counter("drivesafe.premium.quote.cache.evictions", "cause", "policy").increment();
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long estimatedBytes() {
+        return bytes;
+    }
+
+    private void remove(Long userId, String cause) {
+        Entry removed = entries.remove(userId);
+        if (removed != null) {
+            bytes -= removed.bytes;
+            meterRegistry.counter("drivesafe.premium.quote.cache.evictions", "cause", cause).increment();
+        }
+    }
+
+    // A rating slower than the TTL is not guarded by its invalidation any more, only by the check on read
+    private void invalidated(Long userId) {
+        long now = System.nanoTime();
+        invalidatedAt.remove(userId);
+        invalidatedAt.put(userId, new long[]{++sequence, now});
+        long expiredBefore = now - Duration.ofMinutes(ttlMinutes).toNanos();
+        Iterator<long[]> oldest = invalidatedAt.values().iterator();
+        while (oldest.hasNext() && oldest.next()[1] - expiredBefore < 0) {
+            oldest.remove();
+        }
+    }
+
+    private static int length(String s) {
+        return s != null ? s.length() : 0;
+    }
+
+    private static BigDecimal strip(BigDecimal value) {
+        return value != null ? value.stripTrailingZeros() : null;
+    }
+}
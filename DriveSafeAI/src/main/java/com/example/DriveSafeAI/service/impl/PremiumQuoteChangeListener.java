@@ -0,0 +1,53 @@
+package com.example.DriveSafeAI.service.impl;
+
+import com.example.DriveSafeAI.entity.DriscScore;
+import com.example.DriveSafeAI.entity.InsurancePolicy;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA listener on {@link DriscScore} and {@link InsurancePolicy} that invalidates cached premium quotes
+ * when a new DRISC snapshot or a policy change is committed.
+ */
+@Component
+public class PremiumQuoteChangeListener {
+
+    @Autowired
+    @Lazy
+    private PremiumQuoteCache quoteCache;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        Runnable invalidate;
+        if (entity instanceof DriscScore drisc) {
+            if (drisc.getUserid() == null) {
+                return;
+            }
+            Long userId = drisc.getUserid().getId();
+            Long driscId = drisc.getId();
+            invalidate = () -> quoteCache.invalidateUser(userId, driscId);
+        } else if (entity instanceof InsurancePolicy policy) {
+            invalidate = () -> quoteCache.invalidatePolicy(policy);
+        } else {
+            return;
+        }
+        // Right away as well as after commit: a quote rated in between must not be stored
+        invalidate.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate.run();
+                }
+            });
+        }
+    }
+}
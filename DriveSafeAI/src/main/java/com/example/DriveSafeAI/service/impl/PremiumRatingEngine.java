@@ -0,0 +1,115 @@
+package com.example.DriveSafeAI.service.impl;
+
+import com.example.DriveSafeAI.dao.PremiumCalculationRepository;
+import com.example.DriveSafeAI.dao.RiskCategoryRepository;
+import com.example.DriveSafeAI.entity.DriscScore;
+import com.example.DriveSafeAI.entity.InsurancePolicy;
+import com.example.DriveSafeAI.entity.PremiumCalculation;
+import com.example.DriveSafeAI.entity.RiskCategory;
+import com.example.DriveSafeAI.util.RiskBandTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Rates a policy from its latest DRISC score using the RiskCategory bands.
+ * Bands are held in an immutable {@link RiskBandTable}; it is rebuilt after a band is saved or deleted
+ * through JPA and on a slow schedule to pick up edits made directly in the database.
+ */
+@Component
+public class PremiumRatingEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(PremiumRatingEngine.class);
+
+    @Autowired private RiskCategoryRepository riskCategoryRepo;
+    @Autowired private PremiumCalculationRepository premiumRepo;
+
+    private volatile RiskBandTable bands;
+
+    public RiskBandTable bands() {
+        RiskBandTable current = bands;
+        if (current == null) {
+            current = reload();
+        }
+        return current;
+    }
+
+    @Scheduled(fixedDelayString = "${rating.bands.refresh-ms:300000}")
+    public void refresh() {
+        reload();
+    }
+
+    public RiskBandTable reload() {
+        RiskBandTable fresh = new RiskBandTable(riskCategoryRepo.findAll());
+        bands = fresh;
+        logger.info("Loaded {} risk category bands", fresh.size());
+        return fresh;
+    }
+
+    /** Drops the cached table; the next lookup rebuilds it from the committed bands. */
+    public void invalidate() {
+        bands = null;
+    }
+
+    public RiskCategory categoryFor(float driscScore) {
+        return bands().find(driscScore);
+    }
+
+    /**
+     * Multiplier for a score: the band's premiumMultiplier, or the legacy linear curve
+     * (1x at 100 up to 2x at 0) when no band covers the score.
+     */
+    public BigDecimal multiplierFor(float driscScore, RiskCategory category) {
+        if (category != null && category.getPremiumMultiplier() != null) {
+            // Via the float's decimal string, so 1.2f rates as 1.2 rather than 1.2000000476...
+            return new BigDecimal(Float.toString(category.getPremiumMultiplier()));
+        }
+        return BigDecimal.ONE.add(new BigDecimal(Float.toString(100 - driscScore)).divide(BigDecimal.valueOf(100), 6, RoundingMode.HALF_UP));
+    }
+
+    /**
+     * Builds the PremiumCalculation for a policy without saving it.
+     */
+    public PremiumCalculation quote(InsurancePolicy policy, DriscScore drisc) {
+        RiskCategory category = categoryFor(drisc.getScore());
+        BigDecimal multiplier = multiplierFor(drisc.getScore(), category);
+        BigDecimal base = policy.getBasePremium() != null ? policy.getBasePremium() : BigDecimal.ZERO;
+
+        PremiumCalculation calc = new PremiumCalculation();
+        calc.setPolicy(policy);
+        calc.setDriscScore(drisc);
+        calc.setRiskCategory(category);
+        calc.setBasePremium(base);
+        calc.setRiskMultiplier(multiplier.floatValue());
+        calc.setCalculatedPremium(base.multiply(multiplier).setScale(2, RoundingMode.HALF_UP));
+        calc.setPeriodStart(LocalDate.now());
+        calc.setPeriodEnd(policy.getPolicyEndDate());
+        calc.setIsActive(true);
+        return calc;
+    }
+
+    /**
+     * Rates the policy and persists the result as the active calculation, retiring the previous active rows.
+     * Callers run this inside their transaction.
+     */
+    public PremiumCalculation rate(InsurancePolicy policy, DriscScore drisc) {
+        PremiumCalculation calc = quote(policy, drisc);
+        List<PremiumCalculation> active = premiumRepo.findByPolicyIdAndIsActiveTrue(policy.getId());
+        for (PremiumCalculation previous : active) {
+            previous.setIsActive(false);
+        }
+        premiumRepo.saveAll(active);
+        premiumRepo.save(calc);
+        policy.setCurrentPremium(calc.getCalculatedPremium());
+        policy.setUpdatedAt(LocalDateTime.now());
+        return calc;
+    }
+}
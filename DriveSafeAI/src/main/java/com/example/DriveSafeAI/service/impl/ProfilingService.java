@@ -0,0 +1,113 @@
+package com.example.DriveSafeAI.service.impl;
+
+import com.example.DriveSafeAI.dto.ProfilingStatusDTO;
+import com.example.DriveSafeAI.util.CsvChunkEvent;
+import com.example.DriveSafeAI.util.JwtAuthEvent;
+import com.example.DriveSafeAI.util.TripStageEvent;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+
+/**
+ * On-demand JDK Flight Recorder sessions for the admin API.
+ * One recording at a time, capped in duration and size and written to a temp file when it stops,
+ * with the DriveSafeAI pipeline events enabled on top of the chosen JFR settings.
+ */
+@Component
+public class ProfilingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProfilingService.class);
+
+    @Value("${profiling.max-seconds:300}")
+    private long maxSecondsLimit;
+
+    @Value("${profiling.max-size-mb:200}")
+    private long maxSizeMbLimit;
+
+    private Recording recording;
+    private Path file;
+    private String settingsName;
+    private long maxSeconds;
+    private long maxSizeMb;
+
+    /** Starts a recording with the "default" or "profile" JFR settings; it stops by itself after maxSeconds. */
+    public synchronized ProfilingStatusDTO start(String settings, long seconds, long sizeMb) {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            throw new RuntimeException("A recording is already running");
+        }
+        discard();
+        maxSeconds = Math.max(1, Math.min(seconds, maxSecondsLimit));
+        maxSizeMb = Math.max(1, Math.min(sizeMb, maxSizeMbLimit));
+        try {
+            settingsName = "profile".equals(settings) ? "profile" : "default";
+            Configuration configuration = Configuration.getConfiguration(settingsName);
+            file = Files.createTempFile("drivesafe-", ".jfr");
+            recording = new Recording(configuration);
+            recording.setName("drivesafe-admin");
+            recording.enable(TripStageEvent.class);
+            recording.enable(CsvChunkEvent.class);
+            recording.enable(JwtAuthEvent.class);
+            recording.setToDisk(true);
+            recording.setMaxSize(maxSizeMb * 1024 * 1024);
+            recording.setDuration(Duration.ofSeconds(maxSeconds));
+            recording.setDestination(file);
+            recording.start();
+            logger.info("Started JFR recording ({} settings, {} s, {} MB)", configuration.getName(), maxSeconds, maxSizeMb);
+            return status();
+        } catch (IOException | ParseException e) {
+            discard();
+            throw new RuntimeException("Could not start recording: " + e.getMessage());
+        }
+    }
+
+    /** Stops the recording if still running and hands over its file; the caller deletes it when done. */
+    public synchronized Path stop() {
+        if (recording == null) {
+            throw new RuntimeException("No recording has been started");
+        }
+        if (recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+        }
+        Path out = file;
+        recording.close();
+        recording = null;
+        file = null;
+        logger.info("Stopped JFR recording, {}", out);
+        return out;
+    }
+
+    public synchronized ProfilingStatusDTO status() {
+        if (recording == null) {
+            return new ProfilingStatusDTO("NONE", null, null, null, null, null);
+        }
+        String state = recording.getState() == RecordingState.RUNNING ? "RUNNING" : "STOPPED";
+        return new ProfilingStatusDTO(state, settingsName, recording.getStartTime(), maxSeconds, maxSizeMb, recording.getSize());
+    }
+
+    @PreDestroy
+    public synchronized void discard() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                logger.warn("Could not delete {}", file, e);
+            }
+            file = null;
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package com.example.DriveSafeAI.service.impl;
+
+import com.example.DriveSafeAI.dao.DriscScoreRepository;
+import com.example.DriveSafeAI.dao.InsurancePolicyRepository;
+import com.example.DriveSafeAI.dao.PremiumCalculationRepository;
+import com.example.DriveSafeAI.dao.TripSummaryRepository;
+import com.example.DriveSafeAI.dao.UserRepository;
+import com.example.DriveSafeAI.entity.DriscScore;
+import com.example.DriveSafeAI.entity.InsurancePolicy;
+import com.example.DriveSafeAI.entity.PremiumCalculation;
+import com.example.DriveSafeAI.entity.TripSummary;
+import com.example.DriveSafeAI.entity.User;
+import com.example.DriveSafeAI.entity.Vehicle;
+import com.lowagie.text.Document;
+import com.lowagie.text.DocumentException;
+import com.lowagie.text.Font;
+import com.lowagie.text.FontFactory;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.pdf.PdfPTable;
+import com.lowagie.text.pdf.PdfWriter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PDF trip reports and policy statements.
+ * Documents are rendered with OpenPDF on a bounded pool straight into a file in the report cache; PdfWriter
+ * flushes page by page, so a document is never held in memory. Cache files are named after the content
+ * version (the ids and timestamps of everything the report shows), so an unchanged report is served again
+ * from its file and a changed one gets a new name.
+ */
+@Component
+public class ReportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportService.class);
+
+    // Bump when the layout changes so cached documents are re-rendered
+    private static final int LAYOUT_VERSION = 1;
+
+    @Autowired private UserRepository userRepo;
+    @Autowired private VehicleLookup vehicleLookup;
+    @Autowired private TripSummaryRepository tripSummaryRepo;
+    @Autowired private DriscScoreRepository driscScoreRepo;
+    @Autowired private InsurancePolicyRepository policyRepo;
+    @Autowired private PremiumCalculationRepository premiumRepo;
+
+    @Value("${reports.cache-dir:data/reports}")
+    private String cacheDir;
+
+    @Value("${reports.threads:2}")
+    private int threads;
+
+    @Value("${reports.queue-capacity:32}")
+    private int queueCapacity;
+
+    private Path dir;
+    private ThreadPoolExecutor renderer;
+    // One render per report version at a time; later requests wait on the same future
+    private final Map<String, CompletableFuture<Path>> inFlight = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() throws IOException {
+        dir = Paths.get(cacheDir);
+        Files.createDirectories(dir);
+        renderer = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread t = new Thread(r, "pdf-report");
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        renderer.shutdownNow();
+    }
+
+    /**
+     * A cached report file, already open, and its version, usable as an ETag. Opening it up front means a newer
+     * version evicting the file meanwhile cannot break the response: an unlinked file stays readable while open.
+     */
+    public static class Report implements Closeable {
+        public final Path file;
+        public final String version;
+        private final FileChannel channel;
+
+        Report(Path file, String version) {
+            this.file = file;
+            this.version = version;
+            try {
+                this.channel = FileChannel.open(file, StandardOpenOption.READ);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        public long size() {
+            try {
+                return channel.size();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Copies the file to the response and closes it. The servlet output stream is not a file descriptor,
+         * so this is a chunked copy through the JDK's channel buffer rather than sendfile.
+         */
+        public void transferTo(OutputStream out) throws IOException {
+            WritableByteChannel target = Channels.newChannel(out);
+            try (FileChannel source = channel) {
+                long position = 0, size = source.size();
+                while (position < size) {
+                    position += source.transferTo(position, size - position, target);
+                }
+            }
+        }
+
+        /** For a response that sends no body, e.g. 304. */
+        @Override
+        public void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    public CompletableFuture<Report> tripReport(Long userId) {
+        User user = userRepo.findById(userId).orElseThrow(() -> new RuntimeException("User not found"));
+        Vehicle vehicle = vehicleLookup.findByUserId(userId).orElseThrow(() -> new RuntimeException("Vehicle not found for user"));
+        long trips = tripSummaryRepo.countByVehicleId(vehicle.getId());
+        long lastTrip = tripSummaryRepo.findTopByVehicleIdOrderByIdDesc(vehicle.getId()).map(TripSummary::getId).orElse(0L);
+        long drisc = driscScoreRepo.findTopByUseridOrderByCalculatedAtDesc(user).map(DriscScore::getId).orElse(0L);
+        String version = "v" + LAYOUT_VERSION + "-" + trips + "-" + lastTrip + "-" + drisc;
+        return render("trips-" + userId, version, document -> writeTripReport(document, user, vehicle));
+    }
+
+    public CompletableFuture<Report> policyStatement(Long policyId) {
+        InsurancePolicy policy = policyRepo.findById(policyId).orElseThrow(() -> new RuntimeException("Policy not found"));
+        long premium = premiumRepo.findByPolicyIdAndIsActiveTrue(policyId).stream()
+                .mapToLong(PremiumCalculation::getId).max().orElse(0L);
+        long drisc = driscScoreRepo.findTopByUseridOrderByCalculatedAtDesc(policy.getUser()).map(DriscScore::getId).orElse(0L);
+        long updated = policy.getUpdatedAt() != null ? policy.getUpdatedAt().toEpochSecond(ZoneOffset.UTC) : 0L;
+        String version = "v" + LAYOUT_VERSION + "-" + updated + "-" + premium + "-" + drisc;
+        return render("policy-" + policyId, version, document -> writePolicyStatement(document, policy));
+    }
+
+    private interface Content {
+        void write(Document document) throws DocumentException;
+    }
+
+    private CompletableFuture<Report> render(String name, String version, Content content) {
+        Path target = dir.resolve(name + "-" + version + ".pdf");
+        if (Files.exists(target)) {
+            try {
+                return CompletableFuture.completedFuture(new Report(target, version));
+            } catch (UncheckedIOException e) {
+                if (!(e.getCause() instanceof NoSuchFileException)) {
+                    throw e;
+                }
+                // Evicted since the check; render it again
+            }
+        }
+        String key = target.toString();
+        CompletableFuture<Path> rendering = new CompletableFuture<>();
+        CompletableFuture<Path> existing = inFlight.putIfAbsent(key, rendering);
+        if (existing != null) {
+            rendering = existing;
+        } else {
+            CompletableFuture<Path> mine = rendering;
+            try {
+                renderer.execute(() -> {
+                    try {
+                        mine.complete(writePdf(name, target, content));
+                    } catch (RuntimeException e) {
+                        mine.completeExceptionally(e);
+                    } finally {
+                        inFlight.remove(key, mine);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                inFlight.remove(key, mine);
+                throw new RuntimeException("Report generation is busy, try again shortly");
+            }
+        }
+        return rendering.thenApply(p -> new Report(p, version));
+    }
+
+    private Path writePdf(String name, Path target, Content content) {
+        long started = System.nanoTime();
+        try {
+            Path tmp = Files.createTempFile(dir, name, ".tmp");
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tmp))) {
+                Document document = new Document();
+                PdfWriter.getInstance(document, out);
+                document.open();
+                content.write(document);
+                document.close();
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(tmp);
+                throw e;
+            }
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            evictOlderVersions(name, target);
+            logger.info("Rendered {} in {} ms", target.getFileName(), (System.nanoTime() - started) / 1_000_000);
+            return target;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Responses still streaming an old version keep reading it through their open channel
+    private void evictOlderVersions(String name, Path keep) throws IOException {
+        try (DirectoryStream<Path> old = Files.newDirectoryStream(dir, name + "-v*.pdf")) {
+            for (Path p : old) {
+                if (p.equals(keep)) {
+                    continue;
+                }
+                try {
+                    Files.deleteIfExists(p);
+                } catch (IOException e) {
+                    // Platforms that refuse to delete an open file: the next render of this report retries
+                    logger.debug("Could not evict {} yet: {}", p.getFileName(), e.toString());
+                }
+            }
+        }
+    }
+
+    private void writeTripReport(Document document, User user, Vehicle vehicle) throws DocumentException {
+        Font title = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 16);
+        document.add(new Paragraph("DriveSafeAI Trip Report", title));
+        document.add(new Paragraph(user.getFullName() + " - " + vehicle.getVehicleNo()
+                + (vehicle.getModel() != null ? " (" + vehicle.getModel() + ")" : "")));
+        document.add(new Paragraph("Generated " + LocalDateTime.now().withNano(0)));
+        DriscScore drisc = driscScoreRepo.findTopByUseridOrderByCalculatedAtDesc(user).orElse(null);
+        if (drisc != null) {
+            document.add(new Paragraph("DRISC score: " + format(drisc.getScore()) + " over " + drisc.getTripsConsidered() + " trips"));
+        }
+        document.add(new Paragraph(" "));
+
+        List<TripSummary> trips = tripSummaryRepo.findByVehicleId(vehicle.getId());
+        trips.sort(Comparator.comparing(TripSummary::getId));
+        PdfPTable table = new PdfPTable(7);
+        table.setWidthPercentage(100);
+        table.setHeaderRows(1);
+        for (String h : new String[]{"Trip", "Score", "Distance", "Avg speed", "Max speed", "Max accel", "Hotspot risk"}) {
+            table.addCell(h);
+        }
+        for (TripSummary t : trips) {
+            table.addCell(String.valueOf(t.getTripNo()));
+            table.addCell(format(t.getDriveScore()));
+            table.addCell(format(t.getDistanceTravelled()));
+            table.addCell(format(t.getAvgSpeed()));
+            table.addCell(format(t.getMaxSpeed()));
+            table.addCell(format(t.getMaxAcceleration()));
+            table.addCell(format(t.getHotspotRisk()));
+        }
+        document.add(table);
+    }
+
+    private void writePolicyStatement(Document document, InsurancePolicy policy) throws DocumentException {
+        Font title = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 16);
+        document.add(new Paragraph("DriveSafeAI Policy Statement", title));
+        document.add(new Paragraph("Policy " + policy.getPolicyNumber() + " - " + policy.getStatus()));
+        if (policy.getUser() != null) {
+            document.add(new Paragraph("Policyholder: " + policy.getUser().getFullName()));
+        }
+        if (policy.getVehicle() != null) {
+            document.add(new Paragraph("Vehicle: " + policy.getVehicle().getVehicleNo()));
+        }
+        document.add(new Paragraph("Period: " + policy.getPolicyStartDate() + " to " + policy.getPolicyEndDate()));
+        document.add(new Paragraph("Coverage: " + policy.getCoverageType() + ", " + policy.getCoverageAmount()));
+        document.add(new Paragraph("Base premium: " + policy.getBasePremium()));
+        document.add(new Paragraph("Current premium: " + policy.getCurrentPremium()));
+        document.add(new Paragraph(" "));
+
+        for (PremiumCalculation calc : premiumRepo.findByPolicyIdAndIsActiveTrue(policy.getId())) {
+            PdfPTable table = new PdfPTable(2);
+            table.setWidthPercentage(60);
+            table.setHorizontalAlignment(PdfPTable.ALIGN_LEFT);
+            table.addCell("Calculated");
+            table.addCell(String.valueOf(calc.getCalculationDate()));
+            table.addCell("DRISC score");
+            table.addCell(calc.getDriscScore() != null ? format(calc.getDriscScore().getScore()) : "-");
+            table.addCell("Risk category");
+            table.addCell(calc.getRiskCategory() != null ? calc.getRiskCategory().getCategoryName() : "-");
+            table.addCell("Multiplier");
+            table.addCell(format(calc.getRiskMultiplier()));
+            table.addCell("Premium");
+            table.addCell(String.valueOf(calc.getCalculatedPremium()));
+            document.add(table);
+        }
+    }
+
+    private static String format(Float value) {
+        return value == null ? "-" : String.format("%.2f", value);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.DriveSafeAI.service.impl;
+
+import com.example.DriveSafeAI.dao.DriscScoreRepository;
+import com.example.DriveSafeAI.dao.InsuranceClaimRepository;
+import com.example.DriveSafeAI.dao.InsurancePolicyRepository;
+import com.example.DriveSafeAI.dao.TripSummaryRepository;
+import com.example.DriveSafeAI.dao.VehicleRepository;
+import com.example.DriveSafeAI.dao.VersionStamp;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.ZoneOffset;
+
+/**
+ * ETags for the read-mostly dashboard endpoints, built from one aggregate or id query over the rows a response
+ * is made of, so If-None-Match can be answered with 304 before the full query and mapping run.
+ * Versions come from the database rather than from in-memory counters, so they survive restarts and agree
+ * between instances. Bump FORMAT when a response DTO changes shape.
+ */
+@Component
+public class ResourceVersionService {
+
+    private static final int FORMAT = 1;
+
+    @Autowired private TripSummaryRepository tripSummaryRepo;
+    @Autowired private VehicleRepository vehicleRepo;
+    @Autowired private InsurancePolicyRepository policyRepo;
+    @Autowired private DriscScoreRepository driscScoreRepo;
+    @Autowired private InsuranceClaimRepository claimRepo;
+    @Autowired private PremiumRatingEngine ratingEngine;
+
+    public String tripSummariesETag(Long vehicleId) {
+        VersionStamp stamp = tripSummaryRepo.findVersionByVehicleId(vehicleId);
+        return etag("trips", vehicleId, stamp.getTotal(), stamp.getLastId());
+    }
+
+    // User and vehicle rows are not changed after registration
+    public String userETag(Long userId) {
+        return etag("user", userId, vehicleRepo.findIdByUserId(userId).orElse(0L));
+    }
+
+    /**
+     * The premium depends on the policy terms, the latest DRISC score and the risk bands. Policy terms are
+     * fixed once the policy is created; its updatedAt is left out because every rating touches it.
+     */
+    public String premiumETag(Long userId) {
+        long policy = policyRepo.findIdByVehicleUserId(userId).orElse(0L);
+        Long drisc = driscScoreRepo.findLatestIdByUserId(userId);
+        return etag("premium", userId, policy, drisc, Integer.toHexString(ratingEngine.bands().fingerprint()));
+    }
+
+    public String claimsETag(Long policyId) {
+        VersionStamp stamp = claimRepo.findVersionByPolicyId(policyId);
+        long modified = stamp.getLastModified() != null ? stamp.getLastModified().toInstant(ZoneOffset.UTC).toEpochMilli() : 0L;
+        return etag("claims", policyId, stamp.getTotal(), stamp.getLastId(), modified);
+    }
+
+    private static String etag(String kind, Object... parts) {
+        StringBuilder sb = new StringBuilder("\"").append(kind).append("-v").append(FORMAT);
+        for (Object part : parts) {
+            sb.append('-').append(part != null ? part : 0);
+        }
+        return sb.append('"').toString();
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.DriveSafeAI.service.impl;
+
+import com.example.DriveSafeAI.entity.RiskCategory;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA listener on {@link RiskCategory} that drops the cached band table whenever a band changes.
+ */
+@Component
+public class RiskCategoryChangeListener {
+
+    @Autowired
+    @Lazy
+    private PremiumRatingEngine ratingEngine;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(RiskCategory category) {
+        // Rebuild only once the change is visible to the reload query
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    ratingEngine.invalidate();
+                }
+            });
+        } else {
+            ratingEngine.invalidate();
+        }
+    }
+}
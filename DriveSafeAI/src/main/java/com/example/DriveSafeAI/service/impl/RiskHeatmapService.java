@@ -0,0 +1,236 @@
+package com.example.DriveSafeAI.service.impl;
+
+import com.example.DriveSafeAI.dao.DrivingEventRepository;
+import com.example.DriveSafeAI.dao.RiskHeatmapCellRepository;
+import com.example.DriveSafeAI.dto.HeatmapTileDTO;
+import com.example.DriveSafeAI.entity.DrivingEvent;
+import com.example.DriveSafeAI.entity.DrivingEventType;
+import com.example.DriveSafeAI.entity.RiskHeatmapCell;
+import com.example.DriveSafeAI.entity.TripData;
+import com.example.DriveSafeAI.util.Geohash;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Portfolio risk heatmap rolled up into geohash cells at several zoom levels.
+ * Each finished trip adds its harsh braking and rapid acceleration events and its speed-risk samples to the
+ * cells it touched; cells are persisted and mirrored in memory grouped into tiles, so serving a tile never
+ * touches trip_data. Ending a trip only queues its per-cell counts; one scheduled worker folds the queued trips
+ * in, so the cell upserts never serialize end-session requests. Trips still queued at a crash are not counted.
+ * A tile at precision p holds the cells under one geohash prefix of length p - 2 (at most 1024 cells).
+ */
+@Component
+public class RiskHeatmapService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RiskHeatmapService.class);
+
+    static final int TILE_DEPTH = 2;
+
+    @Value("${heatmap.precisions:4,5,6,7}")
+    private int[] precisions;
+
+    @Autowired private RiskHeatmapCellRepository cellRepo;
+    @Autowired private DrivingEventRepository drivingEventRepo;
+    @Autowired private DrivingEventMonitor drivingEventMonitor;
+
+    /** In-memory tile: cell counters plus a version bumped on every change and a cached response body. */
+    static class Tile {
+        final TreeMap<String, long[]> cells = new TreeMap<>();// harsh, speeding, samples
+        final Map<String, Double> speedRiskSums = new HashMap<>();
+        long version;
+        HeatmapTileDTO body;
+    }
+
+    private record QueuedTrip(String sessionId, Map<Long, double[]> deltas) {
+    }
+
+    private final Map<String, Tile> tiles = new ConcurrentHashMap<>();
+    private final LinkedBlockingQueue<QueuedTrip> queue = new LinkedBlockingQueue<>();
+    // Distinguishes ETags across restarts, when in-memory versions start again from zero
+    private final long epoch = System.currentTimeMillis();
+
+    @PostConstruct
+    public void load() {
+        Arrays.sort(precisions);
+        List<RiskHeatmapCell> all = cellRepo.findAll();
+        for (RiskHeatmapCell cell : all) {
+            Tile tile = tiles.computeIfAbsent(tileKey(cell.getPrecisionLevel(), cell.getGeohash()), k -> new Tile());
+            tile.cells.put(cell.getGeohash(), new long[]{
+                    cell.getHarshEventCount(), cell.getSpeedingSampleCount(), cell.getSampleCount()});
+            tile.speedRiskSums.put(cell.getGeohash(), cell.getSpeedRiskSum());
+        }
+        logger.info("Risk heatmap loaded {} cells into {} tiles", all.size(), tiles.size());
+    }
+
+    /**
+     * Queues one finished trip for every zoom level. Called after the trip rows have their risk features.
+     */
+    public void recordTrip(String sessionId, List<TripData> trip) {
+        int finest = precisions[precisions.length - 1];
+        Map<Long, double[]> deltas = new HashMap<>();// finest cell -> harsh, speeding, samples, speedRiskSum
+        for (TripData t : trip) {
+            if (t.getLatitude() == null || t.getLongitude() == null) {
+                continue;
+            }
+            double[] d = deltas.computeIfAbsent(Geohash.encode(t.getLatitude(), t.getLongitude(), finest), k -> new double[4]);
+            float speedRisk = t.getSpeedRisk() != null ? t.getSpeedRisk() : 0f;
+            d[1] += speedRisk > 0 ? 1 : 0;
+            d[2] += 1;
+            d[3] += speedRisk;
+        }
+        queue.add(new QueuedTrip(sessionId, deltas));
+    }
+
+    /** Folds the queued trips, and the harsh events stored for them, into the cells. */
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${heatmap.flush-ms:1000}")
+    public synchronized void flush() {
+        List<QueuedTrip> trips = new ArrayList<>();
+        queue.drainTo(trips);
+        if (trips.isEmpty()) {
+            return;
+        }
+        try {
+            // Let the live detector catch up so these sessions' events are stored
+            drivingEventMonitor.drain();
+
+            int finest = precisions[precisions.length - 1];
+            Map<Long, double[]> deltas = new HashMap<>();
+            for (QueuedTrip trip : trips) {
+                trip.deltas().forEach((cell, d) -> {
+                    double[] acc = deltas.computeIfAbsent(cell, k -> new double[4]);
+                    for (int i = 0; i < 4; i++) {
+                        acc[i] += d[i];
+                    }
+                });
+                for (DrivingEvent e : drivingEventRepo.findBySessionId(trip.sessionId())) {
+                    if (e.getLatitude() == null || e.getLongitude() == null || !isHarsh(e.getEventType())) {
+                        continue;
+                    }
+                    long cell = Geohash.encode(e.getLatitude(), e.getLongitude(), finest);
+                    deltas.computeIfAbsent(cell, k -> new double[4])[0] += 1;
+                }
+            }
+            if (deltas.isEmpty()) {
+                return;
+            }
+
+            for (int precision : precisions) {
+                Map<String, double[]> level = new HashMap<>();
+                deltas.forEach((cell, d) -> {
+                    String geohash = Geohash.toString(Geohash.parent(cell, finest - precision), precision);
+                    double[] acc = level.computeIfAbsent(geohash, k -> new double[4]);
+                    for (int i = 0; i < 4; i++) {
+                        acc[i] += d[i];
+                    }
+                });
+                apply(precision, level);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Adding {} trips to the risk heatmap failed: {}", trips.size(), e.getMessage());
+        }
+    }
+
+    // Speeding is counted from the samples' speed risk, and over-revving says nothing about the road
+    private static boolean isHarsh(DrivingEventType type) {
+        return type == DrivingEventType.HARSH_BRAKING || type == DrivingEventType.RAPID_ACCELERATION;
+    }
+
+    private void apply(int precision, Map<String, double[]> level) {
+        Map<String, RiskHeatmapCell> existing = new HashMap<>();
+        for (RiskHeatmapCell cell : cellRepo.findByPrecisionLevelAndGeohashIn(precision, level.keySet())) {
+            existing.put(cell.getGeohash(), cell);
+        }
+        List<RiskHeatmapCell> changed = new ArrayList<>(level.size());
+        level.forEach((geohash, d) -> {
+            RiskHeatmapCell cell = existing.get(geohash);
+            if (cell == null) {
+                cell = new RiskHeatmapCell();
+                cell.setPrecisionLevel(precision);
+                cell.setGeohash(geohash);
+            }
+            cell.setHarshEventCount(cell.getHarshEventCount() + (long) d[0]);
+            cell.setSpeedingSampleCount(cell.getSpeedingSampleCount() + (long) d[1]);
+            cell.setSampleCount(cell.getSampleCount() + (long) d[2]);
+            cell.setSpeedRiskSum(cell.getSpeedRiskSum() + d[3]);
+            cell.setUpdatedAt(LocalDateTime.now());
+            changed.add(cell);
+        });
+        cellRepo.saveAll(changed);
+
+        for (RiskHeatmapCell cell : changed) {
+            Tile tile = tiles.computeIfAbsent(tileKey(precision, cell.getGeohash()), k -> new Tile());
+            synchronized (tile) {
+                tile.cells.put(cell.getGeohash(), new long[]{
+                        cell.getHarshEventCount(), cell.getSpeedingSampleCount(), cell.getSampleCount()});
+                tile.speedRiskSums.put(cell.getGeohash(), cell.getSpeedRiskSum());
+                tile.version++;
+                tile.body = null;
+            }
+        }
+    }
+
+    /** Current ETag of a tile, cheap enough to check before building the body. */
+    public String tileETag(int precision, String prefix) {
+        Tile tile = tiles.get(precision + ":" + prefix);
+        long version;
+        if (tile == null) {
+            version = 0;
+        } else {
+            synchronized (tile) {
+                version = tile.version;
+            }
+        }
+        return "\"" + Long.toString(epoch, 36) + "-" + version + "\"";
+    }
+
+    public HeatmapTileDTO getTile(int precision, String prefix) {
+        if (prefix.length() != precision - TILE_DEPTH) {
+            throw new RuntimeException("Tile prefix for precision " + precision + " must have "
+                    + (precision - TILE_DEPTH) + " characters");
+        }
+        Tile tile = tiles.get(precision + ":" + prefix);
+        if (tile == null) {
+            return new HeatmapTileDTO(precision, prefix, List.of(), new long[0], new long[0], new long[0], new float[0]);
+        }
+        synchronized (tile) {
+            if (tile.body == null) {
+                int n = tile.cells.size();
+                List<String> names = new ArrayList<>(n);
+                long[] harsh = new long[n], speeding = new long[n], samples = new long[n];
+                float[] avgRisk = new float[n];
+                int i = 0;
+                for (Map.Entry<String, long[]> e : tile.cells.entrySet()) {
+                    names.add(e.getKey());
+                    harsh[i] = e.getValue()[0];
+                    speeding[i] = e.getValue()[1];
+                    samples[i] = e.getValue()[2];
+                    avgRisk[i] = samples[i] == 0 ? 0f : (float) (tile.speedRiskSums.get(e.getKey()) / samples[i]);
+                    i++;
+                }
+                tile.body = new HeatmapTileDTO(precision, prefix, names, harsh, speeding, samples, avgRisk);
+            }
+            return tile.body;
+        }
+    }
+
+    private static String tileKey(int precision, String geohash) {
+        return precision + ":" + geohash.substring(0, Math.max(precision - TILE_DEPTH, 0));
+    }
+}
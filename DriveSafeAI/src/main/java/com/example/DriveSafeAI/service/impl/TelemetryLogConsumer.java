@@ -0,0 +1,60 @@
+package com.example.DriveSafeAI.service.impl;
+
+import com.example.DriveSafeAI.util.TelemetryLog;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+
+/**
+ * Base for components that read the telemetry log at their own pace.
+ * Subclasses schedule {@link #drain()} and decide which offset is safe to commit.
+ */
+public abstract class TelemetryLogConsumer {
+
+    private static final int BATCH = 1000;
+
+    @Autowired
+    protected TelemetryLogService telemetryLog;
+
+    protected long position;
+
+    protected abstract String consumerName();
+
+    protected abstract void apply(TelemetryLog.Entry entry);
+
+    /** Called once per drained batch, after its records were applied. */
+    protected void afterBatch() {
+    }
+
+    /** Offset to persist; records from it onward are re-read after a restart. */
+    protected long commitOffset() {
+        return position;
+    }
+
+    protected synchronized void seekToCommitted() {
+        position = telemetryLog.committedOffset(consumerName());
+    }
+
+    public synchronized void drain() {
+        List<TelemetryLog.Entry> batch;
+        do {
+            batch = telemetryLog.read(position, BATCH);
+            for (TelemetryLog.Entry entry : batch) {
+                apply(entry);
+                position = entry.getNextOffset();
+            }
+            if (!batch.isEmpty()) {
+                afterBatch();
+            }
+        } while (batch.size() == BATCH);
+        commit();
+    }
+
+    protected void commit() {
+        telemetryLog.commit(consumerName(), commitOffset());
+    }
+
+    public long getLag() {
+        return telemetryLog.getEndOffset() - position;
+    }
+}
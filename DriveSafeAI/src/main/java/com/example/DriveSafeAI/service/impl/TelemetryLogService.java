@@ -0,0 +1,124 @@
+package com.example.DriveSafeAI.service.impl;
+
+import com.example.DriveSafeAI.dto.LiveTripDTO;
+import com.example.DriveSafeAI.util.TelemetryLog;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Owns the durable telemetry log that /api/live appends to.
+ * Ingest only appends and acknowledges; consumers poll with their own committed offsets.
+ */
+@Component
+public class TelemetryLogService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TelemetryLogService.class);
+
+    public static final byte SAMPLE = 1;
+    public static final byte SESSION_END = 2;
+
+    @Value("${telemetry.log.dir:data/telemetry-log}")
+    private String logDir;
+
+    @Value("${telemetry.log.segment-bytes:67108864}")
+    private int segmentBytes;
+
+    @Value("${telemetry.log.fsync-policy:INTERVAL}")
+    private TelemetryLog.FsyncPolicy fsyncPolicy;
+
+    @Value("${telemetry.log.retention-hours:72}")
+    private long retentionHours;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private TelemetryLog log;
+
+    @PostConstruct
+    public void open() throws IOException {
+        log = new TelemetryLog(Paths.get(logDir), segmentBytes, fsyncPolicy);
+        logger.info("Telemetry log opened at {} (offsets {}..{}, {} segments, fsync {})",
+                logDir, log.getStartOffset(), log.getEndOffset(), log.getSegmentCount(), fsyncPolicy);
+    }
+
+    @PreDestroy
+    public void close() {
+        log.close();
+    }
+
+    public long appendSample(LiveTripDTO dto) {
+        // Live samples carry no clock of their own; this becomes the TripData row's recordedAt
+        dto.setReceivedAt(System.currentTimeMillis());
+        try {
+            return log.append(SAMPLE, objectMapper.writeValueAsBytes(dto));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to encode live trip sample: " + e.getMessage(), e);
+        }
+    }
+
+    public long appendSessionEnd(String sessionId) {
+        return log.append(SESSION_END, sessionId.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** The sample, or null for a record that cannot be decoded; consumers skip it rather than stall on it. */
+    public LiveTripDTO decodeSample(TelemetryLog.Entry entry) {
+        try {
+            return objectMapper.readValue(entry.getPayload(), LiveTripDTO.class);
+        } catch (IOException e) {
+            logger.warn("Skipping undecodable live trip sample at offset {}", entry.getOffset(), e);
+            return null;
+        }
+    }
+
+    public String decodeSessionEnd(TelemetryLog.Entry entry) {
+        return new String(entry.getPayload(), StandardCharsets.UTF_8);
+    }
+
+    public List<TelemetryLog.Entry> read(long fromOffset, int maxRecords) {
+        return log.read(fromOffset, maxRecords);
+    }
+
+    public long committedOffset(String consumer) {
+        return log.committedOffset(consumer);
+    }
+
+    public void commit(String consumer, long offset) {
+        log.commit(consumer, offset);
+    }
+
+    public long getEndOffset() {
+        return log.getEndOffset();
+    }
+
+    @Scheduled(fixedDelayString = "${telemetry.log.fsync-interval-ms:1000}")
+    public void flush() {
+        log.flush();
+    }
+
+    // Consumed segments go right away; unread ones once they are older than retention-hours, whoever lags
+    @Scheduled(fixedDelayString = "${telemetry.log.retention-check-ms:60000}")
+    public void applyRetention() {
+        int removed = log.applyRetention(retentionHours * 3600_000L);
+        if (removed == 0) {
+            return;
+        }
+        logger.info("Telemetry log retention removed {} segments, log now starts at {}", removed, log.getStartOffset());
+        for (String consumer : log.getLaggingConsumers()) {
+            logger.warn("Telemetry log consumer {} was at offset {}, past retention; it resumes at {} and the records "
+                    + "in between are lost", consumer, log.committedOffset(consumer), log.getStartOffset());
+        }
+    }
+}
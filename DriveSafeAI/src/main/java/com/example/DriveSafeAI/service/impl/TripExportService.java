@@ -0,0 +1,288 @@
+package com.example.DriveSafeAI.service.impl;
+
+import jakarta.annotation.PreDestroy;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.Float4Vector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.TimeStampMilliVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowStreamWriter;
+import org.apache.arrow.vector.types.FloatingPointPrecision;
+import org.apache.arrow.vector.types.TimeUnit;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk extracts of trip_summary and trip_data as Arrow IPC streams, for insurers' own actuarial modelling.
+ * Rows go from a forward-only JDBC cursor (fetch-size rows per round trip) straight into column vectors, and
+ * every batch-size rows become one record batch written to the response. A slow client blocks that write and
+ * with it the cursor, so memory stays at one batch whatever the size of the extract. Rows are in id order and
+ * carry their id, so an interrupted export resumes with afterId set to the last id received.
+ */
+@Component
+public class TripExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TripExportService.class);
+
+    private static final int MAX_VEHICLE_IDS = 1000;
+
+    private enum Kind { BIGINT, INT, FLOAT, DOUBLE, BOOL, TIMESTAMP }
+
+    private record Column(String name, Kind kind) {
+    }
+
+    public enum Dataset {
+        TRIP_SUMMARY("trip_summary", "trip-summary", List.of(
+                new Column("id", Kind.BIGINT), new Column("vehicle_id", Kind.BIGINT), new Column("trip_no", Kind.INT),
+                new Column("drive_score", Kind.FLOAT), new Column("max_speed", Kind.FLOAT),
+                new Column("avg_speed", Kind.FLOAT), new Column("max_acceleration", Kind.FLOAT),
+                new Column("distance_travelled", Kind.FLOAT), new Column("hotspot_risk", Kind.FLOAT),
+                new Column("is_rainy", Kind.BOOL), new Column("is_day", Kind.BOOL))),
+        TRIP_DATA("trip_data", "trip-data", List.of(
+                new Column("id", Kind.BIGINT), new Column("vehicle_id", Kind.BIGINT), new Column("trip_no", Kind.INT),
+                new Column("recorded_at", Kind.TIMESTAMP), new Column("observation_hour", Kind.INT),
+                new Column("speed", Kind.FLOAT), new Column("rpm", Kind.FLOAT), new Column("acceleration", Kind.FLOAT),
+                new Column("throttle_position", Kind.FLOAT), new Column("engine_temperature", Kind.FLOAT),
+                new Column("system_voltage", Kind.FLOAT), new Column("engine_load_value", Kind.FLOAT),
+                new Column("distance_travelled", Kind.FLOAT), new Column("brake", Kind.FLOAT),
+                new Column("latitude", Kind.DOUBLE), new Column("longitude", Kind.DOUBLE),
+                new Column("altitude", Kind.BIGINT), new Column("body_temperature", Kind.BIGINT),
+                new Column("id_driver", Kind.BIGINT), new Column("current_weather", Kind.BIGINT),
+                new Column("has_precipitation", Kind.INT), new Column("is_day_time", Kind.INT),
+                new Column("temperature", Kind.DOUBLE), new Column("wind_speed", Kind.DOUBLE),
+                new Column("wind_direction", Kind.BIGINT), new Column("relative_humidity", Kind.BIGINT),
+                new Column("visibility", Kind.DOUBLE), new Column("uv_index", Kind.BIGINT),
+                new Column("cloud_cover", Kind.BIGINT), new Column("ceiling", Kind.BIGINT),
+                new Column("pressure", Kind.BIGINT), new Column("precipitation", Kind.DOUBLE),
+                new Column("accidents_onsite", Kind.BIGINT), new Column("design_speed", Kind.BIGINT),
+                new Column("accidents_time", Kind.BIGINT),
+                new Column("speed_risk", Kind.FLOAT), new Column("harsh_acceleration", Kind.FLOAT),
+                new Column("rpm_efficiency", Kind.FLOAT), new Column("high_rpm_risk", Kind.FLOAT),
+                new Column("throttle_aggression", Kind.FLOAT), new Column("engine_temp_risk", Kind.FLOAT),
+                new Column("voltage_risk", Kind.FLOAT), new Column("engine_load_risk", Kind.FLOAT),
+                new Column("weather_risk", Kind.FLOAT), new Column("speed_variance", Kind.FLOAT),
+                new Column("acceleration_variance", Kind.FLOAT), new Column("excessive_throttle_time", Kind.FLOAT),
+                new Column("engine_strain", Kind.FLOAT), new Column("hotspot_risk", Kind.FLOAT)));
+
+        final String table;
+        public final String path;
+        final List<Column> columns;
+
+        Dataset(String table, String path, List<Column> columns) {
+            this.table = table;
+            this.path = path;
+            this.columns = columns;
+        }
+
+        public static Dataset fromPath(String path) {
+            for (Dataset d : values()) {
+                if (d.path.equals(path)) {
+                    return d;
+                }
+            }
+            throw new RuntimeException("Unknown export dataset: " + path);
+        }
+    }
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Value("${export.fetch-size:1000}")
+    private int fetchSize;
+
+    @Value("${export.batch-rows:4096}")
+    private int batchRows;
+
+    // Off-heap column buffers of all running exports together
+    @Value("${export.max-memory-bytes:268435456}")
+    private long maxMemoryBytes;
+
+    private volatile RootAllocator allocator;
+
+    @PreDestroy
+    public void shutdown() {
+        if (allocator != null) {
+            allocator.close();
+        }
+    }
+
+    /**
+     * Rows of the dataset with id above afterId, optionally limited to a vehicle set and to the days from..to
+     * (inclusive, by trip_data.recorded_at; a summary is in range when any of its samples is).
+     */
+    public StreamingResponseBody export(Dataset dataset, LocalDate from, LocalDate to, List<Long> vehicleIds, long afterId) {
+        if (vehicleIds != null && vehicleIds.size() > MAX_VEHICLE_IDS) {
+            throw new RuntimeException("At most " + MAX_VEHICLE_IDS + " vehicle ids per export");
+        }
+        List<Object> params = new ArrayList<>();
+        String sql = query(dataset, from, to, vehicleIds, afterId, params);
+        return out -> {
+            long[] rows = {0};
+            long[] lastId = {afterId};
+            try (BufferAllocator child = allocator().newChildAllocator("export-" + dataset.path, 0, Long.MAX_VALUE);
+                 VectorSchemaRoot root = VectorSchemaRoot.create(schema(dataset), child);
+                 ArrowStreamWriter writer = new ArrowStreamWriter(root, null, Channels.newChannel(out))) {
+                writer.start();
+                root.allocateNew();
+                int[] batch = {0};
+                jdbcTemplate.query(con -> {
+                    PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    ps.setFetchSize(fetchSize);
+                    for (int i = 0; i < params.size(); i++) {
+                        ps.setObject(i + 1, params.get(i));
+                    }
+                    return ps;
+                }, rs -> {
+                    fill(root, dataset.columns, batch[0], rs);
+                    lastId[0] = rs.getLong(1);
+                    rows[0]++;
+                    if (++batch[0] == batchRows) {
+                        writeBatch(root, writer, batch[0]);
+                        batch[0] = 0;
+                    }
+                });
+                if (batch[0] > 0) {
+                    writeBatch(root, writer, batch[0]);
+                }
+                writer.end();
+                logger.info("Exported {} {} rows after id {} up to id {}", rows[0], dataset.path, afterId, lastId[0]);
+            } catch (UncheckedIOException e) {
+                // Usually the client went away; it resumes from the last id it received
+                logger.info("Export of {} stopped after {} rows at id {}: {}", dataset.path, rows[0], lastId[0], e.getCause().toString());
+                throw e.getCause();
+            }
+        };
+    }
+
+    private static String query(Dataset dataset, LocalDate from, LocalDate to, List<Long> vehicleIds, long afterId,
+                                List<Object> params) {
+        String columns = dataset.columns.stream().map(c -> "t." + c.name()).collect(Collectors.joining(", "));
+        StringBuilder sql = new StringBuilder("SELECT ").append(columns).append(" FROM ").append(dataset.table)
+                .append(" t WHERE t.id > ?");
+        params.add(afterId);
+        if (vehicleIds != null && !vehicleIds.isEmpty()) {
+            sql.append(" AND t.vehicle_id IN (")
+                    .append(vehicleIds.stream().map(id -> "?").collect(Collectors.joining(", "))).append(')');
+            params.addAll(vehicleIds);
+        }
+        if (from != null || to != null) {
+            boolean summary = dataset == Dataset.TRIP_SUMMARY;
+            String time = summary ? "d.recorded_at" : "t.recorded_at";
+            if (summary) {
+                sql.append(" AND EXISTS (SELECT 1 FROM trip_data d WHERE d.vehicle_id = t.vehicle_id AND d.trip_no = t.trip_no");
+            }
+            if (from != null) {
+                sql.append(" AND ").append(time).append(" >= ?");
+                params.add(Timestamp.valueOf(from.atStartOfDay()));
+            }
+            if (to != null) {
+                sql.append(" AND ").append(time).append(" < ?");
+                params.add(Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
+            }
+            if (summary) {
+                sql.append(')');
+            }
+        }
+        return sql.append(" ORDER BY t.id").toString();
+    }
+
+    private static Schema schema(Dataset dataset) {
+        return new Schema(dataset.columns.stream()
+                .map(c -> new Field(c.name(), FieldType.nullable(arrowType(c.kind())), null))
+                .collect(Collectors.toList()));
+    }
+
+    private static ArrowType arrowType(Kind kind) {
+        return switch (kind) {
+            case BIGINT -> new ArrowType.Int(64, true);
+            case INT -> new ArrowType.Int(32, true);
+            case FLOAT -> new ArrowType.FloatingPoint(FloatingPointPrecision.SINGLE);
+            case DOUBLE -> new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE);
+            case BOOL -> ArrowType.Bool.INSTANCE;
+            case TIMESTAMP -> new ArrowType.Timestamp(TimeUnit.MILLISECOND, null);
+        };
+    }
+
+    private static void fill(VectorSchemaRoot root, List<Column> columns, int row, ResultSet rs) throws SQLException {
+        for (int i = 0; i < columns.size(); i++) {
+            FieldVector vector = root.getVector(i);
+            int index = i + 1;
+            switch (columns.get(i).kind()) {
+                case BIGINT -> {
+                    long v = rs.getLong(index);
+                    if (rs.wasNull()) ((BigIntVector) vector).setNull(row); else ((BigIntVector) vector).setSafe(row, v);
+                }
+                case INT -> {
+                    int v = rs.getInt(index);
+                    if (rs.wasNull()) ((IntVector) vector).setNull(row); else ((IntVector) vector).setSafe(row, v);
+                }
+                case FLOAT -> {
+                    float v = rs.getFloat(index);
+                    if (rs.wasNull()) ((Float4Vector) vector).setNull(row); else ((Float4Vector) vector).setSafe(row, v);
+                }
+                case DOUBLE -> {
+                    double v = rs.getDouble(index);
+                    if (rs.wasNull()) ((Float8Vector) vector).setNull(row); else ((Float8Vector) vector).setSafe(row, v);
+                }
+                case BOOL -> {
+                    boolean v = rs.getBoolean(index);
+                    if (rs.wasNull()) ((BitVector) vector).setNull(row); else ((BitVector) vector).setSafe(row, v ? 1 : 0);
+                }
+                case TIMESTAMP -> {
+                    // Zone-less like the column: Arrow reads a timestamp without time zone as wall-clock time
+                    Timestamp v = rs.getTimestamp(index);
+                    if (v == null) ((TimeStampMilliVector) vector).setNull(row);
+                    else ((TimeStampMilliVector) vector).setSafe(row, v.toLocalDateTime().toInstant(ZoneOffset.UTC).toEpochMilli());
+                }
+            }
+        }
+    }
+
+    private static void writeBatch(VectorSchemaRoot root, ArrowStreamWriter writer, int rows) {
+        root.setRowCount(rows);
+        try {
+            writer.writeBatch();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        root.allocateNew();
+    }
+
+    // Created on first use: Arrow's memory classes need java.nio opened, which only matters once an export runs
+    private RootAllocator allocator() {
+        if (allocator == null) {
+            synchronized (this) {
+                if (allocator == null) {
+                    allocator = new RootAllocator(maxMemoryBytes);
+                }
+            }
+        }
+        return allocator;
+    }
+}
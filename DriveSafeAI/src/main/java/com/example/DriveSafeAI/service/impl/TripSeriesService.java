@@ -0,0 +1,204 @@
+package com.example.DriveSafeAI.service.impl;
+
+import com.example.DriveSafeAI.dao.TripRepository;
+import com.example.DriveSafeAI.dao.TripSeriesRollupRepository;
+import com.example.DriveSafeAI.dto.TripSeriesDTO;
+import com.example.DriveSafeAI.entity.TripData;
+import com.example.DriveSafeAI.entity.TripSeriesRollup;
+import com.example.DriveSafeAI.util.SeriesRollup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Downsampled telemetry series for trip charts. When a trip ends its samples are rolled up into min/max/avg
+ * buckets of 1, 4, 16, ... samples, and every level no wider than max-buckets is stored (trip_series_rollup).
+ * A chart request reads the one level closest to the requested resolution and merges it down, so its cost
+ * depends on the number of points asked for rather than the length of the trip. Trips ended before the
+ * rollups existed are rolled up on their first request.
+ */
+@Component
+public class TripSeriesService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TripSeriesService.class);
+
+    public static final String MINMAX = "minmax";
+    public static final String LTTB = "lttb";
+
+    private static final int LEVEL_FACTOR = 4;
+    // Coarsest level kept; below this a request merges it further
+    private static final int MIN_BUCKETS = 16;
+    // The level read has at most this many buckets per requested point (levels are LEVEL_FACTOR apart)
+    private static final int OVERSAMPLE = 8;
+
+    private static final Map<String, Function<TripData, Float>> METRICS = new LinkedHashMap<>();
+    static {
+        METRICS.put("speed", TripData::getSpeed);
+        METRICS.put("rpm", TripData::getRpm);
+        METRICS.put("acceleration", TripData::getAcceleration);
+        METRICS.put("throttle_position", TripData::getThrottlePosition);
+        METRICS.put("engine_temperature", TripData::getEngineTemperature);
+        METRICS.put("engine_load_value", TripData::getEngineLoadValue);
+    }
+
+    @Autowired private TripSeriesRollupRepository rollupRepo;
+    @Autowired private TripRepository tripRepo;
+
+    @Value("${trip-series.max-buckets:2048}")
+    private int maxBuckets;
+
+    @Value("${trip-series.max-points:2048}")
+    private int maxPoints;
+
+    /** Stores the rollup levels of a finished trip; rows in sample order. */
+    public void recordTrip(Long vehicleId, Integer tripNo, List<TripData> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        try {
+            rollupRepo.saveAll(build(vehicleId, tripNo, rows));
+        } catch (DataIntegrityViolationException e) {
+            // Already rolled up by a chart request that got there first
+            logger.debug("Rollups for vehicle {} trip {} already stored", vehicleId, tripNo);
+        }
+    }
+
+    public TripSeriesDTO series(Long vehicleId, Integer tripNo, String metric, int points, String mode) {
+        if (!METRICS.containsKey(metric)) {
+            throw new RuntimeException("Unknown metric: " + metric + ", expected one of " + METRICS.keySet());
+        }
+        if (!MINMAX.equals(mode) && !LTTB.equals(mode)) {
+            throw new RuntimeException("Unknown mode: " + mode + ", expected minmax or lttb");
+        }
+        if (points < 2 || points > maxPoints) {
+            throw new RuntimeException("points must be between 2 and " + maxPoints);
+        }
+
+        List<Object[]> levels = rollupRepo.findLevels(vehicleId, tripNo);
+        if (levels.isEmpty()) {
+            backfill(vehicleId, tripNo);
+            levels = rollupRepo.findLevels(vehicleId, tripNo);
+        }
+        // Finest level that is at most a few times wider than the chart, else the coarsest there is
+        int target = points * OVERSAMPLE;
+        Integer bucketSize = (Integer) levels.get(levels.size() - 1)[0];
+        for (Object[] level : levels) {
+            if ((Integer) level[1] <= target) {
+                bucketSize = (Integer) level[0];
+                break;
+            }
+        }
+        TripSeriesRollup row = rollupRepo.findByVehicleIdAndTripNoAndBucketSize(vehicleId, tripNo, bucketSize)
+                .orElseThrow(() -> new RuntimeException("Trip series not found"));
+        SeriesRollup rollup = decode(row, metric);
+
+        TripSeriesDTO dto = new TripSeriesDTO();
+        dto.vehicleId = vehicleId;
+        dto.tripNo = tripNo;
+        dto.metric = metric;
+        dto.mode = mode;
+        dto.sampleCount = row.getSampleCount();
+        if (MINMAX.equals(mode)) {
+            if (rollup.size() > points) {
+                rollup = rollup.coarsen((rollup.size() + points - 1) / points);
+            }
+            dto.samplesPerPoint = rollup.bucketSize;
+            dto.x = new int[rollup.size()];
+            dto.min = new Float[rollup.size()];
+            dto.max = new Float[rollup.size()];
+            dto.avg = new Float[rollup.size()];
+            for (int i = 0; i < rollup.size(); i++) {
+                dto.x[i] = rollup.firstSample(i);
+                boolean empty = rollup.count[i] == 0;
+                dto.min[i] = empty ? null : rollup.min[i];
+                dto.max[i] = empty ? null : rollup.max[i];
+                dto.avg[i] = empty ? null : rollup.avg[i];
+            }
+        } else {
+            lttb(rollup, row.getSampleCount(), points, dto);
+        }
+        return dto;
+    }
+
+    // LTTB over the bucket averages, each placed at the middle of its bucket; empty buckets are left out
+    private static void lttb(SeriesRollup rollup, int sampleCount, int points, TripSeriesDTO dto) {
+        float[] x = new float[rollup.size()];
+        float[] y = new float[rollup.size()];
+        int n = 0;
+        for (int i = 0; i < rollup.size(); i++) {
+            if (rollup.count[i] > 0) {
+                int first = rollup.firstSample(i);
+                x[n] = first + (Math.min(first + rollup.bucketSize, sampleCount) - 1 - first) / 2f;
+                y[n] = rollup.avg[i];
+                n++;
+            }
+        }
+        x = Arrays.copyOf(x, n);
+        y = Arrays.copyOf(y, n);
+        int[] chosen = SeriesRollup.lttb(x, y, points);
+        dto.samplesPerPoint = rollup.bucketSize;
+        dto.x = new int[chosen.length];
+        dto.y = new Float[chosen.length];
+        for (int i = 0; i < chosen.length; i++) {
+            dto.x[i] = (int) x[chosen[i]];
+            dto.y[i] = y[chosen[i]];
+        }
+    }
+
+    private void backfill(Long vehicleId, Integer tripNo) {
+        List<TripData> rows = tripRepo.findByVehicleIdAndTripNoOrderByIdAsc(vehicleId, tripNo);
+        if (rows.isEmpty()) {
+            throw new RuntimeException("Trip not found");
+        }
+        recordTrip(vehicleId, tripNo, rows);
+    }
+
+    private List<TripSeriesRollup> build(Long vehicleId, Integer tripNo, List<TripData> rows) {
+        List<SeriesRollup> level = new ArrayList<>();
+        for (Function<TripData, Float> getter : METRICS.values()) {
+            float[] samples = new float[rows.size()];
+            for (int i = 0; i < samples.length; i++) {
+                Float v = getter.apply(rows.get(i));
+                samples[i] = v != null ? v : Float.NaN;
+            }
+            level.add(SeriesRollup.of(samples));
+        }
+        String metrics = String.join(",", METRICS.keySet());
+        List<TripSeriesRollup> stored = new ArrayList<>();
+        while (true) {
+            int buckets = level.get(0).size();
+            if (buckets <= maxBuckets) {
+                ByteBuffer payload = ByteBuffer.allocate(buckets * SeriesRollup.BYTES_PER_BUCKET * level.size());
+                level.forEach(r -> r.writeTo(payload));
+                stored.add(new TripSeriesRollup(null, vehicleId, tripNo, level.get(0).bucketSize, buckets,
+                        rows.size(), metrics, payload.array(), LocalDateTime.now()));
+            }
+            if (buckets <= MIN_BUCKETS) {
+                return stored;
+            }
+            level.replaceAll(r -> r.coarsen(LEVEL_FACTOR));
+        }
+    }
+
+    private static SeriesRollup decode(TripSeriesRollup row, String metric) {
+        int index = Arrays.asList(row.getMetrics().split(",")).indexOf(metric);
+        if (index < 0) {
+            throw new RuntimeException("Metric " + metric + " not stored for this trip");
+        }
+        ByteBuffer payload = ByteBuffer.wrap(row.getPayload());
+        payload.position(index * row.getBucketCount() * SeriesRollup.BYTES_PER_BUCKET);
+        return SeriesRollup.readFrom(payload, row.getBucketSize(), row.getBucketCount());
+    }
+}
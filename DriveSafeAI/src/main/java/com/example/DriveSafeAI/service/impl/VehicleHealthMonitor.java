@@ -0,0 +1,367 @@
+package com.example.DriveSafeAI.service.impl;
+
+import com.example.DriveSafeAI.dao.NotificationRepository;
+import com.example.DriveSafeAI.dao.VehicleHealthAlertRepository;
+import com.example.DriveSafeAI.dao.VehicleHealthBaselineRepository;
+import com.example.DriveSafeAI.dao.VehicleRepository;
+import com.example.DriveSafeAI.dto.LiveTripDTO;
+import com.example.DriveSafeAI.dto.VehicleHealthAlertDTO;
+import com.example.DriveSafeAI.dto.VehicleHealthDTO;
+import com.example.DriveSafeAI.entity.Notification;
+import com.example.DriveSafeAI.entity.Vehicle;
+import com.example.DriveSafeAI.entity.VehicleHealthAlert;
+import com.example.DriveSafeAI.entity.VehicleHealthAlertType;
+import com.example.DriveSafeAI.entity.VehicleHealthBaseline;
+import com.example.DriveSafeAI.util.StripedStateMap;
+import com.example.DriveSafeAI.util.TelemetryLog;
+import com.example.DriveSafeAI.util.VehicleHealthDetector;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Telemetry log consumer that watches engine temperature, system voltage and engine load against each vehicle's
+ * own baselines (see {@link VehicleHealthDetector}) and raises overheating, alternator and load alerts while the
+ * trip is in progress. Alerts are stored as {@link VehicleHealthAlert} rows and pushed to the driver; an alert
+ * that cannot be stored is re-armed, so it fires again on the next sample that still shows the fault. Samples
+ * for vehicle ids that are not registered are ignored.
+ * <p>
+ * Baselines carry across trips: the whole fleet's state is held in a {@link StripedStateMap}, a fixed
+ * {@value VehicleHealthDetector#STRIDE} floats per vehicle, and changed vehicles are flushed periodically to
+ * vehicle_health_baseline. The committed log offset is the one the last flush was taken at, so after a restart
+ * the samples since then are replayed onto the flushed baselines and none is learned twice. Alerts raised in that
+ * window can be raised again.
+ */
+@Component
+public class VehicleHealthMonitor extends TelemetryLogConsumer {
+
+    private static final Logger logger = LoggerFactory.getLogger(VehicleHealthMonitor.class);
+
+    private static final int PAGE = 1000;
+    private static final int PAYLOAD_BYTES = VehicleHealthDetector.STRIDE * Float.BYTES;
+
+    @Autowired private VehicleHealthBaselineRepository baselineRepo;
+    @Autowired private VehicleHealthAlertRepository alertRepo;
+    @Autowired private NotificationRepository notificationRepo;
+    @Autowired private VehicleRepository vehicleRepo;
+    @Autowired private VehicleLookup vehicleLookup;
+
+    @Value("${vehicle-health.stripes:64}") private int stripes;
+    @Value("${vehicle-health.ewma-alpha:0.005}") private float alpha;
+    @Value("${vehicle-health.warmup-samples:100}") private int warmupSamples;
+    @Value("${vehicle-health.cusum.slack:0.5}") private float cusumSlack;
+    @Value("${vehicle-health.cusum.limit:8}") private float cusumLimit;
+    @Value("${vehicle-health.overheat-celsius:115}") private float overheatCelsius;
+    @Value("${vehicle-health.charging-volts:12.4}") private float chargingVolts;
+    @Value("${vehicle-health.idle-rpm:500}") private float idleRpm;
+    @Value("${vehicle-health.recent-alerts:20}") private int recentAlerts;
+
+    private VehicleHealthDetector detector;
+    private StripedStateMap state;
+    private final List<VehicleHealthAlert> pending = new ArrayList<>();
+    private final Object flushLock = new Object();
+    private volatile long flushedPosition;
+
+    @Override
+    protected String consumerName() {
+        return "vehicle-health";
+    }
+
+    @PostConstruct
+    public void init() {
+        VehicleHealthDetector.Rules rules = new VehicleHealthDetector.Rules();
+        rules.alpha = alpha;
+        rules.warmupSamples = warmupSamples;
+        rules.cusumSlack = cusumSlack;
+        rules.cusumLimit = cusumLimit;
+        rules.overheatCelsius = overheatCelsius;
+        rules.chargingVolts = chargingVolts;
+        rules.idleRpm = idleRpm;
+        detector = new VehicleHealthDetector(rules);
+        state = new StripedStateMap(stripes, VehicleHealthDetector.STRIDE);
+        load();
+        seekToCommitted();
+        flushedPosition = position;
+    }
+
+    private void load() {
+        long afterId = 0;
+        int loaded = 0;
+        Slice<VehicleHealthBaseline> page;
+        do {
+            page = baselineRepo.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, PAGE));
+            for (VehicleHealthBaseline row : page) {
+                StripedStateMap.Stripe s = state.stripe(row.getVehicleId());
+                synchronized (s) {
+                    int slot = s.slot(row.getVehicleId(), true);
+                    ByteBuffer.wrap(row.getPayload()).asFloatBuffer().get(s.values, s.base(slot), VehicleHealthDetector.STRIDE);
+                    s.flags[slot] = row.getActiveAlerts() != null ? row.getActiveAlerts() : 0;
+                }
+                afterId = row.getId();
+                loaded++;
+            }
+        } while (page.hasNext());
+        logger.info("Loaded health baselines for {} vehicles", loaded);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${vehicle-health.poll-ms:200}")
+    public synchronized void drain() {
+        super.drain();
+    }
+
+    @Override
+    protected void apply(TelemetryLog.Entry entry) {
+        if (entry.getType() != TelemetryLogService.SAMPLE) {
+            return;
+        }
+        LiveTripDTO dto = telemetryLog.decodeSample(entry);
+        Long vehicleId = dto != null ? dto.getIdVehicle() : null;
+        if (vehicleId == null || vehicleId <= 0) {
+            return;
+        }
+        float temperature = dto.getEngineTemperature() != null ? dto.getEngineTemperature() : Float.NaN;
+        float voltage = dto.getSystemVoltage() != null ? dto.getSystemVoltage().floatValue() : Float.NaN;
+        float load = dto.getEngineLoadValue() != null ? dto.getEngineLoadValue().floatValue() : Float.NaN;
+        float rpm = dto.getRpm() != null ? dto.getRpm() : Float.NaN;
+
+        StripedStateMap.Stripe s = state.stripe(vehicleId);
+        boolean tracked;
+        synchronized (s) {
+            tracked = s.slot(vehicleId, false) >= 0;
+        }
+        // Never grow state, or reference in an alert, a vehicle id the client made up
+        if (!tracked && !vehicleLookup.isRegistered(vehicleId)) {
+            return;
+        }
+        int fired;
+        float temperatureBaseline, voltageBaseline;
+        synchronized (s) {
+            int slot = s.slot(vehicleId, true);
+            int base = s.base(slot);
+            fired = detector.update(s.values, base, s.flags, slot, temperature, voltage, load, rpm);
+            temperatureBaseline = VehicleHealthDetector.baseline(s.values, base, VehicleHealthDetector.TEMPERATURE);
+            voltageBaseline = VehicleHealthDetector.baseline(s.values, base, VehicleHealthDetector.VOLTAGE);
+        }
+        while (fired != 0) {
+            int ordinal = Integer.numberOfTrailingZeros(fired);
+            fired &= fired - 1;
+            VehicleHealthAlertType type = VehicleHealthDetector.type(ordinal);
+            VehicleHealthAlert alert = new VehicleHealthAlert();
+            alert.setVehicle(vehicleRepo.getReferenceById(vehicleId));
+            alert.setSessionId(dto.getSessionId());
+            alert.setAlertType(type);
+            switch (type) {
+                case OVERHEATING -> {
+                    alert.setReading(temperature);
+                    alert.setBaseline(orNull(temperatureBaseline));
+                }
+                case ALTERNATOR_FAILING -> {
+                    alert.setReading(voltage);
+                    alert.setBaseline(orNull(voltageBaseline));
+                }
+                case ABNORMAL_LOAD -> alert.setReading(load);
+            }
+            alert.setLatitude(dto.getLatitude());
+            alert.setLongitude(dto.getLongitude());
+            pending.add(alert);
+        }
+    }
+
+    @Override
+    protected void afterBatch() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<VehicleHealthAlert> alerts = new ArrayList<>(pending);
+        pending.clear();
+        try {
+            alertRepo.saveAll(alerts);
+        } catch (RuntimeException e) {
+            // The log has moved past these samples, so clear the alert flags instead and let them fire again
+            rearm(alerts);
+            logger.warn("Saving {} vehicle health alerts failed, re-armed them: {}", alerts.size(), e.getMessage());
+            return;
+        }
+        try {
+            notifyDrivers(alerts);
+        } catch (RuntimeException e) {
+            logger.warn("Notifying drivers of {} vehicle health alerts failed: {}", alerts.size(), e.getMessage());
+        }
+    }
+
+    private void rearm(List<VehicleHealthAlert> alerts) {
+        for (VehicleHealthAlert alert : alerts) {
+            Long vehicleId = alert.getVehicle().getId();
+            StripedStateMap.Stripe s = state.stripe(vehicleId);
+            synchronized (s) {
+                int slot = s.slot(vehicleId, false);
+                if (slot >= 0) {
+                    s.flags[slot] = (s.flags[slot] & ~(1 << alert.getAlertType().ordinal())) | VehicleHealthDetector.DIRTY;
+                }
+            }
+        }
+    }
+
+    private void notifyDrivers(List<VehicleHealthAlert> alerts) {
+        Map<Long, Vehicle> vehicles = new HashMap<>();
+        List<Notification> notes = new ArrayList<>();
+        for (VehicleHealthAlert alert : alerts) {
+            Vehicle vehicle = vehicles.computeIfAbsent(alert.getVehicle().getId(),
+                    id -> vehicleRepo.findById(id).orElse(null));
+            if (vehicle == null || vehicle.getUser() == null) {
+                continue;
+            }
+            Notification n = new Notification();
+            n.setUser(vehicle.getUser());
+            n.setMessage(message(alert));
+            notes.add(n);
+        }
+        notificationRepo.saveAll(notes);
+    }
+
+    private static String message(VehicleHealthAlert alert) {
+        Float normal = alert.getBaseline();
+        return switch (alert.getAlertType()) {
+            case OVERHEATING -> normal != null
+                    ? String.format("🔧 Engine running hot: %.0f °C, usually %.0f °C. Check coolant before driving on", alert.getReading(), normal)
+                    : String.format("🔧 Engine running hot: %.0f °C. Check coolant before driving on", alert.getReading());
+            case ALTERNATOR_FAILING -> normal != null
+                    ? String.format("🔧 Low system voltage: %.1f V, usually %.1f V. The alternator may not be charging", alert.getReading(), normal)
+                    : String.format("🔧 Low system voltage: %.1f V. The alternator may not be charging", alert.getReading());
+            case ABNORMAL_LOAD -> String.format("🔧 Unusually high engine load (%.0f%%) for this vehicle at these revs", alert.getReading());
+        };
+    }
+
+    /**
+     * Writes the baselines that changed since the last flush and moves the committed offset up to where they
+     * were taken. Stripes are copied one at a time under their own lock, with the consumer paused so the copy
+     * matches one log position; the database write runs after it resumes.
+     */
+    @Scheduled(fixedDelayString = "${vehicle-health.flush-ms:30000}", initialDelayString = "${vehicle-health.flush-ms:30000}")
+    public void flush() {
+        synchronized (flushLock) {
+            Map<Long, byte[]> payloads = new LinkedHashMap<>();
+            Map<Long, Integer> alerts = new HashMap<>();
+            long at;
+            synchronized (this) {
+                at = position;
+                for (int i = 0; i < state.stripeCount(); i++) {
+                    StripedStateMap.Stripe s = state.stripeAt(i);
+                    synchronized (s) {
+                        s.forEachFlagged(VehicleHealthDetector.DIRTY, (vehicleId, slot) -> {
+                            ByteBuffer payload = ByteBuffer.allocate(PAYLOAD_BYTES);
+                            payload.asFloatBuffer().put(s.values, s.base(slot), VehicleHealthDetector.STRIDE);
+                            payloads.put(vehicleId, payload.array());
+                            alerts.put(vehicleId, s.flags[slot] & ~VehicleHealthDetector.DIRTY);
+                            s.flags[slot] &= ~VehicleHealthDetector.DIRTY;
+                        });
+                    }
+                }
+            }
+            try {
+                save(payloads, alerts);
+            } catch (RuntimeException e) {
+                // Keep them dirty and the committed offset where it was; the next flush retries
+                for (Long vehicleId : payloads.keySet()) {
+                    StripedStateMap.Stripe s = state.stripe(vehicleId);
+                    synchronized (s) {
+                        s.flags[s.slot(vehicleId, false)] |= VehicleHealthDetector.DIRTY;
+                    }
+                }
+                logger.warn("Flushing {} vehicle health baselines failed: {}", payloads.size(), e.getMessage());
+                return;
+            }
+            flushedPosition = at;
+            synchronized (this) {
+                commit();
+            }
+        }
+    }
+
+    private void save(Map<Long, byte[]> payloads, Map<Long, Integer> alerts) {
+        List<Long> ids = new ArrayList<>(payloads.keySet());
+        for (int from = 0; from < ids.size(); from += PAGE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + PAGE, ids.size()));
+            Map<Long, VehicleHealthBaseline> existing = baselineRepo.findByVehicleIdIn(chunk).stream()
+                    .collect(Collectors.toMap(VehicleHealthBaseline::getVehicleId, b -> b));
+            List<VehicleHealthBaseline> rows = new ArrayList<>(chunk.size());
+            for (Long vehicleId : chunk) {
+                VehicleHealthBaseline row = existing.computeIfAbsent(vehicleId, id -> {
+                    VehicleHealthBaseline b = new VehicleHealthBaseline();
+                    b.setVehicleId(id);
+                    return b;
+                });
+                row.setPayload(payloads.get(vehicleId));
+                row.setActiveAlerts(alerts.get(vehicleId));
+                row.setUpdatedAt(LocalDateTime.now());
+                rows.add(row);
+            }
+            baselineRepo.saveAll(rows);
+        }
+    }
+
+    @Override
+    protected long commitOffset() {
+        return flushedPosition;
+    }
+
+    public VehicleHealthDTO health(Long vehicleId) {
+        VehicleHealthDTO dto = new VehicleHealthDTO();
+        dto.vehicleId = vehicleId;
+        dto.activeAlerts = new ArrayList<>();
+        StripedStateMap.Stripe s = state.stripe(vehicleId);
+        synchronized (s) {
+            int slot = s.slot(vehicleId, false);
+            if (slot >= 0) {
+                int base = s.base(slot);
+                dto.engineTemperatureBaseline = orNull(VehicleHealthDetector.baseline(s.values, base, VehicleHealthDetector.TEMPERATURE));
+                dto.systemVoltageBaseline = orNull(VehicleHealthDetector.baseline(s.values, base, VehicleHealthDetector.VOLTAGE));
+                dto.baselineSamples = VehicleHealthDetector.samples(s.values, base, VehicleHealthDetector.TEMPERATURE);
+                for (VehicleHealthAlertType type : VehicleHealthAlertType.values()) {
+                    if ((s.flags[slot] & (1 << type.ordinal())) != 0) {
+                        dto.activeAlerts.add(type.name());
+                    }
+                }
+            }
+        }
+        dto.recentAlerts = alertRepo.findByVehicleIdOrderByIdDesc(vehicleId, PageRequest.of(0, recentAlerts)).stream()
+                .map(a -> new VehicleHealthAlertDTO(a.getSessionId(), a.getAlertType().name(), a.getReading(),
+                        a.getBaseline(), a.getLatitude(), a.getLongitude(), a.getDetectedAt()))
+                .collect(Collectors.toList());
+        return dto;
+    }
+
+    public int getTrackedVehicles() {
+        return state.size();
+    }
+
+    public long getEstimatedBytes() {
+        return state.estimatedBytes();
+    }
+
+    private static Float orNull(float value) {
+        return Float.isNaN(value) ? null : value;
+    }
+}
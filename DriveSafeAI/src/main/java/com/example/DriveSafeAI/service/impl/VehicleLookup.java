@@ -0,0 +1,64 @@
+package com.example.DriveSafeAI.service.impl;
+
+import com.example.DriveSafeAI.dao.VehicleRepository;
+import com.example.DriveSafeAI.entity.Vehicle;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * userId to Vehicle, remembered for the rest of the HTTP request, so the services one request passes through
+ * resolve the driver's vehicle once. With open-in-view the entity stays managed for the whole request.
+ * Outside a request (scheduled jobs, background renders) every call goes to the repository and its query cache.
+ * Also answers whether a vehicle id a client sent is registered, for the telemetry consumers.
+ */
+@Component
+public class VehicleLookup {
+
+    private static final String ATTRIBUTE = VehicleLookup.class.getName() + ".byUser";
+    private static final int MAX_UNKNOWN_VEHICLES = 10_000;
+    private static final long UNKNOWN_RECHECK_MS = 60_000;
+
+    @Autowired private VehicleRepository vehicleRepo;
+
+    // Ids that were not registered when last looked up, with when; insertion order, so the oldest come first
+    private final LinkedHashMap<Long, Long> unknownVehicles = new LinkedHashMap<>();
+
+    public Optional<Vehicle> findByUserId(Long userId) {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request == null) {
+            return vehicleRepo.findByUserId(userId);
+        }
+        @SuppressWarnings("unchecked")
+        Map<Long, Optional<Vehicle>> byUser = (Map<Long, Optional<Vehicle>>) request.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (byUser == null) {
+            byUser = new HashMap<>();
+            request.setAttribute(ATTRIBUTE, byUser, RequestAttributes.SCOPE_REQUEST);
+        }
+        return byUser.computeIfAbsent(userId, vehicleRepo::findByUserId);
+    }
+
+    /** Whether the vehicle exists; an unknown id is not looked up again for a minute, so a made-up one costs one query. */
+    public synchronized boolean isRegistered(Long vehicleId) {
+        long now = System.currentTimeMillis();
+        Long checkedAt = unknownVehicles.get(vehicleId);
+        if (checkedAt != null && now - checkedAt < UNKNOWN_RECHECK_MS) {
+            return false;
+        }
+        unknownVehicles.remove(vehicleId);
+        if (vehicleRepo.existsById(vehicleId)) {
+            return true;
+        }
+        unknownVehicles.put(vehicleId, now);
+        if (unknownVehicles.size() > MAX_UNKNOWN_VEHICLES) {
+            unknownVehicles.remove(unknownVehicles.keySet().iterator().next());
+        }
+        return false;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.DriveSafeAI.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** JFR event for parsing a trip CSV upload or saving one chunk of its rows. */
+@Name("drivesafe.CsvChunk")
+@Label("Trip CSV Chunk")
+@Category({"DriveSafeAI", "Ingest"})
+@Description("Parse or save work for an uploaded trip CSV")
+@StackTrace(false)
+public class CsvChunkEvent extends Event {
+
+    @Label("Phase")
+    public String phase;// "parse" or "save"
+
+    @Label("Vehicle")
+    public long vehicleId;
+
+    @Label("Rows")
+    public int rows;
+
+    public static CsvChunkEvent start(String phase, long vehicleId) {
+        CsvChunkEvent event = new CsvChunkEvent();
+        // Fields are only worth setting when the event can be committed
+        if (event.isEnabled()) {
+            event.begin();
+            event.phase = phase;
+            event.vehicleId = vehicleId;
+        }
+        return event;
+    }
+
+    public void finish(int rows) {
+        end();
+        if (shouldCommit()) {
+            this.rows = rows;
+            commit();
+        }
+    }
+}
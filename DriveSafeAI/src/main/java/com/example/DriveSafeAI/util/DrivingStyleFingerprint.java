@@ -0,0 +1,130 @@
+package com.example.DriveSafeAI.util;
+
+import com.example.DriveSafeAI.entity.TripData;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Reduces a trip to a fixed-length driving-style vector: the distributions of speed (while moving), signed
+ * acceleration, throttle position and braking intensity, plus a few shape statistics. Each distribution is a
+ * histogram over fixed bins turned into square-root fractions, so trips of any length compare by the Euclidean
+ * (Hellinger) distance between their vectors; what is not reported contributes zeros. Only signals every live
+ * sample carries are used: a dimension that some trips cannot fill would split one driver's trips in two.
+ */
+public final class DrivingStyleFingerprint {
+
+    private static final float[] SPEED_BINS = {20, 40, 60, 80, 100, 120};// km/h
+    private static final float[] ACCELERATION_BINS = {-3, -1.5f, -0.5f, 0.5f, 1.5f, 3};// m/s²
+    private static final float[] THROTTLE_BINS = {10, 25, 50, 75};// %
+    private static final float[] BRAKING_BINS = {1.5f, 3};// deceleration in m/s², of decelerating samples
+    private static final float MOVING_KMH = 2;
+    private static final float DECELERATING = 0.5f;
+    private static final int STATS = 5;
+    private static final float GROUP_WEIGHT = 0.5f;// four histograms of unit norm, so a full vector has norm ~1
+
+    public static final int DIMENSIONS = SPEED_BINS.length + 1 + ACCELERATION_BINS.length + 1
+            + THROTTLE_BINS.length + 1 + BRAKING_BINS.length + 1 + STATS;
+
+    private DrivingStyleFingerprint() {
+    }
+
+    /** Rows in sample order. */
+    public static float[] of(List<TripData> rows) {
+        float[] speed = new float[SPEED_BINS.length + 1];
+        float[] acceleration = new float[ACCELERATION_BINS.length + 1];
+        float[] throttle = new float[THROTTLE_BINS.length + 1];
+        float[] braking = new float[BRAKING_BINS.length + 1];
+        int speedSamples = 0, idle = 0, jerks = 0;
+        double speedSum = 0, speedSq = 0, throttleSum = 0, throttleSq = 0, jerkSum = 0;
+        int throttleSamples = 0;
+        float previousAcceleration = Float.NaN;
+
+        for (TripData t : rows) {
+            if (t.getSpeed() != null) {
+                float s = t.getSpeed();
+                speedSamples++;
+                speedSum += s;
+                speedSq += (double) s * s;
+                if (s <= MOVING_KMH) {
+                    idle++;
+                } else {
+                    speed[bin(SPEED_BINS, s)]++;
+                }
+            }
+            if (t.getAcceleration() != null) {
+                float a = t.getAcceleration();
+                acceleration[bin(ACCELERATION_BINS, a)]++;
+                if (a < -DECELERATING) {
+                    braking[bin(BRAKING_BINS, -a)]++;
+                }
+                if (!Float.isNaN(previousAcceleration)) {
+                    jerkSum += Math.abs(a - previousAcceleration);
+                    jerks++;
+                }
+                previousAcceleration = a;
+            }
+            if (t.getThrottlePosition() != null) {
+                float p = t.getThrottlePosition();
+                throttle[bin(THROTTLE_BINS, p)]++;
+                throttleSamples++;
+                throttleSum += p;
+                throttleSq += (double) p * p;
+            }
+        }
+
+        float[] v = new float[DIMENSIONS];
+        int at = 0;
+        at = hellinger(speed, v, at);
+        at = hellinger(acceleration, v, at);
+        at = hellinger(throttle, v, at);
+        at = hellinger(braking, v, at);
+        double speedMean = speedSamples > 0 ? speedSum / speedSamples : 0;
+        double throttleMean = throttleSamples > 0 ? throttleSum / throttleSamples : 0;
+        v[at++] = scaled(speedSamples > 0 ? (double) idle / speedSamples : 0, 1);
+        v[at++] = scaled(speedMean, 120);
+        v[at++] = scaled(speedSamples > 0 ? Math.sqrt(Math.max(0, speedSq / speedSamples - speedMean * speedMean)) : 0, 40);
+        v[at++] = scaled(jerks > 0 ? jerkSum / jerks : 0, 2);
+        v[at] = scaled(throttleSamples > 0 ? Math.sqrt(Math.max(0, throttleSq / throttleSamples - throttleMean * throttleMean)) : 0, 30);
+        return v;
+    }
+
+    public static byte[] encode(float[] v) {
+        ByteBuffer out = ByteBuffer.allocate(v.length * Float.BYTES);
+        out.asFloatBuffer().put(v);
+        return out.array();
+    }
+
+    public static float[] decode(byte[] payload) {
+        if (payload.length != DIMENSIONS * Float.BYTES) {
+            throw new RuntimeException("Fingerprint vector has " + payload.length + " bytes, expected "
+                    + DIMENSIONS * Float.BYTES);
+        }
+        float[] v = new float[DIMENSIONS];
+        ByteBuffer.wrap(payload).asFloatBuffer().get(v);
+        return v;
+    }
+
+    private static int bin(float[] edges, float value) {
+        int i = 0;
+        while (i < edges.length && value >= edges[i]) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int hellinger(float[] counts, float[] v, int at) {
+        float total = 0;
+        for (float c : counts) {
+            total += c;
+        }
+        for (float c : counts) {
+            v[at++] = total > 0 ? GROUP_WEIGHT * (float) Math.sqrt(c / total) : 0;
+        }
+        return at;
+    }
+
+    private static float scaled(double value, double unit) {
+        return GROUP_WEIGHT * (float) Math.min(value / unit, 1);
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.DriveSafeAI.util;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable geohash-bucketed index of road-segment points and accident hotspots.
+ * Points are kept in parallel primitive arrays. Buckets use the finest precision whose cell height still spans
+ * the search radius, so a lookup scans one row of cells either side of the sample's; cells narrow towards the
+ * poles, so the number of columns either side is worked out from the sample's latitude.
+ * Dataset CSV columns: latitude, longitude, design_speed, accident_count.
+ */
+public class GeoRiskIndex {
+
+    private static final double METERS_PER_DEGREE = 6_371_000 * Math.PI / 180;
+    private static final int FINEST_PRECISION = 8;
+
+    private final double[] lat, lon;
+    private final float[] designSpeed, accidentCount, hotspotRisk;
+    private final Map<Long, int[]> buckets;
+    private final double maxDistanceMeters;
+    private final int precision;
+
+    /** Result holder so callers can reuse one instance per thread. */
+    public static class Match {
+        public boolean found;
+        public float designSpeed;
+        public float accidentCount;
+        public float hotspotRisk;
+        public double distanceMeters;
+    }
+
+    private GeoRiskIndex(double[] lat, double[] lon, float[] designSpeed, float[] accidentCount, double maxDistanceMeters) {
+        if (!(maxDistanceMeters >= 0)) {
+            throw new IllegalArgumentException("Maximum match distance must not be negative: " + maxDistanceMeters);
+        }
+        this.lat = lat;
+        this.lon = lon;
+        this.designSpeed = designSpeed;
+        this.accidentCount = accidentCount;
+        this.hotspotRisk = new float[accidentCount.length];
+        for (int i = 0; i < accidentCount.length; i++) {
+            // Saturating curve: 0 accidents -> 0, ~5 -> 0.63, 15+ -> ~1
+            hotspotRisk[i] = (float) (1 - Math.exp(-accidentCount[i] / 5.0));
+        }
+        this.maxDistanceMeters = maxDistanceMeters;
+        this.precision = precisionFor(maxDistanceMeters);
+
+        Map<Long, List<Integer>> grouped = new HashMap<>();
+        for (int i = 0; i < lat.length; i++) {
+            grouped.computeIfAbsent(Geohash.encode(lat[i], lon[i], precision), k -> new ArrayList<>()).add(i);
+        }
+        this.buckets = new HashMap<>(grouped.size() * 2);
+        grouped.forEach((cell, ids) -> buckets.put(cell, ids.stream().mapToInt(Integer::intValue).toArray()));
+    }
+
+    /** Finest geohash precision whose cells are at least maxDistanceMeters tall. */
+    static int precisionFor(double maxDistanceMeters) {
+        int p = FINEST_PRECISION;
+        while (p > 1 && Geohash.cellHeight(p) * METERS_PER_DEGREE < maxDistanceMeters) {
+            p--;
+        }
+        return p;
+    }
+
+    public static GeoRiskIndex empty() {
+        return new GeoRiskIndex(new double[0], new double[0], new float[0], new float[0], 0);
+    }
+
+    public static GeoRiskIndex load(Reader reader, double maxDistanceMeters) throws IOException {
+        List<double[]> rows = new ArrayList<>();
+        try (CSVParser parser = CSVFormat.DEFAULT.builder()
+                .setHeader().setSkipHeaderRecord(true).setIgnoreHeaderCase(true).setTrim(true).get().parse(reader)) {
+            for (CSVRecord record : parser) {
+                rows.add(new double[]{
+                        Double.parseDouble(record.get("latitude")),
+                        Double.parseDouble(record.get("longitude")),
+                        record.get("design_speed").isEmpty() ? 0 : Double.parseDouble(record.get("design_speed")),
+                        record.get("accident_count").isEmpty() ? 0 : Double.parseDouble(record.get("accident_count"))
+                });
+            }
+        }
+        int n = rows.size();
+        double[] lat = new double[n], lon = new double[n];
+        float[] speed = new float[n], accidents = new float[n];
+        for (int i = 0; i < n; i++) {
+            double[] r = rows.get(i);
+            lat[i] = r[0];
+            lon[i] = r[1];
+            speed[i] = (float) r[2];
+            accidents[i] = (float) r[3];
+        }
+        return new GeoRiskIndex(lat, lon, speed, accidents, maxDistanceMeters);
+    }
+
+    /** Finds the nearest indexed point within the configured distance. */
+    public boolean lookup(double latitude, double longitude, Match out) {
+        out.found = false;
+        // Compare squared equirectangular deltas in degrees; cos(lat) and the radius are applied once
+        double cosLat = Math.cos(Math.toRadians(latitude));
+        double maxDeg = maxDistanceMeters / METERS_PER_DEGREE;
+        double best = maxDeg * maxDeg;
+        int bestId = -1;
+        double h = Geohash.cellHeight(precision), w = Geohash.cellWidth(precision);
+        int rows = (int) Math.ceil(maxDeg / h);
+        // Never more columns than go round the globe once
+        int columns = (int) Math.min(Math.ceil(maxDeg / (w * cosLat)), Math.floor(180 / w));
+        for (int dy = -rows; dy <= rows; dy++) {
+            double cellLat = latitude + dy * h;
+            if (cellLat < -90 || cellLat > 90) {
+                continue;
+            }
+            for (int dx = -columns; dx <= columns; dx++) {
+                double cellLon = longitude + dx * w;
+                cellLon -= 360 * Math.floor((cellLon + 180) / 360);
+                int[] ids = buckets.get(Geohash.encode(cellLat, cellLon, precision));
+                if (ids == null) {
+                    continue;
+                }
+                for (int i : ids) {
+                    double dLon = lon[i] - longitude;
+                    dLon -= 360 * Math.round(dLon / 360);
+                    double dx2 = dLon * cosLat, dy2 = lat[i] - latitude;
+                    double d = dx2 * dx2 + dy2 * dy2;
+                    if (d <= best) {
+                        best = d;
+                        bestId = i;
+                    }
+                }
+            }
+        }
+        if (bestId >= 0) {
+            out.found = true;
+            out.designSpeed = designSpeed[bestId];
+            out.accidentCount = accidentCount[bestId];
+            out.hotspotRisk = hotspotRisk[bestId];
+            out.distanceMeters = Math.toRadians(Math.sqrt(best)) * 6_371_000;
+        }
+        return out.found;
+    }
+
+    public int size() {
+        return lat.length;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.DriveSafeAI.util;
+
+/**
+ * Geohash encoding into packed longs (5 bits per character) plus the base32 text form.
+ */
+public class Geohash {
+
+    private static final char[] BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+    private static final int[] DECODE = new int[128];
+
+    static {
+        java.util.Arrays.fill(DECODE, -1);
+        for (int i = 0; i < BASE32.length; i++) {
+            DECODE[BASE32[i]] = i;
+        }
+    }
+
+    public static final int MAX_PRECISION = 12;
+
+    public static long encode(double latitude, double longitude, int precision) {
+        double minLat = -90, maxLat = 90, minLon = -180, maxLon = 180;
+        long hash = 0;
+        int bits = precision * 5;
+        for (int i = 0; i < bits; i++) {
+            hash <<= 1;
+            if ((i & 1) == 0) {
+                double mid = (minLon + maxLon) / 2;
+                if (longitude >= mid) {
+                    hash |= 1;
+                    minLon = mid;
+                } else {
+                    maxLon = mid;
+                }
+            } else {
+                double mid = (minLat + maxLat) / 2;
+                if (latitude >= mid) {
+                    hash |= 1;
+                    minLat = mid;
+                } else {
+                    maxLat = mid;
+                }
+            }
+        }
+        return hash;
+    }
+
+    public static String toString(long hash, int precision) {
+        char[] chars = new char[precision];
+        for (int i = precision - 1; i >= 0; i--) {
+            chars[i] = BASE32[(int) (hash & 31)];
+            hash >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    public static long parse(String geohash) {
+        long hash = 0;
+        for (int i = 0; i < geohash.length(); i++) {
+            char c = geohash.charAt(i);
+            int v = c < 128 ? DECODE[c] : -1;
+            if (v < 0) {
+                throw new IllegalArgumentException("Invalid geohash: " + geohash);
+            }
+            hash = (hash << 5) | v;
+        }
+        return hash;
+    }
+
+    /** Parent cell of a packed hash, {@code levels} characters shorter. */
+    public static long parent(long hash, int levels) {
+        return hash >>> (5 * levels);
+    }
+
+    public static double cellHeight(int precision) {
+        return 180.0 / (1L << ((precision * 5) / 2));
+    }
+
+    public static double cellWidth(int precision) {
+        return 360.0 / (1L << ((precision * 5 + 1) / 2));
+    }
+
+    /** Approximate ground distance in meters, accurate enough at road-segment scale. */
+    public static double distanceMeters(double lat1, double lon1, double lat2, double lon2) {
+        double x = Math.toRadians(lon2 - lon1) * Math.cos(Math.toRadians((lat1 + lat2) / 2));
+        double y = Math.toRadians(lat2 - lat1);
+        return Math.sqrt(x * x + y * y) * 6_371_000;
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.DriveSafeAI.util;
+
+import com.example.DriveSafeAI.entity.DrivingEventType;
+
+/**
+ * Constant-time, allocation-free harsh-event rules for one live session.
+ * Every rule is a "higher is worse" signal with hysteresis: it fires once the signal stays at or above
+ * its enter threshold for minSamples samples, and re-arms only after dropping to its exit threshold.
+ * Window braking divides the speed drop by the time between the samples' ingest timestamps, so it does not
+ * depend on the reporting rate; a window shorter than minWindowSeconds (a burst of buffered samples) is skipped.
+ */
+public class HarshEventDetector {
+
+    private static final DrivingEventType[] TYPES = DrivingEventType.values();
+
+    /** Thresholds for one rule set; speeds in km/h, accelerations in m/s². */
+    public static class Rules {
+        public float ewmaAlpha = 0.6f;
+        public int minSamples = 1;
+        public int window = 5;
+        public float minWindowSeconds = 2f;
+        public float brakingEnter = 3.5f, brakingExit = 2.0f;
+        public float accelerationEnter = 3.0f, accelerationExit = 2.0f;
+        public float rpmEnter = 4500f, rpmExit = 4000f;
+        public float speedingEnter = 10f, speedingExit = 5f;
+    }
+
+    /** Per-session state; arrays are sized once so updates never allocate. */
+    public static class State {
+        float accelerationEwma;
+        boolean initialized;
+        final float[] speeds;
+        final long[] speedAt;
+        int head, filled;
+        final boolean[] active = new boolean[TYPES.length];
+        final int[] run = new int[TYPES.length];
+        public final float[] lastSignal = new float[TYPES.length];
+        // Wall-clock time of the last sample, for the caller's idle expiry
+        public long lastSampleAt;
+
+        public State(Rules rules) {
+            speeds = new float[Math.max(rules.window, 2)];
+            speedAt = new long[speeds.length];
+        }
+    }
+
+    private final Rules rules;
+
+    public HarshEventDetector(Rules rules) {
+        this.rules = rules;
+    }
+
+    public State newState() {
+        return new State(rules);
+    }
+
+    /**
+     * Feeds one sample and returns a bitmask of the event types that fired on it,
+     * indexed by {@link DrivingEventType#ordinal()}. The triggering value is left in {@code state.lastSignal}.
+     * Pass Float.NaN for any reading the sample does not carry. atMillis is the sample's ingest time.
+     */
+    public int update(State s, long atMillis, float speed, float rpm, float acceleration, float designSpeed) {
+        if (!Float.isNaN(acceleration)) {
+            s.accelerationEwma = s.initialized
+                    ? s.accelerationEwma + rules.ewmaAlpha * (acceleration - s.accelerationEwma)
+                    : acceleration;
+            s.initialized = true;
+        }
+
+        // Speed drop across the sliding window, in m/s², catches braking when acceleration is not reported
+        float windowDecel = Float.NaN;
+        if (!Float.isNaN(speed)) {
+            int len = s.speeds.length;
+            if (s.filled == len) {
+                // Not yet overwritten, so this is the sample len samples back
+                float seconds = (atMillis - s.speedAt[s.head]) / 1000f;
+                if (seconds >= rules.minWindowSeconds) {
+                    windowDecel = (s.speeds[s.head] - speed) / 3.6f / seconds;
+                }
+            }
+            s.speeds[s.head] = speed;
+            s.speedAt[s.head] = atMillis;
+            s.head = (s.head + 1) % len;
+            if (s.filled < len) {
+                s.filled++;
+            }
+        }
+
+        float braking = s.initialized ? -s.accelerationEwma : Float.NaN;
+        if (!Float.isNaN(windowDecel) && (Float.isNaN(braking) || windowDecel > braking)) {
+            braking = windowDecel;
+        }
+        float speeding = designSpeed > 0 ? speed - designSpeed : Float.NaN;
+
+        int fired = 0;
+        fired |= rule(s, DrivingEventType.HARSH_BRAKING, braking, rules.brakingEnter, rules.brakingExit);
+        fired |= rule(s, DrivingEventType.RAPID_ACCELERATION, s.initialized ? s.accelerationEwma : Float.NaN,
+                rules.accelerationEnter, rules.accelerationExit);
+        fired |= rule(s, DrivingEventType.OVER_REVVING, rpm, rules.rpmEnter, rules.rpmExit);
+        fired |= rule(s, DrivingEventType.SPEEDING, speeding, rules.speedingEnter, rules.speedingExit);
+        return fired;
+    }
+
+    private int rule(State s, DrivingEventType type, float signal, float enter, float exit) {
+        int i = type.ordinal();
+        if (Float.isNaN(signal)) {
+            return 0;
+        }
+        s.lastSignal[i] = signal;
+        if (s.active[i]) {
+            if (signal <= exit) {
+                s.active[i] = false;
+                s.run[i] = 0;
+            }
+            return 0;
+        }
+        if (signal < enter) {
+            s.run[i] = 0;
+            return 0;
+        }
+        if (++s.run[i] < rules.minSamples) {
+            return 0;
+        }
+        s.active[i] = true;
+        return 1 << i;
+    }
+
+    public static DrivingEventType type(int ordinal) {
+        return TYPES[ordinal];
+    }
+}
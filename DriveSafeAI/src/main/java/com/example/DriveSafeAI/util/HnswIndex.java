@@ -0,0 +1,230 @@
+package com.example.DriveSafeAI.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * Approximate nearest-neighbour index over fixed-length float vectors (Euclidean distance): a hierarchical
+ * navigable small-world graph. Every node links to up to m nodes on each of its levels (2m on level 0), picked
+ * closest first but skipping a candidate that is closer to an already picked neighbour than to the node, so
+ * separate clusters (one driver's trips each) stay linked to each other. Levels are drawn from a geometric
+ * distribution, so a search descends the sparse upper levels greedily and then does a best-first search of
+ * width ef on level 0. Inserts and queries are O(log n) in practice.
+ * Nodes are numbered in insertion order and never removed. Not thread-safe; callers lock the index.
+ */
+public class HnswIndex {
+
+    /** One neighbour of a query. */
+    public static final class Result {
+        public final int node;
+        public final float distance;
+
+        Result(int node, float distance) {
+            this.node = node;
+            this.distance = distance;
+        }
+    }
+
+    // Candidate during a search; squared distance
+    private record Candidate(int node, float distance) {
+    }
+
+    private final int dimensions;
+    private final int m;
+    private final int efConstruction;
+    private final double levelMult;
+    private final Random random;
+
+    private float[][] vectors = new float[16][];
+    private int[][][] links = new int[16][][];// node -> level -> neighbours
+    private int[] visited = new int[16];
+    private int epoch;
+    private int size;
+    private int entryPoint = -1;
+    private int topLevel = -1;
+
+    public HnswIndex(int dimensions, int m, int efConstruction, long seed) {
+        this.dimensions = dimensions;
+        this.m = m;
+        this.efConstruction = efConstruction;
+        this.levelMult = 1 / Math.log(m);
+        this.random = new Random(seed);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public float[] vector(int node) {
+        return vectors[node];
+    }
+
+    /** Adds a vector and returns its node number. */
+    public int add(float[] vector) {
+        if (vector.length != dimensions) {
+            throw new IllegalArgumentException("Expected " + dimensions + " dimensions, got " + vector.length);
+        }
+        int node = size;
+        if (node == vectors.length) {
+            vectors = Arrays.copyOf(vectors, node * 2);
+            links = Arrays.copyOf(links, node * 2);
+            visited = Arrays.copyOf(visited, node * 2);
+        }
+        int level = (int) (-Math.log(1 - random.nextDouble()) * levelMult);
+        vectors[node] = vector;
+        links[node] = new int[level + 1][];
+        for (int l = 0; l <= level; l++) {
+            links[node][l] = new int[0];
+        }
+        size++;
+        if (entryPoint < 0) {
+            entryPoint = node;
+            topLevel = level;
+            return node;
+        }
+
+        int ep = entryPoint;
+        for (int l = topLevel; l > level; l--) {
+            ep = greedy(vector, ep, l);
+        }
+        for (int l = Math.min(level, topLevel); l >= 0; l--) {
+            List<Candidate> nearest = searchLayer(vector, ep, efConstruction, l);
+            int[] own = select(nearest, m);
+            for (int neighbour : own) {
+                connect(neighbour, node, l);
+            }
+            links[node][l] = own;
+            ep = nearest.get(0).node;
+        }
+        if (level > topLevel) {
+            entryPoint = node;
+            topLevel = level;
+        }
+        return node;
+    }
+
+    /** The k nearest nodes, closest first; ef (at least k) trades speed for recall. */
+    public List<Result> search(float[] query, int k, int ef) {
+        List<Result> results = new ArrayList<>();
+        if (entryPoint < 0) {
+            return results;
+        }
+        int ep = entryPoint;
+        for (int l = topLevel; l > 0; l--) {
+            ep = greedy(query, ep, l);
+        }
+        List<Candidate> nearest = searchLayer(query, ep, Math.max(ef, k), 0);
+        for (int i = 0; i < Math.min(k, nearest.size()); i++) {
+            Candidate c = nearest.get(i);
+            results.add(new Result(c.node, (float) Math.sqrt(c.distance)));
+        }
+        return results;
+    }
+
+    // Adds a back link from node to added on the level; past the level's limit the links are picked again
+    private void connect(int node, int added, int level) {
+        int[] current = links[node][level];
+        int max = level == 0 ? 2 * m : m;
+        if (current.length < max) {
+            int[] next = Arrays.copyOf(current, current.length + 1);
+            next[current.length] = added;
+            links[node][level] = next;
+            return;
+        }
+        float[] v = vectors[node];
+        List<Candidate> candidates = new ArrayList<>(current.length + 1);
+        for (int n : current) {
+            candidates.add(new Candidate(n, distance(v, vectors[n])));
+        }
+        candidates.add(new Candidate(added, distance(v, vectors[added])));
+        candidates.sort((a, b) -> Float.compare(a.distance, b.distance));
+        links[node][level] = select(candidates, max);
+    }
+
+    // Up to max of the candidates (closest first), skipping any closer to a picked one than to the base node
+    private int[] select(List<Candidate> candidates, int max) {
+        int[] picked = new int[Math.min(max, candidates.size())];
+        int count = 0;
+        for (Candidate c : candidates) {
+            if (count == picked.length) {
+                break;
+            }
+            boolean diverse = true;
+            for (int i = 0; i < count && diverse; i++) {
+                diverse = distance(vectors[c.node], vectors[picked[i]]) >= c.distance;
+            }
+            if (diverse) {
+                picked[count++] = c.node;
+            }
+        }
+        return Arrays.copyOf(picked, count);
+    }
+
+    private int greedy(float[] query, int ep, int level) {
+        float best = distance(query, vectors[ep]);
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            for (int n : links[ep][level]) {
+                float d = distance(query, vectors[n]);
+                if (d < best) {
+                    best = d;
+                    ep = n;
+                    improved = true;
+                }
+            }
+        }
+        return ep;
+    }
+
+    // Best-first search of width ef on one level; the ef closest found, closest first
+    private List<Candidate> searchLayer(float[] query, int ep, int ef, int level) {
+        if (++epoch == 0) {
+            Arrays.fill(visited, 0);
+            epoch = 1;
+        }
+        PriorityQueue<Candidate> frontier = new PriorityQueue<>((a, b) -> Float.compare(a.distance, b.distance));
+        PriorityQueue<Candidate> found = new PriorityQueue<>((a, b) -> Float.compare(b.distance, a.distance));
+        Candidate start = new Candidate(ep, distance(query, vectors[ep]));
+        frontier.add(start);
+        found.add(start);
+        visited[ep] = epoch;
+        while (!frontier.isEmpty()) {
+            Candidate c = frontier.poll();
+            if (c.distance > found.peek().distance && found.size() >= ef) {
+                break;
+            }
+            for (int n : links[c.node][level]) {
+                if (visited[n] == epoch) {
+                    continue;
+                }
+                visited[n] = epoch;
+                float d = distance(query, vectors[n]);
+                if (found.size() < ef || d < found.peek().distance) {
+                    Candidate next = new Candidate(n, d);
+                    frontier.add(next);
+                    found.add(next);
+                    if (found.size() > ef) {
+                        found.poll();
+                    }
+                }
+            }
+        }
+        List<Candidate> result = new ArrayList<>(found);
+        result.sort((a, b) -> Float.compare(a.distance, b.distance));
+        return result;
+    }
+
+    // Squared Euclidean
+    private static float distance(float[] a, float[] b) {
+        float sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            float d = a[i] - b[i];
+            sum += d * d;
+        }
+        return sum;
+    }
+}
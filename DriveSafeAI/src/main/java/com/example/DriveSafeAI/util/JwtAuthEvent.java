@@ -0,0 +1,26 @@
+package com.example.DriveSafeAI.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** JFR event for the token parsing, user lookup and validation done by JwtFilter on one request. */
+@Name("drivesafe.JwtAuth")
+@Label("JWT Authentication")
+@Category({"DriveSafeAI", "Security"})
+@Description("Work done by JwtFilter before the request continues down the chain")
+@StackTrace(false)
+public class JwtAuthEvent extends Event {
+
+    @Label("Path")
+    public String path;
+
+    @Label("Token Present")
+    public boolean tokenPresent;
+
+    @Label("Authenticated")
+    public boolean authenticated;
+}
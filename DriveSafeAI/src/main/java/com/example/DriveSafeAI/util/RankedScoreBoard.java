@@ -0,0 +1,231 @@
+package com.example.DriveSafeAI.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Order-statistic leaderboard: an indexable skip list ordered by score descending, then id ascending.
+ * Every link stores how many entries it jumps over, so updates, rank-of and select-by-rank are all O(log n).
+ * Methods are synchronized; a board is small enough that one lock per board is not contended.
+ */
+public class RankedScoreBoard {
+
+    private static final int MAX_LEVEL = 32;
+
+    private static final class Node {
+        final long id;
+        final double score;
+        final Node[] next;
+        final int[] span;
+
+        Node(long id, double score, int level) {
+            this.id = id;
+            this.score = score;
+            this.next = new Node[level];
+            this.span = new int[level];
+        }
+    }
+
+    /** One ranked entry; rank is 1-based. */
+    public static final class Entry {
+        public final int rank;
+        public final long id;
+        public final double score;
+
+        Entry(int rank, long id, double score) {
+            this.rank = rank;
+            this.id = id;
+            this.score = score;
+        }
+    }
+
+    private final Node head = new Node(Long.MIN_VALUE, Double.NaN, MAX_LEVEL);
+    private final Map<Long, Node> byId = new HashMap<>();
+    private int level = 1;
+    private int length;
+
+    /** True when a node with (score, id) sorts strictly before the probe. */
+    private static boolean before(Node n, double score, long id) {
+        return n.score > score || (n.score == score && n.id < id);
+    }
+
+    /** Sets the score of an id, inserting it if absent. */
+    public synchronized void put(long id, double score) {
+        Node existing = byId.get(id);
+        if (existing != null) {
+            if (existing.score == score) {
+                return;
+            }
+            unlink(existing);
+        }
+        byId.put(id, insert(id, score));
+    }
+
+    /** Adds delta to the id's score, starting from zero. */
+    public synchronized double add(long id, double delta) {
+        Node existing = byId.get(id);
+        double score = (existing != null ? existing.score : 0) + delta;
+        put(id, score);
+        return score;
+    }
+
+    public synchronized boolean remove(long id) {
+        Node existing = byId.remove(id);
+        if (existing == null) {
+            return false;
+        }
+        unlink(existing);
+        return true;
+    }
+
+    public synchronized Double scoreOf(long id) {
+        Node n = byId.get(id);
+        return n != null ? n.score : null;
+    }
+
+    /** 1-based rank of the id, or 0 when it is not on the board. */
+    public synchronized int rankOf(long id) {
+        Node target = byId.get(id);
+        if (target == null) {
+            return 0;
+        }
+        Node x = head;
+        int rank = 0;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && (before(x.next[i], target.score, target.id) || x.next[i] == target)) {
+                rank += x.span[i];
+                x = x.next[i];
+            }
+            if (x == target) {
+                return rank;
+            }
+        }
+        return 0;
+    }
+
+    /** Entries ranked from..to inclusive (1-based), clipped to the board. */
+    public synchronized List<Entry> range(int from, int to) {
+        from = Math.max(from, 1);
+        to = Math.min(to, length);
+        List<Entry> out = new ArrayList<>(Math.max(to - from + 1, 0));
+        if (from > to) {
+            return out;
+        }
+        Node x = nodeAt(from);
+        for (int r = from; r <= to && x != null; r++, x = x.next[0]) {
+            out.add(new Entry(r, x.id, x.score));
+        }
+        return out;
+    }
+
+    public List<Entry> top(int k) {
+        return range(1, k);
+    }
+
+    /** The id's entry with up to radius entries on each side; empty when the id is not ranked. */
+    public synchronized List<Entry> around(long id, int radius) {
+        int rank = rankOf(id);
+        return rank == 0 ? List.of() : range(rank - radius, rank + radius);
+    }
+
+    public synchronized int size() {
+        return length;
+    }
+
+    public interface Visitor {
+        void accept(long id, double score);
+    }
+
+    /** Visits all entries in rank order, for snapshots. */
+    public synchronized void forEach(Visitor visitor) {
+        for (Node x = head.next[0]; x != null; x = x.next[0]) {
+            visitor.accept(x.id, x.score);
+        }
+    }
+
+    private Node nodeAt(int rank) {
+        Node x = head;
+        int traversed = 0;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && traversed + x.span[i] <= rank) {
+                traversed += x.span[i];
+                x = x.next[i];
+            }
+            if (traversed == rank) {
+                return x;
+            }
+        }
+        return null;
+    }
+
+    private Node insert(long id, double score) {
+        Node[] update = new Node[MAX_LEVEL];
+        int[] rank = new int[MAX_LEVEL];
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            rank[i] = i == level - 1 ? 0 : rank[i + 1];
+            while (x.next[i] != null && before(x.next[i], score, id)) {
+                rank[i] += x.span[i];
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+        int lvl = randomLevel();
+        if (lvl > level) {
+            for (int i = level; i < lvl; i++) {
+                rank[i] = 0;
+                update[i] = head;
+                head.span[i] = length;
+            }
+            level = lvl;
+        }
+        Node node = new Node(id, score, lvl);
+        for (int i = 0; i < lvl; i++) {
+            node.next[i] = update[i].next[i];
+            update[i].next[i] = node;
+            node.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = rank[0] - rank[i] + 1;
+        }
+        for (int i = lvl; i < level; i++) {
+            update[i].span[i]++;
+        }
+        length++;
+        return node;
+    }
+
+    private void unlink(Node target) {
+        Node[] update = new Node[MAX_LEVEL];
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && before(x.next[i], target.score, target.id)) {
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+        for (int i = 0; i < level; i++) {
+            if (update[i].next[i] == target) {
+                update[i].span[i] += target.span[i] - 1;
+                update[i].next[i] = target.next[i];
+            } else {
+                update[i].span[i]--;
+            }
+        }
+        while (level > 1 && head.next[level - 1] == null) {
+            level--;
+        }
+        length--;
+    }
+
+    private static int randomLevel() {
+        // p = 1/4 per level, as in Redis sorted sets
+        int lvl = 1;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (lvl < MAX_LEVEL && (random.nextInt() & 3) == 0) {
+            lvl++;
+        }
+        return lvl;
+    }
+}
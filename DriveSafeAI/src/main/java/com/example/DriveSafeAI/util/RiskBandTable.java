@@ -0,0 +1,63 @@
+package com.example.DriveSafeAI.util;
+
+import com.example.DriveSafeAI.entity.RiskCategory;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Immutable interval table over RiskCategory bands, sorted by minScore.
+ * A lookup is a binary search for the last band starting at or below the score.
+ */
+public class RiskBandTable {
+
+    private final float[] minScores;
+    private final float[] maxScores;
+    private final RiskCategory[] bands;
+    private final int fingerprint;
+
+    public RiskBandTable(List<RiskCategory> categories) {
+        RiskCategory[] sorted = categories.stream()
+                .filter(c -> c.getMinScore() != null && c.getMaxScore() != null)
+                .sorted(Comparator.comparing(RiskCategory::getMinScore))
+                .toArray(RiskCategory[]::new);
+        bands = sorted;
+        minScores = new float[sorted.length];
+        maxScores = new float[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            minScores[i] = sorted[i].getMinScore();
+            maxScores[i] = sorted[i].getMaxScore();
+        }
+        int hash = 1;
+        for (RiskCategory band : sorted) {
+            hash = 31 * hash + Objects.hash(band.getId(), band.getCategoryName(), band.getMinScore(), band.getMaxScore(),
+                    band.getPremiumMultiplier());
+        }
+        fingerprint = hash;
+    }
+
+    /** Returns the band containing the score, or null when it falls into a gap or outside all bands. */
+    public RiskCategory find(float score) {
+        int lo = 0, hi = minScores.length - 1, found = -1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (minScores[mid] <= score) {
+                found = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return found >= 0 && score <= maxScores[found] ? bands[found] : null;
+    }
+
+    public int size() {
+        return bands.length;
+    }
+
+    /** Hash of the band contents; equal across reloads as long as nothing that affects rating changed. */
+    public int fingerprint() {
+        return fingerprint;
+    }
+}
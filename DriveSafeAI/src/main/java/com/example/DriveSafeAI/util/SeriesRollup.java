@@ -0,0 +1,140 @@
+package com.example.DriveSafeAI.util;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Min/max/avg buckets of consecutive samples of one series, at bucketSize samples per bucket (the last bucket
+ * may be shorter). Missing samples are NaN and left out of the statistics; a bucket with none has count 0.
+ * Coarser rollups are merged from finer ones, so building every resolution of a trip is O(samples).
+ */
+public class SeriesRollup {
+
+    public static final int BYTES_PER_BUCKET = 16;
+
+    public final int bucketSize;
+    public final float[] min;
+    public final float[] max;
+    public final float[] avg;
+    public final int[] count;
+
+    private SeriesRollup(int bucketSize, int buckets) {
+        this.bucketSize = bucketSize;
+        this.min = new float[buckets];
+        this.max = new float[buckets];
+        this.avg = new float[buckets];
+        this.count = new int[buckets];
+    }
+
+    /** One bucket per sample. */
+    public static SeriesRollup of(float[] samples) {
+        SeriesRollup r = new SeriesRollup(1, samples.length);
+        for (int i = 0; i < samples.length; i++) {
+            float v = samples[i];
+            r.min[i] = r.max[i] = r.avg[i] = v;
+            r.count[i] = Float.isNaN(v) ? 0 : 1;
+        }
+        return r;
+    }
+
+    public int size() {
+        return count.length;
+    }
+
+    /** Merges every factor adjacent buckets into one; averages are weighted by count. */
+    public SeriesRollup coarsen(int factor) {
+        int buckets = (size() + factor - 1) / factor;
+        SeriesRollup r = new SeriesRollup(bucketSize * factor, buckets);
+        for (int b = 0; b < buckets; b++) {
+            float lo = Float.NaN, hi = Float.NaN;
+            double sum = 0;
+            int n = 0;
+            for (int i = b * factor, end = Math.min(i + factor, size()); i < end; i++) {
+                if (count[i] == 0) {
+                    continue;
+                }
+                lo = n == 0 ? min[i] : Math.min(lo, min[i]);
+                hi = n == 0 ? max[i] : Math.max(hi, max[i]);
+                sum += (double) avg[i] * count[i];
+                n += count[i];
+            }
+            r.min[b] = lo;
+            r.max[b] = hi;
+            r.avg[b] = n == 0 ? Float.NaN : (float) (sum / n);
+            r.count[b] = n;
+        }
+        return r;
+    }
+
+    /** Index of the first sample in the bucket. */
+    public int firstSample(int bucket) {
+        return bucket * bucketSize;
+    }
+
+    public void writeTo(ByteBuffer out) {
+        for (int i = 0; i < size(); i++) {
+            out.putFloat(min[i]).putFloat(max[i]).putFloat(avg[i]).putInt(count[i]);
+        }
+    }
+
+    public static SeriesRollup readFrom(ByteBuffer in, int bucketSize, int buckets) {
+        SeriesRollup r = new SeriesRollup(bucketSize, buckets);
+        for (int i = 0; i < buckets; i++) {
+            r.min[i] = in.getFloat();
+            r.max[i] = in.getFloat();
+            r.avg[i] = in.getFloat();
+            r.count[i] = in.getInt();
+        }
+        return r;
+    }
+
+    /**
+     * Largest-triangle-three-buckets: picks threshold of the n points (first and last always) so the polyline
+     * keeps the visual shape of the series. Returns the chosen indexes in order; all of them if n <= threshold.
+     */
+    public static int[] lttb(float[] x, float[] y, int threshold) {
+        int n = x.length;
+        if (threshold >= n) {
+            int[] all = new int[n];
+            for (int i = 0; i < n; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+        if (threshold < 3) {
+            return n == 1 ? new int[] {0} : new int[] {0, n - 1};
+        }
+        int[] chosen = new int[threshold];
+        double every = (double) (n - 2) / (threshold - 2);
+        int a = 0;
+        chosen[0] = 0;
+        for (int i = 0; i < threshold - 2; i++) {
+            // Average of the next bucket is the third corner of the triangle
+            int nextStart = (int) Math.floor((i + 1) * every) + 1;
+            int nextEnd = Math.min((int) Math.floor((i + 2) * every) + 1, n);
+            double avgX = 0, avgY = 0;
+            for (int j = nextStart; j < nextEnd; j++) {
+                avgX += x[j];
+                avgY += y[j];
+            }
+            int len = Math.max(nextEnd - nextStart, 1);
+            avgX /= len;
+            avgY /= len;
+
+            int from = (int) Math.floor(i * every) + 1;
+            int to = (int) Math.floor((i + 1) * every) + 1;
+            double maxArea = -1;
+            int next = from;
+            for (int j = from; j < to; j++) {
+                double area = Math.abs((x[a] - avgX) * (y[j] - y[a]) - (x[a] - x[j]) * (avgY - y[a]));
+                if (area > maxArea) {
+                    maxArea = area;
+                    next = j;
+                }
+            }
+            chosen[i + 1] = next;
+            a = next;
+        }
+        chosen[threshold - 1] = n - 1;
+        return chosen;
+    }
+}
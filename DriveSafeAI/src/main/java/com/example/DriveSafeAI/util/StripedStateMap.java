@@ -0,0 +1,160 @@
+package com.example.DriveSafeAI.util;
+
+/**
+ * Fixed-width float state per positive long key (a vehicle id), kept in flat primitive arrays: no boxed keys,
+ * no entry objects, stride floats plus one int of flags per key. Keys are spread over independent stripes, each
+ * an open-addressing table with linear probing that grows on its own, so a lock or a resize covers one stripe.
+ * Callers lock the stripe for the whole read-modify-write: {@code synchronized (s) { int base = s.slot(id, true); ... }}.
+ * Keys are never removed; the table holds every vehicle that ever reported.
+ */
+public class StripedStateMap {
+
+    private static final long EMPTY = 0L;
+    private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+
+    public static final class Stripe {
+        private final int stride;
+        private long[] keys;
+        public float[] values;
+        public int[] flags;
+        private int size;
+
+        Stripe(int stride, int capacity) {
+            this.stride = stride;
+            allocate(capacity);
+        }
+
+        private void allocate(int capacity) {
+            keys = new long[capacity];
+            values = new float[capacity * stride];
+            flags = new int[capacity];
+        }
+
+        /**
+         * Slot of the key, whose state is values[slot * stride ...] and flags[slot]; -1 if absent and not created.
+         * A new slot is zeroed. Only valid until the next slot(.., true) on this stripe, which may resize it.
+         */
+        public int slot(long key, boolean create) {
+            int mask = keys.length - 1;
+            int i = mix(key) & mask;
+            while (keys[i] != EMPTY) {
+                if (keys[i] == key) {
+                    return i;
+                }
+                i = (i + 1) & mask;
+            }
+            if (!create) {
+                return -1;
+            }
+            if ((size + 1) * 2 > keys.length) {
+                grow();
+                return slot(key, true);
+            }
+            keys[i] = key;
+            size++;
+            return i;
+        }
+
+        public int base(int slot) {
+            return slot * stride;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        /** Visits the slots with any of the given flag bits set. */
+        public void forEachFlagged(int mask, SlotVisitor visitor) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != EMPTY && (flags[i] & mask) != 0) {
+                    visitor.visit(keys[i], i);
+                }
+            }
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            float[] oldValues = values;
+            int[] oldFlags = flags;
+            allocate(oldKeys.length * 2);
+            int mask = keys.length - 1;
+            for (int j = 0; j < oldKeys.length; j++) {
+                if (oldKeys[j] == EMPTY) {
+                    continue;
+                }
+                int i = mix(oldKeys[j]) & mask;
+                while (keys[i] != EMPTY) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                System.arraycopy(oldValues, j * stride, values, i * stride, stride);
+                flags[i] = oldFlags[j];
+            }
+        }
+    }
+
+    public interface SlotVisitor {
+        void visit(long key, int slot);
+    }
+
+    private final Stripe[] stripes;
+    private final int stripeShift;
+    private final int stride;
+
+    /** stripes is rounded up to a power of two, at least 2. */
+    public StripedStateMap(int stripes, int stride) {
+        int n = Integer.highestOneBit(Math.max(stripes - 1, 1)) << 1;
+        this.stride = stride;
+        this.stripeShift = 64 - Integer.numberOfTrailingZeros(n);
+        this.stripes = new Stripe[n];
+        for (int i = 0; i < n; i++) {
+            this.stripes[i] = new Stripe(stride, 16);
+        }
+    }
+
+    public Stripe stripe(long key) {
+        if (key <= 0) {
+            throw new IllegalArgumentException("Keys must be positive: " + key);
+        }
+        // Top bits of the product pick the stripe; the slot within it comes from the folded hash
+        return stripes[(int) ((key * GOLDEN) >>> stripeShift)];
+    }
+
+    public int stripeCount() {
+        return stripes.length;
+    }
+
+    public Stripe stripeAt(int index) {
+        return stripes[index];
+    }
+
+    public int stride() {
+        return stride;
+    }
+
+    public int size() {
+        int total = 0;
+        for (Stripe s : stripes) {
+            synchronized (s) {
+                total += s.size;
+            }
+        }
+        return total;
+    }
+
+    /** Keys plus state plus flags, including free slots at the load factor. */
+    public long estimatedBytes() {
+        long total = 0;
+        for (Stripe s : stripes) {
+            synchronized (s) {
+                total += (long) s.keys.length * (Long.BYTES + Integer.BYTES + (long) stride * Float.BYTES);
+            }
+        }
+        return total;
+    }
+
+    private static int mix(long key) {
+        long h = key * GOLDEN;
+        return (int) (h ^ (h >>> 32));
+    }
+}
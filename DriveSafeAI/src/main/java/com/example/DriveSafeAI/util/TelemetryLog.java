@@ -0,0 +1,248 @@
+package com.example.DriveSafeAI.util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Embedded append-only log made of memory-mapped segment files.
+ * Offsets are byte positions in the log, so a segment file is named by the offset of its first record.
+ * Named consumers keep their own committed offset on disk and read at their own pace.
+ */
+public class TelemetryLog implements AutoCloseable {
+
+    public enum FsyncPolicy {
+        ALWAYS, INTERVAL, NONE
+    }
+
+    public static class Entry {
+        private final long offset;
+        private final long nextOffset;
+        private final byte type;
+        private final byte[] payload;
+
+        public Entry(long offset, long nextOffset, byte type, byte[] payload) {
+            this.offset = offset;
+            this.nextOffset = nextOffset;
+            this.type = type;
+            this.payload = payload;
+        }
+
+        public long getOffset() {
+            return offset;
+        }
+
+        public long getNextOffset() {
+            return nextOffset;
+        }
+
+        public byte getType() {
+            return type;
+        }
+
+        public byte[] getPayload() {
+            return payload;
+        }
+    }
+
+    private final Path dir;
+    private final Path offsetsDir;
+    private final int segmentBytes;
+    private final FsyncPolicy fsyncPolicy;
+    private final ConcurrentSkipListMap<Long, TelemetryLogSegment> segments = new ConcurrentSkipListMap<>();
+    private final Map<String, Long> committedOffsets = new ConcurrentHashMap<>();
+    private volatile TelemetryLogSegment active;
+
+    public TelemetryLog(Path dir, int segmentBytes, FsyncPolicy fsyncPolicy) throws IOException {
+        this.dir = dir;
+        this.offsetsDir = dir.resolve("consumers");
+        this.segmentBytes = segmentBytes;
+        this.fsyncPolicy = fsyncPolicy;
+        Files.createDirectories(offsetsDir);
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*.seg")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                long base = Long.parseLong(name.substring(0, name.length() - 4));
+                segments.put(base, TelemetryLogSegment.open(dir, base, segmentBytes));
+            }
+        }
+        if (segments.isEmpty()) {
+            segments.put(0L, TelemetryLogSegment.open(dir, 0L, segmentBytes));
+        }
+        active = segments.lastEntry().getValue();
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(offsetsDir, "*.offset")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                committedOffsets.put(name.substring(0, name.length() - 7),
+                        Long.parseLong(Files.readString(file, StandardCharsets.UTF_8).trim()));
+            }
+        }
+    }
+
+    /**
+     * Appends a record and returns its offset. The record is durable according to the fsync policy.
+     */
+    public synchronized long append(byte type, byte[] payload) {
+        if (payload.length == 0 || payload.length + TelemetryLogSegment.HEADER_BYTES > segmentBytes) {
+            throw new IllegalArgumentException("Record size " + payload.length + " does not fit a log segment");
+        }
+        long offset = active.append(type, payload);
+        if (offset < 0) {
+            roll();
+            offset = active.append(type, payload);
+        }
+        if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+            active.force();
+        }
+        return offset;
+    }
+
+    private void roll() {
+        active.force();
+        long base = active.getEndOffset();
+        try {
+            active = TelemetryLogSegment.open(dir, base, segmentBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to roll telemetry log segment", e);
+        }
+        segments.put(base, active);
+    }
+
+    /**
+     * Reads up to maxRecords records starting at the given offset.
+     */
+    public List<Entry> read(long offset, int maxRecords) {
+        List<Entry> result = new ArrayList<>();
+        long position = Math.max(offset, getStartOffset());
+        while (result.size() < maxRecords) {
+            Map.Entry<Long, TelemetryLogSegment> floor = segments.floorEntry(position);
+            if (floor == null) {
+                break;
+            }
+            TelemetryLogSegment segment = floor.getValue();
+            Entry entry = segment.read((int) (position - segment.getBaseOffset()));
+            if (entry == null) {
+                Long next = segments.higherKey(segment.getBaseOffset());
+                if (next == null || position < segment.getEndOffset()) {
+                    break;
+                }
+                position = next;
+                continue;
+            }
+            result.add(entry);
+            position = entry.getNextOffset();
+        }
+        return result;
+    }
+
+    /** Flushes the active segment; called periodically under the INTERVAL policy. */
+    public void flush() {
+        if (fsyncPolicy != FsyncPolicy.NONE) {
+            active.force();
+        }
+    }
+
+    public long committedOffset(String consumer) {
+        return committedOffsets.getOrDefault(consumer, getStartOffset());
+    }
+
+    public void commit(String consumer, long offset) {
+        Long previous = committedOffsets.put(consumer, offset);
+        if (previous != null && previous == offset) {
+            return;
+        }
+        try {
+            Path tmp = offsetsDir.resolve(consumer + ".offset.tmp");
+            Files.writeString(tmp, Long.toString(offset), StandardCharsets.UTF_8);
+            Files.move(tmp, offsetsDir.resolve(consumer + ".offset"),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to commit offset for consumer " + consumer, e);
+        }
+    }
+
+    /**
+     * Deletes closed segments that every consumer has moved past, and closed segments whose records are all older
+     * than maxAgeMillis even if a consumer has not read them yet. Such a consumer resumes at the new start offset
+     * and shows up in {@link #getLaggingConsumers()}. Returns the number of segments removed.
+     */
+    public synchronized int applyRetention(long maxAgeMillis) {
+        long lowWatermark = getLowWatermark();
+        long cutoff = System.currentTimeMillis() - maxAgeMillis;
+        List<TelemetryLogSegment> all = new ArrayList<>(segments.values());
+        int removed = 0;
+        for (int i = 0; i < all.size() - 1; i++) {
+            TelemetryLogSegment segment = all.get(i);
+            // The next segment was opened when this one filled up, so its creation time bounds this one's last write
+            boolean expired = all.get(i + 1).getCreatedAt() <= cutoff;
+            if (segment == active || (segment.getEndOffset() > lowWatermark && !expired)) {
+                break;
+            }
+            segments.remove(segment.getBaseOffset());
+            try {
+                Files.deleteIfExists(segment.getFile());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to delete telemetry log segment " + segment.getFile(), e);
+            }
+            removed++;
+        }
+        return removed;
+    }
+
+    /** Lowest committed offset over all consumers. */
+    public long getLowWatermark() {
+        return committedOffsets.values().stream().mapToLong(Long::longValue).min().orElse(getStartOffset());
+    }
+
+    /** Consumers whose committed offset is before the start of the log, i.e. that lost records to retention. */
+    public List<String> getLaggingConsumers() {
+        long start = getStartOffset();
+        return committedOffsets.entrySet().stream()
+                .filter(e -> e.getValue() < start)
+                .map(Map.Entry::getKey)
+                .sorted()
+                .toList();
+    }
+
+    /** Consumer with the lowest committed offset, or null if none has committed. */
+    public String getSlowestConsumer() {
+        return committedOffsets.entrySet().stream().min(Map.Entry.comparingByValue()).map(Map.Entry::getKey).orElse(null);
+    }
+
+    /** Age of the oldest closed segment some consumer has not finished, or 0 if there is none. */
+    public synchronized long getOldestUnreadAgeMillis() {
+        TelemetryLogSegment oldest = segments.firstEntry().getValue();
+        if (oldest == active || oldest.getEndOffset() <= getLowWatermark()) {
+            return 0;
+        }
+        return System.currentTimeMillis() - oldest.getCreatedAt();
+    }
+
+    public long getStartOffset() {
+        return segments.firstKey();
+    }
+
+    public long getEndOffset() {
+        return active.getEndOffset();
+    }
+
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    @Override
+    public synchronized void close() {
+        active.force();
+    }
+}
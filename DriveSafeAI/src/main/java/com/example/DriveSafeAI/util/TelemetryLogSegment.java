@@ -0,0 +1,145 @@
+package com.example.DriveSafeAI.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * One memory-mapped, preallocated segment file of the {@link TelemetryLog}.
+ * Record layout: [int payloadLength][byte type][int crc32][payload].
+ * A zero length marks the end of written data.
+ */
+public class TelemetryLogSegment {
+
+    static final int HEADER_BYTES = 9;
+
+    private final long baseOffset;
+    private final Path file;
+    private final MappedByteBuffer buffer;
+    private final long createdAt;
+    private volatile int writePosition;
+
+    private TelemetryLogSegment(long baseOffset, Path file, MappedByteBuffer buffer, long createdAt) {
+        this.baseOffset = baseOffset;
+        this.file = file;
+        this.buffer = buffer;
+        this.createdAt = createdAt;
+    }
+
+    public static TelemetryLogSegment open(Path dir, long baseOffset, int segmentBytes) throws IOException {
+        Path file = dir.resolve(fileName(baseOffset));
+        boolean existed = Files.exists(file);
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            int size = existed ? (int) Math.max(channel.size(), segmentBytes) : segmentBytes;
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            long createdAt = existed ? Files.getLastModifiedTime(file).toMillis() : System.currentTimeMillis();
+            TelemetryLogSegment segment = new TelemetryLogSegment(baseOffset, file, buffer, createdAt);
+            if (existed) {
+                segment.recover();
+            }
+            return segment;
+        }
+    }
+
+    public static String fileName(long baseOffset) {
+        return String.format("%020d.seg", baseOffset);
+    }
+
+    // Walks the written records and stops at the first empty or torn one, so a crash mid-append is dropped
+    private void recover() {
+        int pos = 0;
+        int capacity = buffer.capacity();
+        while (pos + HEADER_BYTES <= capacity) {
+            int length = buffer.getInt(pos);
+            if (length <= 0 || pos + HEADER_BYTES + length > capacity) {
+                break;
+            }
+            int storedCrc = buffer.getInt(pos + 5);
+            if (storedCrc != crc(buffer, pos + HEADER_BYTES, length)) {
+                break;
+            }
+            pos += HEADER_BYTES + length;
+        }
+        // Zero the torn tail so later appends start from a clean end marker
+        for (int i = pos; i < Math.min(pos + HEADER_BYTES, capacity); i++) {
+            buffer.put(i, (byte) 0);
+        }
+        writePosition = pos;
+    }
+
+    /**
+     * Appends one record and returns its offset in the log, or -1 if the segment is full.
+     * Callers must serialize appends.
+     */
+    long append(byte type, byte[] payload) {
+        int pos = writePosition;
+        int needed = HEADER_BYTES + payload.length;
+        if (pos + needed > buffer.capacity()) {
+            return -1;
+        }
+        ByteBuffer slice = buffer.duplicate();
+        slice.position(pos + HEADER_BYTES);
+        slice.put(payload);
+        buffer.put(pos + 4, type);
+        buffer.putInt(pos + 5, crc(buffer, pos + HEADER_BYTES, payload.length));
+        // Length goes last so a reader never sees a header without its payload
+        buffer.putInt(pos, payload.length);
+        writePosition = pos + needed;
+        return baseOffset + pos;
+    }
+
+    /**
+     * Reads the record at the given in-segment position, or null when nothing is written there yet.
+     */
+    TelemetryLog.Entry read(int pos) {
+        if (pos + HEADER_BYTES > writePosition) {
+            return null;
+        }
+        int length = buffer.getInt(pos);
+        byte type = buffer.get(pos + 4);
+        byte[] payload = new byte[length];
+        ByteBuffer slice = buffer.duplicate();
+        slice.position(pos + HEADER_BYTES);
+        slice.get(payload);
+        return new TelemetryLog.Entry(baseOffset + pos, baseOffset + pos + HEADER_BYTES + length, type, payload);
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    private static int crc(ByteBuffer source, int from, int length) {
+        CRC32 crc = new CRC32();
+        ByteBuffer slice = source.duplicate();
+        slice.position(from);
+        slice.limit(from + length);
+        crc.update(slice);
+        return (int) crc.getValue();
+    }
+
+    public long getBaseOffset() {
+        return baseOffset;
+    }
+
+    public long getEndOffset() {
+        return baseOffset + writePosition;
+    }
+
+    public int getWritePosition() {
+        return writePosition;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+}
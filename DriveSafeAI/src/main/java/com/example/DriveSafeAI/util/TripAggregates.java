@@ -0,0 +1,56 @@
+package com.example.DriveSafeAI.util;
+
+import com.example.DriveSafeAI.entity.TripData;
+import com.example.DriveSafeAI.entity.TripSummary;
+
+import java.util.List;
+
+/**
+ * Trip-level aggregates shared by live trip scoring and DRISC calculation,
+ * kept free of repositories so the benchmarks exercise the same code.
+ */
+public class TripAggregates {
+
+    /** Speed, acceleration, distance and weather flags of a trip; the caller adds ids, score and hotspot risk. */
+    public static TripSummary.TripSummaryBuilder summarize(List<TripData> tripList) {
+        boolean isRainy = tripList.stream()
+                .anyMatch(t -> t.getHasPrecipitation() != null && t.getHasPrecipitation() == 1);
+        boolean isDay = tripList.stream()
+                .anyMatch(t -> t.getIsDayTime() != null && t.getIsDayTime() == 1);
+
+        return TripSummary.builder()
+                .maxSpeed((float) tripList.stream()
+                        .filter(t -> t.getSpeed() != null)
+                        .mapToDouble(TripData::getSpeed)
+                        .max().orElse(0))
+                .avgSpeed((float) tripList.stream()
+                        .filter(t -> t.getSpeed() != null)
+                        .mapToDouble(TripData::getSpeed)
+                        .average().orElse(0))
+                .maxAcceleration((float) tripList.stream()
+                        .filter(t -> t.getAcceleration() != null)
+                        .mapToDouble(TripData::getAcceleration)
+                        .max().orElse(0))
+                .distanceTravelled((float) tripList.stream()
+                        .filter(t -> t.getDistanceTravelled() != null)
+                        .mapToDouble(TripData::getDistanceTravelled)
+                        .sum())
+                .isRainy(isRainy)
+                .isDay(isDay);
+    }
+
+    /** Distance-weighted drive score over the given trips; trips without distance count but carry no weight. */
+    public static float driscScore(List<TripSummary> recentTrips) {
+        double weightedSum = 0.0;
+        double totalDistance = 0.0;
+
+        for (TripSummary trip : recentTrips) {
+            if (trip.getDistanceTravelled() > 0) {
+                weightedSum += trip.getDriveScore() * trip.getDistanceTravelled();
+                totalDistance += trip.getDistanceTravelled();
+            }
+        }
+
+        return (totalDistance == 0) ? 0f : (float) (weightedSum / totalDistance);
+    }
+}
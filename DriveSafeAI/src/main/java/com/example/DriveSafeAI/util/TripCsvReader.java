@@ -0,0 +1,46 @@
+package com.example.DriveSafeAI.util;
+
+import com.example.DriveSafeAI.entity.TripData;
+import com.example.DriveSafeAI.entity.Vehicle;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parses an uploaded trip CSV (header row, case-insensitive column names) into unsaved TripData rows.
+ */
+public class TripCsvReader {
+
+    public static List<TripData> read(Reader reader, Vehicle vehicle) throws IOException {
+        List<TripData> trips = new ArrayList<>();
+        try (CSVParser parser = CSVFormat.DEFAULT.builder()
+                .setHeader()
+                .setSkipHeaderRecord(true)
+                .setIgnoreHeaderCase(true)
+                .setTrim(true)
+                .get()
+                .parse(reader)) {
+
+            for (CSVRecord record : parser) {
+                TripData trip = new TripData();
+                trip.setSpeed(Float.parseFloat(record.get("speed")));
+                trip.setRpm(Float.parseFloat(record.get("rpm")));
+                trip.setAcceleration(Float.parseFloat(record.get("acceleration")));
+                trip.setThrottlePosition(Float.parseFloat(record.get("throttle_position")));
+                trip.setEngineTemperature(Float.parseFloat(record.get("engine_temperature")));
+                trip.setSystemVoltage(Float.parseFloat(record.get("system_voltage")));
+                trip.setEngineLoadValue(Float.parseFloat(record.get("engine_load_value")));
+                trip.setDistanceTravelled(Float.parseFloat(record.get("distance_travelled")));
+                trip.setBrake(Float.parseFloat(record.get("brake")));
+                trip.setVehicle(vehicle);
+                trips.add(trip);
+            }
+        }
+        return trips;
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.DriveSafeAI.util;
+
+import com.example.DriveSafeAI.entity.TripData;
+
+import java.util.List;
+
+/**
+ * Computes the TripData risk feature columns for a whole trip.
+ * Samples are copied into primitive columns once and every feature is a tight, branch-free loop
+ * over float[] so HotSpot's superword pass can vectorize it on any JDK.
+ * Missing readings are filled with a neutral value that yields zero risk and are excluded
+ * from the variance terms through a 0/1 validity mask.
+ */
+public class TripFeatureEngine {
+
+    public static final float DEFAULT_SPEED_LIMIT = 80f;
+    public static final float HARSH_ACCELERATION = 3.0f;
+    public static final float HIGH_RPM = 4000f;
+    public static final float RPM_REDLINE = 6000f;
+    public static final float EXCESSIVE_THROTTLE = 80f;
+    public static final float ENGINE_TEMP_WARN = 100f;
+    public static final float VOLTAGE_LOW = 12.0f;
+    public static final float VOLTAGE_HIGH = 14.8f;
+    public static final float ENGINE_LOAD_WARN = 80f;
+    public static final float POOR_VISIBILITY = 1.0f;
+    public static final float HIGH_WIND = 15f;
+
+    /** Primitive columnar view of one trip. */
+    public static class Columns {
+        public final int length;
+        public final float[] speed, rpm, acceleration, throttle, engineTemp, voltage, engineLoad;
+        public final float[] speedLimit, precipitation, visibility, windSpeed;
+        public final float[] speedValid, accelerationValid;
+
+        public Columns(int length) {
+            this.length = length;
+            speed = new float[length];
+            rpm = new float[length];
+            acceleration = new float[length];
+            throttle = new float[length];
+            engineTemp = new float[length];
+            voltage = new float[length];
+            engineLoad = new float[length];
+            speedLimit = new float[length];
+            precipitation = new float[length];
+            visibility = new float[length];
+            windSpeed = new float[length];
+            speedValid = new float[length];
+            accelerationValid = new float[length];
+        }
+
+        public static Columns of(List<TripData> trip) {
+            Columns c = new Columns(trip.size());
+            for (int i = 0; i < c.length; i++) {
+                TripData t = trip.get(i);
+                c.speed[i] = valueOr(t.getSpeed(), 0f);
+                c.speedValid[i] = t.getSpeed() != null ? 1f : 0f;
+                c.acceleration[i] = valueOr(t.getAcceleration(), 0f);
+                c.accelerationValid[i] = t.getAcceleration() != null ? 1f : 0f;
+                c.rpm[i] = valueOr(t.getRpm(), 0f);
+                c.throttle[i] = valueOr(t.getThrottlePosition(), 0f);
+                c.engineTemp[i] = valueOr(t.getEngineTemperature(), 0f);
+                c.voltage[i] = valueOr(t.getSystemVoltage(), (VOLTAGE_LOW + VOLTAGE_HIGH) / 2);
+                c.engineLoad[i] = valueOr(t.getEngineLoadValue(), 0f);
+                c.speedLimit[i] = t.getDesignSpeed() != null && t.getDesignSpeed() > 0
+                        ? t.getDesignSpeed() : DEFAULT_SPEED_LIMIT;
+                c.precipitation[i] = t.getHasPrecipitation() != null && t.getHasPrecipitation() == 1 ? 1f : 0f;
+                c.visibility[i] = t.getVisibility() != null ? t.getVisibility().floatValue() : 10f;
+                c.windSpeed[i] = t.getWindSpeed() != null ? t.getWindSpeed().floatValue() : 0f;
+            }
+            return c;
+        }
+
+        private static float valueOr(Float value, float fallback) {
+            return value != null ? value : fallback;
+        }
+    }
+
+    /** Per-sample feature columns plus the trip-level aggregates. */
+    public static class Features {
+        public final float[] speedRisk, harshAcceleration, rpmEfficiency, highRpmRisk, throttleAggression;
+        public final float[] engineTempRisk, voltageRisk, engineLoadRisk, weatherRisk, engineStrain;
+        public float speedVariance, accelerationVariance, excessiveThrottleTime;
+
+        public Features(int length) {
+            speedRisk = new float[length];
+            harshAcceleration = new float[length];
+            rpmEfficiency = new float[length];
+            highRpmRisk = new float[length];
+            throttleAggression = new float[length];
+            engineTempRisk = new float[length];
+            voltageRisk = new float[length];
+            engineLoadRisk = new float[length];
+            weatherRisk = new float[length];
+            engineStrain = new float[length];
+        }
+    }
+
+    public static Features compute(Columns c) {
+        int n = c.length;
+        Features f = new Features(n);
+
+        for (int i = 0; i < n; i++) {
+            f.speedRisk[i] = clamp01((c.speed[i] - c.speedLimit[i]) / c.speedLimit[i]);
+        }
+        for (int i = 0; i < n; i++) {
+            f.harshAcceleration[i] = step(Math.abs(c.acceleration[i]) - HARSH_ACCELERATION);
+        }
+        for (int i = 0; i < n; i++) {
+            f.rpmEfficiency[i] = c.speed[i] * 100f / Math.max(c.rpm[i], 1f);
+        }
+        for (int i = 0; i < n; i++) {
+            f.highRpmRisk[i] = clamp01((c.rpm[i] - HIGH_RPM) / (RPM_REDLINE - HIGH_RPM));
+        }
+        for (int i = 0; i < n; i++) {
+            f.throttleAggression[i] = clamp01(c.throttle[i] / 100f) * clamp01(Math.abs(c.acceleration[i]) / HARSH_ACCELERATION);
+        }
+        for (int i = 0; i < n; i++) {
+            f.engineTempRisk[i] = clamp01((c.engineTemp[i] - ENGINE_TEMP_WARN) / 20f);
+        }
+        for (int i = 0; i < n; i++) {
+            f.voltageRisk[i] = clamp01(Math.max(VOLTAGE_LOW - c.voltage[i], c.voltage[i] - VOLTAGE_HIGH) / 2f);
+        }
+        for (int i = 0; i < n; i++) {
+            f.engineLoadRisk[i] = clamp01((c.engineLoad[i] - ENGINE_LOAD_WARN) / (100f - ENGINE_LOAD_WARN));
+        }
+        for (int i = 0; i < n; i++) {
+            f.weatherRisk[i] = 0.5f * c.precipitation[i]
+                    + 0.3f * step(POOR_VISIBILITY - c.visibility[i])
+                    + 0.2f * step(c.windSpeed[i] - HIGH_WIND);
+        }
+        for (int i = 0; i < n; i++) {
+            f.engineStrain[i] = clamp01(c.rpm[i] / RPM_REDLINE) * clamp01(c.engineLoad[i] / 100f);
+        }
+
+        f.speedVariance = variance(c.speed, c.speedValid, n);
+        f.accelerationVariance = variance(c.acceleration, c.accelerationValid, n);
+
+        float excessive = 0f;
+        for (int i = 0; i < n; i++) {
+            excessive += step(c.throttle[i] - EXCESSIVE_THROTTLE);
+        }
+        f.excessiveThrottleTime = n == 0 ? 0f : excessive / n;
+        return f;
+    }
+
+    /** Computes the features of a trip and writes them onto its rows before they are persisted. */
+    public static Features apply(List<TripData> trip) {
+        Features f = compute(Columns.of(trip));
+        for (int i = 0; i < trip.size(); i++) {
+            TripData t = trip.get(i);
+            t.setSpeedRisk(f.speedRisk[i]);
+            t.setHarshAcceleration(f.harshAcceleration[i]);
+            t.setRpmEfficiency(f.rpmEfficiency[i]);
+            t.setHighRpmRisk(f.highRpmRisk[i]);
+            t.setThrottleAggression(f.throttleAggression[i]);
+            t.setEngineTempRisk(f.engineTempRisk[i]);
+            t.setVoltageRisk(f.voltageRisk[i]);
+            t.setEngineLoadRisk(f.engineLoadRisk[i]);
+            t.setWeatherRisk(f.weatherRisk[i]);
+            t.setEngineStrain(f.engineStrain[i]);
+            t.setSpeedVariance(f.speedVariance);
+            t.setAccelerationVariance(f.accelerationVariance);
+            t.setExcessiveThrottleTime(f.excessiveThrottleTime);
+        }
+        return f;
+    }
+
+    // Masked single-pass variance; sums in double to keep 1M-sample trips stable
+    private static float variance(float[] x, float[] valid, int n) {
+        double count = 0, sum = 0, sumSq = 0;
+        for (int i = 0; i < n; i++) {
+            double v = x[i] * valid[i];
+            count += valid[i];
+            sum += v;
+            sumSq += v * v;
+        }
+        if (count < 2) {
+            return 0f;
+        }
+        double mean = sum / count;
+        return (float) Math.max(sumSq / count - mean * mean, 0);
+    }
+
+    private static float clamp01(float x) {
+        return Math.min(Math.max(x, 0f), 1f);
+    }
+
+    private static float step(float x) {
+        return x > 0f ? 1f : 0f;
+    }
+}
@@ -6,16 +6,37 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class TripSessionBuffer {
     private static final Map<String, List<LiveTripDTO>> sessionMap = new ConcurrentHashMap<>();
+    private static final AtomicLong bufferedSamples = new AtomicLong();
 
     public static void addToSession(String sessionId, LiveTripDTO dto) {
         sessionMap.computeIfAbsent(sessionId, k -> new ArrayList<>()).add(dto);
+        bufferedSamples.incrementAndGet();
     }
 
     public static List<LiveTripDTO> endSession(String sessionId) {
-        return sessionMap.remove(sessionId); // Removes and returns
+        List<LiveTripDTO> removed = sessionMap.remove(sessionId); // Removes and returns
+        if (removed != null) {
+            bufferedSamples.addAndGet(-removed.size());
+        }
+        return removed;
+    }
+
+    /** Copy of the session's samples so far, or null; the session stays open. */
+    public static List<LiveTripDTO> getSession(String sessionId) {
+        List<LiveTripDTO> samples = sessionMap.get(sessionId);
+        return samples != null ? new ArrayList<>(samples) : null;
+    }
+
+    public static int sessionCount() {
+        return sessionMap.size();
+    }
+
+    public static long bufferedSampleCount() {
+        return bufferedSamples.get();
     }
 
     public static boolean hasSession(String sessionId) {
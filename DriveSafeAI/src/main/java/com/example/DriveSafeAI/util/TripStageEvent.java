@@ -0,0 +1,49 @@
+package com.example.DriveSafeAI.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one stage of ending a live trip session (assembly, persistence, ML scoring, summary...).
+ * Usage: {@code TripStageEvent e = TripStageEvent.start("ml-score", sessionId); ... e.finish(rows);}.
+ * When the event is disabled begin/commit are no-ops that the JIT folds away.
+ */
+@Name("drivesafe.TripStage")
+@Label("Trip Pipeline Stage")
+@Category({"DriveSafeAI", "Trips"})
+@Description("One stage of processLiveTripSession")
+@StackTrace(false)
+public class TripStageEvent extends Event {
+
+    @Label("Stage")
+    public String stage;
+
+    @Label("Session")
+    public String sessionId;
+
+    @Label("Rows")
+    public int rows;
+
+    public static TripStageEvent start(String stage, String sessionId) {
+        TripStageEvent event = new TripStageEvent();
+        // Fields are only worth setting when the event can be committed
+        if (event.isEnabled()) {
+            event.begin();
+            event.stage = stage;
+            event.sessionId = sessionId;
+        }
+        return event;
+    }
+
+    public void finish(int rows) {
+        end();
+        if (shouldCommit()) {
+            this.rows = rows;
+            commit();
+        }
+    }
+}
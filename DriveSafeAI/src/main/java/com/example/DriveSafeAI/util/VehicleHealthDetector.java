@@ -0,0 +1,144 @@
+package com.example.DriveSafeAI.util;
+
+import com.example.DriveSafeAI.entity.VehicleHealthAlertType;
+
+/**
+ * Per-vehicle health baselines and change detection, updated in place in a float slab (see {@link StripedStateMap}).
+ * Each signal keeps an EWMA mean and variance that learns slowly across trips, and a one-sided CUSUM of the
+ * standardized deviation from it: small sustained drifts add up until the sum crosses its limit, while single
+ * noisy samples decay away. Samples that are far off or arrive while the alert is active do not move the
+ * baseline, so a developing fault is not learned as normal. Absolute limits cover vehicles still warming up.
+ * <ul>
+ *   <li>OVERHEATING: engine temperature above its baseline, or at the overheat limit.</li>
+ *   <li>ALTERNATOR_FAILING: system voltage below its baseline with the engine running, or under the charging
+ *       limit (the alternator is not keeping up with the battery).</li>
+ *   <li>ABNORMAL_LOAD: engine load above its baseline for the same RPM band.</li>
+ * </ul>
+ */
+public class VehicleHealthDetector {
+
+    private static final VehicleHealthAlertType[] TYPES = VehicleHealthAlertType.values();
+
+    // Slab layout; every signal is {mean, variance, samples seen (capped), CUSUM}
+    private static final int MEAN = 0, VAR = 1, N = 2, CUSUM = 3, SIGNAL = 4;
+    public static final int TEMPERATURE = 0;
+    public static final int VOLTAGE = SIGNAL;
+    // Engine load: one baseline per RPM band, one CUSUM
+    public static final int LOAD = 2 * SIGNAL;
+    public static final int LOAD_BANDS = 3;
+    public static final int STRIDE = LOAD + LOAD_BANDS * SIGNAL;
+
+    /** Flag bit set while the slot has changes not yet persisted; bits below it are the active alert types. */
+    public static final int DIRTY = 1 << 30;
+
+    public static class Rules {
+        public float alpha = 0.005f;
+        public int warmupSamples = 100;
+        public float cusumSlack = 0.5f;// k, in standard deviations
+        public float cusumLimit = 8f;// h, in standard deviations
+        public float learnGate = 3f;// |z| above this is not learned
+        public float minStdTemperature = 2f, minStdVoltage = 0.2f, minStdLoad = 5f;
+        public float overheatCelsius = 115f;
+        public float chargingVolts = 12.4f;
+        public float idleRpm = 500f;
+        public float[] loadBandRpm = {1500f, 3000f};
+    }
+
+    private final Rules rules;
+
+    public VehicleHealthDetector(Rules rules) {
+        this.rules = rules;
+    }
+
+    /**
+     * Feeds one sample into the vehicle's slab at base and returns a bitmask of the alert types that became active
+     * on it, indexed by {@link VehicleHealthAlertType#ordinal()}. Pass Float.NaN for readings the sample lacks.
+     */
+    public int update(float[] v, int base, int[] flags, int slot,
+                      float engineTemperature, float systemVoltage, float engineLoad, float rpm) {
+        int before = flags[slot];
+        int active = before;
+
+        if (!Float.isNaN(engineTemperature)) {
+            boolean drift = signal(v, base + TEMPERATURE, engineTemperature, rules.minStdTemperature, true,
+                    isActive(active, VehicleHealthAlertType.OVERHEATING));
+            active = set(active, VehicleHealthAlertType.OVERHEATING, drift || engineTemperature >= rules.overheatCelsius);
+        }
+
+        boolean running = Float.isNaN(rpm) || rpm >= rules.idleRpm;
+        if (!Float.isNaN(systemVoltage) && running) {
+            boolean drift = signal(v, base + VOLTAGE, systemVoltage, rules.minStdVoltage, false,
+                    isActive(active, VehicleHealthAlertType.ALTERNATOR_FAILING));
+            boolean undercharging = !Float.isNaN(rpm) && systemVoltage < rules.chargingVolts;
+            active = set(active, VehicleHealthAlertType.ALTERNATOR_FAILING, drift || undercharging);
+        }
+
+        if (!Float.isNaN(engineLoad) && !Float.isNaN(rpm)) {
+            int band = 0;
+            while (band < rules.loadBandRpm.length && rpm >= rules.loadBandRpm[band]) {
+                band++;
+            }
+            // The CUSUM is shared by the bands and lives in the first one
+            boolean wasActive = isActive(active, VehicleHealthAlertType.ABNORMAL_LOAD);
+            int b = base + LOAD + band * SIGNAL;
+            float z = learn(v, b, engineLoad, rules.minStdLoad, wasActive);
+            boolean drift = !Float.isNaN(z) && cusum(v, base + LOAD + CUSUM, z, wasActive);
+            active = set(active, VehicleHealthAlertType.ABNORMAL_LOAD, drift);
+        }
+
+        flags[slot] = active | DIRTY;
+        return active & ~before & ~DIRTY;
+    }
+
+    // Returns whether the signal's CUSUM is over the limit
+    private boolean signal(float[] v, int at, float x, float minStd, boolean high, boolean active) {
+        float z = learn(v, at, x, minStd, active);
+        return !Float.isNaN(z) && cusum(v, at + CUSUM, high ? z : -z, active);
+    }
+
+    // Standardized deviation from the baseline (NaN while warming up); updates the baseline unless the sample is an outlier
+    private float learn(float[] v, int at, float x, float minStd, boolean active) {
+        float n = v[at + N];
+        float mean = v[at + MEAN];
+        float std = Math.max((float) Math.sqrt(v[at + VAR]), minStd);
+        float z = n < rules.warmupSamples ? Float.NaN : (x - mean) / std;
+        if (Float.isNaN(z) || (!active && Math.abs(z) <= rules.learnGate)) {
+            // 1/(n+1) at first, so the warm-up samples are averaged rather than decayed from zero
+            float a = Math.max(rules.alpha, 1f / (n + 1));
+            float d = x - mean;
+            v[at + MEAN] = mean + a * d;
+            v[at + VAR] = (1 - a) * (v[at + VAR] + a * d * d);
+            if (n < rules.warmupSamples) {
+                v[at + N] = n + 1;
+            }
+        }
+        return z;
+    }
+
+    // Over the limit to raise, back to zero to clear; capped so an alert clears soon after the signal is normal again
+    private boolean cusum(float[] v, int at, float z, boolean active) {
+        float s = Math.max(0f, v[at] + z - rules.cusumSlack);
+        v[at] = Math.min(s, 2 * rules.cusumLimit);
+        return v[at] > (active ? 0f : rules.cusumLimit);
+    }
+
+    private static boolean isActive(int flags, VehicleHealthAlertType type) {
+        return (flags & (1 << type.ordinal())) != 0;
+    }
+
+    private static int set(int flags, VehicleHealthAlertType type, boolean on) {
+        return on ? flags | (1 << type.ordinal()) : flags & ~(1 << type.ordinal());
+    }
+
+    public static float baseline(float[] v, int base, int signal) {
+        return v[base + signal + N] > 0 ? v[base + signal + MEAN] : Float.NaN;
+    }
+
+    public static int samples(float[] v, int base, int signal) {
+        return (int) v[base + signal + N];
+    }
+
+    public static VehicleHealthAlertType type(int ordinal) {
+        return TYPES[ordinal];
+    }
+}
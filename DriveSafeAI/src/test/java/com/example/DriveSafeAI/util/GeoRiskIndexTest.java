@@ -0,0 +1,58 @@
+package com.example.DriveSafeAI.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GeoRiskIndexTest {
+
+    private static final double METERS_PER_DEGREE = 6_371_000 * Math.PI / 180;
+
+    @Test
+    void precisionFollowsTheSearchRadius() {
+        assertEquals(8, GeoRiskIndex.precisionFor(10));
+        assertEquals(7, GeoRiskIndex.precisionFor(100));
+        assertEquals(6, GeoRiskIndex.precisionFor(500));
+        assertEquals(5, GeoRiskIndex.precisionFor(1000));
+        assertEquals(1, GeoRiskIndex.precisionFor(1e8));
+    }
+
+    @Test
+    void findsPointsSeveralNarrowCellsAwayAtHighLatitude() throws IOException {
+        // At 80 degrees a precision-6 cell is about 200 m wide, so 450 m east is more than one cell over
+        double latitude = 80.0005, longitude = 15.0003;
+        double east = 450 / (METERS_PER_DEGREE * Math.cos(Math.toRadians(latitude)));
+        GeoRiskIndex index = index(500, latitude, longitude + east);
+
+        GeoRiskIndex.Match match = new GeoRiskIndex.Match();
+        assertTrue(index.lookup(latitude, longitude, match));
+        assertEquals(450, match.distanceMeters, 5);
+        assertEquals(60f, match.designSpeed);
+
+        assertFalse(index(400, latitude, longitude + east).lookup(latitude, longitude, match));
+    }
+
+    @Test
+    void findsPointsAcrossTheAntimeridian() throws IOException {
+        GeoRiskIndex index = index(500, -16.5, 179.999);
+        GeoRiskIndex.Match match = new GeoRiskIndex.Match();
+        assertTrue(index.lookup(-16.5, -179.999, match));
+        assertEquals(0.002 * METERS_PER_DEGREE * Math.cos(Math.toRadians(16.5)), match.distanceMeters, 1);
+    }
+
+    @Test
+    void rejectsANegativeDistance() {
+        assertThrows(IllegalArgumentException.class, () -> index(-1, 0, 0));
+    }
+
+    private static GeoRiskIndex index(double maxDistanceMeters, double latitude, double longitude) throws IOException {
+        String csv = "latitude,longitude,design_speed,accident_count\n" + latitude + "," + longitude + ",60,3\n";
+        return GeoRiskIndex.load(new StringReader(csv), maxDistanceMeters);
+    }
+}
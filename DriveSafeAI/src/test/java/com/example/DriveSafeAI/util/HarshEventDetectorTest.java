@@ -0,0 +1,73 @@
+package com.example.DriveSafeAI.util;
+
+import com.example.DriveSafeAI.entity.DrivingEventType;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HarshEventDetectorTest {
+
+    private static final int HARSH_BRAKING = 1 << DrivingEventType.HARSH_BRAKING.ordinal();
+    private static final int SPEEDING = 1 << DrivingEventType.SPEEDING.ordinal();
+
+    private final HarshEventDetector detector = new HarshEventDetector(new HarshEventDetector.Rules());
+
+    @Test
+    void windowBrakingMeasuresAConstantDeceleration() {
+        // 3 m/s² for ten seconds at 1 Hz: under the 3.5 enter threshold, so nothing fires
+        HarshEventDetector.State s = detector.newState();
+        assertEquals(0, brake(s, 3f, 1000, 10));
+        assertEquals(3f, s.lastSignal[DrivingEventType.HARSH_BRAKING.ordinal()], 1e-3f);
+
+        // 4 m/s² is over it
+        assertEquals(HARSH_BRAKING, brake(detector.newState(), 4f, 1000, 10));
+    }
+
+    @Test
+    void windowBrakingFollowsTheSampleTimestamps() {
+        // 4 m/s² reported every 2 s is still 4 m/s², not 8
+        HarshEventDetector.State s = detector.newState();
+        assertEquals(HARSH_BRAKING, brake(s, 4f, 2000, 10));
+        assertEquals(4f, s.lastSignal[DrivingEventType.HARSH_BRAKING.ordinal()], 1e-3f);
+
+        // A burst of buffered samples spans too little time to say anything about braking
+        s = detector.newState();
+        assertEquals(0, brake(s, 4f, 10, 10));
+        assertEquals(0f, s.lastSignal[DrivingEventType.HARSH_BRAKING.ordinal()]);
+    }
+
+    @Test
+    void firesOnceAndReArmsBelowTheExitThreshold() {
+        HarshEventDetector.State s = detector.newState();
+        long t = 0;
+        assertEquals(0, detector.update(s, t, 58, Float.NaN, Float.NaN, 50));
+        assertEquals(SPEEDING, detector.update(s, t += 1000, 61, Float.NaN, Float.NaN, 50));
+        assertEquals(0, detector.update(s, t += 1000, 62, Float.NaN, Float.NaN, 50));
+        // Between exit and enter: still active
+        assertEquals(0, detector.update(s, t += 1000, 57, Float.NaN, Float.NaN, 50));
+        assertEquals(0, detector.update(s, t += 1000, 62, Float.NaN, Float.NaN, 50));
+        assertEquals(0, detector.update(s, t += 1000, 54, Float.NaN, Float.NaN, 50));
+        assertEquals(SPEEDING, detector.update(s, t + 1000, 61, Float.NaN, Float.NaN, 50));
+    }
+
+    @Test
+    void reportedAccelerationDrivesBrakingAndAccelerationRules() {
+        HarshEventDetector.State s = detector.newState();
+        int fired = detector.update(s, 0, Float.NaN, Float.NaN, -5f, 0);
+        assertEquals(HARSH_BRAKING, fired);
+        // Smoothed: one sample of 6 m/s² after -5 is not yet rapid acceleration, a second one is
+        assertEquals(0, detector.update(s, 1000, Float.NaN, Float.NaN, 6f, 0));
+        fired = detector.update(s, 2000, Float.NaN, Float.NaN, 6f, 0);
+        assertEquals(1 << DrivingEventType.RAPID_ACCELERATION.ordinal(), fired);
+    }
+
+    // Speeds only, falling at a constant rate; returns what the samples fired between them
+    private int brake(HarshEventDetector.State s, float metresPerSecondSquared, long intervalMillis, int samples) {
+        float kmhPerSample = metresPerSecondSquared * 3.6f * intervalMillis / 1000f;
+        int fired = 0;
+        for (int i = 0; i < samples; i++) {
+            fired |= detector.update(s, i * intervalMillis, 120 - i * kmhPerSample, Float.NaN, Float.NaN, 0);
+        }
+        return fired;
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.DriveSafeAI.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HnswIndexTest {
+
+    private static final int DIMENSIONS = DrivingStyleFingerprint.DIMENSIONS;
+
+    @Test
+    void recallAgainstBruteForce() {
+        Random random = new Random(7);
+        HnswIndex index = new HnswIndex(DIMENSIONS, 16, 100, 1);
+        int n = 2_000;
+        float[][] vectors = new float[n][];
+        for (int i = 0; i < n; i++) {
+            vectors[i] = randomVector(random);
+            assertEquals(i, index.add(vectors[i]));
+        }
+        assertEquals(n, index.size());
+
+        int k = 10, queries = 100, found = 0;
+        for (int q = 0; q < queries; q++) {
+            float[] query = randomVector(random);
+            List<HnswIndex.Result> results = index.search(query, k, 64);
+            assertEquals(k, results.size());
+            for (int i = 1; i < k; i++) {
+                assertTrue(results.get(i - 1).distance <= results.get(i).distance);
+            }
+            Set<Integer> exact = bruteForce(vectors, query, k);
+            for (HnswIndex.Result r : results) {
+                assertEquals(distance(vectors[r.node], query), r.distance, 1e-5f);
+                if (exact.contains(r.node)) {
+                    found++;
+                }
+            }
+        }
+        double recall = (double) found / (k * queries);
+        assertTrue(recall >= 0.95, "recall@10 was " + recall);
+    }
+
+    @Test
+    void findsItsOwnVectorsAndHandlesSmallIndexes() {
+        HnswIndex index = new HnswIndex(DIMENSIONS, 16, 100, 1);
+        assertTrue(index.search(new float[DIMENSIONS], 1, 10).isEmpty());
+
+        Random random = new Random(11);
+        float[] only = randomVector(random);
+        index.add(only);
+        assertEquals(1, index.search(randomVector(random), 5, 10).size());
+        for (int i = 0; i < 299; i++) {
+            index.add(randomVector(random));
+        }
+        for (int node = 0; node < index.size(); node += 17) {
+            HnswIndex.Result nearest = index.search(index.vector(node), 1, 32).get(0);
+            assertEquals(node, nearest.node);
+            assertEquals(0f, nearest.distance);
+        }
+    }
+
+    // Clustered like fingerprints of a few drivers, rather than uniform noise
+    private static float[] randomVector(Random random) {
+        float[] v = new float[DIMENSIONS];
+        int cluster = random.nextInt(8);
+        for (int i = 0; i < DIMENSIONS; i++) {
+            v[i] = 0.1f * ((cluster * 31 + i * 7) % 5) + 0.05f * (float) random.nextGaussian();
+        }
+        return v;
+    }
+
+    private static Set<Integer> bruteForce(float[][] vectors, float[] query, int k) {
+        Integer[] order = new Integer[vectors.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Float.compare(distance(vectors[a], query), distance(vectors[b], query)));
+        return new HashSet<>(Arrays.asList(order).subList(0, k));
+    }
+
+    private static float distance(float[] a, float[] b) {
+        double sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            double d = a[i] - b[i];
+            sum += d * d;
+        }
+        return (float) Math.sqrt(sum);
+    }
+}
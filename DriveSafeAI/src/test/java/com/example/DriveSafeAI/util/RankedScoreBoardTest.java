@@ -0,0 +1,100 @@
+package com.example.DriveSafeAI.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RankedScoreBoardTest {
+
+    @Test
+    void ranksByScoreDescendingThenIdAscending() {
+        RankedScoreBoard board = new RankedScoreBoard();
+        board.put(3, 50);
+        board.put(1, 80);
+        board.put(2, 50);
+        board.put(4, 90);
+
+        assertEquals(4, board.size());
+        assertEquals(1, board.rankOf(4));
+        assertEquals(2, board.rankOf(1));
+        assertEquals(3, board.rankOf(2));
+        assertEquals(4, board.rankOf(3));
+        assertEquals(0, board.rankOf(99));
+        assertEquals(List.of(4L, 1L), ids(board.top(2)));
+        assertEquals(List.of(1L, 2L, 3L), ids(board.around(2, 1)));
+        assertTrue(board.around(99, 1).isEmpty());
+    }
+
+    @Test
+    void updatesMoveEntriesAndRemoveDropsThem() {
+        RankedScoreBoard board = new RankedScoreBoard();
+        board.put(1, 10);
+        board.put(2, 20);
+        assertEquals(25, board.add(1, 15));
+        assertEquals(1, board.rankOf(1));
+        assertEquals(7, board.add(3, 7));
+
+        assertTrue(board.remove(2));
+        assertFalse(board.remove(2));
+        assertNull(board.scoreOf(2));
+        assertEquals(2, board.size());
+        assertEquals(List.of(1L, 3L), ids(board.range(0, 10)));
+        assertTrue(board.range(3, 5).isEmpty());
+    }
+
+    @Test
+    void ranksMatchASortedListUnderRandomUpdates() {
+        Random random = new Random(42);
+        RankedScoreBoard board = new RankedScoreBoard();
+        Map<Long, Double> model = new HashMap<>();
+        for (int step = 0; step < 20_000; step++) {
+            long id = 1 + random.nextInt(500);
+            int op = random.nextInt(10);
+            if (op < 5) {
+                double score = random.nextInt(100);// ties on purpose
+                board.put(id, score);
+                model.put(id, score);
+            } else if (op < 8) {
+                double delta = random.nextInt(21) - 10;
+                board.add(id, delta);
+                model.merge(id, delta, Double::sum);
+            } else {
+                assertEquals(model.remove(id) != null, board.remove(id));
+            }
+
+            if (step % 1000 == 999) {
+                List<Long> expected = sorted(model);
+                assertEquals(expected.size(), board.size());
+                assertEquals(expected, ids(board.range(1, expected.size())));
+                for (int r = 1; r <= expected.size(); r += 7) {
+                    assertEquals(r, board.rankOf(expected.get(r - 1)));
+                    assertEquals(expected.get(r - 1), board.range(r, r).get(0).id);
+                }
+            }
+        }
+    }
+
+    private static List<Long> sorted(Map<Long, Double> model) {
+        List<Long> ids = new ArrayList<>(model.keySet());
+        ids.sort(Comparator.<Long, Double>comparing(model::get).reversed().thenComparing(id -> id));
+        return ids;
+    }
+
+    private static List<Long> ids(List<RankedScoreBoard.Entry> entries) {
+        List<Long> ids = new ArrayList<>();
+        for (RankedScoreBoard.Entry e : entries) {
+            ids.add(e.id);
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.DriveSafeAI.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SeriesRollupTest {
+
+    private static final float NaN = Float.NaN;
+
+    @Test
+    void coarsenWeightsAveragesAndSkipsMissingSamples() {
+        SeriesRollup r = SeriesRollup.of(new float[] {1, NaN, 3, NaN, NaN, NaN, 10});
+        SeriesRollup pairs = r.coarsen(2);
+        assertEquals(2, pairs.bucketSize);
+        assertEquals(4, pairs.size());
+        assertArrayEquals(new int[] {1, 1, 0, 1}, pairs.count);
+        assertEquals(1f, pairs.avg[0]);
+        // A bucket with no samples has NaN statistics, not zeros
+        assertTrue(Float.isNaN(pairs.min[2]) && Float.isNaN(pairs.max[2]) && Float.isNaN(pairs.avg[2]));
+        // The short last bucket holds the one sample left over
+        assertEquals(10f, pairs.max[3]);
+        assertEquals(6, pairs.firstSample(3));
+
+        SeriesRollup whole = pairs.coarsen(10);
+        assertEquals(1, whole.size());
+        assertEquals(3, whole.count[0]);
+        assertEquals(1f, whole.min[0]);
+        assertEquals(10f, whole.max[0]);
+        assertEquals(14f / 3, whole.avg[0], 1e-6f);
+    }
+
+    @Test
+    void coarseningInStepsMatchesCoarseningAtOnce() {
+        float[] samples = new float[103];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = i % 7 == 0 ? NaN : (float) Math.sin(i / 5.0) * 50;
+        }
+        SeriesRollup direct = SeriesRollup.of(samples).coarsen(12);
+        SeriesRollup stepped = SeriesRollup.of(samples).coarsen(3).coarsen(4);
+        assertEquals(12, stepped.bucketSize);
+        assertEquals(direct.size(), stepped.size());
+        assertArrayEquals(direct.count, stepped.count);
+        assertArrayEquals(direct.min, stepped.min);
+        assertArrayEquals(direct.max, stepped.max);
+        assertArrayEquals(direct.avg, stepped.avg, 1e-4f);
+    }
+
+    @Test
+    void roundTripsThroughBytes() {
+        SeriesRollup r = SeriesRollup.of(new float[] {4, NaN, -2, 8, 5}).coarsen(2);
+        ByteBuffer buffer = ByteBuffer.allocate(r.size() * SeriesRollup.BYTES_PER_BUCKET);
+        r.writeTo(buffer);
+        buffer.flip();
+        SeriesRollup back = SeriesRollup.readFrom(buffer, r.bucketSize, r.size());
+        assertArrayEquals(r.min, back.min);
+        assertArrayEquals(r.max, back.max);
+        assertArrayEquals(r.avg, back.avg);
+        assertArrayEquals(r.count, back.count);
+        assertEquals(0, buffer.remaining());
+    }
+
+    @Test
+    void lttbKeepsEverythingWhenThereIsRoom() {
+        float[] x = {0, 1, 2, 3};
+        float[] y = {5, 1, 4, 2};
+        assertArrayEquals(new int[] {0, 1, 2, 3}, SeriesRollup.lttb(x, y, 4));
+        assertArrayEquals(new int[] {0, 1, 2, 3}, SeriesRollup.lttb(x, y, 100));
+        assertArrayEquals(new int[0], SeriesRollup.lttb(new float[0], new float[0], 2));
+    }
+
+    @Test
+    void lttbBelowThreeKeepsOnlyTheEnds() {
+        float[] x = {0, 1, 2, 3, 4};
+        float[] y = {0, 9, 0, 9, 0};
+        assertArrayEquals(new int[] {0, 4}, SeriesRollup.lttb(x, y, 2));
+        assertArrayEquals(new int[] {0, 4}, SeriesRollup.lttb(x, y, 0));
+        assertArrayEquals(new int[] {0}, SeriesRollup.lttb(new float[] {1}, new float[] {1}, 0));
+    }
+
+    @Test
+    void lttbKeepsTheEndsAndTheSpike() {
+        int n = 1000;
+        float[] x = new float[n];
+        float[] y = new float[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = i;
+            y[i] = (float) Math.sin(i / 100.0);
+        }
+        y[437] = 25;
+        int[] chosen = SeriesRollup.lttb(x, y, 50);
+        assertEquals(50, chosen.length);
+        assertEquals(0, chosen[0]);
+        assertEquals(n - 1, chosen[49]);
+        for (int i = 1; i < chosen.length; i++) {
+            assertTrue(chosen[i] > chosen[i - 1], "indexes must increase");
+        }
+        assertTrue(Arrays.stream(chosen).anyMatch(i -> i == 437));
+    }
+}
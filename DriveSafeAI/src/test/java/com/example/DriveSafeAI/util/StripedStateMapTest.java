@@ -0,0 +1,72 @@
+package com.example.DriveSafeAI.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StripedStateMapTest {
+
+    private static final int STRIDE = 3;
+
+    @Test
+    void keepsValuesAndFlagsAcrossGrowth() {
+        StripedStateMap map = new StripedStateMap(4, STRIDE);
+        long before = map.estimatedBytes();
+        int keys = 5_000;
+        for (long key = 1; key <= keys; key++) {
+            StripedStateMap.Stripe s = map.stripe(key * 7919);
+            int slot = s.slot(key * 7919, true);
+            for (int i = 0; i < STRIDE; i++) {
+                s.values[s.base(slot) + i] = key + i;
+            }
+            s.flags[slot] = (int) key;
+        }
+
+        assertEquals(keys, map.size());
+        assertTrue(map.estimatedBytes() > before);
+        for (long key = 1; key <= keys; key++) {
+            StripedStateMap.Stripe s = map.stripe(key * 7919);
+            int slot = s.slot(key * 7919, false);
+            assertTrue(slot >= 0, "lost key " + key);
+            assertEquals(key + 2, s.values[s.base(slot) + 2]);
+            assertEquals((int) key, s.flags[slot]);
+        }
+        assertEquals(-1, map.stripe(3).slot(3, false));
+        assertEquals(keys, map.size());
+    }
+
+    @Test
+    void newSlotsAreZeroedAndFlaggedSlotsAreVisited() {
+        StripedStateMap map = new StripedStateMap(2, STRIDE);
+        assertEquals(2, map.stripeCount());
+        Set<Long> flagged = new HashSet<>();
+        for (long key = 1; key <= 100; key++) {
+            StripedStateMap.Stripe s = map.stripe(key);
+            int slot = s.slot(key, true);
+            assertEquals(0f, s.values[s.base(slot)]);
+            assertEquals(0, s.flags[slot]);
+            if (key % 10 == 0) {
+                s.flags[slot] = 1 << 30;
+                flagged.add(key);
+            }
+        }
+
+        Set<Long> visited = new HashSet<>();
+        for (int i = 0; i < map.stripeCount(); i++) {
+            map.stripeAt(i).forEachFlagged(1 << 30, (key, slot) -> visited.add(key));
+        }
+        assertEquals(flagged, visited);
+    }
+
+    @Test
+    void rejectsNonPositiveKeys() {
+        StripedStateMap map = new StripedStateMap(8, STRIDE);
+        assertThrows(IllegalArgumentException.class, () -> map.stripe(0));
+        assertThrows(IllegalArgumentException.class, () -> map.stripe(-5));
+    }
+}
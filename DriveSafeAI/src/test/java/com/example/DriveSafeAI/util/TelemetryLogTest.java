@@ -0,0 +1,132 @@
+package com.example.DriveSafeAI.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TelemetryLogTest {
+
+    // Room for four 17-byte records per segment
+    private static final int SEGMENT_BYTES = 4 * (9 + 17);
+    private static final long DAY = 24 * 3600_000L;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void readsBackAppendedRecordsInOrder() throws IOException {
+        try (TelemetryLog log = new TelemetryLog(dir, SEGMENT_BYTES, TelemetryLog.FsyncPolicy.NONE)) {
+            long first = log.append((byte) 1, record(0));
+            long second = log.append((byte) 2, record(1));
+
+            List<TelemetryLog.Entry> entries = log.read(0, 10);
+            assertEquals(2, entries.size());
+            assertEquals(first, entries.get(0).getOffset());
+            assertEquals(second, entries.get(0).getNextOffset());
+            assertEquals(2, entries.get(1).getType());
+            assertEquals("record-0000000001", new String(entries.get(1).getPayload(), StandardCharsets.UTF_8));
+            assertEquals(log.getEndOffset(), entries.get(1).getNextOffset());
+            assertTrue(log.read(log.getEndOffset(), 10).isEmpty());
+        }
+    }
+
+    @Test
+    void readsAcrossSegmentRolls() throws IOException {
+        try (TelemetryLog log = new TelemetryLog(dir, SEGMENT_BYTES, TelemetryLog.FsyncPolicy.NONE)) {
+            for (int i = 0; i < 10; i++) {
+                log.append((byte) 1, record(i));
+            }
+            assertEquals(3, log.getSegmentCount());
+            List<TelemetryLog.Entry> entries = log.read(0, 100);
+            assertEquals(10, entries.size());
+            for (int i = 1; i < entries.size(); i++) {
+                assertEquals(entries.get(i - 1).getNextOffset(), entries.get(i).getOffset());
+            }
+        }
+    }
+
+    @Test
+    void reopenedLogKeepsRecordsAndCommittedOffsets() throws IOException {
+        long committed;
+        long end;
+        try (TelemetryLog log = new TelemetryLog(dir, SEGMENT_BYTES, TelemetryLog.FsyncPolicy.ALWAYS)) {
+            for (int i = 0; i < 6; i++) {
+                log.append((byte) 1, record(i));
+            }
+            committed = log.read(0, 3).get(2).getNextOffset();
+            log.commit("reader", committed);
+            end = log.getEndOffset();
+        }
+
+        try (TelemetryLog log = new TelemetryLog(dir, SEGMENT_BYTES, TelemetryLog.FsyncPolicy.ALWAYS)) {
+            assertEquals(end, log.getEndOffset());
+            assertEquals(committed, log.committedOffset("reader"));
+            assertEquals(0, log.committedOffset("new-reader"));
+            List<TelemetryLog.Entry> replay = log.read(log.committedOffset("reader"), 100);
+            assertEquals(3, replay.size());
+            assertEquals("record-0000000003", new String(replay.get(0).getPayload(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void retentionStopsAtTheSlowestConsumer() throws IOException {
+        try (TelemetryLog log = new TelemetryLog(dir, SEGMENT_BYTES, TelemetryLog.FsyncPolicy.NONE)) {
+            for (int i = 0; i < 13; i++) {
+                log.append((byte) 1, record(i));
+            }
+            assertEquals(4, log.getSegmentCount());
+            // Nobody has read anything yet
+            assertEquals(0, log.applyRetention(DAY));
+
+            // Fast is done, slow is in the middle of the second segment
+            long slow = log.read(0, 6).get(5).getOffset();
+            log.commit("fast", log.getEndOffset());
+            log.commit("slow", slow);
+            assertEquals(1, log.applyRetention(DAY));
+            assertEquals("slow", log.getSlowestConsumer());
+            assertTrue(log.getStartOffset() <= slow);
+            assertEquals(8, log.read(slow, 100).size());
+            assertTrue(log.getOldestUnreadAgeMillis() >= 0);
+
+            // The active segment is kept even when everything is read
+            log.commit("slow", log.getEndOffset());
+            assertEquals(2, log.applyRetention(DAY));
+            assertEquals(1, log.getSegmentCount());
+            assertEquals(0, log.getOldestUnreadAgeMillis());
+        }
+    }
+
+    @Test
+    void expiredSegmentsAreDroppedEvenIfAConsumerIsStuck() throws IOException {
+        try (TelemetryLog log = new TelemetryLog(dir, SEGMENT_BYTES, TelemetryLog.FsyncPolicy.NONE)) {
+            for (int i = 0; i < 13; i++) {
+                log.append((byte) 1, record(i));
+            }
+            log.commit("stuck", 0);
+            log.commit("live", log.getEndOffset());
+            assertEquals(0, log.applyRetention(DAY));
+            assertTrue(log.getLaggingConsumers().isEmpty());
+
+            // Every closed segment is past a zero retention; the active one stays
+            assertEquals(3, log.applyRetention(0));
+            assertEquals(1, log.getSegmentCount());
+            assertEquals(List.of("stuck"), log.getLaggingConsumers());
+            // The stuck consumer reads on from the new start and catches up
+            List<TelemetryLog.Entry> rest = log.read(log.committedOffset("stuck"), 100);
+            assertEquals(1, rest.size());
+            log.commit("stuck", rest.get(0).getNextOffset());
+            assertTrue(log.getLaggingConsumers().isEmpty());
+        }
+    }
+
+    private static byte[] record(int i) {
+        return String.format("record-%010d", i).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.DriveSafeAI.util;
+
+import com.example.DriveSafeAI.entity.VehicleHealthAlertType;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VehicleHealthDetectorTest {
+
+    private static final int OVERHEATING = 1 << VehicleHealthAlertType.OVERHEATING.ordinal();
+
+    private final VehicleHealthDetector detector = new VehicleHealthDetector(rules());
+    private final float[] values = new float[VehicleHealthDetector.STRIDE];
+    private final int[] flags = new int[1];
+
+    @Test
+    void singleSpikeDoesNotAlertButSustainedDriftDoes() {
+        warmUp();
+        // One far-off sample decays away instead of raising
+        assertEquals(0, temperature(98));
+        for (int i = 0; i < 20; i++) {
+            assertEquals(0, temperature(90));
+        }
+        assertEquals(0, flags[0] & OVERHEATING);
+
+        // Two standard deviations above the baseline adds up to the limit within a few samples
+        int fired = 0;
+        int samples = 0;
+        while (fired == 0 && samples < 20) {
+            fired = temperature(94);
+            samples++;
+        }
+        assertEquals(OVERHEATING, fired);
+        assertTrue(samples > 1, "a single drifting sample must not be enough");
+        // Raised once, not on every sample while active
+        assertEquals(0, temperature(94));
+        assertTrue((flags[0] & OVERHEATING) != 0);
+    }
+
+    @Test
+    void activeAlertClearsOnceTheSignalIsNormalAndDoesNotMoveTheBaseline() {
+        warmUp();
+        int raisedAfter = 1;
+        while (temperature(96) == 0) {
+            raisedAfter++;
+        }
+        assertEquals(2, raisedAfter);
+        for (int i = 0; i < 50; i++) {
+            temperature(96);
+        }
+        assertEquals(90f, VehicleHealthDetector.baseline(values, 0, VehicleHealthDetector.TEMPERATURE), 0.5f);
+
+        int samples = 0;
+        while ((flags[0] & OVERHEATING) != 0 && samples < 100) {
+            temperature(90);
+            samples++;
+        }
+        assertEquals(0, flags[0] & OVERHEATING);
+        assertTrue(samples < 100);
+    }
+
+    @Test
+    void absoluteLimitAlertsWhileWarmingUp() {
+        assertEquals(OVERHEATING, temperature(120));
+        assertEquals(1, VehicleHealthDetector.samples(values, 0, VehicleHealthDetector.TEMPERATURE));
+        assertTrue((flags[0] & VehicleHealthDetector.DIRTY) != 0);
+    }
+
+    private void warmUp() {
+        for (int i = 0; i < 100; i++) {
+            temperature(i % 2 == 0 ? 89 : 91);
+        }
+        assertEquals(100, VehicleHealthDetector.samples(values, 0, VehicleHealthDetector.TEMPERATURE));
+    }
+
+    private int temperature(float celsius) {
+        return detector.update(values, 0, flags, 0, celsius, Float.NaN, Float.NaN, Float.NaN);
+    }
+
+    private static VehicleHealthDetector.Rules rules() {
+        VehicleHealthDetector.Rules rules = new VehicleHealthDetector.Rules();
+        rules.warmupSamples = 100;
+        rules.cusumSlack = 0.5f;
+        rules.cusumLimit = 4f;
+        return rules;
+    }
+}